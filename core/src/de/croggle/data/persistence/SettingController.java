@@ -1,9 +1,7 @@
 package de.croggle.data.persistence;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import de.croggle.Croggle;
+import de.croggle.util.ListenerRegistry;
 
 /**
  * Controller which handles the different settings currently applied.
@@ -20,7 +18,7 @@ public class SettingController {
 	 */
 	private Croggle game;
 	
-	private List<SettingChangeListener> listeners = new ArrayList<SettingChangeListener>();
+	private final ListenerRegistry<SettingChangeListener> listeners = new ListenerRegistry<SettingChangeListener>();
 
 	/**
 	 * Creates a new SettingController. On initialization the active setting is
@@ -81,17 +79,29 @@ public class SettingController {
 	 * @param listener the listener that receives the updated setting 
 	 */
 	public void addSettingChangeListener(SettingChangeListener listener) {
-		if (listener == null) {
-			throw new IllegalArgumentException("Listener must not be null");
-		}
 		listeners.add(listener);
 	}
-	
+
+	/**
+	 * Remove a listener, so that it does not receive further setting changes.
+	 * Listeners may remove themselves while they are notified.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeSettingChangeListener(SettingChangeListener listener) {
+		listeners.remove(listener);
+	}
+
 	private void updateListeners() {
-		for (SettingChangeListener listener : listeners) {
-			listener.onSettingChange(currentSetting);
-		}
-		
+		final Setting setting = currentSetting;
+		listeners
+				.publish(new ListenerRegistry.Notification<SettingChangeListener>() {
+					@Override
+					public void notify(SettingChangeListener listener) {
+						listener.onSettingChange(setting);
+					}
+				});
 	}
 
 }
@@ -1,7 +1,13 @@
 package de.croggle.game;
 
+import com.badlogic.gdx.utils.IntMap;
+
 /**
  * A color represents a variable name.
+ * 
+ * There is only a single instance of every color, which is obtained using
+ * {@link #of(int)}, so that colors can be compared by identity and using them
+ * does not allocate anything.
  */
 public class Color implements Comparable<Color> {
 	public static final int MAX_COLORS = 30;
@@ -21,33 +27,65 @@ public class Color implements Comparable<Color> {
 			"#2FE2BE", "#033665", "#084F0E", "#A4A4F8", "#E2339D", "#F4AB13",
 			"#0F90C0", "#D37EFC", "#DDC84E", "#940B66" };
 	private static final com.badlogic.gdx.graphics.Color[] representations;
+	/*
+	 * The single instances of all colors, indexed by their ids, and the
+	 * colors represented by every libgdx color, keyed by its packed bits.
+	 */
+	private static final Color[] instances;
+	private static final IntMap<Color> associatedColors;
 	static {
 		// assert (MAX_COLORS == colorStrings.length); // done by ColorTest unit
 		// test
 		representations = new com.badlogic.gdx.graphics.Color[MAX_COLORS];
+		instances = new Color[MAX_COLORS];
+		associatedColors = new IntMap<Color>(MAX_COLORS);
 		for (int i = 0; i < colorStrings.length; i++) {
 			representations[i] = de.croggle.util.convert.ColorConvert
 					.fromHexString(colorStrings[i]);
+			instances[i] = new Color(i);
+			associatedColors.put(representations[i].toIntBits(), instances[i]);
 		}
 	}
 
 	private final int id;
 
+	private Color(int id) {
+		this.id = id;
+	}
+
 	/**
-	 * Creates a color with the given id. The id needs to be between 0 and 29
+	 * Returns the color with the given id. The id needs to be between 0 and 29
 	 * and represents a certain "real" color according to the ColorController.
 	 * 
 	 * @param id
 	 *            the identifying color id
+	 * @return the single instance of the color with the given id
 	 * @throws IllegalArgumentException
 	 *             when the id is not a number between 0 and 29
 	 */
-	public Color(int id) {
+	public static Color of(int id) {
 		if (id < 0) {
 			throw new IllegalArgumentException(
 					"Cannot inintialize Color with negative id");
 		}
-		this.id = id;
+		if (id >= MAX_COLORS) {
+			throw new IllegalArgumentException("Cannot initialize Color with id "
+					+ id + ", there are only " + MAX_COLORS + " colors");
+		}
+		return instances[id];
+	}
+
+	/**
+	 * Returns the color represented by the given libgdx color.
+	 * 
+	 * @param representation
+	 *            the libgdx color to look up
+	 * @return the color represented by the given libgdx color, or null if
+	 *         there is none
+	 */
+	public static Color forRepresentation(
+			com.badlogic.gdx.graphics.Color representation) {
+		return associatedColors.get(representation.toIntBits());
 	}
 
 	/**
@@ -78,20 +116,13 @@ public class Color implements Comparable<Color> {
 		return representations[c.id];
 	}
 
+	/**
+	 * Compares this color with another object. As there is only a single
+	 * instance of every color, this is an identity comparison.
+	 */
 	@Override
 	public boolean equals(Object o) {
-		if (o == null) {
-			return false;
-		}
-		if (o == this) {
-			return true;
-		}
-		if (o.getClass() != Color.class) {
-			return false;
-		}
-
-		Color oColor = (Color) o;
-		return oColor.id == id;
+		return o == this;
 	}
 
 	@Override
@@ -120,11 +151,6 @@ public class Color implements Comparable<Color> {
 			return -1;
 		}
 
-		@Override
-		public boolean equals(Object o) {
-			return o == this;
-		}
-
 		@Override
 		public int hashCode() {
 			int hash = 5;
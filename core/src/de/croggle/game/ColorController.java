@@ -57,21 +57,7 @@ public class ColorController {
 	 */
 	public de.croggle.game.Color getAssociatedColor(
 			com.badlogic.gdx.graphics.Color color) {
-		// for (Entry<de.croggle.game.Color, com.badlogic.gdx.graphics.Color>
-		// entry : lookup
-		// .entrySet()) {
-		// if (color.equals(entry.getValue())) {
-		// return entry.getKey();
-		// }
-		// }
-		com.badlogic.gdx.graphics.Color[] colors = de.croggle.game.Color
-				.getRepresentations();
-		for (int i = 0; i < colors.length; i++) {
-			if (colors[i].equals(color)) {
-				return new de.croggle.game.Color(i);
-			}
-		}
-		return null;
+		return de.croggle.game.Color.forRepresentation(color);
 	}
 
 	public de.croggle.game.Color getUncolored() {
@@ -98,7 +84,7 @@ public class ColorController {
 		// this.lookup.put(c,
 		// de.croggle.util.convert.Color.fromHexString(colors[c.getId()]));
 		// return c;
-		return new de.croggle.game.Color(0);
+		return de.croggle.game.Color.of(0);
 	}
 
 	/**
@@ -114,26 +100,29 @@ public class ColorController {
 	 */
 	public de.croggle.game.Color requestColor(de.croggle.game.Color[] usedColors)
 			throws ColorOverflowException {
-		if (usedColors.length >= de.croggle.game.Color.MAX_COLORS) {
+		return requestColor(new ColorSet(usedColors));
+	}
+
+	/**
+	 * Returns a color which is not contained in <code>usedColors</code> to be
+	 * used by the simulator on a board for recoloring. The color with the
+	 * smallest id not yet in use is chosen.
+	 * 
+	 * @param usedColors
+	 *            the set of colors which are already used
+	 * @return a color to be used on the board
+	 * @throws ColorOverflowException
+	 *             if there is no color available
+	 */
+	public de.croggle.game.Color requestColor(ColorSet usedColors)
+			throws ColorOverflowException {
+		final int id = usedColors.firstFreeId();
+		if (id < 0) {
 			throw new ColorOverflowException(
 					"Exceeded maximum number of colors: "
 							+ de.croggle.game.Color.MAX_COLORS);
 		}
-		java.util.Arrays.sort(usedColors);
-		int i;
-		for (i = 0; i < usedColors.length; i++) {
-			if (usedColors[i].getId() != i) {
-				break;
-			}
-		}
-
-		de.croggle.game.Color c = new de.croggle.game.Color(i);
-		// if (this.lookup.size() <= i) {
-		// this.lookup.put(c,
-		// de.croggle.util.convert.Color.fromHexString(colors[i]));
-		// }
-
-		return c;
+		return de.croggle.game.Color.of(id);
 	}
 
 	/**
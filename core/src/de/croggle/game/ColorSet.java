@@ -0,0 +1,256 @@
+package de.croggle.game;
+
+/**
+ * A set of colors, stored as a bit mask. As there are at most
+ * {@link Color#MAX_COLORS} colors, every color is represented by a single bit,
+ * and an additional bit represents the {@link Color#uncolored() uncolored}
+ * color. This makes adding, removing, joining and intersecting color sets
+ * constant time operations which do not allocate any memory, which is why
+ * color sets should be preferred over collections of colors when recoloring.
+ */
+public final class ColorSet {
+	private static final int UNCOLORED_BIT = 1 << Color.MAX_COLORS;
+	private static final int ALL_COLORS = UNCOLORED_BIT - 1;
+
+	private int mask;
+
+	/**
+	 * Creates an empty color set.
+	 */
+	public ColorSet() {
+		mask = 0;
+	}
+
+	/**
+	 * Creates a color set containing the same colors as the given one.
+	 *
+	 * @param other
+	 *            the color set to copy
+	 */
+	public ColorSet(ColorSet other) {
+		mask = other.mask;
+	}
+
+	/**
+	 * Creates a color set containing all the given colors.
+	 *
+	 * @param colors
+	 *            the colors to add to the set
+	 * @throws IllegalArgumentException
+	 *             if one of the colors has an id of {@link Color#MAX_COLORS} or
+	 *             above
+	 */
+	public ColorSet(Color[] colors) {
+		this();
+		for (Color color : colors) {
+			add(color);
+		}
+	}
+
+	/**
+	 * Adds the given color to this set.
+	 *
+	 * @param color
+	 *            the color to add
+	 * @return true if the color was not in the set before, false otherwise
+	 * @throws IllegalArgumentException
+	 *             if the color has an id of {@link Color#MAX_COLORS} or above
+	 */
+	public boolean add(Color color) {
+		final int bit = bitOf(color);
+		final boolean added = (mask & bit) == 0;
+		mask |= bit;
+		return added;
+	}
+
+	/**
+	 * Removes the given color from this set.
+	 *
+	 * @param color
+	 *            the color to remove
+	 * @return true if the color was in the set before, false otherwise
+	 */
+	public boolean remove(Color color) {
+		final int bit = bitOf(color);
+		final boolean removed = (mask & bit) != 0;
+		mask &= ~bit;
+		return removed;
+	}
+
+	/**
+	 * Returns whether the given color is contained in this set.
+	 *
+	 * @param color
+	 *            the color to look for
+	 * @return true if the color is in the set, false otherwise
+	 */
+	public boolean contains(Color color) {
+		return (mask & bitOf(color)) != 0;
+	}
+
+	/**
+	 * Adds all colors of the given set to this set.
+	 *
+	 * @param other
+	 *            the colors to add
+	 */
+	public void addAll(ColorSet other) {
+		mask |= other.mask;
+	}
+
+	/**
+	 * Removes all colors from this set, which are not contained in the given
+	 * set.
+	 *
+	 * @param other
+	 *            the colors to retain
+	 */
+	public void retainAll(ColorSet other) {
+		mask &= other.mask;
+	}
+
+	/**
+	 * Removes all colors of the given set from this set.
+	 *
+	 * @param other
+	 *            the colors to remove
+	 */
+	public void removeAll(ColorSet other) {
+		mask &= ~other.mask;
+	}
+
+	/**
+	 * Replaces the content of this set with the colors of the given set.
+	 *
+	 * @param other
+	 *            the colors this set should contain
+	 */
+	public void set(ColorSet other) {
+		mask = other.mask;
+	}
+
+	/**
+	 * Removes all colors from this set.
+	 */
+	public void clear() {
+		mask = 0;
+	}
+
+	/**
+	 * Returns whether this set contains no colors.
+	 *
+	 * @return true if the set is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return mask == 0;
+	}
+
+	/**
+	 * Returns the number of colors in this set.
+	 *
+	 * @return the number of colors in this set
+	 */
+	public int size() {
+		return Integer.bitCount(mask);
+	}
+
+	/**
+	 * Returns the id of the first color in this set, whose id is greater than
+	 * or equal to <code>fromId</code>. The uncolored color is never returned.
+	 * A loop over all colors of a set can therefore be written as
+	 * <code>for (int id = set.nextId(0); id >= 0; id = set.nextId(id + 1))</code>
+	 * .
+	 *
+	 * @param fromId
+	 *            the smallest id to return
+	 * @return the id of the next color in this set, or -1 if there is none
+	 */
+	public int nextId(int fromId) {
+		if (fromId >= Color.MAX_COLORS) {
+			return -1;
+		}
+		final int remaining = mask & ALL_COLORS & (-1 << fromId);
+		if (remaining == 0) {
+			return -1;
+		}
+		return Integer.numberOfTrailingZeros(remaining);
+	}
+
+	/**
+	 * Returns the smallest color id which is not contained in this set.
+	 *
+	 * @return the first free color id, or -1 if all colors are in the set
+	 */
+	public int firstFreeId() {
+		final int free = ~mask & ALL_COLORS;
+		if (free == 0) {
+			return -1;
+		}
+		return Integer.numberOfTrailingZeros(free);
+	}
+
+	/**
+	 * Returns the colors of this set as an array, sorted by their ids. The
+	 * uncolored color, if contained, is placed at the end.
+	 *
+	 * @return a newly allocated array of the colors in this set
+	 */
+	public Color[] toArray() {
+		final Color[] colors = new Color[size()];
+		int i = 0;
+		for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+			colors[i++] = Color.of(id);
+		}
+		if ((mask & UNCOLORED_BIT) != 0) {
+			colors[i] = Color.uncolored();
+		}
+		return colors;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof ColorSet)) {
+			return false;
+		}
+		return ((ColorSet) o).mask == mask;
+	}
+
+	@Override
+	public int hashCode() {
+		return mask;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("{");
+		for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(id);
+		}
+		if ((mask & UNCOLORED_BIT) != 0) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append("uncolored");
+		}
+		return builder.append('}').toString();
+	}
+
+	private static int bitOf(Color color) {
+		if (color == Color.uncolored()) {
+			return UNCOLORED_BIT;
+		}
+		final int id = color.getId();
+		if (id >= Color.MAX_COLORS) {
+			throw new IllegalArgumentException("Color id " + id
+					+ " exceeds the maximum number of colors: "
+					+ Color.MAX_COLORS);
+		}
+		return 1 << id;
+	}
+}
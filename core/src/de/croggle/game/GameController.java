@@ -312,6 +312,19 @@ public class GameController implements BoardEventListener {
 	public void onAge(ColoredAlligator colored, AgedAlligator aged) {
 	}
 
+	/**
+	 * Checks whether the simulation has reached a board it has already shown
+	 * before without solving the level, so that it would go on forever. Levels
+	 * which are solved by surviving a number of steps are not affected.
+	 * 
+	 * @return true if the simulation cannot solve the level anymore because of
+	 *         a cycle
+	 */
+	private boolean isRunningInCycle() {
+		return simulator.getCyclePeriod() != 0
+				&& level.getAbortSimulationAfter() <= 0;
+	}
+
 	public void evaluateStep() throws ColorOverflowException,
 			AlligatorOverflowException {
 		if (simulationPaused) {
@@ -330,7 +343,8 @@ public class GameController implements BoardEventListener {
 				}
 			}, 2.0f);
 
-		} else if (!evaluated || !level.isSolveable(simulator.getSteps())) {
+		} else if (!evaluated || !level.isSolveable(simulator.getSteps())
+				|| isRunningInCycle()) {
 			Timer timer = new Timer();
 			simulationPaused = true;
 			timer.scheduleTask(new Task() {
@@ -0,0 +1,124 @@
+package de.croggle.game;
+
+import de.croggle.game.board.Board;
+
+/**
+ * The outcome of evaluating a board with {@link Simulator#normalize(int)}.
+ */
+public class NormalizationResult {
+
+	/**
+	 * The reasons for which the evaluation of a board can stop.
+	 */
+	public static enum Termination {
+		/**
+		 * No alligator can eat anymore, i.e. the board is in normal form.
+		 */
+		NORMAL_FORM,
+		/**
+		 * The maximum number of steps has been performed.
+		 */
+		STEP_LIMIT,
+		/**
+		 * Recoloring was necessary, but there was no color available.
+		 */
+		COLOR_OVERFLOW,
+		/**
+		 * The board would have contained too many objects.
+		 */
+		ALLIGATOR_OVERFLOW,
+		/**
+		 * The board has reached a state it has already been in, so that the
+		 * evaluation would never end.
+		 */
+		CYCLE
+	}
+
+	private final Board board;
+	private final int steps;
+	private final Termination termination;
+	private final int cyclePeriod;
+
+	/**
+	 * Creates a new result.
+	 *
+	 * @param board
+	 *            the board after the evaluation
+	 * @param steps
+	 *            the number of steps which have been performed
+	 * @param termination
+	 *            the reason for which the evaluation stopped
+	 */
+	public NormalizationResult(Board board, int steps, Termination termination) {
+		this(board, steps, termination, 0);
+	}
+
+	/**
+	 * Creates a new result.
+	 *
+	 * @param board
+	 *            the board after the evaluation
+	 * @param steps
+	 *            the number of steps which have been performed
+	 * @param termination
+	 *            the reason for which the evaluation stopped
+	 * @param cyclePeriod
+	 *            the number of steps after which the board repeats, if the
+	 *            evaluation stopped because of a cycle, 0 otherwise
+	 */
+	public NormalizationResult(Board board, int steps, Termination termination,
+			int cyclePeriod) {
+		this.board = board;
+		this.steps = steps;
+		this.termination = termination;
+		this.cyclePeriod = cyclePeriod;
+	}
+
+	/**
+	 * Returns the board after the evaluation. If the evaluation stopped
+	 * because of an overflow, the board is left in the state it had when the
+	 * overflow was detected.
+	 *
+	 * @return the evaluated board
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
+	/**
+	 * Returns the number of evaluation steps which have been performed.
+	 *
+	 * @return the number of steps
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns the reason for which the evaluation stopped.
+	 *
+	 * @return the termination reason
+	 */
+	public Termination getTermination() {
+		return termination;
+	}
+
+	/**
+	 * Returns the number of steps after which the board repeats, if the
+	 * evaluation stopped because of a {@link Termination#CYCLE cycle}.
+	 *
+	 * @return the period of the cycle, or 0 if there is none
+	 */
+	public int getCyclePeriod() {
+		return cyclePeriod;
+	}
+
+	/**
+	 * Returns whether the evaluated board is in normal form.
+	 *
+	 * @return true if the evaluation reached the normal form, false otherwise
+	 */
+	public boolean isNormalForm() {
+		return termination == Termination.NORMAL_FORM;
+	}
+}
@@ -6,11 +6,13 @@ import de.croggle.Croggle;
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.AlligatorOverflowException;
 import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardDelta;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.IllegalBoardException;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.CountBoardObjects;
+import de.croggle.game.board.operations.CountMatchingEggs;
 import de.croggle.game.board.operations.FindEating;
 import de.croggle.game.board.operations.RemoveLonelyAgedAlligators;
 import de.croggle.game.board.operations.RemoveNeedlessAgedAlligators;
@@ -19,21 +21,47 @@ import de.croggle.game.board.operations.validation.BoardError;
 import de.croggle.game.board.operations.validation.BoardErrorType;
 import de.croggle.game.board.operations.validation.FindBoardErrors;
 import de.croggle.game.event.BoardEventMessenger;
+import de.croggle.util.LongPairTable;
 import de.croggle.util.RingBuffer;
 
 /**
  * The Simulator is the instance which evaluates the Board given to it. It can
  * also undo steps done in the evaluation process.
+ * 
+ * A fingerprint of every board state reached is remembered, which is the same
+ * for boards that only differ by renaming bound colors. As soon as a state is
+ * reached a second time, the evaluation is known to run in a cycle, which can
+ * be queried using {@link #getCyclePeriod()}. Only the fingerprints are kept,
+ * never the states themselves, so that the evaluation can run for many steps
+ * without keeping copies of its boards. To make different states sharing a
+ * fingerprint practically impossible, every fingerprint is paired with the
+ * {@link Board#getWideAlphaHash() wide alpha hash} of the state.
  */
 public class Simulator {
 	private final Board entranceBoard;
 	private Board currentBoard;
-	private final RingBuffer<Board> history; // 30 elements needed.
+	private final RingBuffer<BoardDelta> history; // 30 elements needed.
+	/**
+	 * Whether deltas have been dropped from the history because it was full,
+	 * so that the entrance board can no longer be restored by reverting them.
+	 */
+	private boolean historyTruncated;
 	private final ColorController colorController;
 	private final BoardEventMessenger boardMessenger;
 	private int steps;
+	/**
+	 * The fingerprints of the board states reached so far, mapped to the number
+	 * of steps after which they have been reached first.
+	 */
+	private final LongPairTable visitedStates;
+	private int cyclePeriod;
+	private int cycleDetectedAt;
 
-	private static final int MAX_ALLIGATORS = 300;
+	/**
+	 * The maximum number of objects, including the board itself, which may be
+	 * on a board after an evaluation step.
+	 */
+	public static final int MAX_ALLIGATORS = 300;
 
 	/**
 	 * Creates a new Simulator.
@@ -50,12 +78,16 @@ public class Simulator {
 	 */
 	public Simulator(Board entranceBoard, ColorController colorController,
 			BoardEventMessenger boardMessenger) throws IllegalBoardException {
-		history = new RingBuffer<Board>(30);
+		history = new RingBuffer<BoardDelta>(30);
+		historyTruncated = false;
 		this.entranceBoard = entranceBoard;
 		currentBoard = entranceBoard.copy();
 		this.colorController = colorController;
 		this.boardMessenger = boardMessenger;
 		steps = 0;
+		visitedStates = new LongPairTable();
+		cyclePeriod = 0;
+		cycleDetectedAt = 0;
 
 		final List<BoardError> errors = FindBoardErrors.find(entranceBoard,
 				new BoardErrorType[] {
@@ -65,6 +97,7 @@ public class Simulator {
 		if (!errors.isEmpty() && !Croggle.DEBUG) {
 			throw new IllegalBoardException();
 		}
+		visitState();
 	}
 
 	/**
@@ -83,42 +116,98 @@ public class Simulator {
 		if (eater == null) {
 			return false;
 		}
-		final Board oldBoard = currentBoard.copy();
-		history.push(oldBoard);
+		predictAlligatorOverflow(eater);
 
-		final Parent parent = eater.getParent();
-		final InternalBoardObject eaten = parent.getChildAfter(eater);
-		parent.removeChild(eaten);
+		final BoardDelta delta = new BoardDelta();
+		if (history.isFull()) {
+			historyTruncated = true;
+		}
+		history.push(delta);
+		currentBoard.startRecording(delta);
 		if (boardMessenger != null) {
-			boardMessenger.notifyEat(eater, eaten,
-					parent.getChildPosition(eaten));
+			// listeners receive the events of the step all at once
+			boardMessenger.beginStep();
 		}
-
-		final AgedAlligator constellation = replaceColoredWithAgedAlligator(eater);
-		ReplaceEggs.replace(constellation, eater.getColor(), eaten,
-				boardMessenger, colorController);
-
-		RemoveLonelyAgedAlligators.remove(currentBoard, boardMessenger);
-		RemoveNeedlessAgedAlligators.remove(currentBoard, boardMessenger);
-		if (MAX_ALLIGATORS < CountBoardObjects.count(currentBoard)) {
-			throw new AlligatorOverflowException();
+		try {
+			applyStep(eater, boardMessenger);
+		} finally {
+			currentBoard.stopRecording();
+			if (boardMessenger != null) {
+				boardMessenger.endStep();
+			}
 		}
 		steps++;
+		visitState();
 		return true;
 	}
 
+	/**
+	 * Evaluates the current board until it is in normal form or the given
+	 * number of steps has been performed. Unlike {@link #evaluate()}, no
+	 * history is recorded and no events are sent, which makes this the method
+	 * of choice for evaluating boards without showing them to the user.
+	 * 
+	 * As the steps cannot be undone, the history of this simulator is cleared.
+	 * {@link #reset()} still returns to the entrance board. The evaluation
+	 * stops early if the board runs in a cycle.
+	 * 
+	 * @param maxSteps
+	 *            the maximum number of steps to perform
+	 * @return the result of the evaluation, containing the current board, the
+	 *         number of steps performed and the reason for stopping
+	 */
+	public NormalizationResult normalize(int maxSteps) {
+		if (history.size() != 0) {
+			history.clear();
+			historyTruncated = true;
+		}
+		int performed = 0;
+		while (true) {
+			final ColoredAlligator eater = FindEating.findEater(currentBoard);
+			if (eater == null) {
+				return new NormalizationResult(currentBoard, performed,
+						NormalizationResult.Termination.NORMAL_FORM);
+			}
+			if (cyclePeriod != 0) {
+				return new NormalizationResult(currentBoard, performed,
+						NormalizationResult.Termination.CYCLE, cyclePeriod);
+			}
+			if (performed >= maxSteps) {
+				return new NormalizationResult(currentBoard, performed,
+						NormalizationResult.Termination.STEP_LIMIT);
+			}
+			try {
+				predictAlligatorOverflow(eater);
+				historyTruncated = true;
+				applyStep(eater, null);
+			} catch (ColorOverflowException e) {
+				return new NormalizationResult(currentBoard, performed,
+						NormalizationResult.Termination.COLOR_OVERFLOW);
+			} catch (AlligatorOverflowException e) {
+				return new NormalizationResult(currentBoard, performed,
+						NormalizationResult.Termination.ALLIGATOR_OVERFLOW);
+			}
+			performed++;
+			steps++;
+			visitState();
+		}
+	}
+
 	public boolean canUndo() {
 		return history.size() != 0;
 	}
 
 	/**
-	 * Reverses the last evaluation step.
+	 * Reverses the last evaluation step. The current board is restored in place
+	 * by reverting the changes recorded during that step.
 	 * 
 	 * @return the board, in its status before the last evaluation step
 	 */
 	public Board undo() {
 		try {
-			currentBoard = history.pop();
+			final BoardDelta delta = history.pop();
+			forgetState();
+			delta.revert();
 			if (boardMessenger != null) {
 				boardMessenger.notifyBoardRebuilt(currentBoard);
 			}
@@ -131,21 +220,100 @@ public class Simulator {
 
 	/**
 	 * Reverses the board into the position it had upon entering simulation
-	 * mode.
+	 * mode. As long as the history still holds all steps, this is done by
+	 * reverting them; otherwise the entrance board is copied again.
 	 * 
 	 * @return the board in said state
 	 */
 	public Board reset() {
-		currentBoard = entranceBoard.copy();
+		if (historyTruncated) {
+			currentBoard = entranceBoard.copy();
+		} else {
+			while (history.size() != 0) {
+				try {
+					history.pop().revert();
+				} catch (Exception e) {
+					// cannot happen, as the history is not empty
+				}
+			}
+		}
+		history.clear();
+		historyTruncated = false;
 		steps = 0;
+		visitedStates.clear();
+		cyclePeriod = 0;
+		visitState();
 		if (boardMessenger != null) {
 			boardMessenger.notifyBoardRebuilt(currentBoard);
 		}
 		return currentBoard;
 	}
 
+	/**
+	 * Lets the given colored alligator eat the family next to it, hatches the
+	 * matching eggs and removes aged alligators which are no longer needed.
+	 * 
+	 * @param eater
+	 *            the colored alligator which eats
+	 * @param messenger
+	 *            the messenger used for sending events, or null if no events
+	 *            should be sent
+	 * @throws ColorOverflowException
+	 *             if recoloring occurs and there is no color available
+	 * @throws AlligatorOverflowException
+	 *             if there are more than the max. allowed amount of
+	 *             BoardObjects on the board after the evaluation step
+	 */
+	private void applyStep(ColoredAlligator eater, BoardEventMessenger messenger)
+			throws ColorOverflowException, AlligatorOverflowException {
+		final Parent parent = eater.getParent();
+		final InternalBoardObject eaten = parent.getChildAfter(eater);
+		parent.removeChild(eaten);
+		if (messenger != null) {
+			messenger.notifyEat(eater, eaten, parent.getChildPosition(eaten));
+		}
+
+		final AgedAlligator constellation = replaceColoredWithAgedAlligator(
+				eater, messenger);
+		ReplaceEggs.replace(constellation, eater.getColor(), eaten, messenger,
+				colorController);
+
+		RemoveLonelyAgedAlligators.remove(currentBoard, messenger);
+		RemoveNeedlessAgedAlligators.remove(currentBoard, messenger);
+		if (MAX_ALLIGATORS < CountBoardObjects.count(currentBoard)) {
+			throw new AlligatorOverflowException();
+		}
+	}
+
+	/**
+	 * Rejects an evaluation step before anything is changed, if the board is
+	 * certain to hold too many objects after it. Aged alligators may be removed
+	 * at the end of a step, so only the board, eggs and colored alligators are
+	 * predicted. Their number after the step is known exactly: the eater ages,
+	 * the eaten family disappears and every hatching egg is replaced by a copy
+	 * of it.
+	 * 
+	 * @param eater
+	 *            the colored alligator which is about to eat
+	 * @throws AlligatorOverflowException
+	 *             if the step would exceed the maximum number of objects
+	 */
+	private void predictAlligatorOverflow(ColoredAlligator eater)
+			throws AlligatorOverflowException {
+		final InternalBoardObject eaten = eater.getParent().getChildAfter(
+				eater);
+		final int hatching = CountMatchingEggs.count(eater, eater.getColor());
+		final int eatenSize = CountBoardObjects.count(eaten, false, true,
+				false, true);
+		final int predicted = CountBoardObjects.count(currentBoard, true, true,
+				false, true) - 1 - eatenSize + hatching * (eatenSize - 1);
+		if (MAX_ALLIGATORS < predicted) {
+			throw new AlligatorOverflowException();
+		}
+	}
+
 	private AgedAlligator replaceColoredWithAgedAlligator(
-			ColoredAlligator coloredAlligator) {
+			ColoredAlligator coloredAlligator, BoardEventMessenger messenger) {
 		final AgedAlligator agedAlligator = new AgedAlligator(
 				coloredAlligator.isMovable(), coloredAlligator.isRemovable());
 		final Parent parent = coloredAlligator.getParent();
@@ -154,16 +322,73 @@ public class Simulator {
 		for (InternalBoardObject child : coloredAlligator) {
 			agedAlligator.addChild(child);
 		}
-		if (boardMessenger != null) {
-			boardMessenger.notifyAlligatorAged(coloredAlligator, agedAlligator);
+		if (messenger != null) {
+			messenger.notifyAlligatorAged(coloredAlligator, agedAlligator);
 		}
 		return agedAlligator;
 	}
 
+	/**
+	 * Remembers the current board state, and detects whether it has been
+	 * reached before.
+	 */
+	private void visitState() {
+		final long fingerprint = fingerprint(currentBoard);
+		final long alphaHash = currentBoard.getWideAlphaHash();
+		final int reached = visitedStates.get(fingerprint, alphaHash);
+		if (reached < 0) {
+			visitedStates.put(fingerprint, alphaHash, steps);
+		} else if (cyclePeriod == 0) {
+			cyclePeriod = steps - reached;
+			cycleDetectedAt = steps;
+		}
+	}
+
+	/**
+	 * Forgets the current board state, before the step leading to it is
+	 * undone. The state is only forgotten if it has been reached first by that
+	 * step.
+	 */
+	private void forgetState() {
+		final long fingerprint = fingerprint(currentBoard);
+		final long alphaHash = currentBoard.getWideAlphaHash();
+		if (visitedStates.get(fingerprint, alphaHash) == steps) {
+			visitedStates.remove(fingerprint, alphaHash);
+		}
+		if (cycleDetectedAt == steps) {
+			cyclePeriod = 0;
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of a board state, which consists of the alpha
+	 * conversion invariant hash of the board and the numbers of its objects.
+	 * Boards matching with recoloring always have the same fingerprint, but
+	 * different boards may have it, too. It is only one half of the key under
+	 * which a state is remembered, the other one being the wide alpha hash.
+	 */
+	long fingerprint(Board board) {
+		final long sizes = (board.getEggCount() & 0x3FF)
+				| (board.getColoredAlligatorCount() & 0x3FF) << 10
+				| (board.getAgedAlligatorCount() & 0x3FF) << 20;
+		return (long) board.getAlphaHash() << 32 | sizes;
+	}
+
 	public int getSteps() {
 		return steps;
 	}
 
+	/**
+	 * Returns the number of steps after which the board state repeats, if the
+	 * evaluation has reached a state it has been in before. Evaluating such a
+	 * board further never reaches a normal form.
+	 * 
+	 * @return the period of the cycle, or 0 if no state has been reached twice
+	 */
+	public int getCyclePeriod() {
+		return cyclePeriod;
+	}
+
 	public Board getCurrentBoard() {
 		return currentBoard;
 	}
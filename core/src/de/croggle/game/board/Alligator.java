@@ -12,6 +12,8 @@ package de.croggle.game.board;
 public abstract class Alligator extends Parent implements InternalBoardObject {
 
 	private Parent parent;
+	private int slot = -1;
+	private int nodeId = -1;
 	private final boolean movable;
 	private final boolean removable;
 
@@ -67,6 +69,38 @@ public abstract class Alligator extends Parent implements InternalBoardObject {
 		this.parent = parent;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSlot(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setNodeId(int id) {
+		nodeId = id;
+	}
+
 	@Override
 	public boolean isMovable() {
 		return movable;
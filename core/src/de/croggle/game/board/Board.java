@@ -9,10 +9,13 @@ import de.croggle.game.board.operations.CopyConstellation;
  */
 public class Board extends Parent implements BoardObject {
 
+	private BoardDelta recordingDelta;
+
 	/**
 	 * Creates a new board with no children.
 	 */
 	public Board() {
+		recordingDelta = null;
 	}
 
 	/**
@@ -37,4 +40,31 @@ public class Board extends Parent implements BoardObject {
 		return CopyConstellation.copy(this);
 	}
 
+	/**
+	 * Starts recording all changes made to this board into the given delta,
+	 * until {@link #stopRecording()} is called. Only one delta can be recording
+	 * at a time.
+	 * 
+	 * @param delta
+	 *            the delta to record changes into
+	 */
+	public void startRecording(BoardDelta delta) {
+		recordingDelta = delta;
+	}
+
+	/**
+	 * Stops recording changes made to this board.
+	 */
+	public void stopRecording() {
+		recordingDelta = null;
+	}
+
+	/**
+	 * Returns the delta changes to this board are currently recorded into.
+	 * 
+	 * @return the recording delta or null if the board is not being recorded
+	 */
+	BoardDelta getRecordingDelta() {
+		return recordingDelta;
+	}
 }
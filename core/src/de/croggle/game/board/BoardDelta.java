@@ -0,0 +1,118 @@
+package de.croggle.game.board;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import de.croggle.game.Color;
+
+/**
+ * The changes applied to a board during one editing or simulation step. Instead
+ * of copying the whole board, a delta only remembers the original state of
+ * those objects that were actually touched: the children of modified parents,
+ * the parents of moved objects and the colors of recolored objects. Its size
+ * therefore grows with the size of the edit rather than with the size of the
+ * board.
+ *
+ * A delta is filled by {@link Board#startRecording(BoardDelta) recording} a
+ * board while it is being modified. Calling {@link #revert()} afterwards
+ * restores the state the board had when the recording was started.
+ */
+public class BoardDelta {
+	private final Map<Parent, List<InternalBoardObject>> children;
+	private final Map<InternalBoardObject, Parent> parents;
+	private final Map<ColoredBoardObject, Color> colors;
+
+	/**
+	 * Creates a new delta containing no changes.
+	 */
+	public BoardDelta() {
+		children = new IdentityHashMap<Parent, List<InternalBoardObject>>();
+		parents = new IdentityHashMap<InternalBoardObject, Parent>();
+		colors = new IdentityHashMap<ColoredBoardObject, Color>();
+	}
+
+	/**
+	 * Remembers the current children of the given parent, unless they have
+	 * already been remembered before.
+	 *
+	 * @param parent
+	 *            the parent whose children are about to change
+	 */
+	void recordChildren(Parent parent) {
+		if (!children.containsKey(parent)) {
+			final List<InternalBoardObject> saved = new ArrayList<InternalBoardObject>(
+					parent.getChildCount());
+			for (InternalBoardObject child : parent) {
+				saved.add(child);
+			}
+			children.put(parent, saved);
+		}
+	}
+
+	/**
+	 * Remembers the current parent of the given object, unless it has already
+	 * been remembered before.
+	 *
+	 * @param child
+	 *            the object whose parent is about to change
+	 */
+	void recordParent(InternalBoardObject child) {
+		if (!parents.containsKey(child)) {
+			parents.put(child, child.getParent());
+		}
+	}
+
+	/**
+	 * Remembers the current color of the given object, unless it has already
+	 * been remembered before.
+	 *
+	 * @param object
+	 *            the object whose color is about to change
+	 */
+	void recordColor(ColoredBoardObject object) {
+		if (!colors.containsKey(object)) {
+			colors.put(object, object.getColor());
+		}
+	}
+
+	/**
+	 * Returns whether this delta contains any changes.
+	 *
+	 * @return true if no object has been touched, false otherwise
+	 */
+	public boolean isEmpty() {
+		return children.isEmpty() && parents.isEmpty() && colors.isEmpty();
+	}
+
+	/**
+	 * Restores the recorded state of all objects touched while this delta was
+	 * recording. The board must not be modified by anything else than the
+	 * recorded operations in between, otherwise the result is undefined.
+	 */
+	public void revert() {
+		for (Entry<InternalBoardObject, Parent> entry : parents.entrySet()) {
+			entry.getKey().setParent(entry.getValue());
+		}
+		for (Entry<Parent, List<InternalBoardObject>> entry : children
+				.entrySet()) {
+			entry.getKey().restoreChildren(entry.getValue());
+		}
+		// the positions of moved objects may have been set by a parent that did
+		// not exist before, e.g. by the aged alligator replacing an eater
+		final Map<Parent, Parent> renumbered = new IdentityHashMap<Parent, Parent>();
+		for (Parent parent : parents.values()) {
+			if (parent != null && !children.containsKey(parent)
+					&& !renumbered.containsKey(parent)) {
+				parent.renumber(0);
+				renumbered.put(parent, parent);
+			}
+		}
+		for (Entry<ColoredBoardObject, Color> entry : colors.entrySet()) {
+			entry.getKey().setColor(entry.getValue());
+		}
+		Parent.refreshSubtreeInformation(children.keySet());
+	}
+}
@@ -1,7 +1,5 @@
 package de.croggle.game.board;
 
-import java.util.Map;
-
 import de.croggle.game.Color;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 import de.croggle.game.board.operations.CopyConstellation;
@@ -96,47 +94,11 @@ public class ColoredAlligator extends Alligator implements ColoredBoardObject {
 	 */
 	@Override
 	public void setColor(Color c) {
-		color = c;
-	}
-
-	@Override
-	public boolean match(BoardObject o) {
-		if (o == null)
-			return false;
-		if (o.getClass() != ColoredAlligator.class)
-			return false;
-
-		ColoredAlligator oAllig = (ColoredAlligator) o;
-		return color.equals(oAllig.color) && super.match(oAllig); // use
-																	// Parent.match
-																	// for
-																	// child
-																	// comparison
-	}
-
-	@Override
-	public boolean matchWithRecoloring(BoardObject other,
-			Map<Color, Color> recoloring) {
-		if (other == null) {
-			return false;
-		}
-		if (other.getClass() != ColoredAlligator.class) {
-			return false;
-		}
-
-		final ColoredAlligator otherAlligator = (ColoredAlligator) other;
-		if (recoloring.containsValue(otherAlligator.color)) {
-			return false;
-		} else {
-			if (color.equals(otherAlligator.color)) {
-				return super.matchWithRecoloring(otherAlligator, recoloring);
-			} else {
-				recoloring.put(otherAlligator.color, color);
-				final boolean equal = super.matchWithRecoloring(otherAlligator,
-						recoloring);
-				recoloring.remove(otherAlligator.color);
-				return equal;
-			}
+		final BoardDelta delta = findRecordingDelta();
+		if (delta != null) {
+			delta.recordColor(this);
 		}
+		color = c;
+		markChanged();
 	}
 }
\ No newline at end of file
@@ -15,6 +15,8 @@ public class Egg implements InternalBoardObject, ColoredBoardObject {
 	private boolean movable;
 	private boolean removable;
 	private Parent parent = null;
+	private int slot = -1;
+	private int nodeId = -1;
 
 	/**
 	 * Creates a new egg with the specified color and the permission value if
@@ -100,6 +102,38 @@ public class Egg implements InternalBoardObject, ColoredBoardObject {
 		this.parent = parent;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSlot(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setNodeId(int id) {
+		nodeId = id;
+	}
+
 	/**
 	 * Creates and returns a deep copy of the board object.
 	 * 
@@ -139,7 +173,16 @@ public class Egg implements InternalBoardObject, ColoredBoardObject {
 	 */
 	@Override
 	public void setColor(Color c) {
+		if (parent != null) {
+			final BoardDelta delta = parent.findRecordingDelta();
+			if (delta != null) {
+				delta.recordColor(this);
+			}
+		}
 		color = c;
+		if (parent != null) {
+			parent.markChanged();
+		}
 	}
 
 	/**
@@ -22,6 +22,44 @@ public interface InternalBoardObject extends BoardObject {
 	 */
 	public void setParent(Parent parent);
 
+	/**
+	 * Returns the position of this object within the children of the parent
+	 * it has been added to last. The position is maintained by {@link Parent},
+	 * so that children can be looked up without searching the list of
+	 * children.
+	 * 
+	 * @return the position of this object within its parent, or -1 if it has
+	 *         been removed
+	 */
+	public int getSlot();
+
+	/**
+	 * Sets the position of this object within the children of its parent.
+	 * Only to be called by {@link Parent}.
+	 * 
+	 * @param slot
+	 *            the new position of this object
+	 */
+	public void setSlot(int slot);
+
+	/**
+	 * Returns the id this object has been given when its board was measured
+	 * last, i.e. its index in the arrays of a
+	 * {@link de.croggle.game.board.operations.LayoutMetrics LayoutMetrics}.
+	 * 
+	 * @return the node id of this object
+	 */
+	public int getNodeId();
+
+	/**
+	 * Sets the id of this object within the measured board. Only to be called
+	 * when the board is measured.
+	 * 
+	 * @param id
+	 *            the new node id of this object
+	 */
+	public void setNodeId(int id);
+
 	/**
 	 * Returns whether the object can be moved by the user.
 	 * 
@@ -1,31 +1,106 @@
 package de.croggle.game.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import de.croggle.game.Color;
+import de.croggle.game.ColorSet;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 import de.croggle.game.board.operations.StrategyBoardObjectVisitor;
 
 /**
  * Parent is an abstract class to model the functions board objects - which can
  * be parents of families - must have.
+ * 
+ * Every child knows its {@link InternalBoardObject#getSlot() position} within
+ * the children of its parent, so that looking up a child does not need to
+ * search the list of children. An object can only be found in the parent it
+ * has been added to last.
  **/
 
 public abstract class Parent implements Iterable<InternalBoardObject>,
 		BoardObject {
 
 	private final List<InternalBoardObject> children;
+	/*
+	 * Cached information about the subtree of this parent, including the
+	 * parent itself, which is kept up to date whenever children change: the
+	 * number of parents whose first child is able to eat its sibling, and the
+	 * number of eggs, colored alligators and aged alligators.
+	 */
+	private int eaterCount;
+	private int eggCount;
+	private int coloredAlligatorCount;
+	private int agedAlligatorCount;
+	/*
+	 * Incremented whenever the children or colors anywhere below this parent
+	 * change, see getVersion(). The summaries below are stamped with the
+	 * version they have been computed for, and are only recomputed when they
+	 * are requested after the version has changed.
+	 */
+	private long version;
+	/*
+	 * A summary of the subtree of this parent which does not change if bound
+	 * colors are renamed, see getAlphaHash().
+	 */
+	private long alphaSummaryVersion;
+	private long structureHash;
+	private int[] freeColorIds;
+	private long[] freeColorPositions;
+	/*
+	 * The colors of the eggs which are free in the family of this parent, and
+	 * the colors of the colored alligators within it.
+	 */
+	private long colorSummaryVersion;
+	private ColorSet freeColors;
+	private ColorSet boundColors;
+
+	private static final int EGG_TAG = 0x2545F491;
+	private static final int COLORED_ALLIGATOR_TAG = 0x68E31DA4;
+	private static final int AGED_ALLIGATOR_TAG = 0x1B56C4E9;
+	private static final int BOARD_TAG = 0x7FEB352D;
+
+	/*
+	 * Scratch space for recomputing summaries, which is reused so that
+	 * keeping the summaries up to date after every evaluation step does not
+	 * allocate anything once the buffers are large enough.
+	 */
+	private static final ThreadLocal<SummaryBuffers> BUFFERS = new ThreadLocal<SummaryBuffers>() {
+		@Override
+		protected SummaryBuffers initialValue() {
+			return new SummaryBuffers();
+		}
+	};
 
 	/**
 	 * Superconstructor of all parents. Creates a parent with no children.
 	 */
 	protected Parent() {
 		children = new ArrayList<InternalBoardObject>();
+		eaterCount = 0;
+		eggCount = 0;
+		coloredAlligatorCount = this instanceof ColoredAlligator ? 1 : 0;
+		agedAlligatorCount = this instanceof AgedAlligator ? 1 : 0;
+		version = 0;
+		alphaSummaryVersion = -1;
+		colorSummaryVersion = -1;
 	}
 
+	/**
+	 * Creates a parent with copies of the children of the given parent. The
+	 * children are copied using {@link InternalBoardObject#copy()}, which does
+	 * not recurse into their families.
+	 * 
+	 * @param parent
+	 *            the parent whose children to copy
+	 */
 	protected Parent(Parent parent) {
 		this();
 		for (InternalBoardObject child : parent) {
@@ -42,9 +117,13 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 *            the child which should be added to the family of the parent
 	 */
 	public final boolean addChild(InternalBoardObject child) {
+		recordChange(child);
 		child.setParent(this);
-		if (!children.contains(child)) {
+		if (!isChild(child)) {
+			final boolean hadEater = hasEater();
+			child.setSlot(children.size());
 			children.add(child);
+			childrenChanged(hadEater, child, null);
 			return true;
 		} else {
 			return false;
@@ -61,9 +140,13 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 *            the position, where the child is to be inserted
 	 */
 	public boolean insertChild(InternalBoardObject child, int pos) {
+		recordChange(child);
 		child.setParent(this);
-		if (!children.contains(child)) {
+		if (!isChild(child)) {
+			final boolean hadEater = hasEater();
 			children.add(pos, child);
+			renumber(pos);
+			childrenChanged(hadEater, child, null);
 			return true;
 		} else {
 			return false;
@@ -81,7 +164,7 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 *         child
 	 */
 	public int getChildPosition(InternalBoardObject child) {
-		return children.indexOf(child);
+		return isChild(child) ? child.getSlot() : -1;
 	}
 
 	/**
@@ -130,7 +213,18 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 * @return whether the removal was successful
 	 */
 	public boolean removeChild(InternalBoardObject child) {
-		return children.remove(child);
+		recordChange(null);
+		final boolean hadEater = hasEater();
+		if (isChild(child)) {
+			final int location = child.getSlot();
+			children.remove(location);
+			child.setSlot(-1);
+			renumber(location);
+			childrenChanged(hadEater, null, child);
+			return true;
+		} else {
+			return false;
+		}
 	}
 
 	/**
@@ -145,13 +239,18 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 */
 	public boolean replaceChild(InternalBoardObject child,
 			InternalBoardObject replaceChild) {
-		final int location = children.indexOf(child);
+		final int location = getChildPosition(child);
 		if (location == -1) {
 			return false;
 		} else {
+			recordChange(replaceChild);
 			replaceChild.setParent(this);
-			if (!children.contains(replaceChild)) {
+			if (!isChild(replaceChild)) {
+				final boolean hadEater = hasEater();
 				children.set(location, replaceChild);
+				replaceChild.setSlot(location);
+				child.setSlot(-1);
+				childrenChanged(hadEater, replaceChild, child);
 				return true;
 			} else {
 				return false;
@@ -164,7 +263,597 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 * children's reference to the parent.
 	 */
 	public void clearChildren() {
+		recordChange(null);
+		children.clear();
+		markChanged();
+		propagate(-eaterCount, -eggCount, ownColoredAlligatorCount()
+				- coloredAlligatorCount, ownAgedAlligatorCount()
+				- agedAlligatorCount);
+	}
+
+	/**
+	 * Replaces the children of this parent with the given ones, as they have
+	 * been recorded by a {@link BoardDelta}. Does NOT set the children's
+	 * reference to the parent, which therefore has to be restored before, nor
+	 * does it update any cached subtree
+	 * information. The latter has to be done using
+	 * {@link #refreshSubtreeInformation(Collection)} once all changes are
+	 * restored.
+	 * 
+	 * @param saved
+	 *            the children to restore
+	 */
+	void restoreChildren(List<InternalBoardObject> saved) {
 		children.clear();
+		children.addAll(saved);
+		renumber(0);
+	}
+
+	/**
+	 * Sets the positions of all children from the given position on, after
+	 * they have been shifted within the list of children. Children which have
+	 * been added to another parent since are left alone.
+	 * 
+	 * @param from
+	 *            the position of the first child to update
+	 */
+	void renumber(int from) {
+		for (int i = from; i < children.size(); i++) {
+			final InternalBoardObject child = children.get(i);
+			if (child.getParent() == this) {
+				child.setSlot(i);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given object is a child of this parent, by checking
+	 * the position it claims to have instead of searching for it.
+	 */
+	private boolean isChild(InternalBoardObject child) {
+		final int slot = child.getSlot();
+		return child.getParent() == this && slot >= 0
+				&& slot < children.size() && children.get(slot) == child;
+	}
+
+	/**
+	 * Looks up the delta that changes to the board containing this parent are
+	 * currently recorded into.
+	 * 
+	 * @return the recording delta, or null if this parent is not part of a
+	 *         board that is being recorded
+	 */
+	BoardDelta findRecordingDelta() {
+		Parent root = this;
+		Parent above = getEnclosingParent();
+		while (above != null) {
+			root = above;
+			above = root.getEnclosingParent();
+		}
+		if (root instanceof Board) {
+			return ((Board) root).getRecordingDelta();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether the first child of this parent is a colored alligator
+	 * which is able to eat the family next to it.
+	 * 
+	 * @return true if this parent has an eating child, false otherwise
+	 */
+	public boolean hasEater() {
+		return children.size() > 1
+				&& children.get(0).getClass() == ColoredAlligator.class;
+	}
+
+	/**
+	 * Returns the number of parents in the subtree of this parent, including
+	 * this parent itself, which {@link #hasEater() have an eating child}. The
+	 * number is kept up to date whenever children are added, inserted, removed
+	 * or replaced, so that it is available in constant time.
+	 * 
+	 * @return the number of possible eatings below this parent
+	 */
+	public int getEaterCount() {
+		return eaterCount;
+	}
+
+	/**
+	 * Returns the number of eggs in the subtree of this parent. Like
+	 * {@link #getEaterCount()}, the number is available in constant time.
+	 * 
+	 * @return the number of eggs below this parent
+	 */
+	public int getEggCount() {
+		return eggCount;
+	}
+
+	/**
+	 * Returns the number of colored alligators in the subtree of this parent,
+	 * including this parent itself. Like {@link #getEaterCount()}, the number
+	 * is available in constant time.
+	 * 
+	 * @return the number of colored alligators in this family
+	 */
+	public int getColoredAlligatorCount() {
+		return coloredAlligatorCount;
+	}
+
+	/**
+	 * Returns the number of aged alligators in the subtree of this parent,
+	 * including this parent itself. Like {@link #getEaterCount()}, the number
+	 * is available in constant time.
+	 * 
+	 * @return the number of aged alligators in this family
+	 */
+	public int getAgedAlligatorCount() {
+		return agedAlligatorCount;
+	}
+
+	/**
+	 * Returns a hash of the family of this parent, which is the same for all
+	 * families that only differ in the colors of their colored alligators and
+	 * the eggs bound by them, i.e. that represent the same lambda term up to
+	 * alpha conversion. Eggs not bound within the family keep their colors.
+	 * Two families can only {@link #matchWithRecoloring(BoardObject, Map)
+	 * match with recoloring} if their alpha hashes are equal, so that comparing
+	 * the hashes first avoids most full comparisons.
+	 * 
+	 * Like a de Bruijn index, a colored alligator is represented by the
+	 * positions of the eggs it binds instead of its color. The information
+	 * needed is cached for every parent and only recomputed along the paths
+	 * which have changed since the last request.
+	 * 
+	 * @return the alpha conversion invariant hash of this family
+	 */
+	public int getAlphaHash() {
+		final long hash = getWideAlphaHash();
+		return (int) (hash ^ hash >>> 32);
+	}
+
+	/**
+	 * Returns the alpha conversion invariant hash of the family of this parent
+	 * with all of its 64 bits, see {@link #getAlphaHash()}. Different families
+	 * are far less likely to share the wide hash than the folded one, which
+	 * makes it suitable for telling states apart without comparing them.
+	 * 
+	 * @return the wide alpha conversion invariant hash of this family
+	 */
+	public long getWideAlphaHash() {
+		updateAlphaSummary();
+		long hash = structureHash;
+		for (int i = 0; i < freeColorIds.length; i++) {
+			hash = mix(mix(hash, freeColorIds[i]), freeColorPositions[i]);
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the version of the family of this parent. The version changes
+	 * whenever objects are added, removed or recolored anywhere in the family,
+	 * so that information about the family can be cached together with the
+	 * version it has been computed for, and reused as long as the version
+	 * stays the same.
+	 * 
+	 * @return the current version of this family
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the colors of the eggs in the family of this parent which are
+	 * not bound by any colored alligator within the family. Like the other
+	 * summaries, the colors are cached and only recomputed for the families
+	 * which have changed since they were requested last.
+	 * 
+	 * @return a new set containing the free colors of this family
+	 */
+	public ColorSet getFreeColors() {
+		updateColorSummary();
+		return new ColorSet(freeColors);
+	}
+
+	/**
+	 * Returns the colors of the colored alligators in the family of this
+	 * parent, including the parent itself. See {@link #getFreeColors()}.
+	 * 
+	 * @return a new set containing the bound colors of this family
+	 */
+	public ColorSet getBoundColors() {
+		updateColorSummary();
+		return new ColorSet(boundColors);
+	}
+
+	/**
+	 * Increments the version of this parent and of all of its ancestors, after
+	 * the children or colors below it have changed.
+	 */
+	void markChanged() {
+		for (Parent p = this; p != null; p = p.getAttachedParent()) {
+			p.version++;
+		}
+	}
+
+	/**
+	 * Recomputes the free and bound colors of this parent, and of all
+	 * descendants whose colors are out of date.
+	 */
+	private void updateColorSummary() {
+		if (colorSummaryVersion == version) {
+			return;
+		}
+		final List<Parent> outdated = collectOutdated(true);
+		for (int i = outdated.size() - 1; i >= 0; i--) {
+			outdated.get(i).computeColorSummary();
+		}
+		outdated.clear();
+	}
+
+	/**
+	 * Recomputes the free and bound colors of this parent from those of its
+	 * children, which have to be up to date.
+	 */
+	private void computeColorSummary() {
+		if (freeColors == null) {
+			freeColors = new ColorSet();
+			boundColors = new ColorSet();
+		} else {
+			freeColors.clear();
+			boundColors.clear();
+		}
+		for (int i = 0; i < children.size(); i++) {
+			final InternalBoardObject child = children.get(i);
+			if (child instanceof Parent) {
+				final Parent p = (Parent) child;
+				freeColors.addAll(p.freeColors);
+				boundColors.addAll(p.boundColors);
+			} else {
+				freeColors.add(((Egg) child).getColor());
+			}
+		}
+		if (this instanceof ColoredAlligator) {
+			final Color color = ((ColoredAlligator) this).getColor();
+			freeColors.remove(color);
+			boundColors.add(color);
+		}
+		colorSummaryVersion = version;
+	}
+
+	/**
+	 * Recomputes the alpha summary of this parent, and of all descendants
+	 * whose summaries are out of date.
+	 */
+	private void updateAlphaSummary() {
+		if (alphaSummaryVersion == version) {
+			return;
+		}
+		final List<Parent> outdated = collectOutdated(false);
+		for (int i = outdated.size() - 1; i >= 0; i--) {
+			outdated.get(i).computeAlphaSummary();
+		}
+		outdated.clear();
+	}
+
+	/**
+	 * Collects this parent and all descendants whose color or alpha summaries
+	 * are out of date, breadth first. Since every parent is listed before its
+	 * children, the summaries can be recomputed by walking the list
+	 * backwards, without recursing into the family.
+	 * 
+	 * @param colors
+	 *            whether to look at the color summaries instead of the alpha
+	 *            summaries
+	 * @return the parents to recompute, each listed before its children, in a
+	 *         reused list which has to be cleared afterwards
+	 */
+	private List<Parent> collectOutdated(boolean colors) {
+		final List<Parent> outdated = BUFFERS.get().outdated;
+		outdated.add(this);
+		for (int i = 0; i < outdated.size(); i++) {
+			final List<InternalBoardObject> siblings = outdated.get(i).children;
+			for (int j = 0; j < siblings.size(); j++) {
+				final InternalBoardObject child = siblings.get(j);
+				if (child instanceof Parent) {
+					final Parent p = (Parent) child;
+					final long summaryVersion = colors ? p.colorSummaryVersion
+							: p.alphaSummaryVersion;
+					if (summaryVersion != p.version) {
+						outdated.add(p);
+					}
+				}
+			}
+		}
+		return outdated;
+	}
+
+	/**
+	 * Recomputes the alpha summary of this parent from those of its children,
+	 * which have to be up to date. Every free color is mapped to a hash of the
+	 * positions of the eggs of that color, so that a colored alligator can
+	 * replace its own color with the positions of the eggs bound by it.
+	 */
+	private void computeAlphaSummary() {
+		int count = 0;
+		for (int i = 0; i < children.size(); i++) {
+			final InternalBoardObject child = children.get(i);
+			if (child instanceof Parent) {
+				count += ((Parent) child).freeColorIds.length;
+			} else {
+				count++;
+			}
+		}
+
+		final SummaryBuffers buffers = BUFFERS.get();
+		final int[] ids = buffers.ids(count);
+		final long[] positions = buffers.positions(count);
+		long hash = mix(children.size(), children.size());
+		count = 0;
+		for (int i = 0; i < children.size(); i++) {
+			final InternalBoardObject child = children.get(i);
+			if (child instanceof Parent) {
+				final Parent p = (Parent) child;
+				hash = mix(hash, p.structureHash);
+				for (int j = 0; j < p.freeColorIds.length; j++) {
+					ids[count] = p.freeColorIds[j];
+					positions[count] = mix(i, p.freeColorPositions[j]);
+					count++;
+				}
+			} else {
+				hash = mix(hash, EGG_TAG);
+				ids[count] = ((Egg) child).getColor().getId();
+				positions[count] = mix(i, EGG_TAG);
+				count++;
+			}
+		}
+		count = mergeFreeColors(ids, positions, count);
+
+		if (this instanceof ColoredAlligator) {
+			final int id = ((ColoredAlligator) this).getColor().getId();
+			long bound = 0;
+			for (int i = 0; i < count; i++) {
+				if (ids[i] == id) {
+					bound = positions[i];
+					System.arraycopy(ids, i + 1, ids, i, count - i - 1);
+					System.arraycopy(positions, i + 1, positions, i, count
+							- i - 1);
+					count--;
+					break;
+				}
+			}
+			hash = mix(mix(hash, COLORED_ALLIGATOR_TAG), bound);
+		} else if (this instanceof AgedAlligator) {
+			hash = mix(hash, AGED_ALLIGATOR_TAG);
+		} else {
+			hash = mix(hash, BOARD_TAG);
+		}
+
+		structureHash = hash;
+		if (freeColorIds == null || freeColorIds.length != count) {
+			freeColorIds = new int[count];
+			freeColorPositions = new long[count];
+		}
+		System.arraycopy(ids, 0, freeColorIds, 0, count);
+		System.arraycopy(positions, 0, freeColorPositions, 0, count);
+		alphaSummaryVersion = version;
+	}
+
+	/**
+	 * Sorts the given free colors by their ids and combines the positions of
+	 * equal colors.
+	 * 
+	 * @return the number of distinct colors
+	 */
+	private static int mergeFreeColors(int[] ids, long[] positions, int count) {
+		for (int i = 1; i < count; i++) {
+			final int id = ids[i];
+			final long position = positions[i];
+			int j = i - 1;
+			while (j >= 0 && ids[j] > id) {
+				ids[j + 1] = ids[j];
+				positions[j + 1] = positions[j];
+				j--;
+			}
+			ids[j + 1] = id;
+			positions[j + 1] = position;
+		}
+		int merged = 0;
+		for (int i = 0; i < count; i++) {
+			if (merged > 0 && ids[merged - 1] == ids[i]) {
+				positions[merged - 1] += positions[i];
+			} else {
+				ids[merged] = ids[i];
+				positions[merged] = positions[i];
+				merged++;
+			}
+		}
+		return merged;
+	}
+
+	private static long mix(long hash, long value) {
+		long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		h *= 0xBF58476D1CE4E5B9L;
+		return h ^ (h >>> 29);
+	}
+
+	/**
+	 * Recomputes the cached subtree information of the given parents and all
+	 * of their ancestors, after their children have been changed without
+	 * keeping the information up to date, e.g. by
+	 * {@link #restoreChildren(List)}. Parents are processed bottom up, so that
+	 * the information of all children is up to date when a parent is
+	 * refreshed.
+	 * 
+	 * @param modified
+	 *            the parents whose children have been changed
+	 */
+	static void refreshSubtreeInformation(Collection<Parent> modified) {
+		final Map<Parent, Integer> depths = new IdentityHashMap<Parent, Integer>();
+		for (Parent p : modified) {
+			while (p != null && !depths.containsKey(p)) {
+				depths.put(p, null);
+				p = p.getEnclosingParent();
+			}
+		}
+		final List<Parent> ordered = new ArrayList<Parent>(depths.keySet());
+		for (Parent p : ordered) {
+			depths.put(p, p.getDepth());
+		}
+		Collections.sort(ordered, new Comparator<Parent>() {
+			@Override
+			public int compare(Parent lhs, Parent rhs) {
+				return depths.get(rhs) - depths.get(lhs);
+			}
+		});
+		for (Parent p : ordered) {
+			p.version++;
+			p.eaterCount = p.hasEater() ? 1 : 0;
+			p.eggCount = 0;
+			p.coloredAlligatorCount = p.ownColoredAlligatorCount();
+			p.agedAlligatorCount = p.ownAgedAlligatorCount();
+			for (InternalBoardObject child : p.children) {
+				p.eaterCount += eaterCountOf(child);
+				p.eggCount += eggCountOf(child);
+				p.coloredAlligatorCount += coloredAlligatorCountOf(child);
+				p.agedAlligatorCount += agedAlligatorCountOf(child);
+			}
+		}
+	}
+
+	/**
+	 * Returns the parent this parent is a child of.
+	 * 
+	 * @return the parent of this parent, or null if this parent is not an
+	 *         {@link InternalBoardObject} or has no parent
+	 */
+	private Parent getEnclosingParent() {
+		if (this instanceof InternalBoardObject) {
+			return ((InternalBoardObject) this).getParent();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the parent this parent is a child of, as long as that parent
+	 * still holds it. As removing a child does not unset its reference to the
+	 * parent, changes below a removed parent must not be passed on to the
+	 * parents it has been removed from.
+	 * 
+	 * @return the parent holding this parent, or null if there is none
+	 */
+	private Parent getAttachedParent() {
+		final Parent p = getEnclosingParent();
+		if (p != null && p.isChild((InternalBoardObject) this)) {
+			return p;
+		}
+		return null;
+	}
+
+	private int getDepth() {
+		int depth = 0;
+		for (Parent p = getEnclosingParent(); p != null; p = p
+				.getEnclosingParent()) {
+			depth++;
+		}
+		return depth;
+	}
+
+	private int ownColoredAlligatorCount() {
+		return this instanceof ColoredAlligator ? 1 : 0;
+	}
+
+	private int ownAgedAlligatorCount() {
+		return this instanceof AgedAlligator ? 1 : 0;
+	}
+
+	private static int eaterCountOf(InternalBoardObject child) {
+		if (child instanceof Parent) {
+			return ((Parent) child).eaterCount;
+		}
+		return 0;
+	}
+
+	private static int eggCountOf(InternalBoardObject child) {
+		if (child instanceof Parent) {
+			return ((Parent) child).eggCount;
+		}
+		return child instanceof Egg ? 1 : 0;
+	}
+
+	private static int coloredAlligatorCountOf(InternalBoardObject child) {
+		if (child instanceof Parent) {
+			return ((Parent) child).coloredAlligatorCount;
+		}
+		return 0;
+	}
+
+	private static int agedAlligatorCountOf(InternalBoardObject child) {
+		if (child instanceof Parent) {
+			return ((Parent) child).agedAlligatorCount;
+		}
+		return 0;
+	}
+
+	/**
+	 * Updates the cached subtree information of this parent and its ancestors
+	 * after a child has been added, removed or replaced.
+	 * 
+	 * @param hadEater
+	 *            whether this parent had an eating child before the change
+	 * @param added
+	 *            the child that has been added, or null
+	 * @param removed
+	 *            the child that has been removed, or null
+	 */
+	private void childrenChanged(boolean hadEater, InternalBoardObject added,
+			InternalBoardObject removed) {
+		markChanged();
+		int eaters = eaterCountOf(added) - eaterCountOf(removed);
+		if (hadEater != hasEater()) {
+			eaters += hadEater ? -1 : 1;
+		}
+		propagate(eaters, eggCountOf(added) - eggCountOf(removed),
+				coloredAlligatorCountOf(added)
+						- coloredAlligatorCountOf(removed),
+				agedAlligatorCountOf(added) - agedAlligatorCountOf(removed));
+	}
+
+	/**
+	 * Adds the given differences to the cached subtree information of this
+	 * parent and all of its ancestors.
+	 */
+	private void propagate(int eaters, int eggs, int coloredAlligators,
+			int agedAlligators) {
+		if (eaters == 0 && eggs == 0 && coloredAlligators == 0
+				&& agedAlligators == 0) {
+			return;
+		}
+		for (Parent p = this; p != null; p = p.getAttachedParent()) {
+			p.eaterCount += eaters;
+			p.eggCount += eggs;
+			p.coloredAlligatorCount += coloredAlligators;
+			p.agedAlligatorCount += agedAlligators;
+		}
+	}
+
+	/**
+	 * Lets the recording delta, if any, remember the state of this parent and
+	 * of the given child before they are modified.
+	 * 
+	 * @param child
+	 *            the child that is about to be added to this parent, or null
+	 *            if no child is added
+	 */
+	private void recordChange(InternalBoardObject child) {
+		final BoardDelta delta = findRecordingDelta();
+		if (delta != null) {
+			delta.recordChildren(this);
+			if (child != null) {
+				delta.recordParent(child);
+			}
+		}
 	}
 
 	/**
@@ -200,7 +889,7 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 */
 	public boolean isLastChild(InternalBoardObject child) {
 		return !children.isEmpty()
-				&& children.get(children.size() - 1).equals(child);
+				&& children.get(children.size() - 1) == child;
 	}
 
 	/**
@@ -212,7 +901,7 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 	 *         child, null if it is the last child
 	 */
 	public InternalBoardObject getChildAfter(InternalBoardObject child) {
-		final int location = children.indexOf(child);
+		final int location = getChildPosition(child);
 		if (location >= 0 && location + 1 < children.size()) {
 			return children.get(location + 1);
 		} else {
@@ -220,60 +909,189 @@ public abstract class Parent implements Iterable<InternalBoardObject>,
 		}
 	}
 
+	/**
+	 * Compares this family with the given one. The families are walked side by
+	 * side without recursion, so that even very deep families can be
+	 * compared.
+	 */
 	@Override
 	public boolean match(BoardObject o) {
-		if (o == null)
-			return false;
-		if (o.getClass() != this.getClass())
-			return false;
-
-		Parent oParent = (Parent) o;
-		if (children.size() != oParent.children.size())
-			return false;
-
-		boolean equal = true;
-		for (int i = 0; i < children.size(); i++) {
-			equal &= children.get(i).match(oParent.children.get(i));
-		}
-		return equal;
+		return matchFamilies(this, o, null);
 	}
 
+	/**
+	 * Compares this family with the given one, allowing colors bound within
+	 * the families to differ. Like {@link #match(BoardObject)}, the families
+	 * are walked without recursion.
+	 */
 	@Override
 	public boolean matchWithRecoloring(BoardObject other,
 			Map<Color, Color> recoloring) {
-		if (other == null) {
+		return matchFamilies(this, other, recoloring);
+	}
+
+	/**
+	 * Walks two families side by side, comparing every pair of objects at the
+	 * same location. Every entry of the stack holds the parents compared and
+	 * the position of the next pair of children to compare. When matching with
+	 * recoloring, the color of a colored alligator in the other family is
+	 * mapped to the color of the alligator in this family while its children
+	 * are compared, exactly like nested calls would do.
+	 * 
+	 * @param family
+	 *            the family to compare
+	 * @param other
+	 *            the object to compare it with
+	 * @param recoloring
+	 *            the colors mapped so far, or null to compare colors as they
+	 *            are
+	 * @return true if the families match, false otherwise
+	 */
+	private static boolean matchFamilies(Parent family, BoardObject other,
+			Map<Color, Color> recoloring) {
+		if (!enterMatch(family, other, recoloring)) {
 			return false;
 		}
-		if (other.getClass() != this.getClass()) {
-			return false;
+		Parent[] firsts = new Parent[16];
+		Parent[] seconds = new Parent[16];
+		int[] positions = new int[16];
+		int size = 0;
+		firsts[size] = family;
+		seconds[size] = (Parent) other;
+		positions[size] = 0;
+		size++;
+		while (size > 0) {
+			final int top = size - 1;
+			final Parent first = firsts[top];
+			final Parent second = seconds[top];
+			final int position = positions[top];
+			if (position == first.children.size()) {
+				leaveMatch(first, second, recoloring);
+				firsts[top] = null;
+				seconds[top] = null;
+				size--;
+				continue;
+			}
+			positions[top] = position + 1;
+			final InternalBoardObject child = first.children.get(position);
+			final InternalBoardObject otherChild = second.children
+					.get(position);
+			if (child instanceof Parent) {
+				if (!enterMatch((Parent) child, otherChild, recoloring)) {
+					abortMatch(firsts, seconds, size, recoloring);
+					return false;
+				}
+				if (size == firsts.length) {
+					firsts = Arrays.copyOf(firsts, size * 2);
+					seconds = Arrays.copyOf(seconds, size * 2);
+					positions = Arrays.copyOf(positions, size * 2);
+				}
+				firsts[size] = (Parent) child;
+				seconds[size] = (Parent) otherChild;
+				positions[size] = 0;
+				size++;
+			} else {
+				final boolean equal = recoloring == null ? child
+						.match(otherChild) : child.matchWithRecoloring(
+						otherChild, recoloring);
+				if (!equal) {
+					abortMatch(firsts, seconds, size, recoloring);
+					return false;
+				}
+			}
 		}
+		return true;
+	}
 
-		final Parent otherParent = (Parent) other;
-		if (children.size() != otherParent.children.size()) {
+	/**
+	 * Compares a parent with another object without looking at their
+	 * children, and maps the colors of colored alligators if necessary.
+	 * 
+	 * @return true if the children of both can be compared, false if they do
+	 *         not match
+	 */
+	private static boolean enterMatch(Parent first, BoardObject other,
+			Map<Color, Color> recoloring) {
+		if (other == null || other.getClass() != first.getClass()) {
 			return false;
 		}
-
-		for (int i = 0; i < children.size(); i++) {
-			if (!children.get(i).matchWithRecoloring(
-					otherParent.children.get(i), recoloring)) {
+		final Parent second = (Parent) other;
+		if (first instanceof ColoredAlligator) {
+			final Color color = ((ColoredAlligator) first).getColor();
+			final Color otherColor = ((ColoredAlligator) second).getColor();
+			if (recoloring == null) {
+				if (!color.equals(otherColor)) {
+					return false;
+				}
+			} else if (recoloring.containsValue(otherColor)) {
 				return false;
+			} else if (first.children.size() == second.children.size()
+					&& !color.equals(otherColor)) {
+				recoloring.put(otherColor, color);
 			}
 		}
-		return true;
+		return first.children.size() == second.children.size();
+	}
+
+	/**
+	 * Removes the color mapped by {@link #enterMatch(Parent, BoardObject, Map)}
+	 * after all children of a pair of parents have been compared.
+	 */
+	private static void leaveMatch(Parent first, Parent second,
+			Map<Color, Color> recoloring) {
+		if (recoloring != null && first instanceof ColoredAlligator) {
+			final Color color = ((ColoredAlligator) first).getColor();
+			final Color otherColor = ((ColoredAlligator) second).getColor();
+			if (!color.equals(otherColor)) {
+				recoloring.remove(otherColor);
+			}
+		}
+	}
+
+	private static void abortMatch(Parent[] firsts, Parent[] seconds,
+			int size, Map<Color, Color> recoloring) {
+		for (int i = size - 1; i >= 0; i--) {
+			leaveMatch(firsts[i], seconds[i], recoloring);
+		}
 	}
 
 	/**
 	 * Causes the given visitor to visit all children of this parent instance.
 	 * Deprecated since the usage of this (convenience) method often indicates
 	 * poor abstraction of the traversal strategy. Instead, specializations of
-	 * {@link StrategyBoardObjectVisitor} should be used.
+	 * {@link StrategyBoardObjectVisitor} should be used, which also do not
+	 * recurse once per level of the family as visitors calling this method
+	 * do.
 	 * 
 	 * @param visitor
 	 */
 	@Deprecated
 	public void acceptOnChildren(BoardObjectVisitor visitor) {
-		for (InternalBoardObject child : this) {
-			child.accept(visitor);
+		for (int i = 0; i < children.size(); i++) {
+			children.get(i).accept(visitor);
+		}
+	}
+
+	/**
+	 * The buffers used while recomputing summaries, see {@link #BUFFERS}.
+	 */
+	private static final class SummaryBuffers {
+		final List<Parent> outdated = new ArrayList<Parent>();
+		private int[] ids = new int[16];
+		private long[] positions = new long[16];
+
+		int[] ids(int count) {
+			if (ids.length < count) {
+				ids = new int[Math.max(count, ids.length * 2)];
+			}
+			return ids;
+		}
+
+		long[] positions(int count) {
+			if (positions.length < count) {
+				positions = new long[Math.max(count, positions.length * 2)];
+			}
+			return positions;
 		}
 	}
 }
@@ -0,0 +1,579 @@
+package de.croggle.game.board.compact;
+
+import java.util.Arrays;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+import de.croggle.game.board.operations.BoardObjectVisitor;
+
+/**
+ * A board encoded in flat arrays of primitive values instead of a tree of
+ * objects. Every board object is a node, identified by its index into the
+ * arrays. For every node, its kind, color, flags, parent, first child and next
+ * sibling are stored. The children of a node therefore form a singly linked
+ * list, which starts at its first child.
+ *
+ * The board itself is always the node {@link #ROOT}. Nodes which are removed
+ * from the board are kept in a free list and reused for new nodes, so that the
+ * arrays only grow as long as the board does.
+ *
+ * Nodes of the kind {@link #REFERENCE} stand for another node, its
+ * <em>target</em>, which is stored as the first child of the reference. This
+ * allows several places of a board to share one family, as long as that family
+ * is not modified anymore. A reference is never the target of another
+ * reference.
+ *
+ * Compact boards are meant for evaluating boards in bulk, see
+ * {@link CompactSimulator}. They can be converted from and to the regular
+ * board objects without losing information.
+ */
+public class CompactBoard {
+	/**
+	 * The kind of the node representing the board.
+	 */
+	public static final int BOARD = 0;
+	/**
+	 * The kind of nodes representing eggs.
+	 */
+	public static final int EGG = 1;
+	/**
+	 * The kind of nodes representing colored alligators.
+	 */
+	public static final int COLORED_ALLIGATOR = 2;
+	/**
+	 * The kind of nodes representing aged alligators.
+	 */
+	public static final int AGED_ALLIGATOR = 3;
+	/**
+	 * The kind of nodes which refer to a shared family.
+	 */
+	public static final int REFERENCE = 4;
+	/**
+	 * The kind of nodes which are not in use.
+	 */
+	static final int FREE = -1;
+
+	/**
+	 * The index of the node representing the board.
+	 */
+	public static final int ROOT = 0;
+	/**
+	 * The index used if there is no parent, child or sibling.
+	 */
+	public static final int NONE = -1;
+	/**
+	 * The color of nodes which are {@link Color#uncolored() uncolored} or
+	 * cannot have a color at all.
+	 */
+	public static final int UNCOLORED = -1;
+
+	static final int MOVABLE = 1;
+	static final int REMOVABLE = 2;
+	static final int RECOLORABLE = 4;
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	int[] kind;
+	int[] color;
+	int[] flags;
+	int[] parent;
+	int[] firstChild;
+	int[] nextSibling;
+
+	private int allocated;
+	private int freeList;
+	private final int[] kindCount;
+
+	/**
+	 * Creates a new compact board containing no objects but the board itself.
+	 */
+	public CompactBoard() {
+		kind = new int[INITIAL_CAPACITY];
+		color = new int[INITIAL_CAPACITY];
+		flags = new int[INITIAL_CAPACITY];
+		parent = new int[INITIAL_CAPACITY];
+		firstChild = new int[INITIAL_CAPACITY];
+		nextSibling = new int[INITIAL_CAPACITY];
+		allocated = 0;
+		freeList = NONE;
+		kindCount = new int[5];
+		allocate(BOARD, UNCOLORED, 0);
+	}
+
+	/**
+	 * Encodes the given board as a compact board.
+	 *
+	 * @param board
+	 *            the board to encode
+	 * @return a compact board representing the same board
+	 */
+	public static CompactBoard fromBoard(Board board) {
+		final CompactBoard compact = new CompactBoard();
+		final Encoder encoder = new Encoder(compact);
+		encoder.encodeChildren(board, ROOT);
+		return compact;
+	}
+
+	/**
+	 * Decodes this compact board into a newly created board.
+	 *
+	 * @return a board representing the same board as this compact board
+	 */
+	public Board toBoard() {
+		final Board board = new Board();
+		decodeChildren(ROOT, board);
+		return board;
+	}
+
+	/**
+	 * Returns the number of nodes in use, including the board itself. If
+	 * families are shared using references, this is the number of nodes
+	 * actually stored, which can be much lower than the number of objects on
+	 * the board.
+	 *
+	 * @return the number of nodes on the board
+	 */
+	public int getNodeCount() {
+		return kindCount[BOARD] + kindCount[EGG] + kindCount[COLORED_ALLIGATOR]
+				+ kindCount[AGED_ALLIGATOR] + kindCount[REFERENCE];
+	}
+
+	/**
+	 * Returns the number of nodes of the given kind.
+	 *
+	 * @param nodeKind
+	 *            one of {@link #BOARD}, {@link #EGG},
+	 *            {@link #COLORED_ALLIGATOR}, {@link #AGED_ALLIGATOR} and
+	 *            {@link #REFERENCE}
+	 * @return the number of nodes of that kind
+	 */
+	public int getNodeCount(int nodeKind) {
+		return kindCount[nodeKind];
+	}
+
+	/**
+	 * Returns the kind of the given node.
+	 *
+	 * @param node
+	 *            the index of the node
+	 * @return one of {@link #BOARD}, {@link #EGG}, {@link #COLORED_ALLIGATOR},
+	 *         {@link #AGED_ALLIGATOR} and {@link #REFERENCE}
+	 */
+	public int getKind(int node) {
+		return kind[node];
+	}
+
+	/**
+	 * Returns the color id of the given node.
+	 *
+	 * @param node
+	 *            the index of the node
+	 * @return the color id, or {@link #UNCOLORED}
+	 */
+	public int getColor(int node) {
+		return color[node];
+	}
+
+	/**
+	 * Returns the parent of the given node.
+	 *
+	 * @param node
+	 *            the index of the node
+	 * @return the index of the parent, or {@link #NONE}
+	 */
+	public int getParent(int node) {
+		return parent[node];
+	}
+
+	/**
+	 * Returns the first child of the given node. For references, this is the
+	 * target of the reference.
+	 *
+	 * @param node
+	 *            the index of the node
+	 * @return the index of the first child, or {@link #NONE}
+	 */
+	public int getFirstChild(int node) {
+		return firstChild[node];
+	}
+
+	/**
+	 * Returns the sibling next to the given node.
+	 *
+	 * @param node
+	 *            the index of the node
+	 * @return the index of the next sibling, or {@link #NONE}
+	 */
+	public int getNextSibling(int node) {
+		return nextSibling[node];
+	}
+
+	/**
+	 * Creates a new node, which is not yet part of the board.
+	 *
+	 * @param nodeKind
+	 *            the kind of the node
+	 * @param nodeColor
+	 *            the color of the node
+	 * @param nodeFlags
+	 *            the flags of the node
+	 * @return the index of the new node
+	 */
+	int allocate(int nodeKind, int nodeColor, int nodeFlags) {
+		final int node;
+		if (freeList != NONE) {
+			node = freeList;
+			freeList = nextSibling[node];
+		} else {
+			if (allocated == kind.length) {
+				grow();
+			}
+			node = allocated++;
+		}
+		kind[node] = nodeKind;
+		color[node] = nodeColor;
+		flags[node] = nodeFlags;
+		parent[node] = NONE;
+		firstChild[node] = NONE;
+		nextSibling[node] = NONE;
+		kindCount[nodeKind]++;
+		return node;
+	}
+
+	/**
+	 * Releases a single node, which must not be part of the board anymore. Its
+	 * children are not released.
+	 *
+	 * @param node
+	 *            the node to release
+	 */
+	void free(int node) {
+		kindCount[kind[node]]--;
+		kind[node] = FREE;
+		nextSibling[node] = freeList;
+		freeList = node;
+	}
+
+	/**
+	 * Returns the number of node indices handed out so far, including those of
+	 * released nodes.
+	 *
+	 * @return the upper bound of node indices
+	 */
+	int getAllocatedCount() {
+		return allocated;
+	}
+
+	/**
+	 * Releases a node and all of its descendants. The target of a reference is
+	 * not released, as it might be shared.
+	 *
+	 * @param node
+	 *            the topmost node to release
+	 */
+	void freeSubtree(int node) {
+		if (kind[node] == REFERENCE) {
+			free(node);
+			return;
+		}
+		int child = firstChild[node];
+		while (child != NONE) {
+			final int next = nextSibling[child];
+			freeSubtree(child);
+			child = next;
+		}
+		free(node);
+	}
+
+	/**
+	 * Changes the kind of a node.
+	 *
+	 * @param node
+	 *            the node to change
+	 * @param nodeKind
+	 *            the new kind of the node
+	 */
+	void setKind(int node, int nodeKind) {
+		kindCount[kind[node]]--;
+		kind[node] = nodeKind;
+		kindCount[nodeKind]++;
+	}
+
+	/**
+	 * Creates a copy of a node and all of its descendants. The copy is not
+	 * part of the board. References are copied as references to the same
+	 * target.
+	 *
+	 * @param node
+	 *            the topmost node to copy
+	 * @return the index of the copied node
+	 */
+	int copySubtree(int node) {
+		final int copy = allocate(kind[node], color[node], flags[node]);
+		if (kind[node] == REFERENCE) {
+			firstChild[copy] = firstChild[node];
+			return copy;
+		}
+		int last = NONE;
+		for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			final int copiedChild = copySubtree(child);
+			parent[copiedChild] = copy;
+			if (last == NONE) {
+				firstChild[copy] = copiedChild;
+			} else {
+				nextSibling[last] = copiedChild;
+			}
+			last = copiedChild;
+		}
+		return copy;
+	}
+
+	/**
+	 * Appends a node to the children of another one.
+	 *
+	 * @param node
+	 *            the new parent of the child
+	 * @param child
+	 *            the node to append
+	 */
+	void appendChild(int node, int child) {
+		parent[child] = node;
+		nextSibling[child] = NONE;
+		int last = firstChild[node];
+		if (last == NONE) {
+			firstChild[node] = child;
+		} else {
+			while (nextSibling[last] != NONE) {
+				last = nextSibling[last];
+			}
+			nextSibling[last] = child;
+		}
+	}
+
+	/**
+	 * Returns the child of <code>node</code> in front of the given child.
+	 *
+	 * @param node
+	 *            the parent of the child
+	 * @param child
+	 *            the child whose predecessor is searched
+	 * @return the previous sibling, or {@link #NONE} if <code>child</code> is
+	 *         the first child
+	 */
+	int previousSibling(int node, int child) {
+		int previous = NONE;
+		for (int current = firstChild[node]; current != child; current = nextSibling[current]) {
+			previous = current;
+		}
+		return previous;
+	}
+
+	/**
+	 * Replaces a child, which is preceded by the given sibling, with another
+	 * node. The replaced child keeps its children.
+	 *
+	 * @param node
+	 *            the parent of the child
+	 * @param previous
+	 *            the sibling in front of the child, or {@link #NONE}
+	 * @param child
+	 *            the child to replace
+	 * @param replacement
+	 *            the node replacing the child
+	 */
+	void replaceChild(int node, int previous, int child, int replacement) {
+		parent[replacement] = node;
+		nextSibling[replacement] = nextSibling[child];
+		if (previous == NONE) {
+			firstChild[node] = replacement;
+		} else {
+			nextSibling[previous] = replacement;
+		}
+		parent[child] = NONE;
+		nextSibling[child] = NONE;
+	}
+
+	/**
+	 * Removes a child, which is preceded by the given sibling.
+	 *
+	 * @param node
+	 *            the parent of the child
+	 * @param previous
+	 *            the sibling in front of the child, or {@link #NONE}
+	 * @param child
+	 *            the child to remove
+	 */
+	void removeChild(int node, int previous, int child) {
+		if (previous == NONE) {
+			firstChild[node] = nextSibling[child];
+		} else {
+			nextSibling[previous] = nextSibling[child];
+		}
+		parent[child] = NONE;
+		nextSibling[child] = NONE;
+	}
+
+	/**
+	 * Replaces a child, which is preceded by the given sibling, with its own
+	 * children.
+	 *
+	 * @param node
+	 *            the parent of the child
+	 * @param previous
+	 *            the sibling in front of the child, or {@link #NONE}
+	 * @param child
+	 *            the child to replace
+	 * @return the last of the inserted children, or <code>previous</code> if
+	 *         the child had no children
+	 */
+	int spliceChild(int node, int previous, int child) {
+		int last = previous;
+		for (int grandChild = firstChild[child]; grandChild != NONE; grandChild = nextSibling[grandChild]) {
+			parent[grandChild] = node;
+			if (last == NONE) {
+				firstChild[node] = grandChild;
+			} else {
+				nextSibling[last] = grandChild;
+			}
+			last = grandChild;
+		}
+		if (last == NONE) {
+			firstChild[node] = nextSibling[child];
+		} else {
+			nextSibling[last] = nextSibling[child];
+		}
+		firstChild[child] = NONE;
+		parent[child] = NONE;
+		nextSibling[child] = NONE;
+		return last;
+	}
+
+	private void grow() {
+		final int capacity = kind.length * 2;
+		kind = Arrays.copyOf(kind, capacity);
+		color = Arrays.copyOf(color, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		parent = Arrays.copyOf(parent, capacity);
+		firstChild = Arrays.copyOf(firstChild, capacity);
+		nextSibling = Arrays.copyOf(nextSibling, capacity);
+	}
+
+	private void decodeChildren(int node, Parent target) {
+		for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			decode(kind[child] == REFERENCE ? firstChild[child] : child, target);
+		}
+	}
+
+	private void decode(int child, Parent target) {
+		{
+			final boolean movable = (flags[child] & MOVABLE) != 0;
+			final boolean removable = (flags[child] & REMOVABLE) != 0;
+			final boolean recolorable = (flags[child] & RECOLORABLE) != 0;
+			final InternalBoardObject decoded;
+			switch (kind[child]) {
+			case EGG:
+				decoded = new Egg(movable, removable, decodeColor(color[child]),
+						recolorable);
+				break;
+			case COLORED_ALLIGATOR:
+				final ColoredAlligator colored = new ColoredAlligator(movable,
+						removable, decodeColor(color[child]), recolorable);
+				decodeChildren(child, colored);
+				decoded = colored;
+				break;
+			case AGED_ALLIGATOR:
+				final AgedAlligator aged = new AgedAlligator(movable, removable);
+				decodeChildren(child, aged);
+				decoded = aged;
+				break;
+			default:
+				throw new IllegalStateException("Invalid kind of node " + child
+						+ ": " + kind[child]);
+			}
+			target.addChild(decoded);
+		}
+	}
+
+	static Color decodeColor(int id) {
+		if (id == UNCOLORED) {
+			return Color.uncolored();
+		}
+		return Color.of(id);
+	}
+
+	static int encodeColor(Color color) {
+		if (color == Color.uncolored()) {
+			return UNCOLORED;
+		}
+		return color.getId();
+	}
+
+	static int flagsOf(InternalBoardObject object, boolean recolorable) {
+		int result = 0;
+		if (object.isMovable()) {
+			result |= MOVABLE;
+		}
+		if (object.isRemovable()) {
+			result |= REMOVABLE;
+		}
+		if (recolorable) {
+			result |= RECOLORABLE;
+		}
+		return result;
+	}
+
+	/**
+	 * Appends encoded copies of the children of a parent to a node.
+	 */
+	private static class Encoder implements BoardObjectVisitor {
+		private final CompactBoard compact;
+		private int target;
+
+		public Encoder(CompactBoard compact) {
+			this.compact = compact;
+		}
+
+		public void encodeChildren(Parent p, int node) {
+			for (InternalBoardObject child : p) {
+				target = node;
+				child.accept(this);
+			}
+		}
+
+		@Override
+		public void visitEgg(Egg egg) {
+			final int node = compact.allocate(EGG,
+					encodeColor(egg.getColor()),
+					flagsOf(egg, egg.isRecolorable()));
+			compact.appendChild(target, node);
+		}
+
+		@Override
+		public void visitColoredAlligator(ColoredAlligator alligator) {
+			final int node = compact.allocate(COLORED_ALLIGATOR,
+					encodeColor(alligator.getColor()),
+					flagsOf(alligator, alligator.isRecolorable()));
+			compact.appendChild(target, node);
+			encodeChildren(alligator, node);
+		}
+
+		@Override
+		public void visitAgedAlligator(AgedAlligator alligator) {
+			final int node = compact.allocate(AGED_ALLIGATOR, UNCOLORED,
+					flagsOf(alligator, false));
+			compact.appendChild(target, node);
+			encodeChildren(alligator, node);
+		}
+
+		@Override
+		public void visitBoard(Board board) {
+			throw new IllegalArgumentException(
+					"A board cannot be part of another board");
+		}
+	}
+}
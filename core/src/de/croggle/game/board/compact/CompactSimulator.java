@@ -0,0 +1,733 @@
+package de.croggle.game.board.compact;
+
+import static de.croggle.game.board.compact.CompactBoard.AGED_ALLIGATOR;
+import static de.croggle.game.board.compact.CompactBoard.COLORED_ALLIGATOR;
+import static de.croggle.game.board.compact.CompactBoard.EGG;
+import static de.croggle.game.board.compact.CompactBoard.FREE;
+import static de.croggle.game.board.compact.CompactBoard.NONE;
+import static de.croggle.game.board.compact.CompactBoard.RECOLORABLE;
+import static de.croggle.game.board.compact.CompactBoard.REFERENCE;
+import static de.croggle.game.board.compact.CompactBoard.ROOT;
+import static de.croggle.game.board.compact.CompactBoard.UNCOLORED;
+
+import java.util.Arrays;
+
+import de.croggle.game.Color;
+import de.croggle.game.ColorOverflowException;
+import de.croggle.game.NormalizationResult;
+import de.croggle.game.Simulator;
+import de.croggle.game.board.AlligatorOverflowException;
+
+/**
+ * A simulator evaluating {@link CompactBoard}s. Every evaluation step has the
+ * same outcome as {@link Simulator#evaluate()} on the equivalent board,
+ * including the choice of the eating alligator, recoloring and the removal of
+ * aged alligators. As no objects are created and no events are sent, it is
+ * suited for evaluating many boards in bulk, e.g. for validating levels.
+ *
+ * Colors are handled as bit masks, with one bit for every color id and an
+ * additional bit for uncolored objects.
+ *
+ * If sharing is enabled, eggs do not hatch into copies of the eaten family.
+ * Instead, the eaten family is frozen and every hatched egg becomes a
+ * {@link CompactBoard#REFERENCE} to it (call-by-need). A reference is only
+ * unfolded into real nodes, one level at a time, when an evaluation step has to
+ * change something inside of it: an alligator inside which eats, eggs inside
+ * which hatch, colors inside which need to be exchanged, or aged alligators
+ * inside which are removed. For this, a summary of every frozen node is kept.
+ * The board
+ * described by a sharing simulator is the same as without sharing after every
+ * step, but the limit of {@link Simulator#MAX_ALLIGATORS} applies to the nodes
+ * actually stored instead of the objects on the board, so that boards which
+ * mostly duplicate families can be evaluated much further.
+ */
+public class CompactSimulator {
+	private static final int UNCOLORED_BIT = 1 << Color.MAX_COLORS;
+	private static final int ALL_COLORS = UNCOLORED_BIT - 1;
+
+	/*
+	 * Markers for the traversal stack, used when a colored alligator is left
+	 * again during the replacement of eggs.
+	 */
+	private static final int ENTER = 0;
+	private static final int LEAVE_AND_UNBIND = 1;
+
+	private final CompactBoard board;
+	private final boolean sharing;
+	private int steps;
+
+	private int[] stack;
+	private int[] stackState;
+	private int[] order;
+
+	/*
+	 * The state of the egg replacement currently in progress.
+	 */
+	private int constellation;
+	private int eggColor;
+	private int prototype;
+	private int outerBoundColors;
+	private int locallyBoundColors;
+
+	/*
+	 * Summaries of frozen nodes, which may be the target of references.
+	 */
+	private int[] summaryColors;
+	private int[] summaryEggColors;
+	private int[] summaryBoundColors;
+	private int[] summaryFreeColors;
+	private boolean[] summaryEater;
+	private boolean[] summaryUnstable;
+
+	private int[] marks;
+	private int markEpoch;
+
+	/**
+	 * Creates a new simulator evaluating the given board in place, copying the
+	 * eaten family for every hatching egg.
+	 *
+	 * @param board
+	 *            the board to evaluate
+	 */
+	public CompactSimulator(CompactBoard board) {
+		this(board, false);
+	}
+
+	/**
+	 * Creates a new simulator evaluating the given board in place.
+	 *
+	 * @param board
+	 *            the board to evaluate
+	 * @param sharing
+	 *            whether hatching eggs should share the eaten family instead of
+	 *            copying it
+	 */
+	public CompactSimulator(CompactBoard board, boolean sharing) {
+		this.board = board;
+		this.sharing = sharing;
+		steps = 0;
+		stack = new int[64];
+		stackState = new int[64];
+		order = new int[64];
+		summaryColors = new int[0];
+		summaryEggColors = new int[0];
+		summaryBoundColors = new int[0];
+		summaryFreeColors = new int[0];
+		summaryEater = new boolean[0];
+		summaryUnstable = new boolean[0];
+		marks = new int[0];
+		markEpoch = 0;
+	}
+
+	/**
+	 * Evaluates one step in the lambda calculus.
+	 *
+	 * @return true if an evaluation step has happened, false otherwise
+	 * @throws ColorOverflowException
+	 *             if recoloring occurs and there is no color available
+	 * @throws AlligatorOverflowException
+	 *             if there are more than the max. allowed amount of objects on
+	 *             the board after the evaluation step
+	 */
+	public boolean evaluate() throws ColorOverflowException,
+			AlligatorOverflowException {
+		final int eater = findEater();
+		if (eater == NONE) {
+			return false;
+		}
+		final int eaten = board.nextSibling[eater];
+		final int prototype;
+		if (!sharing) {
+			predictAlligatorOverflow(eater, eaten);
+			prototype = eaten;
+			summarize(prototype);
+		} else if (board.kind[eaten] == REFERENCE) {
+			// already frozen and summarized
+			prototype = board.firstChild[eaten];
+		} else {
+			/*
+			 * Summarized in its current place, which binds its free eggs the
+			 * same way as the places it is going to be shared to.
+			 */
+			prototype = eaten;
+			summarize(prototype);
+		}
+
+		board.removeChild(board.parent[eater], eater, eaten);
+		final int color = board.color[eater];
+		board.setKind(eater, AGED_ALLIGATOR);
+		board.color[eater] = UNCOLORED;
+		board.flags[eater] &= ~RECOLORABLE;
+		try {
+			replaceEggs(eater, color, prototype);
+		} finally {
+			if (!sharing) {
+				board.freeSubtree(eaten);
+			}
+		}
+
+		removeLonelyAgedAlligators(collectParentsBottomUp());
+		removeNeedlessAgedAlligators(collectParentsBottomUp());
+		if (sharing) {
+			collectGarbage();
+		}
+		if (Simulator.MAX_ALLIGATORS < board.getNodeCount()) {
+			throw new AlligatorOverflowException();
+		}
+		steps++;
+		return true;
+	}
+
+	/**
+	 * Evaluates the board until it is in normal form or the given number of
+	 * steps has been performed.
+	 *
+	 * @param maxSteps
+	 *            the maximum number of steps to perform
+	 * @return the reason for which the evaluation stopped
+	 */
+	public NormalizationResult.Termination normalize(int maxSteps) {
+		for (int performed = 0;; performed++) {
+			if (performed >= maxSteps) {
+				return findEater() == NONE ? NormalizationResult.Termination.NORMAL_FORM
+						: NormalizationResult.Termination.STEP_LIMIT;
+			}
+			try {
+				if (!evaluate()) {
+					return NormalizationResult.Termination.NORMAL_FORM;
+				}
+			} catch (ColorOverflowException e) {
+				return NormalizationResult.Termination.COLOR_OVERFLOW;
+			} catch (AlligatorOverflowException e) {
+				return NormalizationResult.Termination.ALLIGATOR_OVERFLOW;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of evaluation steps performed so far.
+	 *
+	 * @return the number of steps
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns the board evaluated by this simulator.
+	 *
+	 * @return the board
+	 */
+	public CompactBoard getBoard() {
+		return board;
+	}
+
+	/**
+	 * Returns whether hatching eggs share the eaten family instead of copying
+	 * it.
+	 *
+	 * @return true if families are shared, false otherwise
+	 */
+	public boolean isSharing() {
+		return sharing;
+	}
+
+	/**
+	 * Searches the next colored alligator which is able to eat, in the same
+	 * order as {@link de.croggle.game.board.operations.FindEating}: depth
+	 * first and top down, searching the children of a node from the last to
+	 * the first one. References are only unfolded if they contain an eater,
+	 * which is then the next one in this order.
+	 */
+	private int findEater() {
+		int size = 0;
+		push(size++, ROOT, ENTER);
+		while (size > 0) {
+			final int node = stack[--size];
+			if (board.kind[node] == REFERENCE) {
+				if (!summaryEater[board.firstChild[node]]) {
+					continue;
+				}
+				unfold(node);
+			}
+			if (board.kind[node] != EGG) {
+				final int first = board.firstChild[node];
+				if (first != NONE && kindOf(first) == COLORED_ALLIGATOR
+						&& board.nextSibling[first] != NONE) {
+					if (board.kind[first] == REFERENCE) {
+						unfold(first);
+					}
+					return first;
+				}
+				for (int child = first; child != NONE; child = board.nextSibling[child]) {
+					push(size++, child, ENTER);
+				}
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Rejects a step before anything is changed, if the board would certainly
+	 * contain too many objects afterwards, like {@link Simulator} does.
+	 */
+	private void predictAlligatorOverflow(int eater, int eaten)
+			throws AlligatorOverflowException {
+		final int hatching = countEggs(eater, board.color[eater]);
+		final int eatenSize = countNonAged(eaten);
+		final int predicted = board.getNodeCount()
+				- board.getNodeCount(AGED_ALLIGATOR) - 1 - eatenSize
+				+ hatching * (eatenSize - 1);
+		if (Simulator.MAX_ALLIGATORS < predicted) {
+			throw new AlligatorOverflowException();
+		}
+	}
+
+	/**
+	 * Replaces all eggs of the given color below the constellation with copies
+	 * of, or references to, the summarized prototype, recoloring like
+	 * {@link de.croggle.game.board.operations.ReplaceEggs} does.
+	 */
+	private void replaceEggs(int constellation, int eggColor, int prototype)
+			throws ColorOverflowException {
+		this.constellation = constellation;
+		this.eggColor = eggColor;
+		this.prototype = prototype;
+		outerBoundColors = 0;
+		for (int p = board.parent[constellation]; p != NONE; p = board.parent[p]) {
+			if (board.kind[p] == COLORED_ALLIGATOR) {
+				outerBoundColors |= bit(board.color[p]);
+			}
+		}
+		locallyBoundColors = 0;
+
+		int size = 0;
+		push(size++, constellation, ENTER);
+		while (size > 0) {
+			final int node = stack[--size];
+			if (stackState[size] == LEAVE_AND_UNBIND) {
+				locallyBoundColors &= ~bit(board.color[node]);
+				continue;
+			}
+			if (board.kind[node] == REFERENCE) {
+				if ((summaryEggColors[board.firstChild[node]] & bit(eggColor)) == 0) {
+					continue;
+				}
+				unfold(node);
+			}
+			switch (board.kind[node]) {
+			case EGG:
+				if (board.color[node] == eggColor) {
+					hatch(node);
+				}
+				break;
+			case COLORED_ALLIGATOR:
+				final int colorBit = bit(board.color[node]);
+				if ((locallyBoundColors & colorBit) == 0) {
+					locallyBoundColors |= colorBit;
+					push(size++, node, LEAVE_AND_UNBIND);
+				}
+				size = pushChildrenInOrder(node, size);
+				break;
+			default:
+				size = pushChildrenInOrder(node, size);
+				break;
+			}
+		}
+	}
+
+	private void hatch(int egg) throws ColorOverflowException {
+		final int prototypeFreeColors = summaryFreeColors[prototype];
+		final int prototypeBoundColors = summaryBoundColors[prototype];
+		int unusableColors = outerBoundColors | locallyBoundColors
+				| prototypeFreeColors | prototypeBoundColors | bit(eggColor);
+		int conflicts = locallyBoundColors & prototypeFreeColors & ALL_COLORS;
+		while (conflicts != 0) {
+			final int oldColor = Integer.numberOfTrailingZeros(conflicts);
+			conflicts &= conflicts - 1;
+			final int newColor = requestColor(unusableColors);
+			unusableColors |= bit(newColor);
+			exchangeColor(constellation, oldColor, newColor);
+			locallyBoundColors = (locallyBoundColors & ~bit(oldColor))
+					| bit(newColor);
+		}
+
+		conflicts = locallyBoundColors & prototypeBoundColors & ALL_COLORS;
+		final int replacement = sharing && conflicts == 0 ? reference(prototype)
+				: board.copySubtree(prototype);
+		while (conflicts != 0) {
+			final int oldColor = Integer.numberOfTrailingZeros(conflicts);
+			conflicts &= conflicts - 1;
+			final int newColor = requestColor(unusableColors);
+			unusableColors |= bit(newColor);
+			exchangeColor(replacement, oldColor, newColor);
+		}
+
+		final int parent = board.parent[egg];
+		board.replaceChild(parent, board.previousSibling(parent, egg), egg,
+				replacement);
+		board.free(egg);
+	}
+
+	/**
+	 * Summarizes the colors and eaters in the given family. The family must
+	 * not be changed anymore afterwards, if it is shared. If sharing is
+	 * enabled, it is also noted whether removing aged alligators would change
+	 * anything in the family, which depends on the alligators above it.
+	 */
+	private void summarize(int node) {
+		if (summaryColors.length < board.kind.length) {
+			final int capacity = board.kind.length;
+			summaryColors = Arrays.copyOf(summaryColors, capacity);
+			summaryEggColors = Arrays.copyOf(summaryEggColors, capacity);
+			summaryBoundColors = Arrays.copyOf(summaryBoundColors, capacity);
+			summaryFreeColors = Arrays.copyOf(summaryFreeColors, capacity);
+			summaryEater = Arrays.copyOf(summaryEater, capacity);
+			summaryUnstable = Arrays.copyOf(summaryUnstable, capacity);
+		}
+		final int kind = board.kind[node];
+		if (kind == EGG) {
+			final int colorBit = bit(board.color[node]);
+			summaryColors[node] = colorBit;
+			summaryEggColors[node] = colorBit;
+			summaryBoundColors[node] = 0;
+			summaryFreeColors[node] = colorBit;
+			summaryEater[node] = false;
+			summaryUnstable[node] = false;
+			return;
+		}
+		int colors = 0;
+		int eggColors = 0;
+		int boundColors = 0;
+		int freeColors = 0;
+		final int first = board.firstChild[node];
+		boolean eater = first != NONE && board.nextSibling[first] != NONE
+				&& kindOf(first) == COLORED_ALLIGATOR;
+		boolean unstable = sharing
+				&& (hasLonelyAgedAlligator(node) || hasNeedlessAgedAlligator(node));
+		for (int child = first; child != NONE; child = board.nextSibling[child]) {
+			final int summarized;
+			if (board.kind[child] == REFERENCE) {
+				summarized = board.firstChild[child];
+			} else {
+				summarize(child);
+				summarized = child;
+			}
+			colors |= summaryColors[summarized];
+			eggColors |= summaryEggColors[summarized];
+			boundColors |= summaryBoundColors[summarized];
+			freeColors |= summaryFreeColors[summarized];
+			eater |= summaryEater[summarized];
+			unstable |= summaryUnstable[summarized];
+		}
+		if (kind == COLORED_ALLIGATOR) {
+			final int colorBit = bit(board.color[node]);
+			colors |= colorBit;
+			boundColors |= colorBit;
+			freeColors &= ~colorBit;
+		}
+		summaryColors[node] = colors;
+		summaryEggColors[node] = eggColors;
+		summaryBoundColors[node] = boundColors;
+		summaryFreeColors[node] = freeColors;
+		summaryEater[node] = eater;
+		summaryUnstable[node] = unstable;
+	}
+
+	/**
+	 * Creates a node standing for the given frozen node. Eggs are copied, as
+	 * a reference would not be any smaller.
+	 */
+	private int reference(int target) {
+		if (board.kind[target] == EGG) {
+			return board.allocate(EGG, board.color[target], board.flags[target]);
+		}
+		final int node = board.allocate(REFERENCE, UNCOLORED, 0);
+		board.firstChild[node] = target;
+		return node;
+	}
+
+	/**
+	 * Turns a reference into a copy of its target, whose children are
+	 * references to the children of the target. The node keeps its index and
+	 * its place on the board.
+	 */
+	private void unfold(int node) {
+		final int target = board.firstChild[node];
+		board.setKind(node, board.kind[target]);
+		board.color[node] = board.color[target];
+		board.flags[node] = board.flags[target];
+		board.firstChild[node] = NONE;
+		int last = NONE;
+		for (int child = board.firstChild[target]; child != NONE; child = board.nextSibling[child]) {
+			final int copy = reference(resolve(child));
+			board.parent[copy] = node;
+			if (last == NONE) {
+				board.firstChild[node] = copy;
+			} else {
+				board.nextSibling[last] = copy;
+			}
+			last = copy;
+		}
+	}
+
+	private void exchangeColor(int node, int oldColor, int newColor) {
+		if (board.kind[node] == REFERENCE) {
+			if ((summaryColors[board.firstChild[node]] & bit(oldColor)) == 0) {
+				return;
+			}
+			unfold(node);
+		}
+		final int kind = board.kind[node];
+		if ((kind == EGG || kind == COLORED_ALLIGATOR)
+				&& board.color[node] == oldColor) {
+			board.color[node] = newColor;
+		}
+		for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+			exchangeColor(child, oldColor, newColor);
+		}
+	}
+
+	/**
+	 * Replaces aged alligators with at most one child by that child, like
+	 * {@link de.croggle.game.board.operations.RemoveLonelyAgedAlligators}.
+	 * Only the given number of parents stored in {@link #order} are examined.
+	 */
+	private void removeLonelyAgedAlligators(int parents) {
+		for (int i = parents - 1; i >= 0; i--) {
+			final int node = order[i];
+			int previous = NONE;
+			int child = board.firstChild[node];
+			while (child != NONE) {
+				final int next = board.nextSibling[child];
+				final int first = board.firstChild[resolve(child)];
+				if (kindOf(child) == AGED_ALLIGATOR
+						&& (first == NONE || board.nextSibling[first] == NONE)) {
+					if (first == NONE) {
+						board.removeChild(node, previous, child);
+					} else if (board.kind[child] == REFERENCE) {
+						final int replacement = reference(resolve(first));
+						board.replaceChild(node, previous, child, replacement);
+						previous = replacement;
+					} else {
+						board.firstChild[child] = NONE;
+						board.replaceChild(node, previous, child, first);
+						previous = first;
+					}
+					board.free(child);
+				} else {
+					previous = child;
+				}
+				child = next;
+			}
+		}
+	}
+
+	/**
+	 * Replaces aged alligators which are only preceded by free eggs with their
+	 * children, like
+	 * {@link de.croggle.game.board.operations.RemoveNeedlessAgedAlligators}.
+	 * Only the given number of parents stored in {@link #order} are examined.
+	 */
+	private void removeNeedlessAgedAlligators(int parents) {
+		for (int i = parents - 1; i >= 0; i--) {
+			final int node = order[i];
+			int previous = NONE;
+			int child = board.firstChild[node];
+			while (child != NONE && board.kind[child] == EGG) {
+				if (isBound(child)) {
+					child = NONE;
+					break;
+				}
+				previous = child;
+				child = board.nextSibling[child];
+			}
+			if (child != NONE && kindOf(child) == AGED_ALLIGATOR) {
+				if (board.kind[child] == REFERENCE) {
+					/*
+					 * reduce to the real case, the unfolded children are
+					 * references as well
+					 */
+					unfold(child);
+				}
+				board.spliceChild(node, previous, child);
+				board.free(child);
+			}
+		}
+	}
+
+	private boolean hasLonelyAgedAlligator(int node) {
+		for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+			final int first = board.firstChild[resolve(child)];
+			if (kindOf(child) == AGED_ALLIGATOR
+					&& (first == NONE || board.nextSibling[first] == NONE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasNeedlessAgedAlligator(int node) {
+		int child = board.firstChild[node];
+		while (child != NONE && board.kind[child] == EGG) {
+			if (isBound(child)) {
+				return false;
+			}
+			child = board.nextSibling[child];
+		}
+		return child != NONE && kindOf(child) == AGED_ALLIGATOR;
+	}
+
+	private boolean isBound(int egg) {
+		final int color = board.color[egg];
+		for (int p = board.parent[egg]; p != NONE; p = board.parent[p]) {
+			if (board.kind[p] == COLORED_ALLIGATOR && board.color[p] == color) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Stores all nodes which may have children in {@link #order}, every node
+	 * in front of its descendants.
+	 * References are only descended into, i.e. unfolded, if removing aged
+	 * alligators would change anything below them.
+	 *
+	 * @return the number of stored nodes
+	 */
+	private int collectParentsBottomUp() {
+		int count = 0;
+		int size = 0;
+		push(size++, ROOT, ENTER);
+		while (size > 0) {
+			final int node = stack[--size];
+			if (board.kind[node] == REFERENCE) {
+				if (!summaryUnstable[board.firstChild[node]]) {
+					continue;
+				}
+				unfold(node);
+			}
+			if (board.kind[node] != EGG) {
+				if (count == order.length) {
+					order = Arrays.copyOf(order, count * 2);
+				}
+				order[count++] = node;
+				for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+					push(size++, child, ENTER);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Releases all nodes which cannot be reached from the board anymore, i.e.
+	 * frozen families nothing refers to anymore.
+	 */
+	private void collectGarbage() {
+		final int allocated = board.getAllocatedCount();
+		if (marks.length < allocated) {
+			marks = new int[board.kind.length];
+			markEpoch = 0;
+		}
+		markEpoch++;
+		int size = 0;
+		push(size++, ROOT, ENTER);
+		while (size > 0) {
+			final int node = stack[--size];
+			if (marks[node] == markEpoch) {
+				continue;
+			}
+			marks[node] = markEpoch;
+			if (board.kind[node] == REFERENCE) {
+				push(size++, board.firstChild[node], ENTER);
+			} else {
+				for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+					push(size++, child, ENTER);
+				}
+			}
+		}
+		for (int node = 0; node < allocated; node++) {
+			if (board.kind[node] != FREE && marks[node] != markEpoch) {
+				board.free(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the node a reference stands for, or the node itself.
+	 */
+	private int resolve(int node) {
+		return board.kind[node] == REFERENCE ? board.firstChild[node] : node;
+	}
+
+	/**
+	 * Returns the kind of the node a reference stands for, or of the node
+	 * itself.
+	 */
+	private int kindOf(int node) {
+		return board.kind[resolve(node)];
+	}
+
+	private int countEggs(int node, int color) {
+		if (board.kind[node] == EGG) {
+			return board.color[node] == color ? 1 : 0;
+		}
+		int count = 0;
+		for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+			count += countEggs(child, color);
+		}
+		return count;
+	}
+
+	private int countNonAged(int node) {
+		int count = board.kind[node] == AGED_ALLIGATOR ? 0 : 1;
+		for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+			count += countNonAged(child);
+		}
+		return count;
+	}
+
+	/**
+	 * Pushes the children of a node, so that the first child is popped first.
+	 */
+	private int pushChildrenInOrder(int node, int size) {
+		final int begin = size;
+		for (int child = board.firstChild[node]; child != NONE; child = board.nextSibling[child]) {
+			push(size++, child, ENTER);
+		}
+		for (int i = begin, j = size - 1; i < j; i++, j--) {
+			final int swap = stack[i];
+			stack[i] = stack[j];
+			stack[j] = swap;
+		}
+		return size;
+	}
+
+	private void push(int position, int node, int state) {
+		if (position == stack.length) {
+			stack = Arrays.copyOf(stack, position * 2);
+			stackState = Arrays.copyOf(stackState, position * 2);
+		}
+		stack[position] = node;
+		stackState[position] = state;
+	}
+
+	private static int bit(int color) {
+		if (color == UNCOLORED) {
+			return UNCOLORED_BIT;
+		}
+		return 1 << color;
+	}
+
+	private static int requestColor(int usedColors)
+			throws ColorOverflowException {
+		final int free = ~usedColors & ALL_COLORS;
+		if (free == 0) {
+			throw new ColorOverflowException(
+					"Exceeded maximum number of colors: " + Color.MAX_COLORS);
+		}
+		return Integer.numberOfTrailingZeros(free);
+	}
+}
@@ -0,0 +1,370 @@
+package de.croggle.game.board.compact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+
+/**
+ * An immutable family of board objects, whose structurally identical subtrees
+ * are shared. Shared families are created by a {@link SharedFamilyPool}, which
+ * makes sure that it creates every family with the same kind, color, flags and
+ * children only once. Within a pool, equal families are therefore identical,
+ * and two families can be compared by comparing their references.
+ *
+ * The kinds, colors and flags of shared families are encoded like the nodes of
+ * a {@link CompactBoard}. A shared family never contains references, though.
+ */
+public final class SharedFamily {
+	private static final SharedFamily[] NO_CHILDREN = new SharedFamily[0];
+
+	// the ways two families can be compared, see matchFamilies()
+	private static final int EQUAL = 0;
+	private static final int MATCH = 1;
+	private static final int MATCH_WITH_RECOLORING = 2;
+
+	private final int kind;
+	private final int color;
+	private final int flags;
+	private final SharedFamily[] children;
+	private final long objectCount;
+	private final int hash;
+
+	SharedFamily(int kind, int color, int flags, SharedFamily[] children) {
+		this.kind = kind;
+		this.color = color;
+		this.flags = flags;
+		this.children = children.length == 0 ? NO_CHILDREN : children;
+		long count = 1;
+		int h = 31 * (31 * kind + color) + flags;
+		for (SharedFamily child : children) {
+			// shared subtrees can make the count grow exponentially with depth
+			count = child.objectCount > Long.MAX_VALUE - count ? Long.MAX_VALUE
+					: count + child.objectCount;
+			h = 31 * h + child.hash;
+		}
+		objectCount = count;
+		hash = h;
+	}
+
+	/**
+	 * Returns the kind of the root of this family, which is one of the kinds
+	 * defined by {@link CompactBoard}, but never
+	 * {@link CompactBoard#REFERENCE}.
+	 *
+	 * @return the kind of the root of this family
+	 */
+	public int getKind() {
+		return kind;
+	}
+
+	/**
+	 * Returns the color id of the root of this family.
+	 *
+	 * @return the color id, or {@link CompactBoard#UNCOLORED}
+	 */
+	public int getColor() {
+		return color;
+	}
+
+	public boolean isMovable() {
+		return (flags & CompactBoard.MOVABLE) != 0;
+	}
+
+	public boolean isRemovable() {
+		return (flags & CompactBoard.REMOVABLE) != 0;
+	}
+
+	public boolean isRecolorable() {
+		return (flags & CompactBoard.RECOLORABLE) != 0;
+	}
+
+	public int getChildCount() {
+		return children.length;
+	}
+
+	public SharedFamily getChild(int pos) {
+		return children[pos];
+	}
+
+	/**
+	 * Returns the number of objects in this family, counting shared subtrees
+	 * once for every place they appear in. This is the number of objects the
+	 * family is decoded into.
+	 *
+	 * @return the number of objects in the family, including its root, or
+	 *         {@link Long#MAX_VALUE} if there are even more
+	 */
+	public long getObjectCount() {
+		return objectCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof SharedFamily)) {
+			return false;
+		}
+		final SharedFamily other = (SharedFamily) o;
+		if (!enterMatch(other, EQUAL, null)) {
+			return false;
+		}
+		for (int i = 0; i < children.length; i++) {
+			// children of the same pool are equal only if they are identical,
+			// so only families of different pools are compared any deeper
+			if (children[i] != other.children[i]) {
+				return matchFamilies(this, other, EQUAL);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether this family matches the given one, i.e. whether they have
+	 * the same shape and colors. As in {@link Board#match(BoardObject)}, the
+	 * flags are not compared.
+	 *
+	 * @param other
+	 *            the family to compare with
+	 * @return true if both families match, false otherwise
+	 */
+	public boolean match(SharedFamily other) {
+		return matchFamilies(this, other, MATCH);
+	}
+
+	/**
+	 * Checks whether this family matches the given one, if the colors of the
+	 * colored alligators of the given family and the eggs bound by them are
+	 * consistently renamed. This has the same meaning as
+	 * {@link Board#matchWithRecoloring(BoardObject, Map)} starting with an
+	 * empty recoloring. Shared subtrees are only compared by reference as long
+	 * as no color has been renamed above them.
+	 *
+	 * @param other
+	 *            the family to compare with
+	 * @return true if both families match, false otherwise
+	 */
+	public boolean matchWithRecoloring(SharedFamily other) {
+		return matchFamilies(this, other, MATCH_WITH_RECOLORING);
+	}
+
+	/**
+	 * Compares two families side by side, without recursing once per nesting
+	 * level. Every entry of the stack holds the families compared and the
+	 * position of the next pair of children to compare. When matching with
+	 * recoloring, the color of a colored alligator in the other family is
+	 * mapped to the color of the alligator in this family while its children
+	 * are compared, exactly like nested calls would do.
+	 *
+	 * @param family
+	 *            the family to compare
+	 * @param other
+	 *            the family to compare it with
+	 * @param mode
+	 *            how to compare, one of {@link #EQUAL}, {@link #MATCH} and
+	 *            {@link #MATCH_WITH_RECOLORING}
+	 * @return true if the families are equal or match, false otherwise
+	 */
+	private static boolean matchFamilies(SharedFamily family,
+			SharedFamily other, int mode) {
+		Map<Integer, Integer> recoloring = null;
+		if (mode == MATCH_WITH_RECOLORING) {
+			recoloring = new HashMap<Integer, Integer>();
+		}
+		if (family.isSame(other, recoloring)) {
+			return true;
+		}
+		if (!family.enterMatch(other, mode, recoloring)) {
+			return false;
+		}
+		SharedFamily[] firsts = new SharedFamily[16];
+		SharedFamily[] seconds = new SharedFamily[16];
+		int[] positions = new int[16];
+		int size = 0;
+		firsts[size] = family;
+		seconds[size] = other;
+		positions[size] = 0;
+		size++;
+		while (size > 0) {
+			final int top = size - 1;
+			final SharedFamily first = firsts[top];
+			final SharedFamily second = seconds[top];
+			final int position = positions[top];
+			if (position == first.children.length) {
+				first.leaveMatch(second, recoloring);
+				size--;
+				continue;
+			}
+			positions[top] = position + 1;
+			final SharedFamily child = first.children[position];
+			final SharedFamily otherChild = second.children[position];
+			if (child.isSame(otherChild, recoloring)) {
+				continue;
+			}
+			if (!child.enterMatch(otherChild, mode, recoloring)) {
+				return false;
+			}
+			if (child.children.length == 0) {
+				child.leaveMatch(otherChild, recoloring);
+				continue;
+			}
+			if (size == firsts.length) {
+				firsts = Arrays.copyOf(firsts, size * 2);
+				seconds = Arrays.copyOf(seconds, size * 2);
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			firsts[size] = child;
+			seconds[size] = otherChild;
+			positions[size] = 0;
+			size++;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the given family is known to equal or match this one
+	 * without comparing them, which is the case for identical families as
+	 * long as no color has been renamed above them.
+	 */
+	private boolean isSame(SharedFamily other, Map<Integer, Integer> recoloring) {
+		return other == this && (recoloring == null || recoloring.isEmpty());
+	}
+
+	/**
+	 * Compares the root of this family with the root of the given one, and
+	 * maps the colors of colored alligators if matching with recoloring.
+	 *
+	 * @return true if the children of both can be compared, false if the
+	 *         families are not equal or do not match
+	 */
+	private boolean enterMatch(SharedFamily other, int mode,
+			Map<Integer, Integer> recoloring) {
+		if (other == null || kind != other.kind
+				|| children.length != other.children.length) {
+			return false;
+		}
+		switch (mode) {
+		case EQUAL:
+			return hash == other.hash && color == other.color
+					&& flags == other.flags;
+		case MATCH:
+			return color == other.color;
+		default:
+			if (kind == CompactBoard.EGG) {
+				final Integer recolored = recoloring.get(other.color);
+				return recolored == null ? color == other.color : recolored
+						.intValue() == color;
+			}
+			if (kind == CompactBoard.COLORED_ALLIGATOR) {
+				if (recoloring.containsValue(other.color)) {
+					return false;
+				}
+				if (color != other.color) {
+					recoloring.put(other.color, color);
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the color mapped by
+	 * {@link #enterMatch(SharedFamily, int, Map)} after all children of both
+	 * families have been compared.
+	 */
+	private void leaveMatch(SharedFamily other, Map<Integer, Integer> recoloring) {
+		if (recoloring != null && kind == CompactBoard.COLORED_ALLIGATOR
+				&& color != other.color) {
+			recoloring.remove(other.color);
+		}
+	}
+
+	/**
+	 * Decodes this family into a newly created board. Every shared subtree is
+	 * decoded into separate objects for every place it appears in.
+	 *
+	 * @return a board representing the same board as this family
+	 * @throws IllegalStateException
+	 *             if this family is not a board
+	 */
+	public Board toBoard() {
+		if (kind != CompactBoard.BOARD) {
+			throw new IllegalStateException("The family is not a board");
+		}
+		final Board board = new Board();
+		decodeChildren(board);
+		return board;
+	}
+
+	/**
+	 * Decodes this family into newly created board objects.
+	 *
+	 * @return an object representing the same family as this family
+	 * @throws IllegalStateException
+	 *             if this family is a board
+	 */
+	public InternalBoardObject toBoardObject() {
+		if (kind == CompactBoard.BOARD) {
+			throw new IllegalStateException("The family is a board");
+		}
+		final InternalBoardObject decoded = decodeSingle();
+		if (decoded instanceof Parent) {
+			decodeChildren((Parent) decoded);
+		}
+		return decoded;
+	}
+
+	private InternalBoardObject decodeSingle() {
+		switch (kind) {
+		case CompactBoard.EGG:
+			return new Egg(isMovable(), isRemovable(),
+					CompactBoard.decodeColor(color), isRecolorable());
+		case CompactBoard.COLORED_ALLIGATOR:
+			return new ColoredAlligator(isMovable(), isRemovable(),
+					CompactBoard.decodeColor(color), isRecolorable());
+		case CompactBoard.AGED_ALLIGATOR:
+			return new AgedAlligator(isMovable(), isRemovable());
+		default:
+			throw new IllegalStateException("Invalid kind of family: " + kind);
+		}
+	}
+
+	/**
+	 * Decodes the descendants of this family into the given parent, without
+	 * recursing once per nesting level.
+	 */
+	private void decodeChildren(Parent target) {
+		final ArrayList<SharedFamily> families = new ArrayList<SharedFamily>();
+		final ArrayList<Parent> targets = new ArrayList<Parent>();
+		families.add(this);
+		targets.add(target);
+		while (!families.isEmpty()) {
+			final int last = families.size() - 1;
+			final SharedFamily family = families.remove(last);
+			final Parent parent = targets.remove(last);
+			for (SharedFamily child : family.children) {
+				final InternalBoardObject decoded = child.decodeSingle();
+				parent.addChild(decoded);
+				if (child.children.length != 0) {
+					families.add(child);
+					targets.add((Parent) decoded);
+				}
+			}
+		}
+	}
+}
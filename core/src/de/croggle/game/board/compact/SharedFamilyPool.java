@@ -0,0 +1,180 @@
+package de.croggle.game.board.compact;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+import de.croggle.game.board.operations.BoardObjectVisitor;
+
+/**
+ * A pool of {@link SharedFamily shared families}, in which every family is
+ * created only once. Boards and families converted using the same pool share
+ * all of their structurally identical subtrees, e.g. the copies of an eaten
+ * family or the repeated parts of a Church numeral, so that holding many
+ * similar boards costs little more than holding one of them.
+ *
+ * Families are never removed from a pool, so a pool should not live longer
+ * than the boards it is used for, e.g. the evaluation of a single level.
+ */
+public class SharedFamilyPool {
+	private final Map<SharedFamily, SharedFamily> families;
+	private final Encoder encoder;
+	private int hits;
+
+	/**
+	 * Creates a new empty pool.
+	 */
+	public SharedFamilyPool() {
+		families = new HashMap<SharedFamily, SharedFamily>();
+		encoder = new Encoder();
+		hits = 0;
+	}
+
+	/**
+	 * Returns the number of distinct families in this pool.
+	 *
+	 * @return the number of families created by this pool
+	 */
+	public int size() {
+		return families.size();
+	}
+
+	/**
+	 * Returns how often a family has been requested which already was in this
+	 * pool, i.e. how many families have been shared instead of created.
+	 *
+	 * @return the number of shared families
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	private SharedFamily intern(SharedFamily family) {
+		final SharedFamily existing = families.get(family);
+		if (existing != null) {
+			hits++;
+			return existing;
+		}
+		families.put(family, family);
+		return family;
+	}
+
+	/**
+	 * Converts the given board into a shared family.
+	 *
+	 * @param board
+	 *            the board to convert
+	 * @return the shared family representing the board
+	 */
+	public SharedFamily share(Board board) {
+		return shareFamily(board);
+	}
+
+	/**
+	 * Converts the given family into a shared family.
+	 *
+	 * @param family
+	 *            the family to convert
+	 * @return the shared family representing the given family
+	 */
+	public SharedFamily share(InternalBoardObject family) {
+		return shareFamily(family);
+	}
+
+	/**
+	 * Converts the family bottom up, without recursing once per nesting level.
+	 * The shared children of the parents on the current path are collected in
+	 * one list, from which they are taken when their parent is completed.
+	 */
+	private SharedFamily shareFamily(BoardObject root) {
+		if (!(root instanceof Parent)) {
+			return shareSingle(root, new SharedFamily[0]);
+		}
+		final ArrayList<Parent> parents = new ArrayList<Parent>();
+		final ArrayList<SharedFamily> shared = new ArrayList<SharedFamily>();
+		int[] positions = new int[16];
+		parents.add((Parent) root);
+		while (!parents.isEmpty()) {
+			final int top = parents.size() - 1;
+			final Parent p = parents.get(top);
+			final int pos = positions[top];
+			if (pos < p.getChildCount()) {
+				positions[top] = pos + 1;
+				final InternalBoardObject child = p.getChildAtPosition(pos);
+				if (child instanceof Parent) {
+					if (parents.size() == positions.length) {
+						final int[] newPositions = new int[positions.length * 2];
+						System.arraycopy(positions, 0, newPositions, 0,
+								positions.length);
+						positions = newPositions;
+					}
+					positions[parents.size()] = 0;
+					parents.add((Parent) child);
+				} else {
+					shared.add(shareSingle(child, new SharedFamily[0]));
+				}
+			} else {
+				parents.remove(top);
+				final int childCount = p.getChildCount();
+				final SharedFamily[] children = new SharedFamily[childCount];
+				final int first = shared.size() - childCount;
+				for (int i = childCount - 1; i >= 0; i--) {
+					children[i] = shared.remove(first + i);
+				}
+				shared.add(shareSingle(p, children));
+			}
+		}
+		return shared.get(0);
+	}
+
+	private SharedFamily shareSingle(BoardObject object,
+			SharedFamily[] children) {
+		object.accept(encoder);
+		return intern(new SharedFamily(encoder.kind, encoder.color,
+				encoder.flags, children));
+	}
+
+	/**
+	 * Determines how the root of a family is encoded.
+	 */
+	private static class Encoder implements BoardObjectVisitor {
+		private int kind;
+		private int color;
+		private int flags;
+
+		@Override
+		public void visitEgg(Egg egg) {
+			kind = CompactBoard.EGG;
+			color = CompactBoard.encodeColor(egg.getColor());
+			flags = CompactBoard.flagsOf(egg, egg.isRecolorable());
+		}
+
+		@Override
+		public void visitColoredAlligator(ColoredAlligator alligator) {
+			kind = CompactBoard.COLORED_ALLIGATOR;
+			color = CompactBoard.encodeColor(alligator.getColor());
+			flags = CompactBoard.flagsOf(alligator, alligator.isRecolorable());
+		}
+
+		@Override
+		public void visitAgedAlligator(AgedAlligator alligator) {
+			kind = CompactBoard.AGED_ALLIGATOR;
+			color = CompactBoard.UNCOLORED;
+			flags = CompactBoard.flagsOf(alligator, false);
+		}
+
+		@Override
+		public void visitBoard(Board board) {
+			kind = CompactBoard.BOARD;
+			color = CompactBoard.UNCOLORED;
+			flags = 0;
+		}
+	}
+}
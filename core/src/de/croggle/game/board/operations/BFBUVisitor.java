@@ -1,13 +1,10 @@
 package de.croggle.game.board.operations;
 
-import java.util.LinkedList;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 /**
@@ -20,23 +17,27 @@ public class BFBUVisitor extends StrategyBoardObjectVisitor {
 	@Override
 	protected void beginTraversal(BoardObject b) {
 		if (b instanceof Parent) {
-			Parent p = (Parent) b;
-			LinkedList<Parent> parentqueue = new LinkedList<Parent>();
-			LinkedList<BoardObject> queue = new LinkedList<BoardObject>();
+			final TraversalStack queue = TraversalStack.get();
+			final int base = queue.size();
 
-			parentqueue.add(p);
-			queue.add(p);
-			while (!parentqueue.isEmpty()) {
-				p = parentqueue.pop();
-				for (InternalBoardObject child : p) {
-					if (child instanceof Parent) {
-						parentqueue.add((Parent) child);
+			// collect all objects top down, then dispatch them in reverse
+			queue.push(b);
+			try {
+				for (int head = base; head < queue.size(); head++) {
+					final Object current = queue.node(head);
+					if (current instanceof Parent) {
+						final Parent p = (Parent) current;
+						final int count = p.getChildCount();
+						for (int i = 0; i < count; i++) {
+							queue.push(p.getChildAtPosition(i));
+						}
 					}
-					queue.push(child);
 				}
-			}
-			for (BoardObject element : queue) {
-				element.accept(this);
+				for (int i = queue.size() - 1; i >= base; i--) {
+					((BoardObject) queue.node(i)).accept(this);
+				}
+			} finally {
+				queue.truncate(base);
 			}
 		} else {
 			b.accept(this);
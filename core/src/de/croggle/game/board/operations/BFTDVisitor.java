@@ -1,13 +1,10 @@
 package de.croggle.game.board.operations;
 
-import java.util.LinkedList;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 /**
@@ -19,22 +16,30 @@ import de.croggle.game.board.Parent;
  * 
  */
 public abstract class BFTDVisitor extends StrategyBoardObjectVisitor {
-	private final LinkedList<BoardObject> queue = new LinkedList<BoardObject>();
+	private TraversalStack queue;
 
 	@Override
 	protected void beginTraversal(BoardObject b) {
-		queue.clear();
 		resetCancelation();
+		queue = TraversalStack.get();
+		final int base = queue.size();
 
-		queue.add(b);
-		while (!queue.isEmpty() && !isCanceled()) {
-			queue.pop().accept(this);
+		// the entries between base and head have been visited already
+		queue.push(b);
+		int head = base;
+		try {
+			while (head < queue.size() && !isCanceled()) {
+				((BoardObject) queue.node(head++)).accept(this);
+			}
+		} finally {
+			queue.truncate(base);
 		}
 	}
 
 	private void visitParent(Parent p) {
-		for (InternalBoardObject child : p) {
-			queue.add(child);
+		final int count = p.getChildCount();
+		for (int i = 0; i < count; i++) {
+			queue.push(p.getChildAtPosition(i));
 		}
 	}
 
@@ -0,0 +1,375 @@
+package de.croggle.game.board.operations;
+
+import java.util.Arrays;
+
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+
+/**
+ * An immutable snapshot of the structure of a family, as created by
+ * {@link FlattenTree#toSnapshot(BoardObject)}. The objects are numbered in
+ * depth first, top down, left to right order, so that the family of every
+ * object occupies the interval of node ids starting at its own id. Whether an
+ * object is an ancestor of another one is therefore answered by comparing two
+ * ids, instead of walking up the parents of the second object.
+ *
+ * The snapshot describes the family at the time it has been taken. Later
+ * changes to the family are not reflected, which can be checked with
+ * {@link #isUpToDate()}.
+ */
+public final class BoardSnapshot {
+	/*
+	 * The arrays are sized by the traversal itself, so that the snapshot does
+	 * not depend on the counts cached by the parents being correct.
+	 */
+	private BoardObject[] objects;
+	private int[] parents;
+	private int[] ends;
+	private int[] depths;
+	/*
+	 * the id of the colored alligator binding an egg, or -1 if the egg is not
+	 * bound within the snapshot or the object is no egg
+	 */
+	private int[] binders;
+	private final long version;
+
+	/*
+	 * sparse table for the lowest common ancestor queries, which is only
+	 * created when first needed. table[k][i] is the id with the smallest depth
+	 * among the ids i to i + 2^k - 1.
+	 */
+	private int[][] table;
+
+	BoardSnapshot(BoardObject tree) {
+		// the cached count is only used as the initial capacity
+		allocate(Math.max(1, CountBoardObjects.count(tree)));
+		version = tree instanceof Parent ? ((Parent) tree).getVersion() : 0;
+
+		// the innermost colored alligator of every color id on the current path
+		int[] innermost = new int[0];
+		innermost = enter(tree, 0, -1, innermost);
+		if (!(tree instanceof Parent)) {
+			ends[0] = 1;
+			return;
+		}
+
+		final TraversalStack stack = TraversalStack.get();
+		final int base = stack.size();
+		try {
+			stack.push(tree, 0);
+			int current = 0;
+			int next = 1;
+			while (stack.size() > base) {
+				final int top = stack.size() - 1;
+				final Parent p = (Parent) stack.node(top);
+				final int pos = stack.position(top);
+				if (pos < p.getChildCount()) {
+					stack.setPosition(top, pos + 1);
+					final InternalBoardObject child = p.getChildAtPosition(pos);
+					final int id = next++;
+					innermost = enter(child, id, current, innermost);
+					if (child instanceof Parent) {
+						stack.push(child, 0);
+						current = id;
+					} else {
+						ends[id] = id + 1;
+					}
+				} else {
+					stack.pop();
+					ends[current] = next;
+					leave(current, innermost);
+					current = parents[current];
+				}
+			}
+			if (next != objects.length) {
+				allocate(next);
+			}
+		} finally {
+			stack.truncate(base);
+		}
+	}
+
+	/**
+	 * Resizes the arrays to the given capacity, keeping their content.
+	 */
+	private void allocate(int capacity) {
+		objects = objects == null ? new BoardObject[capacity] : Arrays.copyOf(
+				objects, capacity);
+		parents = parents == null ? new int[capacity] : Arrays.copyOf(parents,
+				capacity);
+		ends = ends == null ? new int[capacity] : Arrays.copyOf(ends, capacity);
+		depths = depths == null ? new int[capacity] : Arrays.copyOf(depths,
+				capacity);
+		binders = binders == null ? new int[capacity] : Arrays.copyOf(binders,
+				capacity);
+	}
+
+	private int[] enter(BoardObject b, int id, int parent, int[] innermost) {
+		if (id == objects.length) {
+			allocate(id * 2);
+		}
+		objects[id] = b;
+		parents[id] = parent;
+		depths[id] = parent < 0 ? 0 : depths[parent] + 1;
+		binders[id] = -1;
+		if (b instanceof InternalBoardObject) {
+			((InternalBoardObject) b).setNodeId(id);
+		}
+		if (b instanceof Egg) {
+			final int color = ((Egg) b).getColor().getId();
+			if (color >= 0 && color < innermost.length) {
+				binders[id] = innermost[color];
+			}
+		} else if (b instanceof ColoredAlligator) {
+			final int color = ((ColoredAlligator) b).getColor().getId();
+			if (color >= 0) {
+				if (color >= innermost.length) {
+					final int oldLength = innermost.length;
+					innermost = Arrays.copyOf(innermost,
+							Math.max(color + 1, oldLength * 2));
+					Arrays.fill(innermost, oldLength, innermost.length, -1);
+				}
+				// remember the shadowed alligator until the family is left
+				binders[id] = innermost[color];
+				innermost[color] = id;
+			}
+		}
+		return innermost;
+	}
+
+	private void leave(int id, int[] innermost) {
+		if (objects[id] instanceof ColoredAlligator) {
+			final int color = ((ColoredAlligator) objects[id]).getColor()
+					.getId();
+			if (color >= 0) {
+				innermost[color] = binders[id];
+				binders[id] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of objects in the snapshot.
+	 *
+	 * @return the number of objects in the family
+	 */
+	public int size() {
+		return objects.length;
+	}
+
+	/**
+	 * Returns whether the family has not been changed since the snapshot has
+	 * been taken. Only families whose root is a {@link Parent} can be checked,
+	 * single objects are always considered up to date.
+	 *
+	 * @return true if the snapshot still describes the family, false otherwise
+	 */
+	public boolean isUpToDate() {
+		if (objects[0] instanceof Parent) {
+			return ((Parent) objects[0]).getVersion() == version;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the given object is part of the snapshot.
+	 *
+	 * @param b
+	 *            the object to look for
+	 * @return true if the object has been part of the family, false otherwise
+	 */
+	public boolean contains(BoardObject b) {
+		return find(b) >= 0;
+	}
+
+	/**
+	 * Returns the node id of the given object. If the family has been
+	 * numbered again since, e.g. by another snapshot, the id is looked up by
+	 * searching.
+	 *
+	 * @param b
+	 *            an object of the snapshot
+	 * @return the id of the given object
+	 * @throws IllegalArgumentException
+	 *             if the given object is not part of the snapshot
+	 */
+	public int getNodeId(BoardObject b) {
+		final int id = find(b);
+		if (id < 0) {
+			throw new IllegalArgumentException(
+					"The object is not part of the snapshot");
+		}
+		return id;
+	}
+
+	private int find(BoardObject b) {
+		if (objects[0] == b) {
+			return 0;
+		}
+		if (b instanceof InternalBoardObject) {
+			final int id = ((InternalBoardObject) b).getNodeId();
+			if (id > 0 && id < objects.length && objects[id] == b) {
+				return id;
+			}
+		}
+		for (int id = 1; id < objects.length; id++) {
+			if (objects[id] == b) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the object with the given node id.
+	 *
+	 * @param id
+	 *            the node id
+	 * @return the object with the given id
+	 */
+	public BoardObject getObject(int id) {
+		return objects[id];
+	}
+
+	/**
+	 * Returns the node id of the parent of the object with the given id.
+	 *
+	 * @param id
+	 *            the node id
+	 * @return the id of the parent, or -1 for the root of the snapshot
+	 */
+	public int getParentId(int id) {
+		return parents[id];
+	}
+
+	public int getDepth(int id) {
+		return depths[id];
+	}
+
+	public int getDepth(BoardObject b) {
+		return depths[getNodeId(b)];
+	}
+
+	/**
+	 * Returns the end of the family of the object with the given id. The
+	 * family consists of exactly the objects with ids from the given id
+	 * (inclusive) to the returned id (exclusive).
+	 *
+	 * @param id
+	 *            the node id
+	 * @return the id after the last object in the family of the given object
+	 */
+	public int getSubtreeEnd(int id) {
+		return ends[id];
+	}
+
+	/**
+	 * Returns whether the first object is an ancestor of the second one, i.e.
+	 * whether the second object is part of the family of the first one, but
+	 * not the first object itself.
+	 *
+	 * @param ancestor
+	 *            the node id of the presumed ancestor
+	 * @param descendant
+	 *            the node id of the presumed descendant
+	 * @return true if the first object is an ancestor of the second one
+	 */
+	public boolean isAncestor(int ancestor, int descendant) {
+		return ancestor < descendant && descendant < ends[ancestor];
+	}
+
+	public boolean isAncestor(BoardObject ancestor, BoardObject descendant) {
+		return isAncestor(getNodeId(ancestor), getNodeId(descendant));
+	}
+
+	/**
+	 * Returns the lowest common ancestor of two objects, i.e. the deepest
+	 * object whose family contains both objects. An object is considered to be
+	 * contained in its own family here, so the lowest common ancestor of an
+	 * object and one of its descendants is the object itself.
+	 *
+	 * @param a
+	 *            the node id of the first object
+	 * @param b
+	 *            the node id of the second object
+	 * @return the id of the lowest common ancestor
+	 */
+	public int getLowestCommonAncestor(int a, int b) {
+		if (a > b) {
+			final int tmp = a;
+			a = b;
+			b = tmp;
+		}
+		if (b < ends[a]) {
+			return a;
+		}
+		/*
+		 * The shallowest object between a (exclusive) and b (inclusive) is the
+		 * child of the lowest common ancestor on the path to b
+		 */
+		if (table == null) {
+			table = createTable();
+		}
+		final int length = b - a;
+		final int k = 31 - Integer.numberOfLeadingZeros(length);
+		return parents[shallower(table[k][a + 1], table[k][b - (1 << k) + 1])];
+	}
+
+	public BoardObject getLowestCommonAncestor(BoardObject a, BoardObject b) {
+		return objects[getLowestCommonAncestor(getNodeId(a), getNodeId(b))];
+	}
+
+	private int[][] createTable() {
+		final int n = objects.length;
+		final int levels = 32 - Integer.numberOfLeadingZeros(n);
+		final int[][] result = new int[levels][];
+		result[0] = new int[n];
+		for (int i = 0; i < n; i++) {
+			result[0][i] = i;
+		}
+		for (int k = 1; k < levels; k++) {
+			final int half = 1 << (k - 1);
+			final int[] previous = result[k - 1];
+			final int[] current = new int[n - (1 << k) + 1];
+			for (int i = 0; i < current.length; i++) {
+				current[i] = shallower(previous[i], previous[i + half]);
+			}
+			result[k] = current;
+		}
+		return result;
+	}
+
+	private int shallower(int a, int b) {
+		return depths[a] <= depths[b] ? a : b;
+	}
+
+	/**
+	 * Returns the colored alligator binding the egg with the given id, i.e. the
+	 * innermost enclosing colored alligator of the same color. Alligators
+	 * outside of the snapshot are not considered.
+	 *
+	 * @param id
+	 *            the node id of an egg
+	 * @return the id of the binding alligator, or -1 if the egg is free within
+	 *         the snapshot or the object is no egg
+	 */
+	public int getBinder(int id) {
+		return binders[id];
+	}
+
+	/**
+	 * Returns whether the given egg is bound by a colored alligator within the
+	 * snapshot. Gives the same result as {@link Boundedness#isBound(Egg)} if
+	 * the snapshot has been taken of the whole board.
+	 *
+	 * @param e
+	 *            an egg of the snapshot
+	 * @return true if the egg is bound, false otherwise
+	 */
+	public boolean isBound(Egg e) {
+		return binders[getNodeId(e)] >= 0;
+	}
+}
@@ -1,21 +1,23 @@
 package de.croggle.game.board.operations;
 
-import java.util.List;
-
 import de.croggle.game.board.ColoredBoardObject;
 import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 public class Boundedness {
 
 	public static boolean isBound(Egg e) {
-		List<Parent> parents = GetParentHierarchy.get(e);
-		for (Parent p : parents) {
+		// walks up like GetParentHierarchy, without collecting the parents
+		Parent p = e.getParent();
+		while (p != null) {
 			if (p instanceof ColoredBoardObject) {
 				if (((ColoredBoardObject) p).getColor().equals(e.getColor())) {
 					return true;
 				}
 			}
+			p = p instanceof InternalBoardObject ? ((InternalBoardObject) p)
+					.getParent() : null;
 		}
 		return false;
 	}
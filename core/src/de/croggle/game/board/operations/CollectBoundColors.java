@@ -1,21 +1,22 @@
 package de.croggle.game.board.operations;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import de.croggle.game.Color;
+import de.croggle.game.ColorSet;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Parent;
 
 /**
  * A visitor for collecting all the colors of alligators in a family. This is
  * equivalent to the set of variables which are bound in a given subterm.
+ * Families whose root is a {@link Parent} are not traversed at all, as their
+ * bound colors are cached by the parent.
  */
 public class CollectBoundColors extends DFTDVisitor {
-	private final Set<Color> boundColors;
+	private final ColorSet boundColors;
 
 	private CollectBoundColors() {
-		boundColors = new HashSet<Color>();
+		boundColors = new ColorSet();
 	}
 
 	/**
@@ -26,10 +27,24 @@ public class CollectBoundColors extends DFTDVisitor {
 	 * @return the set of bound colors
 	 */
 	public static Color[] collect(BoardObject family) {
+		return collectSet(family).toArray();
+	}
+
+	/**
+	 * Returns the set of colors of alligators in the given family as a
+	 * {@link ColorSet}.
+	 * 
+	 * @param family
+	 *            the family to examine
+	 * @return the set of bound colors
+	 */
+	public static ColorSet collectSet(BoardObject family) {
+		if (family instanceof Parent) {
+			return ((Parent) family).getBoundColors();
+		}
 		final CollectBoundColors visitor = new CollectBoundColors();
 		visitor.beginTraversal(family);
-		return visitor.boundColors
-				.toArray(new Color[visitor.boundColors.size()]);
+		return visitor.boundColors;
 	}
 
 	/**
@@ -1,9 +1,9 @@
 package de.croggle.game.board.operations;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import de.croggle.game.Color;
+import de.croggle.game.ColorSet;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
@@ -13,51 +13,76 @@ import de.croggle.game.board.Parent;
  * A visitor for collecting all the colors of eggs with no matching alligator
  * above them. This is equivalent to the set of variables which occur free in a
  * given subterm.
- * 
+ *
+ * Families whose root is a {@link Parent} are not traversed at all, as their
+ * free colors are cached by the parent. A single egg is free on its own.
  */
-public class CollectFreeColors extends DFTDVisitor {
-	private final Set<Color> freeColors;
-	private final BoardObject family;
+public class CollectFreeColors implements BoardObjectVisitor {
+	private final ColorSet freeColors;
 
-	private CollectFreeColors(BoardObject family) {
-		freeColors = new HashSet<Color>();
-		this.family = family;
+	private CollectFreeColors() {
+		freeColors = new ColorSet();
 	}
 
 	/**
 	 * Returns the set of colors of eggs with no matching alligator above them
 	 * in the given family.
-	 * 
+	 *
 	 * @param family
 	 *            the family to examine
 	 * @return the set of free colors
 	 */
 	public static Color[] collect(BoardObject family) {
-		final CollectFreeColors visitor = new CollectFreeColors(family);
-		visitor.beginTraversal(family);
-		return visitor.freeColors.toArray(new Color[visitor.freeColors.size()]);
+		return collectSet(family).toArray();
+	}
+
+	/**
+	 * Returns the set of colors of eggs with no matching alligator above them
+	 * in the given family as a {@link ColorSet}.
+	 *
+	 * @param family
+	 *            the family to examine
+	 * @return the set of free colors
+	 */
+	public static ColorSet collectSet(BoardObject family) {
+		final CollectFreeColors visitor = new CollectFreeColors();
+		family.accept(visitor);
+		return visitor.freeColors;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void visitEgg(Egg egg) {
+		freeColors.add(egg.getColor());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchEgg(Egg egg) {
-		final Color eggColor = egg.getColor();
-		if (egg != family) {
-			for (Parent parent : GetParentHierarchy.get(egg)) {
-				// TODO find a way to remove instanceof
-				if (parent instanceof ColoredAlligator) {
-					final ColoredAlligator colored = (ColoredAlligator) parent;
-					if (eggColor.equals(colored.getColor())) {
-						return;
-					}
-				}
-				if (parent == family) {
-					break;
-				}
-			}
-		}
-		freeColors.add(eggColor);
+	public void visitColoredAlligator(ColoredAlligator alligator) {
+		visitParent(alligator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void visitAgedAlligator(AgedAlligator alligator) {
+		visitParent(alligator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void visitBoard(Board board) {
+		visitParent(board);
+	}
+
+	private void visitParent(Parent p) {
+		freeColors.addAll(p.getFreeColors());
 	}
 }
@@ -1,14 +1,10 @@
 package de.croggle.game.board.operations;
 
-import java.util.Iterator;
-import java.util.Stack;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 /**
@@ -18,13 +14,11 @@ import de.croggle.game.board.Parent;
  */
 public class CopyConstellation implements BoardObjectVisitor {
 
-	private final Stack<Iterator<InternalBoardObject>> iterators;
-	private final Stack<Parent> parents;
+	private final TraversalStack stack;
 	private Parent copy;
 
 	private CopyConstellation(Parent p) {
-		iterators = new Stack<Iterator<InternalBoardObject>>();
-		parents = new Stack<Parent>();
+		stack = TraversalStack.get();
 
 		if (p.getClass() == AgedAlligator.class) {
 			copy = shallowCopy((AgedAlligator) p);
@@ -37,18 +31,31 @@ public class CopyConstellation implements BoardObjectVisitor {
 					+ p.getClass());
 		}
 
-		parents.push(copy);
-		iterators.push(p.iterator());
-		while (!iterators.empty()) {
-			if (!iterators.peek().hasNext()) {
-				iterators.pop();
-				parents.pop();
-			} else {
-				iterators.peek().next().accept(this);
+		// every entry holds an original parent, its copy and the position of
+		// the next child to copy
+		final int base = stack.size();
+		stack.push(p, copy, 0);
+		try {
+			while (stack.size() > base) {
+				final int top = stack.size() - 1;
+				final Parent original = (Parent) stack.node(top);
+				final int position = stack.position(top);
+				if (position < original.getChildCount()) {
+					stack.setPosition(top, position + 1);
+					original.getChildAtPosition(position).accept(this);
+				} else {
+					stack.pop();
+				}
 			}
+		} finally {
+			stack.truncate(base);
 		}
 	}
 
+	private Parent currentCopy() {
+		return (Parent) stack.target(stack.size() - 1);
+	}
+
 	public static Egg copy(Egg e) {
 		return new Egg(e.isMovable(), e.isRemovable(), e.getColor(),
 				e.isRecolorable());
@@ -87,23 +94,21 @@ public class CopyConstellation implements BoardObjectVisitor {
 
 	@Override
 	public void visitEgg(Egg egg) {
-		parents.peek().addChild(copy(egg));
+		currentCopy().addChild(copy(egg));
 	}
 
 	@Override
 	public void visitColoredAlligator(ColoredAlligator alligator) {
 		ColoredAlligator copy = shallowCopy(alligator);
-		parents.peek().addChild(copy);
-		parents.push(copy);
-		iterators.push(alligator.iterator());
+		currentCopy().addChild(copy);
+		stack.push(alligator, copy, 0);
 	}
 
 	@Override
 	public void visitAgedAlligator(AgedAlligator alligator) {
 		AgedAlligator copy = shallowCopy(alligator);
-		parents.peek().addChild(copy);
-		parents.push(copy);
-		iterators.push(alligator.iterator());
+		currentCopy().addChild(copy);
+		stack.push(alligator, copy, 0);
 	}
 
 	@Override
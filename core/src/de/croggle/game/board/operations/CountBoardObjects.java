@@ -1,17 +1,16 @@
 package de.croggle.game.board.operations;
 
-import java.util.Iterator;
-import java.util.Stack;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
 
 /**
- * A visitor for counting the number of objects in a family.
+ * A visitor for counting the number of objects in a family. Instead of
+ * traversing the family, the subtree counts cached by every {@link Parent} are
+ * used, so counting takes constant time.
  */
 public class CountBoardObjects implements BoardObjectVisitor {
 	private int count;
@@ -20,8 +19,6 @@ public class CountBoardObjects implements BoardObjectVisitor {
 	private final boolean countAgedAlligator;
 	private final boolean countColoredAlligator;
 
-	private final Stack<Iterator<InternalBoardObject>> iterators;
-
 	/**
 	 * Initializes the BoardObject counter with 0 BoardObjects counted.
 	 */
@@ -34,15 +31,7 @@ public class CountBoardObjects implements BoardObjectVisitor {
 		this.countAgedAlligator = countAgedAlligator;
 		this.countColoredAlligator = countColoredAlligator;
 
-		iterators = new Stack<Iterator<InternalBoardObject>>();
 		b.accept(this);
-		while (!iterators.empty()) {
-			if (!iterators.peek().hasNext()) {
-				iterators.pop();
-			} else {
-				iterators.peek().next().accept(this);
-			}
-		}
 	}
 
 	/**
@@ -79,10 +68,7 @@ public class CountBoardObjects implements BoardObjectVisitor {
 	 */
 	@Override
 	public void visitColoredAlligator(ColoredAlligator alligator) {
-		if (countColoredAlligator) {
-			count++;
-		}
-		iterators.push(alligator.iterator());
+		countParent(alligator);
 	}
 
 	/**
@@ -90,10 +76,7 @@ public class CountBoardObjects implements BoardObjectVisitor {
 	 */
 	@Override
 	public void visitAgedAlligator(AgedAlligator alligator) {
-		if (countAgedAlligator) {
-			count++;
-		}
-		iterators.push(alligator.iterator());
+		countParent(alligator);
 	}
 
 	/**
@@ -104,7 +87,18 @@ public class CountBoardObjects implements BoardObjectVisitor {
 		if (countBoard) {
 			count++;
 		}
-		iterators.push(board.iterator());
+		countParent(board);
 	}
 
+	private void countParent(Parent parent) {
+		if (countEgg) {
+			count += parent.getEggCount();
+		}
+		if (countColoredAlligator) {
+			count += parent.getColoredAlligatorCount();
+		}
+		if (countAgedAlligator) {
+			count += parent.getAgedAlligatorCount();
+		}
+	}
 }
@@ -0,0 +1,45 @@
+package de.croggle.game.board.operations;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.Egg;
+
+/**
+ * A visitor for counting the eggs of a certain color in a family. When a
+ * colored alligator eats, this is the number of eggs which are going to hatch.
+ */
+public class CountMatchingEggs extends DFTDVisitor {
+	private final Color color;
+	private int count;
+
+	private CountMatchingEggs(Color color) {
+		this.color = color;
+		count = 0;
+	}
+
+	/**
+	 * Returns the number of eggs in the given family, which have the given
+	 * color.
+	 *
+	 * @param family
+	 *            the family to examine
+	 * @param color
+	 *            the color of the eggs to count
+	 * @return the number of eggs with the given color
+	 */
+	public static int count(BoardObject family, Color color) {
+		final CountMatchingEggs visitor = new CountMatchingEggs(color);
+		visitor.beginTraversal(family);
+		return visitor.count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void dispatchEgg(Egg egg) {
+		if (egg.getColor().equals(color)) {
+			count++;
+		}
+	}
+}
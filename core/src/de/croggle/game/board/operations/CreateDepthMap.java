@@ -3,20 +3,17 @@ package de.croggle.game.board.operations;
 import java.util.HashMap;
 import java.util.Map;
 
-import de.croggle.game.board.AgedAlligator;
-import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
-import de.croggle.game.board.ColoredAlligator;
-import de.croggle.game.board.Egg;
-import de.croggle.game.board.Parent;
 
-public class CreateDepthMap implements BoardObjectVisitor {
-
-	private Map<BoardObject, Integer> depthMap;
-	private int depth = 0;
+/**
+ * An operation to create a map, assigning each {@link BoardObject} inside a
+ * family its depth, i.e. the number of its ancestors within the family. The
+ * values are taken from {@link LayoutMetrics}, which should be used directly
+ * where no map is needed.
+ */
+public class CreateDepthMap {
 
 	private CreateDepthMap() {
-		depthMap = new HashMap<BoardObject, Integer>();
 	}
 
 	/**
@@ -29,35 +26,11 @@ public class CreateDepthMap implements BoardObjectVisitor {
 	 *         syntax tree
 	 */
 	public static Map<BoardObject, Integer> create(BoardObject b) {
-		CreateDepthMap creator = new CreateDepthMap();
-		b.accept(creator);
-		return creator.depthMap;
-	}
-
-	@Override
-	public void visitEgg(Egg egg) {
-		depthMap.put(egg, depth);
-	}
-
-	@Override
-	public void visitColoredAlligator(ColoredAlligator alligator) {
-		visitParent(alligator);
-	}
-
-	@Override
-	public void visitAgedAlligator(AgedAlligator alligator) {
-		visitParent(alligator);
-	}
-
-	@Override
-	public void visitBoard(Board board) {
-		visitParent(board);
-	}
-
-	private void visitParent(Parent p) {
-		depthMap.put(p, depth);
-		depth++;
-		p.acceptOnChildren(this);
-		depth--;
+		final LayoutMetrics metrics = CreateLayoutMetrics.create(b);
+		final Map<BoardObject, Integer> depthMap = new HashMap<BoardObject, Integer>();
+		for (int id = 0; id < metrics.size(); id++) {
+			depthMap.put(metrics.getObject(id), metrics.getDepth(id));
+		}
+		return depthMap;
 	}
 }
@@ -2,15 +2,10 @@ package de.croggle.game.board.operations;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
-import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
-import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
-import de.croggle.game.board.Parent;
 
 /**
  * An alligator syntax tree operation to create a map, assigning each
@@ -27,41 +22,13 @@ import de.croggle.game.board.Parent;
  * the height of different levels in the syntax tree shrink or expand, by
  * specifying a depthScaleFactor, that is multiplied by the objectHeight each
  * time the function goes deeper in the tree.
+ * 
+ * The values are taken from {@link LayoutMetrics}, which should be used
+ * directly where no map is needed.
  */
-public class CreateHeightMap implements BoardObjectVisitor {
-
-	private final Map<BoardObject, Float> heightMap;
-
-	private final float depthScaleFactor;
-	private final float padding;
-	private final float objectHeight;
-	private final Stack<ParentState> parents;
-
-	private float scale = 1;
+public class CreateHeightMap {
 
-	private CreateHeightMap(Parent p, float objectHeight,
-			float depthScaleFactor, float padding) {
-		this.objectHeight = objectHeight;
-		this.depthScaleFactor = depthScaleFactor;
-		this.padding = padding;
-		parents = new Stack<CreateHeightMap.ParentState>();
-		heightMap = new HashMap<BoardObject, Float>();
-
-		p.accept(this);
-		while (!parents.isEmpty()) {
-			ParentState current = parents.peek();
-			if (current.childrenDone) {
-				parents.pop();
-				scale = current.scale;
-				calculateParent(current.parent);
-			} else {
-				current.childrenDone = true;
-				goDeeper();
-				for (InternalBoardObject child : current.parent) {
-					child.accept(this);
-				}
-			}
-		}
+	private CreateHeightMap() {
 	}
 
 	/**
@@ -104,81 +71,12 @@ public class CreateHeightMap implements BoardObjectVisitor {
 	 */
 	public static Map<BoardObject, Float> create(BoardObject b,
 			float objectHeight, float depthScaleFactor, float padding) {
-		if (!(b instanceof Parent)) {
-			Map<BoardObject, Float> map = new HashMap<BoardObject, Float>();
-			map.put(b, objectHeight);
-			return map;
-		} else {
-			CreateHeightMap creator = new CreateHeightMap((Parent) b,
-					objectHeight, depthScaleFactor, padding);
-			return creator.heightMap;
-		}
-	}
-
-	@Override
-	public void visitEgg(Egg egg) {
-		heightMap.put(egg, objectHeight * getScale());
-	}
-
-	@Override
-	public void visitColoredAlligator(ColoredAlligator alligator) {
-		visitParent(alligator);
-	}
-
-	@Override
-	public void visitAgedAlligator(AgedAlligator alligator) {
-		visitParent(alligator);
-	}
-
-	@Override
-	public void visitBoard(Board board) {
-		goHigher();
-		visitParent(board);
-	}
-
-	private void visitParent(Parent p) {
-		parents.add(new ParentState(p, getScale()));
-	}
-
-	private void calculateParent(Parent parent) {
-		float parentHeight;
-		if (parent.getClass() == Board.class) {
-			parentHeight = 0;
-		} else {
-			parentHeight = (padding + objectHeight) * getScale();
-		}
-		float height = 0;
-		float childHeight;
-		goDeeper();
-		for (InternalBoardObject child : parent) {
-			childHeight = heightMap.get(child);
-			if (childHeight > height) {
-				height = childHeight;
-			}
-		}
-		heightMap.put(parent, height + parentHeight);
-	}
-
-	private float getScale() {
-		return scale;
-	}
-
-	private void goHigher() {
-		scale /= depthScaleFactor;
-	}
-
-	private void goDeeper() {
-		scale *= depthScaleFactor;
-	}
-
-	private static class ParentState {
-		public Parent parent;
-		public float scale;
-		public boolean childrenDone = false;
-
-		public ParentState(Parent p, float scale) {
-			this.parent = p;
-			this.scale = scale;
+		final LayoutMetrics metrics = CreateLayoutMetrics.create(b, 1,
+				objectHeight, depthScaleFactor, 0, padding);
+		final Map<BoardObject, Float> heightMap = new HashMap<BoardObject, Float>();
+		for (int id = 0; id < metrics.size(); id++) {
+			heightMap.put(metrics.getObject(id), metrics.getHeight(id));
 		}
+		return heightMap;
 	}
 }
@@ -0,0 +1,120 @@
+package de.croggle.game.board.operations;
+
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.Parent;
+
+/**
+ * An operation to measure the width, height and depth of every object in a
+ * family at once. It creates the same values as {@link CreateWidthMap},
+ * {@link CreateHeightMap} and {@link CreateDepthMap}, but stores them in
+ * arrays indexed by node ids instead of maps, so that measuring a board
+ * allocates hardly more than these arrays.
+ *
+ * The objects are numbered by a {@link BoardSnapshot}, so that the family of
+ * every object follows it directly. The descendants of an object therefore
+ * have greater ids than the object itself, so that all objects can be measured
+ * bottom up by simply iterating the ids backwards.
+ */
+public class CreateLayoutMetrics {
+
+	private CreateLayoutMetrics() {
+	}
+
+	/**
+	 * Measures the objects of the given family with the standard size of 1 and
+	 * no padding or scaling.
+	 *
+	 * @param b
+	 *            the family to measure
+	 * @return the metrics of all objects in the family
+	 */
+	public static LayoutMetrics create(BoardObject b) {
+		return create(b, 1, 1, 1, 0, 0);
+	}
+
+	/**
+	 * Measures the objects of the given family. Every object gets a node id,
+	 * which allows to look up its metrics in constant time.
+	 *
+	 * @param b
+	 *            the family to measure
+	 * @param objectWidth
+	 *            the width of a single (unscaled) object
+	 * @param objectHeight
+	 *            the height of a single (unscaled) object
+	 * @param depthScaleFactor
+	 *            the relative size of a child compared to its parent
+	 * @param horizontalPadding
+	 *            the number of (unscaled) units between two children
+	 * @param verticalPadding
+	 *            the number of (unscaled) units between a parent and its
+	 *            children
+	 * @return the metrics of all objects in the family
+	 */
+	public static LayoutMetrics create(BoardObject b, float objectWidth,
+			float objectHeight, float depthScaleFactor,
+			float horizontalPadding, float verticalPadding) {
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		final int count = snapshot.size();
+		final float[] widths = new float[count];
+		final float[] heights = new float[count];
+		// the scale of every object, which is the scale of its parent
+		// multiplied by the depth scale factor
+		final float[] scales = new float[count];
+
+		scales[0] = 1;
+		for (int id = 1; id < count; id++) {
+			final int parent = snapshot.getParentId(id);
+			scales[id] = getChildScale((Parent) snapshot.getObject(parent),
+					scales[parent], depthScaleFactor);
+		}
+
+		for (int id = count - 1; id >= 0; id--) {
+			final float scale = scales[id];
+			final BoardObject object = snapshot.getObject(id);
+			if (!(object instanceof Parent)) {
+				widths[id] = objectWidth * scale;
+				heights[id] = objectHeight * scale;
+				continue;
+			}
+			final Parent p = (Parent) object;
+			final int childCount = p.getChildCount();
+			float childWidth = 0;
+			float childHeight = 0;
+			// the next child follows the family of the previous one
+			final int end = snapshot.getSubtreeEnd(id);
+			for (int child = id + 1; child < end; child = snapshot
+					.getSubtreeEnd(child)) {
+				childWidth += widths[child];
+				childHeight = Math.max(childHeight, heights[child]);
+			}
+			if (childCount > 1) {
+				childWidth += (childCount - 1) * horizontalPadding
+						* getChildScale(p, scale, depthScaleFactor);
+			}
+			if (p.getClass() == Board.class) {
+				// boards neither add to the width nor to the height
+				widths[id] = childWidth;
+				heights[id] = childHeight;
+			} else {
+				widths[id] = Math.max(objectWidth * scale, childWidth);
+				heights[id] = childHeight + (verticalPadding + objectHeight)
+						* scale;
+			}
+		}
+		return new LayoutMetrics(snapshot, widths, heights);
+	}
+
+	/**
+	 * Returns the scale of the children of the given parent. The children of
+	 * a board have the standard scale, as the board itself is not displayed.
+	 */
+	private static float getChildScale(Parent p, float scale,
+			float depthScaleFactor) {
+		if (p.getClass() == Board.class) {
+			return 1;
+		}
+		return scale * depthScaleFactor;
+	}
+}
@@ -1,8 +1,5 @@
 package de.croggle.game.board.operations;
 
-import java.util.Iterator;
-import java.util.Stack;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
@@ -17,27 +14,36 @@ import de.croggle.game.board.Parent;
  * 
  */
 public abstract class DFBUVisitor extends StrategyBoardObjectVisitor {
-	private final Stack<State> stack = new Stack<State>();
-
 	@Override
 	protected final void beginTraversal(BoardObject b) {
 		if (b instanceof Parent) {
-			Parent p = (Parent) b;
-			stack.clear();
 			resetCancelation();
+			final TraversalStack stack = TraversalStack.get();
+			final int base = stack.size();
 
-			stack.add(new State(p));
-			InternalBoardObject next;
-			while (!stack.isEmpty() && !isCanceled()) {
-				while (stack.peek().it.hasNext() && !isCanceled()) {
-					next = stack.peek().it.next();
-					if (next instanceof Parent) {
-						stack.push(new State((Parent) next));
+			// every entry holds a parent and the position of its next child
+			stack.push(b, 0);
+			try {
+				while (stack.size() > base && !isCanceled()) {
+					final int top = stack.size() - 1;
+					final Parent p = (Parent) stack.node(top);
+					final int position = stack.position(top);
+					if (position < p.getChildCount()) {
+						stack.setPosition(top, position + 1);
+						final InternalBoardObject next = p
+								.getChildAtPosition(position);
+						if (next instanceof Parent) {
+							stack.push(next, 0);
+						} else {
+							next.accept(this);
+						}
 					} else {
-						next.accept(this);
+						stack.pop();
+						p.accept(this);
 					}
 				}
-				stack.pop().p.accept(this);
+			} finally {
+				stack.truncate(base);
 			}
 		} else {
 			dispatchEgg((Egg) b);
@@ -63,14 +69,4 @@ public abstract class DFBUVisitor extends StrategyBoardObjectVisitor {
 	public final void visitEgg(Egg egg) {
 		dispatchEgg(egg);
 	}
-
-	private class State {
-		public State(Parent p) {
-			this.p = p;
-			it = p.iterator();
-		}
-
-		public final Parent p;
-		public final Iterator<InternalBoardObject> it;
-	}
 }
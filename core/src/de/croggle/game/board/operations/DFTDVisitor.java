@@ -1,13 +1,10 @@
 package de.croggle.game.board.operations;
 
-import java.util.Stack;
-
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 /**
@@ -16,22 +13,28 @@ import de.croggle.game.board.Parent;
  * 
  */
 public abstract class DFTDVisitor extends StrategyBoardObjectVisitor {
-	private final Stack<BoardObject> stack = new Stack<BoardObject>();
+	private TraversalStack stack;
 
 	@Override
 	protected final void beginTraversal(BoardObject b) {
-		stack.clear();
 		resetCancelation();
+		stack = TraversalStack.get();
+		final int base = stack.size();
 
-		stack.add(b);
-		while (!stack.isEmpty() && !isCanceled()) {
-			stack.pop().accept(this);
+		stack.push(b);
+		try {
+			while (stack.size() > base && !isCanceled()) {
+				((BoardObject) stack.pop()).accept(this);
+			}
+		} finally {
+			stack.truncate(base);
 		}
 	}
 
 	private final void visitParent(Parent p) {
-		for (InternalBoardObject child : p) {
-			stack.add(child);
+		final int count = p.getChildCount();
+		for (int i = 0; i < count; i++) {
+			stack.push(p.getChildAtPosition(i));
 		}
 	}
 
@@ -6,29 +6,52 @@ import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
 import de.croggle.game.event.BoardEventMessenger;
 
 /**
  * A visitor for replacing occurences of one color in a family with another
- * color.
+ * color. The family is visited from left to right without recursion, so that
+ * objects are recolored in the same order regardless of its depth.
  */
 public class ExchangeColor implements BoardObjectVisitor {
 	private BoardEventMessenger boardMessenger;
 
 	private final Color oldColor;
 	private final Color newColor;
+	private final TraversalStack stack;
 
 	private ExchangeColor(Color oldColor, Color newColor,
 			BoardEventMessenger boardMessenger) {
 		this.boardMessenger = boardMessenger;
 		this.newColor = newColor;
 		this.oldColor = oldColor;
+		stack = TraversalStack.get();
 	}
 
 	private ExchangeColor(Color oldColor, Color newColor) {
-		boardMessenger = null;
-		this.newColor = newColor;
-		this.oldColor = oldColor;
+		this(oldColor, newColor, null);
+	}
+
+	private void traverse(BoardObject family) {
+		// every entry holds a parent and the position of its next child
+		final int base = stack.size();
+		family.accept(this);
+		try {
+			while (stack.size() > base) {
+				final int top = stack.size() - 1;
+				final Parent p = (Parent) stack.node(top);
+				final int position = stack.position(top);
+				if (position < p.getChildCount()) {
+					stack.setPosition(top, position + 1);
+					p.getChildAtPosition(position).accept(this);
+				} else {
+					stack.pop();
+				}
+			}
+		} finally {
+			stack.truncate(base);
+		}
 	}
 
 	/**
@@ -49,7 +72,7 @@ public class ExchangeColor implements BoardObjectVisitor {
 			Color newColor, BoardEventMessenger boardMessenger) {
 		ExchangeColor colorExchanger = new ExchangeColor(oldColor, newColor,
 				boardMessenger);
-		family.accept(colorExchanger);
+		colorExchanger.traverse(family);
 	}
 
 	/**
@@ -66,7 +89,7 @@ public class ExchangeColor implements BoardObjectVisitor {
 	public static void recolor(BoardObject family, Color oldColor,
 			Color newColor) {
 		ExchangeColor colorExchanger = new ExchangeColor(oldColor, newColor);
-		family.accept(colorExchanger);
+		colorExchanger.traverse(family);
 	}
 
 	/**
@@ -93,7 +116,7 @@ public class ExchangeColor implements BoardObjectVisitor {
 				boardMessenger.notifyObjectRecolored(alligator);
 			}
 		}
-		alligator.acceptOnChildren(this);
+		stack.push(alligator, 0);
 	}
 
 	/**
@@ -101,7 +124,7 @@ public class ExchangeColor implements BoardObjectVisitor {
 	 */
 	@Override
 	public void visitAgedAlligator(AgedAlligator alligator) {
-		alligator.acceptOnChildren(this);
+		stack.push(alligator, 0);
 	}
 
 	/**
@@ -109,6 +132,6 @@ public class ExchangeColor implements BoardObjectVisitor {
 	 */
 	@Override
 	public void visitBoard(Board board) {
-		board.acceptOnChildren(this);
+		stack.push(board, 0);
 	}
 }
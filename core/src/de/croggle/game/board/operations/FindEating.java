@@ -1,22 +1,19 @@
 package de.croggle.game.board.operations;
 
-import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
 /**
- * A visitor for finding a colored alligator which can eat a family next to it.
+ * An operation for finding a colored alligator which can eat a family next to
+ * it. Instead of traversing the whole board, it follows the eater counts that
+ * each {@link Parent} keeps up to date for its subtree, so that only the path
+ * from the board down to the eater has to be visited.
  */
-public class FindEating extends DFTDVisitor {
-	private ColoredAlligator eater;
+public class FindEating {
 
-	/**
-	 * Creates a new visitor with no found alligator.
-	 */
 	private FindEating() {
-		eater = null;
 	}
 
 	/**
@@ -25,48 +22,41 @@ public class FindEating extends DFTDVisitor {
 	 * eaten family can be retrieved by calling
 	 * <code>eater.getParent().getNextChild(eater)</code> where "eater" is the
 	 * returned ColoredAlligator.
-	 * 
+	 *
 	 * @param board
 	 *            the board in which colored alligators should be searched
 	 * @return the eating alligator if one was found, otherwise null
 	 */
 	public static ColoredAlligator findEater(Board board) {
-		FindEating finder = new FindEating();
-		finder.beginTraversal(board);
-		return finder.eater;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	public void dispatchColoredAlligator(ColoredAlligator alligator) {
-		dispatchParent(alligator);
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	public void dispatchAgedAlligator(AgedAlligator alligator) {
-		dispatchParent(alligator);
+		if (board.getEaterCount() == 0) {
+			return null;
+		}
+		Parent current = board;
+		while (!current.hasEater()) {
+			current = findChildWithEater(current);
+		}
+		return (ColoredAlligator) current.getFirstChild();
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Finds the child whose subtree contains the next eater, in the same order
+	 * a depth first, top down traversal would find it (i.e. children are
+	 * searched from the last to the first one).
+	 *
+	 * @param p
+	 *            a parent that contains an eater in its subtree, but has no
+	 *            eater itself
+	 * @return the child containing the eater
 	 */
-	@Override
-	public void dispatchBoard(Board board) {
-		dispatchParent(board);
-	}
-
-	private void dispatchParent(Parent p) {
-		if (p.getChildCount() > 1) {
-			InternalBoardObject firstChild = p.getFirstChild();
-			if (firstChild.getClass() == ColoredAlligator.class) {
-				eater = (ColoredAlligator) firstChild;
-				cancelTraversal();
+	private static Parent findChildWithEater(Parent p) {
+		for (int i = p.getChildCount() - 1; i >= 0; i--) {
+			final InternalBoardObject child = p.getChildAtPosition(i);
+			if (child instanceof Parent
+					&& ((Parent) child).getEaterCount() > 0) {
+				return (Parent) child;
 			}
 		}
+		throw new IllegalStateException(
+				"Eater count of parent does not match its children");
 	}
 }
@@ -85,6 +85,19 @@ public class FlattenTree<T extends BoardObject> extends DFTDVisitor {
 		return flattener.flattened;
 	}
 
+	/**
+	 * Travels the tree once and numbers all of its elements, so that ancestor,
+	 * subtree and lowest common ancestor queries can be answered without
+	 * walking up the tree afterwards.
+	 *
+	 * @param tree
+	 *            The {@link BoardObject} tree to take a snapshot of.
+	 * @return A snapshot of the structure of the given tree.
+	 */
+	public static BoardSnapshot toSnapshot(BoardObject tree) {
+		return new BoardSnapshot(tree);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,92 @@
+package de.croggle.game.board.operations;
+
+import de.croggle.game.board.BoardObject;
+
+/**
+ * The width, height and depth of every object in a family, as created by
+ * {@link CreateLayoutMetrics}. The values are stored in arrays indexed by the
+ * node ids of a {@link BoardSnapshot}, which is taken of the family while
+ * measuring. The root of the family always has the id 0.
+ *
+ * The width and height of an object are defined as in {@link CreateWidthMap}
+ * and {@link CreateHeightMap}, its depth as in {@link CreateDepthMap}.
+ */
+public class LayoutMetrics {
+	private final BoardSnapshot snapshot;
+	private final float[] widths;
+	private final float[] heights;
+
+	LayoutMetrics(BoardSnapshot snapshot, float[] widths, float[] heights) {
+		this.snapshot = snapshot;
+		this.widths = widths;
+		this.heights = heights;
+	}
+
+	/**
+	 * Returns the snapshot of the measured family, whose node ids are used to
+	 * look up the metrics.
+	 *
+	 * @return the snapshot taken while measuring
+	 */
+	public BoardSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Returns the number of measured objects.
+	 *
+	 * @return the number of objects in the measured family
+	 */
+	public int size() {
+		return snapshot.size();
+	}
+
+	/**
+	 * Returns the node id of the given object. If the family has been measured
+	 * again since, e.g. by another layout, the id is looked up by searching.
+	 *
+	 * @param b
+	 *            a measured object
+	 * @return the id of the given object
+	 * @throws IllegalArgumentException
+	 *             if the given object has not been measured
+	 */
+	public int getNodeId(BoardObject b) {
+		return snapshot.getNodeId(b);
+	}
+
+	/**
+	 * Returns the object with the given node id.
+	 *
+	 * @param id
+	 *            the node id
+	 * @return the measured object with the given id
+	 */
+	public BoardObject getObject(int id) {
+		return snapshot.getObject(id);
+	}
+
+	public float getWidth(int id) {
+		return widths[id];
+	}
+
+	public float getWidth(BoardObject b) {
+		return widths[getNodeId(b)];
+	}
+
+	public float getHeight(int id) {
+		return heights[id];
+	}
+
+	public float getHeight(BoardObject b) {
+		return heights[getNodeId(b)];
+	}
+
+	public int getDepth(int id) {
+		return snapshot.getDepth(id);
+	}
+
+	public int getDepth(BoardObject b) {
+		return snapshot.getDepth(b);
+	}
+}
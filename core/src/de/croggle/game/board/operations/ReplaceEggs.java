@@ -1,13 +1,9 @@
 package de.croggle.game.board.operations;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
-
 import de.croggle.game.Color;
 import de.croggle.game.ColorController;
 import de.croggle.game.ColorOverflowException;
+import de.croggle.game.ColorSet;
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
@@ -20,7 +16,8 @@ import de.croggle.game.event.BoardEventMessenger;
 /**
  * A visitor replacing eggs of a certain color with copies of a given family
  * (subtree). Also offers functions to replace in a semantically correct way
- * (with variable renaming).
+ * (with variable renaming). The constellation is visited from left to right
+ * without recursion, so that constellations of any depth can be processed.
  */
 public class ReplaceEggs implements BoardObjectVisitor {
 	private final BoardEventMessenger boardMessenger;
@@ -28,10 +25,26 @@ public class ReplaceEggs implements BoardObjectVisitor {
 	private final Color eggColor;
 	private final ColorController colorController;
 	private BoardObject constellation;
-	private Color[] boundColors;
-	private Color[] freeColors;
+	private final ColorSet boundColors;
+	private final ColorSet freeColors;
+
+	/*
+	 * The colors bound above the constellation, which do not change during the
+	 * replacement, and the colors bound by the colored alligators between the
+	 * constellation and the currently visited object, which are updated while
+	 * descending. Together they are the colors bound at the current location.
+	 */
+	private final ColorSet outerBoundColors;
+	private final ColorSet locallyBoundColors;
+	/*
+	 * Working sets reused for every hatched egg, so that recoloring does not
+	 * allocate any collections.
+	 */
+	private final ColorSet unusableColors;
+	private final ColorSet conflictingColors;
 
 	private ColorOverflowException colorOverflowException;
+	private final TraversalStack stack;
 
 	private ReplaceEggs(BoardObject constellation, Color eggColor,
 			InternalBoardObject bornFamily, ColorController colorController) {
@@ -47,9 +60,55 @@ public class ReplaceEggs implements BoardObjectVisitor {
 		this.boardMessenger = boardMessenger;
 		this.colorController = colorController;
 
-		boundColors = CollectBoundColors.collect(bornFamily);
-		freeColors = CollectFreeColors.collect(bornFamily);
+		boundColors = CollectBoundColors.collectSet(bornFamily);
+		freeColors = CollectFreeColors.collectSet(bornFamily);
 
+		outerBoundColors = new ColorSet();
+		for (Parent parent : GetParentHierarchy.get(constellation)) {
+			// TODO remove instanceof
+			if (parent instanceof ColoredAlligator) {
+				outerBoundColors.add(((ColoredAlligator) parent).getColor());
+			}
+		}
+		locallyBoundColors = new ColorSet();
+		unusableColors = new ColorSet();
+		conflictingColors = new ColorSet();
+		stack = TraversalStack.get();
+	}
+
+	/*
+	 * Every entry of the stack holds a parent and the position of its next
+	 * child. Colored alligators which have added their color to the locally
+	 * bound colors also store themselves as the target of their entry, so
+	 * that the color is removed again when all children have been visited.
+	 */
+	private void traverse() {
+		final int base = stack.size();
+		constellation.accept(this);
+		try {
+			while (stack.size() > base && colorOverflowException == null) {
+				final int top = stack.size() - 1;
+				final Parent p = (Parent) stack.node(top);
+				final int position = stack.position(top);
+				if (position < p.getChildCount()) {
+					stack.setPosition(top, position + 1);
+					p.getChildAtPosition(position).accept(this);
+				} else {
+					/*
+					 * The color is read again after visiting the children,
+					 * since the alligator might have been recolored meanwhile.
+					 */
+					final Object binder = stack.target(top);
+					stack.pop();
+					if (binder != null) {
+						locallyBoundColors.remove(((ColoredAlligator) binder)
+								.getColor());
+					}
+				}
+			}
+		} finally {
+			stack.truncate(base);
+		}
 	}
 
 	/**
@@ -76,7 +135,7 @@ public class ReplaceEggs implements BoardObjectVisitor {
 			ColorController colorController) throws ColorOverflowException {
 		ReplaceEggs replacer = new ReplaceEggs(constellation, eggColor,
 				bornFamily, boardMessenger, colorController);
-		constellation.accept(replacer);
+		replacer.traverse();
 		if (replacer.colorOverflowException != null) {
 			throw replacer.colorOverflowException;
 		}
@@ -105,7 +164,7 @@ public class ReplaceEggs implements BoardObjectVisitor {
 			throws ColorOverflowException {
 		ReplaceEggs replacer = new ReplaceEggs(constellation, eggColor,
 				bornFamily, colorController);
-		constellation.accept(replacer);
+		replacer.traverse();
 		if (replacer.colorOverflowException != null) {
 			throw replacer.colorOverflowException;
 		}
@@ -121,39 +180,42 @@ public class ReplaceEggs implements BoardObjectVisitor {
 		}
 		if (egg.getColor().equals(eggColor)) {
 			InternalBoardObject replacement = bornFamilyPrototype.copy();
-			final Color[] locallyBoundColors = findLocallyBoundColors(egg);
-			final Color[] globallyBoundColors = findGloballyBoundColors(egg);
-
-			final Set<Color> unusableColors = new HashSet<Color>();
-			Collections.addAll(unusableColors, globallyBoundColors);
-			Collections.addAll(unusableColors, freeColors);
-			Collections.addAll(unusableColors, boundColors);
-
-			final Set<Color> locallyBoundAndFreeColors = new HashSet<Color>();
-			Collections.addAll(locallyBoundAndFreeColors, locallyBoundColors);
-			locallyBoundAndFreeColors.retainAll(Arrays.asList(freeColors));
-			for (Color color : locallyBoundAndFreeColors) {
+			unusableColors.set(outerBoundColors);
+			unusableColors.addAll(locallyBoundColors);
+			unusableColors.addAll(freeColors);
+			unusableColors.addAll(boundColors);
+			// eggs renamed to the replaced color would hatch as well
+			unusableColors.add(eggColor);
+
+			conflictingColors.set(locallyBoundColors);
+			conflictingColors.retainAll(freeColors);
+			for (int id = conflictingColors.nextId(0); id >= 0; id = conflictingColors
+					.nextId(id + 1)) {
 				try {
 					final Color newColor = colorController
-							.requestColor(unusableColors
-									.toArray(new Color[unusableColors.size()]));
-					ExchangeColor.recolor(constellation, color, newColor,
+							.requestColor(unusableColors);
+					unusableColors.add(newColor);
+					final Color oldColor = Color.of(id);
+					ExchangeColor.recolor(constellation, oldColor, newColor,
 							boardMessenger);
+					// the alligators binding the old color are now using the
+					// new one, including those above the current egg
+					locallyBoundColors.remove(oldColor);
+					locallyBoundColors.add(newColor);
 				} catch (ColorOverflowException e) {
 					colorOverflowException = e;
 					return;
 				}
 			}
-			final Set<Color> locallyBoundAndBoundColors = new HashSet<Color>();
-			Collections.addAll(locallyBoundAndBoundColors, locallyBoundColors);
-			locallyBoundAndBoundColors.retainAll(Arrays.asList(boundColors));
-			for (Color color : locallyBoundAndBoundColors) {
+			conflictingColors.set(locallyBoundColors);
+			conflictingColors.retainAll(boundColors);
+			for (int id = conflictingColors.nextId(0); id >= 0; id = conflictingColors
+					.nextId(id + 1)) {
 				try {
 					final Color newColor = colorController
-							.requestColor(unusableColors
-									.toArray(new Color[unusableColors.size()]));
+							.requestColor(unusableColors);
 					unusableColors.add(newColor);
-					ExchangeColor.recolor(replacement, color, newColor,
+					ExchangeColor.recolor(replacement, Color.of(id), newColor,
 							boardMessenger);
 				} catch (ColorOverflowException e) {
 					colorOverflowException = e;
@@ -176,7 +238,13 @@ public class ReplaceEggs implements BoardObjectVisitor {
 	@Override
 	public void visitColoredAlligator(ColoredAlligator alligator) {
 		if (colorOverflowException == null) {
-			alligator.acceptOnChildren(this);
+			/*
+			 * Only the topmost alligator of a color removes it again, as nested
+			 * alligators of the same color do not change the set of bound
+			 * colors.
+			 */
+			final boolean binds = locallyBoundColors.add(alligator.getColor());
+			stack.push(alligator, binds ? alligator : null, 0);
 		}
 	}
 
@@ -186,7 +254,7 @@ public class ReplaceEggs implements BoardObjectVisitor {
 	@Override
 	public void visitAgedAlligator(AgedAlligator alligator) {
 		if (colorOverflowException == null) {
-			alligator.acceptOnChildren(this);
+			stack.push(alligator, 0);
 		}
 	}
 
@@ -196,47 +264,7 @@ public class ReplaceEggs implements BoardObjectVisitor {
 	@Override
 	public void visitBoard(Board board) {
 		if (colorOverflowException == null) {
-			board.acceptOnChildren(this);
-		}
-	}
-
-	/**
-	 * Returns all colors of colored alligators above <code>egg</code> but below
-	 * <code>parent</code>. This is equivalent to the colors which are bound in
-	 * the current subterm for the location of the egg.
-	 * 
-	 * @param egg
-	 *            the egg for which the bound colors should be returned
-	 * @return the set of bound colors
-	 */
-	private Color[] findLocallyBoundColors(Egg egg) {
-		return findBoundColorsBelow(egg, constellation);
-	}
-
-	/**
-	 * Returns all colors of colored alligators above <code>egg</code>. This is
-	 * equivalent to the colors which are bound for the location of the egg.
-	 * 
-	 * @param egg
-	 *            the egg for which the bound colors should be returned
-	 * @return the set of bound colors
-	 */
-	private Color[] findGloballyBoundColors(Egg egg) {
-		return findBoundColorsBelow(egg, null);
-	}
-
-	private Color[] findBoundColorsBelow(Egg egg, BoardObject topmost) {
-		final Set<Color> boundColors = new HashSet<Color>();
-		for (Parent parent : GetParentHierarchy.get(egg)) {
-			// TODO remove instanceof
-			if (parent instanceof ColoredAlligator) {
-				final ColoredAlligator coloredAlligator = (ColoredAlligator) parent;
-				boundColors.add(coloredAlligator.getColor());
-			}
-			if (parent == topmost) {
-				break;
-			}
+			stack.push(board, 0);
 		}
-		return boundColors.toArray(new Color[boundColors.size()]);
 	}
 }
@@ -0,0 +1,129 @@
+package de.croggle.game.board.operations;
+
+/**
+ * An array based stack of board objects, which is shared by all traversals of
+ * a thread instead of letting every visitor allocate its own collections.
+ * Together with each object, a target object and a position, e.g. the index of
+ * the next child to visit, can be stored without boxing.
+ *
+ * A traversal only uses the part of the stack above the size it found when it
+ * began, and truncates the stack to that size again when it ends. Traversals
+ * started while another one is running, e.g. by an operation dispatched from
+ * it, therefore do not interfere with each other.
+ */
+final class TraversalStack {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final ThreadLocal<TraversalStack> STACKS = new ThreadLocal<TraversalStack>() {
+		@Override
+		protected TraversalStack initialValue() {
+			return new TraversalStack();
+		}
+	};
+
+	private Object[] nodes;
+	private Object[] targets;
+	private int[] positions;
+	private int size;
+
+	private TraversalStack() {
+		nodes = new Object[INITIAL_CAPACITY];
+		targets = new Object[INITIAL_CAPACITY];
+		positions = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Returns the stack of the current thread.
+	 *
+	 * @return the traversal stack to use
+	 */
+	static TraversalStack get() {
+		return STACKS.get();
+	}
+
+	/**
+	 * Returns the number of entries on the stack, including those of
+	 * traversals which have started before.
+	 *
+	 * @return the size of the stack
+	 */
+	int size() {
+		return size;
+	}
+
+	void push(Object node) {
+		push(node, null, 0);
+	}
+
+	void push(Object node, int position) {
+		push(node, null, position);
+	}
+
+	void push(Object node, Object target, int position) {
+		if (size == nodes.length) {
+			grow();
+		}
+		nodes[size] = node;
+		targets[size] = target;
+		positions[size] = position;
+		size++;
+	}
+
+	/**
+	 * Removes the topmost entry from the stack.
+	 *
+	 * @return the object of the removed entry
+	 */
+	Object pop() {
+		size--;
+		final Object node = nodes[size];
+		nodes[size] = null;
+		targets[size] = null;
+		return node;
+	}
+
+	Object node(int index) {
+		return nodes[index];
+	}
+
+	Object target(int index) {
+		return targets[index];
+	}
+
+	int position(int index) {
+		return positions[index];
+	}
+
+	void setPosition(int index, int position) {
+		positions[index] = position;
+	}
+
+	/**
+	 * Removes all entries above the given size, so that the objects they
+	 * reference are not kept alive by the stack.
+	 *
+	 * @param newSize
+	 *            the size the stack had when the current traversal began
+	 */
+	void truncate(int newSize) {
+		for (int i = newSize; i < size; i++) {
+			nodes[i] = null;
+			targets[i] = null;
+		}
+		size = newSize;
+	}
+
+	private void grow() {
+		final int capacity = nodes.length * 2;
+		final Object[] newNodes = new Object[capacity];
+		final Object[] newTargets = new Object[capacity];
+		final int[] newPositions = new int[capacity];
+		System.arraycopy(nodes, 0, newNodes, 0, size);
+		System.arraycopy(targets, 0, newTargets, 0, size);
+		System.arraycopy(positions, 0, newPositions, 0, size);
+		nodes = newNodes;
+		targets = newTargets;
+		positions = newPositions;
+	}
+}
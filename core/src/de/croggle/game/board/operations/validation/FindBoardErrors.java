@@ -9,6 +9,7 @@ import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 
 /**
@@ -19,6 +20,12 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 		BoardObjectVisitor {
 
 	private List<BoardError> errors;
+	/*
+	 * The objects still to be visited, the next one on top. Children are
+	 * pushed from right to left, so that they are visited from left to right
+	 * without recursing into the family.
+	 */
+	private final List<BoardObject> pending;
 
 	/**
 	 * Initializes a {@link FindBoardErrors} instance by configuring it so it
@@ -36,6 +43,20 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 	private FindBoardErrors(BoardErrorType[] errorTypes) {
 		super(errorTypes);
 		errors = new ArrayList<BoardError>();
+		pending = new ArrayList<BoardObject>();
+	}
+
+	private void traverse(BoardObject b) {
+		pending.add(b);
+		while (!pending.isEmpty()) {
+			pending.remove(pending.size() - 1).accept(this);
+		}
+	}
+
+	private void pushChildren(Parent p) {
+		for (int i = p.getChildCount() - 1; i >= 0; i--) {
+			pending.add(p.getChildAtPosition(i));
+		}
 	}
 
 	/**
@@ -47,7 +68,7 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 	 */
 	public static List<BoardError> find(BoardObject b) {
 		FindBoardErrors finder = new FindBoardErrors();
-		b.accept(finder);
+		finder.traverse(b);
 		return finder.errors;
 	}
 
@@ -65,7 +86,7 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 	public static List<BoardError> find(BoardObject b,
 			BoardErrorType[] errorTypes) {
 		FindBoardErrors finder = new FindBoardErrors(errorTypes);
-		b.accept(finder);
+		finder.traverse(b);
 		return finder.errors;
 	}
 
@@ -85,7 +106,7 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 				&& alligator.getColor().equals(Color.uncolored())) {
 			errors.add(new ObjectUncoloredError(alligator));
 		}
-		alligator.acceptOnChildren(this);
+		pushChildren(alligator);
 	}
 
 	@Override
@@ -93,7 +114,7 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 		if (validateAgedAlligatorChildless && alligator.getChildCount() == 0) {
 			errors.add(new AgedAlligatorChildlessError(alligator));
 		}
-		alligator.acceptOnChildren(this);
+		pushChildren(alligator);
 	}
 
 	@Override
@@ -101,6 +122,6 @@ public class FindBoardErrors extends AbstractBoardValidator implements
 		if (validateEmptyBoard && board.getChildCount() == 0) {
 			errors.add(new EmptyBoardError(board));
 		}
-		board.acceptOnChildren(this);
+		pushChildren(board);
 	}
 }
@@ -1,5 +1,8 @@
 package de.croggle.game.board.operations.validation;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import de.croggle.game.Color;
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
@@ -7,7 +10,6 @@ import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.ColoredBoardObject;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 
@@ -19,6 +21,10 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 		BoardObjectVisitor {
 
 	private boolean isValid = true;
+	/*
+	 * The objects still to be visited, see FindBoardErrors.
+	 */
+	private final List<BoardObject> pending = new ArrayList<BoardObject>();
 
 	/**
 	 * Initializes a constellation validator by configuring it so it will only
@@ -37,6 +43,13 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 		super(errorTypes);
 	}
 
+	private void traverse(BoardObject family) {
+		pending.add(family);
+		while (!pending.isEmpty() && isValid) {
+			pending.remove(pending.size() - 1).accept(this);
+		}
+	}
+
 	/**
 	 * Checks whether the given family represents a valid term within the lambda
 	 * calculus.
@@ -47,7 +60,7 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 	 */
 	public static boolean isValid(BoardObject family) {
 		ValidateConstellation validator = new ValidateConstellation();
-		family.accept(validator);
+		validator.traverse(family);
 		return validator.isValid;
 	}
 
@@ -64,7 +77,7 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 	public static boolean isValid(BoardObject family,
 			BoardErrorType[] errorTypes) {
 		ValidateConstellation validator = new ValidateConstellation(errorTypes);
-		family.accept(validator);
+		validator.traverse(family);
 		return validator.isValid;
 	}
 
@@ -121,6 +134,7 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 	 * Takes a parent and the corresponding "look for empty XY" flag (e.g.
 	 * agedAlligatorChildless) and tests, if the flag is set, if the parent is
 	 * childless. In this case, the validation run will be invalidated.
+	 * Otherwise, its children are validated next.
 	 * 
 	 * @param p
 	 *            the parent to be validated
@@ -131,11 +145,8 @@ public class ValidateConstellation extends AbstractBoardValidator implements
 		if (validationEnabled && p.getChildCount() == 0) {
 			isValid = false;
 		} else {
-			for (InternalBoardObject child : p) {
-				child.accept(this);
-				if (!isValid) {
-					break;
-				}
+			for (int i = p.getChildCount() - 1; i >= 0; i--) {
+				pending.add(p.getChildAtPosition(i));
 			}
 		}
 	}
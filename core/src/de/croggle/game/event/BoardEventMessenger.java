@@ -1,7 +1,6 @@
 package de.croggle.game.event;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
@@ -9,19 +8,60 @@ import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.ColoredBoardObject;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
+import de.croggle.util.ListenerRegistry;
 
 /**
  * The location in which listeners are able to register and unregister
  * themselves so they would recieve further notifications, e.g. when an object
  * has been recolored. Objects of this class can easily be passed to methods, so
  * that these can trigger events.
+ * 
+ * Events sent between {@link #beginStep()} and {@link #endStep()} are not
+ * delivered immediately, but recorded as {@link StepEvents}. When the step
+ * ends, {@link StepEventListener}s receive all of them in a single
+ * <code>onStep</code> event, while all other listeners receive them one by one,
+ * in the order they have been sent. Steps are meant to be begun and ended by
+ * the thread evaluating the board.
+ * 
+ * Listeners may be registered and unregistered from any thread, also while
+ * they are notified. Events are delivered to the listeners registered at the
+ * time they are sent.
  */
 public class BoardEventMessenger {
 
-	private final List<BoardEventListener> listeners;
+	private final ListenerRegistry<BoardEventListener> listeners;
+	private StepEvents stepEvents;
+	private int stepDepth;
 
+	/**
+	 * Creates a new messenger, which delivers events synchronously.
+	 */
 	public BoardEventMessenger() {
-		listeners = new ArrayList<BoardEventListener>();
+		this(ListenerRegistry.SYNCHRONOUS);
+	}
+
+	/**
+	 * Creates a new messenger, which delivers events using the given
+	 * executor, e.g. {@link ListenerRegistry#RENDER_THREAD} to send events
+	 * from a simulation running on another thread to the renderer.
+	 * 
+	 * @param executor
+	 *            the executor to deliver events with
+	 */
+	public BoardEventMessenger(Executor executor) {
+		listeners = new ListenerRegistry<BoardEventListener>(executor);
+		stepEvents = null;
+		stepDepth = 0;
+	}
+
+	/**
+	 * Sets the executor used to deliver future events.
+	 * 
+	 * @param executor
+	 *            the executor to deliver events with
+	 */
+	public void setExecutor(Executor executor) {
+		listeners.setExecutor(executor);
 	}
 
 	/**
@@ -47,6 +87,93 @@ public class BoardEventMessenger {
 		listeners.remove(listener);
 	}
 
+	/**
+	 * Begins an evaluation step, so that all events sent until the step ends
+	 * are delivered together. Steps may be nested, in which case the events
+	 * are delivered when the outermost step ends.
+	 */
+	public void beginStep() {
+		if (stepDepth == 0) {
+			stepEvents = new StepEvents();
+		}
+		stepDepth++;
+	}
+
+	/**
+	 * Ends an evaluation step, and delivers the events sent during it to all
+	 * registered listeners.
+	 * 
+	 * @throws IllegalStateException
+	 *             if no step has begun
+	 */
+	public void endStep() {
+		if (stepDepth == 0) {
+			throw new IllegalStateException("No step has begun");
+		}
+		stepDepth--;
+		if (stepDepth != 0) {
+			return;
+		}
+		final StepEvents events = stepEvents;
+		stepEvents = null;
+		if (events.isEmpty()) {
+			return;
+		}
+		deliver(events, true);
+	}
+
+	/**
+	 * Returns whether an evaluation step is running, so that events are
+	 * recorded instead of delivered.
+	 * 
+	 * @return true if a step has begun and not yet ended, false otherwise
+	 */
+	public boolean isInStep() {
+		return stepDepth != 0;
+	}
+
+	/**
+	 * Records an event if a step is running, or delivers it immediately
+	 * otherwise. Only events handed to another executor are wrapped into a
+	 * notification, synchronous ones are passed to the listeners directly.
+	 */
+	private void send(StepEvents.Type type, Object object,
+			Object secondObject, int position) {
+		if (stepEvents != null) {
+			stepEvents.add(type, object, secondObject, position);
+			return;
+		}
+		if (listeners.getExecutor() == ListenerRegistry.SYNCHRONOUS) {
+			final Object[] snapshot = listeners.snapshot();
+			for (int i = 0; i < snapshot.length; i++) {
+				StepEvents.deliver((BoardEventListener) snapshot[i], type,
+						object, secondObject, position);
+			}
+			return;
+		}
+		final StepEvents single = new StepEvents(1);
+		single.add(type, object, secondObject, position);
+		deliver(single, false);
+	}
+
+	/**
+	 * Delivers recorded events to all registered listeners, using the
+	 * executor of this messenger.
+	 */
+	private void deliver(final StepEvents events, final boolean step) {
+		listeners
+				.publish(new ListenerRegistry.Notification<BoardEventListener>() {
+					@Override
+					public void notify(BoardEventListener listener) {
+						if (step && listener instanceof StepEventListener) {
+							((StepEventListener) listener).onStep(events);
+						} else {
+							events.deliverTo(listener);
+						}
+					}
+				});
+	}
+
 	/**
 	 * Sends an <code>onObjectRecolored</code> event to all registered
 	 * listeners.
@@ -55,9 +182,7 @@ public class BoardEventMessenger {
 	 *            the object which was recolored
 	 */
 	public void notifyObjectRecolored(ColoredBoardObject recoloredObject) {
-		for (BoardEventListener listener : listeners) {
-			listener.onObjectRecolored(recoloredObject);
-		}
+		send(StepEvents.Type.OBJECT_RECOLORED, recoloredObject, null, 0);
 	}
 
 	/**
@@ -70,9 +195,8 @@ public class BoardEventMessenger {
 	 */
 	public void notifyEat(ColoredAlligator eater,
 			InternalBoardObject eatenFamily, int eatenPositionInParent) {
-		for (BoardEventListener listener : listeners) {
-			listener.onEat(eater, eatenFamily, eatenPositionInParent);
-		}
+		send(StepEvents.Type.EAT, eater, eatenFamily,
+				eatenPositionInParent);
 	}
 
 	/**
@@ -84,9 +208,8 @@ public class BoardEventMessenger {
 	 */
 	public void notifyAgedAlligatorVanishes(AgedAlligator alligator,
 			int positionInPArent) {
-		for (BoardEventListener listener : listeners) {
-			listener.onAgedAlligatorVanishes(alligator, positionInPArent);
-		}
+		send(StepEvents.Type.AGED_ALLIGATOR_VANISHES, alligator, null,
+				positionInPArent);
 	}
 
 	/**
@@ -96,9 +219,7 @@ public class BoardEventMessenger {
 	 *            the board which was rebuilt
 	 */
 	public void notifyBoardRebuilt(Board board) {
-		for (BoardEventListener listener : listeners) {
-			listener.onBoardRebuilt(board);
-		}
+		send(StepEvents.Type.BOARD_REBUILT, board, null, 0);
 	}
 
 	/**
@@ -110,15 +231,11 @@ public class BoardEventMessenger {
 	 *            the family that hatched out of the egg
 	 */
 	public void notifyHatched(Egg replacedEgg, InternalBoardObject bornFamily) {
-		for (BoardEventListener listener : listeners) {
-			listener.onHatched(replacedEgg, bornFamily);
-		}
+		send(StepEvents.Type.HATCHED, replacedEgg, bornFamily, 0);
 	}
 
 	public void notifyAlligatorAged(ColoredAlligator colored, AgedAlligator aged) {
-		for (BoardEventListener listener : listeners) {
-			listener.onAge(colored, aged);
-		}
+		send(StepEvents.Type.AGE, colored, aged, 0);
 	}
 
 	/**
@@ -129,9 +246,7 @@ public class BoardEventMessenger {
 	 *            the {@link InternalBoardObject} added by the user
 	 */
 	public void notifyObjectPlaced(InternalBoardObject placed) {
-		for (BoardEventListener listener : listeners) {
-			listener.onObjectPlaced(placed);
-		}
+		send(StepEvents.Type.OBJECT_PLACED, placed, null, 0);
 	}
 
 	/**
@@ -142,9 +257,7 @@ public class BoardEventMessenger {
 	 *            the {@link InternalBoardObject} removed by the user
 	 */
 	public void notifyObjectRemoved(InternalBoardObject removed) {
-		for (BoardEventListener listener : listeners) {
-			listener.onObjectRemoved(removed);
-		}
+		send(StepEvents.Type.OBJECT_REMOVED, removed, null, 0);
 	}
 
 	/**
@@ -155,8 +268,6 @@ public class BoardEventMessenger {
 	 *            the {@link InternalBoardObject} moved by the user
 	 */
 	public void notifyObjectMoved(InternalBoardObject moved) {
-		for (BoardEventListener listener : listeners) {
-			listener.onObjectMoved(moved);
-		}
+		send(StepEvents.Type.OBJECT_MOVED, moved, null, 0);
 	}
 }
@@ -0,0 +1,26 @@
+package de.croggle.game.event;
+
+/**
+ *
+ * Interface for listeners which prefer to receive all events of an evaluation
+ * step at once. While a step is running, the events are only recorded by the
+ * {@link BoardEventMessenger}, and delivered in a single
+ * <code>onStep</code> event after the step has finished, instead of being
+ * delivered one by one. Events sent outside of a step, e.g. because the user
+ * edited the board, are still delivered through the single event methods.
+ */
+public interface StepEventListener extends BoardEventListener {
+
+	/**
+	 * Receive all events of an evaluation step for further processing. E.g.
+	 * the renderer can fix its layout only once per step, instead of once per
+	 * hatched egg.
+	 *
+	 * The events must not be kept after this method has returned.
+	 *
+	 * @param events
+	 *            the events of the step, in the order they have been sent
+	 */
+	public void onStep(StepEvents events);
+
+}
@@ -0,0 +1,228 @@
+package de.croggle.game.event;
+
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.ColoredBoardObject;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+
+/**
+ * The events sent during a single evaluation step, in the order they have been
+ * sent. Every event is stored as its type, up to two objects and a position in
+ * parallel arrays, so that recording an event does not allocate anything.
+ */
+public class StepEvents {
+	/**
+	 * The types of events which can be recorded, one for every method of
+	 * {@link BoardEventListener}.
+	 */
+	public enum Type {
+		OBJECT_RECOLORED,
+		EAT,
+		AGED_ALLIGATOR_VANISHES,
+		BOARD_REBUILT,
+		HATCHED,
+		AGE,
+		OBJECT_PLACED,
+		OBJECT_REMOVED,
+		OBJECT_MOVED
+	}
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Type[] types;
+	private Object[] objects;
+	private Object[] secondObjects;
+	private int[] positions;
+	private int size;
+
+	StepEvents() {
+		this(INITIAL_CAPACITY);
+	}
+
+	StepEvents(int capacity) {
+		types = new Type[capacity];
+		objects = new Object[capacity];
+		secondObjects = new Object[capacity];
+		positions = new int[capacity];
+		size = 0;
+	}
+
+	void add(Type type, Object object, Object secondObject, int position) {
+		if (size == types.length) {
+			grow();
+		}
+		types[size] = type;
+		objects[size] = object;
+		secondObjects[size] = secondObject;
+		positions[size] = position;
+		size++;
+	}
+
+	private void grow() {
+		final int capacity = Math.max(INITIAL_CAPACITY, types.length * 2);
+		final Type[] newTypes = new Type[capacity];
+		final Object[] newObjects = new Object[capacity];
+		final Object[] newSecondObjects = new Object[capacity];
+		final int[] newPositions = new int[capacity];
+		System.arraycopy(types, 0, newTypes, 0, size);
+		System.arraycopy(objects, 0, newObjects, 0, size);
+		System.arraycopy(secondObjects, 0, newSecondObjects, 0, size);
+		System.arraycopy(positions, 0, newPositions, 0, size);
+		types = newTypes;
+		objects = newObjects;
+		secondObjects = newSecondObjects;
+		positions = newPositions;
+	}
+
+	/**
+	 * Returns the number of recorded events.
+	 *
+	 * @return the number of events sent during the step
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of recorded events of the given type.
+	 *
+	 * @param type
+	 *            the type of events to count
+	 * @return the number of events of the given type
+	 */
+	public int count(Type type) {
+		int result = 0;
+		for (int i = 0; i < size; i++) {
+			if (types[i] == type) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	public Type getType(int event) {
+		return types[event];
+	}
+
+	/**
+	 * Returns the first object of an event, which is the recolored object, the
+	 * eater, the vanished alligator, the rebuilt board, the replaced egg, the
+	 * colored alligator that aged, or the placed, removed or moved object,
+	 * depending on the type of the event.
+	 *
+	 * @param event
+	 *            the index of the event
+	 * @return the first object of the event
+	 */
+	public Object getObject(int event) {
+		return objects[event];
+	}
+
+	/**
+	 * Returns the second object of an event, which is the eaten family, the
+	 * born family or the aged alligator, depending on the type of the event.
+	 *
+	 * @param event
+	 *            the index of the event
+	 * @return the second object of the event, or null if the event has none
+	 */
+	public Object getSecondObject(int event) {
+		return secondObjects[event];
+	}
+
+	/**
+	 * Returns the position of an eaten family or a vanished alligator in its
+	 * parent, before it was removed.
+	 *
+	 * @param event
+	 *            the index of the event
+	 * @return the position of the event, or 0 if the event has none
+	 */
+	public int getPosition(int event) {
+		return positions[event];
+	}
+
+	/**
+	 * Sends the recorded events one by one to the given listener, as if it
+	 * had been registered for single events during the step.
+	 *
+	 * @param listener
+	 *            the listener to send the events to
+	 */
+	public void deliverTo(BoardEventListener listener) {
+		for (int i = 0; i < size; i++) {
+			deliverTo(listener, i);
+		}
+	}
+
+	/**
+	 * Sends a single recorded event to the given listener.
+	 *
+	 * @param listener
+	 *            the listener to send the event to
+	 * @param event
+	 *            the index of the event
+	 */
+	public void deliverTo(BoardEventListener listener, int event) {
+		deliver(listener, types[event], objects[event], secondObjects[event],
+				positions[event]);
+	}
+
+	/**
+	 * Sends a single event to the given listener, without recording it.
+	 *
+	 * @param listener
+	 *            the listener to send the event to
+	 * @param type
+	 *            the type of the event
+	 * @param object
+	 *            the first object of the event
+	 * @param secondObject
+	 *            the second object of the event, or null
+	 * @param position
+	 *            the position of the event, or 0 if the event has none
+	 */
+	static void deliver(BoardEventListener listener, Type type, Object object,
+			Object secondObject, int position) {
+		switch (type) {
+		case OBJECT_RECOLORED:
+			listener.onObjectRecolored((ColoredBoardObject) object);
+			break;
+		case EAT:
+			listener.onEat((ColoredAlligator) object,
+					(InternalBoardObject) secondObject, position);
+			break;
+		case AGED_ALLIGATOR_VANISHES:
+			listener.onAgedAlligatorVanishes((AgedAlligator) object,
+					position);
+			break;
+		case BOARD_REBUILT:
+			listener.onBoardRebuilt((Board) object);
+			break;
+		case HATCHED:
+			listener.onHatched((Egg) object, (InternalBoardObject) secondObject);
+			break;
+		case AGE:
+			listener.onAge((ColoredAlligator) object,
+					(AgedAlligator) secondObject);
+			break;
+		case OBJECT_PLACED:
+			listener.onObjectPlaced((InternalBoardObject) object);
+			break;
+		case OBJECT_REMOVED:
+			listener.onObjectRemoved((InternalBoardObject) object);
+			break;
+		case OBJECT_MOVED:
+			listener.onObjectMoved((InternalBoardObject) object);
+			break;
+		default:
+			throw new IllegalStateException("Unknown event type " + type);
+		}
+	}
+}
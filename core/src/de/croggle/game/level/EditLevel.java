@@ -1,6 +1,5 @@
 package de.croggle.game.level;
 
-import java.util.HashMap;
 import java.util.List;
 
 import de.croggle.Croggle;
@@ -49,8 +48,7 @@ public abstract class EditLevel extends Level {
 	@Override
 	public boolean isLevelSolved(Board solution, int steps) {
 		if ((getAbortSimulationAfter() > 0 && getAbortSimulationAfter() <= steps)
-				|| solution.matchWithRecoloring(this.getGoalBoard(),
-						new HashMap<Color, Color>())) {
+				|| matchesGoal(solution, this.getGoalBoard())) {
 			setSolvedTrue();
 			return true;
 		} else {
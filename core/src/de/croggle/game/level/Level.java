@@ -1,8 +1,10 @@
 package de.croggle.game.level;
 
+import java.util.HashMap;
 import java.util.List;
 
 import de.croggle.Croggle;
+import de.croggle.game.Color;
 import de.croggle.game.GameController;
 import de.croggle.game.board.Board;
 
@@ -175,6 +177,26 @@ public abstract class Level {
 	 */
 	abstract public boolean isLevelSolved(Board solution, int steps);
 
+	/**
+	 * Checks whether the given board matches the goal board of a level with
+	 * recoloring. The {@link Board#getAlphaHash() alpha hashes} of both boards
+	 * are compared first, which are kept up to date during the simulation, so
+	 * that the full comparison is only done if the boards are very likely to
+	 * match.
+	 * 
+	 * @param solution
+	 *            the board entered by the user
+	 * @param goal
+	 *            the board to be reached
+	 * @return whether the boards match with recoloring
+	 */
+	protected static boolean matchesGoal(Board solution, Board goal) {
+		if (solution.getAlphaHash() != goal.getAlphaHash()) {
+			return false;
+		}
+		return solution.matchWithRecoloring(goal, new HashMap<Color, Color>());
+	}
+
 	/**
 	 * Method to check if the level is still solvable according to the number of
 	 * evaluation steps or not. This method should be called after checking
@@ -0,0 +1,312 @@
+package de.croggle.game.level;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import de.croggle.backends.BackendHelper;
+import de.croggle.game.Color;
+import de.croggle.game.board.Board;
+import de.croggle.util.convert.BinaryToAlligator;
+
+/**
+ * Gives random access to the level packages and levels precompiled into a
+ * single bundle by the <code>LevelBundleCompiler</code> build tool. Opening a
+ * bundle only reads the metadata of its packages. The levels of a package are
+ * located using the package's level table, and a level is only read when it
+ * is requested. If the bundle is a file, it is mapped into memory instead of
+ * being read, which is the case on desktop.
+ *
+ * All numbers of the bundle are big endian integers of four bytes, and all
+ * strings are written as their length in bytes followed by their UTF-8
+ * encoding. The bundle starts with {@link #MAGIC}, {@link #VERSION} and the
+ * number of packages, followed by the packages in the order of their ids.
+ * Every package consists of its id, its number of levels, the offset of its
+ * level table and its name, description, banner, design and animation. The
+ * level table of a package holds the id and the offset of every level, in the
+ * order of their ids. A level starts with a bit mask of the properties it has,
+ * followed by these properties in the order of the bits. Boards are encoded
+ * using {@link de.croggle.util.convert.AlligatorToBinary}, and lists by their
+ * size followed by their items. Colors are written as a single byte.
+ */
+class LevelBundle {
+
+	static final int MAGIC = 0x43524c42; // "CRLB"
+	static final int VERSION = 1;
+
+	static final int TYPE = 1;
+	static final int DESCRIPTION = 1 << 1;
+	static final int ANIMATION = 1 << 2;
+	static final int ABORT_SIMULATION_AFTER = 1 << 3;
+	static final int HINT = 1 << 4;
+	static final int INITIAL_CONSTELLATION = 1 << 5;
+	static final int INITIAL = 1 << 6;
+	static final int OBJECTIVE = 1 << 7;
+	static final int USER_COLORS = 1 << 8;
+	static final int BLOCKED_COLORS = 1 << 9;
+	static final int ANSWERS = 1 << 10;
+	static final int CORRECT_ANSWER = 1 << 11;
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static LevelBundle defaultBundle;
+
+	private final ByteBuffer data;
+	private final List<PackageEntry> packages;
+
+	/**
+	 * Reads the package metadata of the given bundle.
+	 *
+	 * @param data
+	 *            the content of the bundle, starting at position 0
+	 */
+	LevelBundle(ByteBuffer data) {
+		this.data = data;
+		final ByteBuffer buffer = data.duplicate();
+		if (buffer.getInt() != MAGIC) {
+			throw new IllegalArgumentException("Not a level bundle");
+		}
+		final int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IllegalArgumentException(
+					"Unsupported level bundle version " + version);
+		}
+		final int count = buffer.getInt();
+		final List<PackageEntry> packages = new ArrayList<PackageEntry>(count);
+		for (int i = 0; i < count; i++) {
+			final PackageEntry entry = new PackageEntry();
+			entry.id = buffer.getInt();
+			entry.levelCount = buffer.getInt();
+			entry.levelTable = buffer.getInt();
+			entry.name = readString(buffer);
+			entry.description = readString(buffer);
+			entry.banner = readString(buffer);
+			entry.design = readString(buffer);
+			entry.animation = readString(buffer);
+			packages.add(entry);
+		}
+		this.packages = Collections.unmodifiableList(packages);
+	}
+
+	/**
+	 * Returns the bundle shipped with the game's assets. It is opened when it
+	 * is requested for the first time.
+	 *
+	 * @return the game's level bundle
+	 */
+	static synchronized LevelBundle getDefault() {
+		if (defaultBundle == null) {
+			defaultBundle = open(Gdx.files.internal(BackendHelper
+					.getAssetDirPath() + "json/levels.bundle"));
+		}
+		return defaultBundle;
+	}
+
+	/**
+	 * Opens the bundle stored in the given file. If the file is an actual file
+	 * of the file system, it is mapped into memory, otherwise it is read
+	 * completely.
+	 *
+	 * @param handle
+	 *            the file of the bundle
+	 * @return the opened bundle
+	 */
+	static LevelBundle open(FileHandle handle) {
+		final File file = handle.file();
+		if (handle.type() != FileType.Classpath && file.isFile()) {
+			RandomAccessFile in = null;
+			try {
+				in = new RandomAccessFile(file, "r");
+				return new LevelBundle(in.getChannel().map(MapMode.READ_ONLY,
+						0, in.length()));
+			} catch (IOException e) {
+				throw new GdxRuntimeException("Error mapping level bundle "
+						+ file, e);
+			} finally {
+				StreamUtils.closeQuietly(in);
+			}
+		}
+		return new LevelBundle(ByteBuffer.wrap(handle.readBytes()));
+	}
+
+	/**
+	 * Returns the metadata of all packages of the bundle.
+	 *
+	 * @return the packages, ordered by their ids
+	 */
+	List<PackageEntry> getPackages() {
+		return packages;
+	}
+
+	/**
+	 * Returns the metadata of the package with the given id.
+	 *
+	 * @param packageId
+	 *            the id of the package
+	 * @return the package, or null if the bundle does not contain it
+	 */
+	PackageEntry getPackage(int packageId) {
+		for (PackageEntry entry : packages) {
+			if (entry.id == packageId) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of levels of the package with the given id.
+	 *
+	 * @param packageId
+	 *            the id of the package
+	 * @return the number of levels, or 0 if the bundle does not contain the
+	 *         package
+	 */
+	int getLevelCount(int packageId) {
+		final PackageEntry entry = getPackage(packageId);
+		return entry == null ? 0 : entry.levelCount;
+	}
+
+	/**
+	 * Returns the ids of the levels of the package with the given id.
+	 *
+	 * @param packageId
+	 *            the id of the package
+	 * @return the ids of the levels in ascending order, or an empty array if
+	 *         the bundle does not contain the package
+	 */
+	int[] getLevelIds(int packageId) {
+		final PackageEntry entry = getPackage(packageId);
+		if (entry == null) {
+			return new int[0];
+		}
+		final ByteBuffer buffer = data.duplicate();
+		buffer.position(entry.levelTable);
+		final int[] ids = new int[entry.levelCount];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = buffer.getInt();
+			buffer.getInt();
+		}
+		return ids;
+	}
+
+	/**
+	 * Reads the properties of the given level.
+	 *
+	 * @param packageId
+	 *            the id of the package containing the level
+	 * @param levelId
+	 *            the id of the level within the package
+	 * @return the properties of the level
+	 * @throws IllegalArgumentException
+	 *             if the bundle does not contain the level
+	 */
+	LevelData readLevel(int packageId, int levelId) {
+		final PackageEntry entry = getPackage(packageId);
+		if (entry == null) {
+			throw new IllegalArgumentException("No level package " + packageId);
+		}
+		final ByteBuffer buffer = data.duplicate();
+		buffer.position(entry.levelTable);
+		for (int i = 0; i < entry.levelCount; i++) {
+			final int id = buffer.getInt();
+			final int offset = buffer.getInt();
+			if (id == levelId) {
+				buffer.position(offset);
+				return readLevel(buffer);
+			}
+		}
+		throw new IllegalArgumentException("No level " + levelId
+				+ " in level package " + packageId);
+	}
+
+	private static LevelData readLevel(ByteBuffer buffer) {
+		final LevelData level = new LevelData();
+		final int fields = buffer.getInt();
+		if ((fields & TYPE) != 0) {
+			level.type = readString(buffer);
+		}
+		if ((fields & DESCRIPTION) != 0) {
+			level.description = readString(buffer);
+		}
+		if ((fields & ANIMATION) != 0) {
+			final int count = buffer.getInt();
+			level.animation = new ArrayList<String>(count);
+			for (int i = 0; i < count; i++) {
+				level.animation.add(readString(buffer));
+			}
+		}
+		if ((fields & ABORT_SIMULATION_AFTER) != 0) {
+			level.abortSimulationAfter = Integer.valueOf(buffer.getInt());
+		}
+		if ((fields & HINT) != 0) {
+			level.hint = readString(buffer);
+		}
+		if ((fields & INITIAL_CONSTELLATION) != 0) {
+			level.initialConstellation = BinaryToAlligator.convertBoard(buffer);
+		}
+		if ((fields & INITIAL) != 0) {
+			level.initial = BinaryToAlligator.convertBoard(buffer);
+		}
+		if ((fields & OBJECTIVE) != 0) {
+			level.goalBoard = BinaryToAlligator.convertBoard(buffer);
+		}
+		if ((fields & USER_COLORS) != 0) {
+			level.userColors = readColors(buffer);
+		}
+		if ((fields & BLOCKED_COLORS) != 0) {
+			level.blockedColors = readColors(buffer);
+		}
+		if ((fields & ANSWERS) != 0) {
+			level.answers = new Board[buffer.getInt()];
+			for (int i = 0; i < level.answers.length; i++) {
+				level.answers[i] = BinaryToAlligator.convertBoard(buffer);
+			}
+		}
+		if ((fields & CORRECT_ANSWER) != 0) {
+			level.correctAnswer = Integer.valueOf(buffer.getInt());
+		}
+		return level;
+	}
+
+	private static Color[] readColors(ByteBuffer buffer) {
+		final Color[] colors = new Color[buffer.getInt()];
+		for (int i = 0; i < colors.length; i++) {
+			colors[i] = Color.of(buffer.get());
+		}
+		return colors;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		final byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * The metadata of a level package, as read from its package.json file.
+	 * Paths are relative to the asset directory.
+	 */
+	static class PackageEntry {
+		int id;
+		int levelCount;
+		int levelTable;
+		String name;
+		String description;
+		String banner;
+		String design;
+		String animation;
+	}
+}
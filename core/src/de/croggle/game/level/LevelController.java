@@ -1,16 +1,9 @@
 package de.croggle.game.level;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
-import com.badlogic.gdx.Application.ApplicationType;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
-
 import de.croggle.Croggle;
-import de.croggle.backends.BackendHelper;
 
 /**
  * Controls the content of a level package.
@@ -74,41 +67,12 @@ public class LevelController {
 	 * Method to load the level of the package the LevelController manages.
 	 */
 	private void getLevelFromPackage() {
-		FileHandle dirHandle;
-		dirHandle = Gdx.files.internal(BackendHelper.getAssetDirPath()
-				+ "json/levels/" + String.format("%02d", packageIndex));
-		FileHandle[] files = dirHandle.list();
-		levels = new ArrayList<Level>();
-
-		if (Gdx.app.getType() == ApplicationType.Android) {
-			for (FileHandle file : files) {
-				if (file.name().charAt(0) != 'p') {
-					levels.add(LevelLoadHelper
-							.instantiate(packageIndex, Integer.parseInt(file
-									.name().substring(0, 2)), game));
-				}
-			}
-		} else {
-			for (FileHandle file : files) {
-				if (file.isDirectory()) {
-					continue;
-				}
-				String name = file.name();
-				if (name.length() != "XY.json".length()) {
-					continue;
-				}
-				if (name.matches("[0-9][0-9]\\.json")) {
-					levels.add(LevelLoadHelper.instantiate(packageIndex,
-							Integer.parseInt(name.substring(0, 2)), game));
-				}
-			}
+		// the level ids of the bundle are in ascending order already
+		int[] levelIds = LevelBundle.getDefault().getLevelIds(packageIndex);
+		levels = new ArrayList<Level>(levelIds.length);
+		for (int levelId : levelIds) {
+			levels.add(LevelLoadHelper.instantiate(packageIndex, levelId, game));
 		}
-		Collections.sort(levels, new Comparator<Level>() {
-			@Override
-			public int compare(Level o1, Level o2) {
-				return (int) Math.signum(o1.getLevelId() - o2.getLevelId());
-			}
-		});
 
 		for (int i = 0; i < levels.size(); i++) {
 			if (!(game.getPersistenceManager().getLevelProgress(
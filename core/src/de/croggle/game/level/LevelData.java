@@ -0,0 +1,27 @@
+package de.croggle.game.level;
+
+import java.util.List;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.Board;
+
+/**
+ * The properties of a level, as read from its json file by the
+ * <code>LevelBundleCompiler</code> and stored in the level bundle. Properties
+ * not given in the json file are null. Animation paths are stored as written
+ * in the json file, i.e. relative to the asset directory.
+ */
+class LevelData {
+	String type;
+	String description;
+	List<String> animation;
+	Integer abortSimulationAfter;
+	String hint;
+	Board initialConstellation;
+	Board initial;
+	Board goalBoard;
+	Color[] userColors;
+	Color[] blockedColors;
+	Board[] answers;
+	Integer correctAnswer;
+}
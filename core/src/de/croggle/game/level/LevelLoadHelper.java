@@ -1,25 +1,20 @@
 package de.croggle.game.level;
 
-import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonValue;
 
 import de.croggle.Croggle;
 import de.croggle.backends.BackendHelper;
 import de.croggle.game.Color;
 import de.croggle.game.board.Board;
-import de.croggle.util.convert.JsonToAlligator;
 
 //TODO Animation setzen!
 
 /**
- * Encapsulates the functionality needed for instantiating a level/game from the
- * respective JSON file. Therefore it removes a larger portion of program logic
+ * Encapsulates the functionality needed for instantiating a level/game from its
+ * properties precompiled into the level bundle. Therefore it removes a larger portion of program logic
  * from the <code>LevelController</code>, which in turn delegates requests for
  * level instantiation to this class' instantiate method.
  * 
@@ -45,10 +40,11 @@ class LevelLoadHelper {
 	 * @return the level denoted by the given indices/identifiers
 	 */
 	static Level instantiate(int packageIndex, int levelIndex, Croggle game) {
-		JsonValue json = getJson(packageIndex, levelIndex);
 		Level level = null;
 		try {
-			level = fillGeneric(json, levelIndex, packageIndex, game);
+			LevelData data = LevelBundle.getDefault().readLevel(packageIndex,
+					levelIndex);
+			level = fillGeneric(data, levelIndex, packageIndex, game);
 		} catch (InvalidJsonException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -57,83 +53,52 @@ class LevelLoadHelper {
 	}
 
 	/**
-	 * Obtain the json value from the json file associated with the given level
-	 * and package ids.
+	 * Fill the level object with all generic information given in the
+	 * specified level properties.
 	 * 
-	 * @param packageIndex
-	 *            specifies the level package from which the level is supposed
-	 *            to be loaded
-	 * @param levelIndex
-	 *            the id of the level within the package.
-	 * @return json value with the data needed to create the requested level
-	 *         from
-	 */
-	private static JsonValue getJson(int packageIndex, int levelIndex) {
-
-		FileHandle handle = Gdx.files.internal(BackendHelper.getAssetDirPath()
-				+ "json/levels/" + String.format("%02d", packageIndex)
-				+ String.format("/%02d", levelIndex) + ".json");
-		JsonReader reader = new JsonReader();
-		JsonValue de_croggle = reader.parse(handle.readString());
-
-		return de_croggle.child().child().child();
-	}
-
-	/**
-	 * Fill the level object with all generic information given in the specified
-	 * JSONValue. Expects the json value to be the root object of a level json
-	 * file.
-	 * 
-	 * @param level
-	 *            A level, which is to be filled with information from a json
-	 *            value
-	 * @param json
-	 *            The JSON object from which to read the level's properties
-	 * @throws IOException
-	 *             if there is an error reading the json file
+	 * @param data
+	 *            The properties read from the level bundle
 	 * @throws InvalidJsonException
+	 *             if a property needed by the level's type is missing or
+	 *             invalid
 	 */
-	private static Level fillGeneric(JsonValue json, int levelIndex,
+	private static Level fillGeneric(LevelData data, int levelIndex,
 			int packageIndex, Croggle game) throws InvalidJsonException {
-		String leveltype = json.getString("type");
+		String leveltype = require(data.type, "type");
 		Level level = null;
 		if (leveltype.equals("multiple choice")) {
-			level = fillMultipleChoice(json, levelIndex, packageIndex, game);
+			level = fillMultipleChoice(data, levelIndex, packageIndex, game);
 		} else if (leveltype.equals("color edit")) {
-			JsonValue data = json.get("data");
-			JsonValue initialBoard = data.get("initial constellation");
-			JsonValue goalBoard = data.get("objective");
-			Color[] userColors = getColorfromJson(data.get("user colors"));
+			Color[] userColors = require(data.userColors, "user colors");
 			if (userColors.length != 6) {
 				throw new InvalidJsonException(
 						"The user color Array in this json file has to contain six items!");
 			}
-			Color[] blockedColors = getColorfromJson(data.get("blocked colors"));
-
-			level = new ColorEditLevel(levelIndex, packageIndex,
-					JsonToAlligator.convertBoard(initialBoard),
-					JsonToAlligator.convertBoard(goalBoard),
-					getAnimation(json), userColors, blockedColors, json.get(
-							"hints").getString(0),
-					json.getString("description"),
-					json.getInt("abort simulation after"));
+			Color[] blockedColors = require(data.blockedColors,
+					"blocked colors");
+
+			level = new ColorEditLevel(levelIndex, packageIndex, require(
+					data.initialConstellation, "initial constellation"), require(
+					data.goalBoard, "objective"), getAnimation(data),
+					userColors, blockedColors, require(data.hint, "hints"),
+					require(data.description, "description"), require(
+							data.abortSimulationAfter, "abort simulation after")
+							.intValue());
 		} else if (leveltype.equals("term edit")) {
-			JsonValue data = json.get("data");
-			JsonValue initialBoard = data.get("initial constellation");
-			JsonValue goalBoard = data.get("objective");
-			Color[] userColors = getColorfromJson(data.get("user colors"));
+			Color[] userColors = require(data.userColors, "user colors");
 			if (userColors.length != 6) {
 				throw new InvalidJsonException(
 						"The user color Array in this json file has to contain six items!");
 			}
-			Color[] blockedColors = getColorfromJson(data.get("blocked colors"));
-			level = new TermEditLevel(levelIndex, packageIndex,
-					JsonToAlligator.convertBoard(initialBoard),
-					JsonToAlligator.convertBoard(goalBoard),
-					getAnimation(json), userColors, blockedColors, json.get(
-							"hints").getString(0),
-					json.getString("description"),
-					json.getInt("abort simulation after"));
+			Color[] blockedColors = require(data.blockedColors,
+					"blocked colors");
+			level = new TermEditLevel(levelIndex, packageIndex, require(
+					data.initialConstellation, "initial constellation"), require(
+					data.goalBoard, "objective"), getAnimation(data),
+					userColors, blockedColors, require(data.hint, "hints"),
+					require(data.description, "description"), require(
+							data.abortSimulationAfter, "abort simulation after")
+							.intValue());
 
 		} else {
 			throw new InvalidJsonException("Unspecified leveltype!");
@@ -144,102 +109,45 @@ class LevelLoadHelper {
 
 	/**
 	 * Fill a given multiple choice level with mc-level specific data obtained
-	 * from the json value given. Expects the json value to be the root object
-	 * of a level json file.
+	 * from the level properties given.
 	 * 
-	 * @param level
-	 *            A multiple choice level, which is to be filled with
-	 *            information from a json value
-	 * @param json
-	 *            The JSON object from which to read the level's properties
+	 * @param data
+	 *            The properties read from the level bundle
 	 * @throws InvalidJsonException
 	 */
-	private static Level fillMultipleChoice(JsonValue json, int levelIndex,
+	private static Level fillMultipleChoice(LevelData data, int levelIndex,
 			int packageIndex, Croggle game) throws InvalidJsonException {
-		JsonValue data = json.get("data");
-		JsonValue initialBoard = data.get("initial");
-		int correctAnswer = data.getInt("correct answer");
-		Board[] answers = getAnswersfromJson(data.get("answers"));
+		int correctAnswer = require(data.correctAnswer, "correct answer")
+				.intValue();
+		Board[] answers = require(data.answers, "answers");
 		Level level = new MultipleChoiceLevel(levelIndex, packageIndex,
-				JsonToAlligator.convertBoard(initialBoard),
-				answers[correctAnswer], getAnimation(json), json.get("hints")
-						.getString(0), json.getString("description"),
-				json.getInt("abort simulation after"), answers, correctAnswer);
+				require(data.initial, "initial"), answers[correctAnswer],
+				getAnimation(data), require(data.hint, "hints"), require(
+						data.description, "description"),
+				require(data.abortSimulationAfter, "abort simulation after")
+						.intValue(), answers, correctAnswer);
 		return level;
 	}
 
-	/**
-	 * Method to generate a Board Array from the given json.
-	 * 
-	 * @param json
-	 *            the JsonValue the Array should be generated from
-	 * @return the generated Board Array
-	 * @throws InvalidJsonException
-	 *             if json has the wrong format
-	 */
-	private static Board[] getAnswersfromJson(JsonValue json)
+	private static <T> T require(T value, String name)
 			throws InvalidJsonException {
-		int size = json.size;
-		if (!json.isArray()) {
-			throw new InvalidJsonException(
-					"There seems to be no answer array in this json file.");
-		} else if (size != 3) {
-			throw new InvalidJsonException(
-					"The number of answers should be three!");
-		}
-		Board[] answers = new Board[size];
-		for (int i = 0; i < size; i++) {
-			answers[i] = JsonToAlligator.convertBoard(json.get(i));
+		if (value == null) {
+			throw new InvalidJsonException("There is no \"" + name
+					+ "\" in this json file.");
 		}
-		return answers;
+		return value;
 	}
 
-	/**
-	 * Method to generate a Array of Colors from Json
-	 * 
-	 * @param json
-	 *            the Json the Array should be generated from
-	 * @return the generated Array
-	 * @throws InvalidJsonException
-	 *             if the Json has a wrong format
-	 */
-	private static Color[] getColorfromJson(JsonValue json)
+	private static List<String> getAnimation(LevelData data)
 			throws InvalidJsonException {
-		int size = json.size;
-		if (!json.isArray()) {
-			throw new InvalidJsonException(
-					"There seems to be no Color array in this json file.");
-		}
-		Color[] color = new Color[size];
-		for (int i = 0; i < size; i++) {
-			color[i] = new Color(json.getInt(i));
-		}
-
-		int id;
-		for (int i = 0; i < size; i++) {
-			id = color[i].getId();
-			for (int k = 0; k < i; k++) {
-				if (id == color[k].getId()) {
-					throw new InvalidJsonException(
-							"There is two times the same color.");
-				}
-			}
-		}
-		return color;
-
-	}
-
-	private static List<String> getAnimation(JsonValue json) {
 		List<String> animations = new LinkedList<String>();
 
-		JsonValue animationPaths = json.get("animation");
-		for (int i = 0; i < animationPaths.size; i++) {
-			if (animationPaths.getString(i).equals("")) {
+		for (String animationPath : require(data.animation, "animation")) {
+			if (animationPath.equals("")) {
 				Gdx.app.log("LevelLoadHelper", "Warning: Empty animation path");
 				continue;
 			}
-			animations.add(BackendHelper.getAssetDirPath()
-					+ animationPaths.getString(i));
+			animations.add(BackendHelper.getAssetDirPath() + animationPath);
 		}
 
 		return animations;
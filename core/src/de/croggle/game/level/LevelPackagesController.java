@@ -1,16 +1,8 @@
 package de.croggle.game.level;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.utils.GdxRuntimeException;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonValue;
-
 import de.croggle.Croggle;
 import de.croggle.backends.BackendHelper;
 
@@ -56,46 +48,16 @@ public class LevelPackagesController {
 	}
 
 	/**
-	 * Method to initialize the levelPackages from the assets.
+	 * Method to initialize the levelPackages from the level bundle.
 	 * 
 	 */
 	private void initialiseLevelPackages() {
-		levelPackages = new ArrayList<LevelPackage>();
-
-		FileHandle handle = Gdx.files.internal(BackendHelper.getAssetDirPath()
-				+ "json/levels");
-		FileHandle[] possiblePackageDirs = handle.list();
-		for (FileHandle dir : possiblePackageDirs) {
-			if (!dir.isDirectory()) {
-				continue;
-			}
-			String name = dir.name();
-			if (name.length() != 2) {
-				continue;
-			}
-			if (name.matches("[0-9][0-9]")) {
-				try {
-					if (dir.child("package.json").exists()) {
-						levelPackages.add(this.loadPackage(Integer
-								.parseInt(name)));
-					}
-				} catch (GdxRuntimeException ex) {
-					/*
-					 * Ignore. Just in case, libGdx' documentation of is telling
-					 * the truth (which it isn't) and an exception is thrown in
-					 * dir.child, because it is internal an non-existent
-					 */
-				}
-			}
+		List<LevelBundle.PackageEntry> entries = LevelBundle.getDefault()
+				.getPackages();
+		levelPackages = new ArrayList<LevelPackage>(entries.size());
+		for (LevelBundle.PackageEntry entry : entries) {
+			levelPackages.add(this.loadPackage(entry));
 		}
-		Collections.sort(levelPackages, new Comparator<LevelPackage>() {
-
-			@Override
-			public int compare(LevelPackage o1, LevelPackage o2) {
-				return (int) Math.signum(o1.getLevelPackageId()
-						- o2.getLevelPackageId());
-			}
-		});
 	}
 
 	/**
@@ -106,38 +68,25 @@ public class LevelPackagesController {
 	 * @return the number of levels contained in the package.
 	 */
 	public static int getPackageSize(int packageIndex) {
-		FileHandle dirHandle = Gdx.files.internal(BackendHelper
-				.getAssetDirPath()
-				+ "json/levels/"
-				+ String.format("%02d", packageIndex));
-		return dirHandle.list().length - 1;
+		return LevelBundle.getDefault().getLevelCount(packageIndex);
 	}
 
 	/**
-	 * @param PackageIndex
-	 *            of the Level Package which should be loaded.
-	 * @return the Level Package belonging to the given index.
+	 * @param entry
+	 *            the metadata of the Level Package which should be loaded.
+	 * @return the Level Package described by the given metadata.
 	 */
-	private LevelPackage loadPackage(int packageIndex) {
-		FileHandle handle = Gdx.files.internal(BackendHelper.getAssetDirPath()
-				+ "json/levels/" + String.format("%02d", packageIndex)
-				+ "/package.json");
-		JsonReader reader = new JsonReader();
-		JsonValue de_croggle = reader.parse(handle.readString());
-		JsonValue json = de_croggle.child().getChild("packages");
-
+	private LevelPackage loadPackage(LevelBundle.PackageEntry entry) {
 		String animationPath = null;
-		String animation = json.getString("animation");
-		Boolean hasAnimation = !animation.equals("");
+		Boolean hasAnimation = !entry.animation.equals("");
 		if (hasAnimation) {
-			animationPath = BackendHelper.getAssetDirPath() + animation;
+			animationPath = BackendHelper.getAssetDirPath() + entry.animation;
 		}
 
-		LevelPackage levelPackage = new LevelPackage(packageIndex,
-				json.getString("name"), json.getString("description"),
-				BackendHelper.getAssetDirPath() + json.getString("banner"),
-				hasAnimation, animationPath, BackendHelper.getAssetDirPath()
-						+ json.getString("design"));
+		LevelPackage levelPackage = new LevelPackage(entry.id, entry.name,
+				entry.description, BackendHelper.getAssetDirPath()
+						+ entry.banner, hasAnimation, animationPath,
+				BackendHelper.getAssetDirPath() + entry.design);
 		return levelPackage;
 	}
 
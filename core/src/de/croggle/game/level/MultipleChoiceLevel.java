@@ -1,10 +1,8 @@
 package de.croggle.game.level;
 
-import java.util.HashMap;
 import java.util.List;
 
 import de.croggle.Croggle;
-import de.croggle.game.Color;
 import de.croggle.game.MultipleChoiceGameController;
 import de.croggle.game.board.Board;
 
@@ -73,8 +71,7 @@ public class MultipleChoiceLevel extends Level {
 
 	@Override
 	public boolean isLevelSolved(Board solution, int steps) {
-		if (solution.matchWithRecoloring(answers[correctAnswer],
-				new HashMap<Color, Color>())) {
+		if (matchesGoal(solution, answers[correctAnswer])) {
 			return true;
 		} else {
 			return false;
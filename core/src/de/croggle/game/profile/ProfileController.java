@@ -1,6 +1,5 @@
 package de.croggle.game.profile;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.badlogic.gdx.Gdx;
@@ -8,6 +7,7 @@ import com.badlogic.gdx.Preferences;
 
 import de.croggle.Croggle;
 import de.croggle.data.persistence.manager.PersistenceManager;
+import de.croggle.util.ListenerRegistry;
 
 /**
  * A controller made to encapsulate the management of profiles. There is always
@@ -25,7 +25,7 @@ public class ProfileController {
 	 */
 	private final Croggle game;
 
-	private final List<ProfileChangeListener> listeners = new ArrayList<ProfileChangeListener>();
+	private final ListenerRegistry<ProfileChangeListener> listeners = new ListenerRegistry<ProfileChangeListener>();
 
 	/**
 	 * Defines the max. amount of profiles that can be created.
@@ -238,16 +238,29 @@ public class ProfileController {
 	 *            the listener that receives the updated profile
 	 */
 	public void addProfileChangeListener(ProfileChangeListener listener) {
-		if (listener == null) {
-			throw new IllegalArgumentException("Listener must not be null");
-		}
 		listeners.add(listener);
 	}
 
+	/**
+	 * Remove a listener, so that it does not receive further profile changes.
+	 * Listeners may remove themselves while they are notified.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeProfileChangeListener(ProfileChangeListener listener) {
+		listeners.remove(listener);
+	}
+
 	private void updateListeners() {
-		for (ProfileChangeListener listener : listeners) {
-			listener.onProfileChange(currentProfile);
-		}
+		final Profile profile = currentProfile;
+		listeners
+				.publish(new ListenerRegistry.Notification<ProfileChangeListener>() {
+					@Override
+					public void notify(ProfileChangeListener listener) {
+						listener.onProfileChange(profile);
+					}
+				});
 	}
 
 	private void updateControllers(String profileName) {
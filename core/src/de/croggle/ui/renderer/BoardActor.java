@@ -166,7 +166,7 @@ public class BoardActor extends Group implements SettingChangeListener {
 		// offsetTop pixels below (negative = above) the screen mid
 		ActorLayoutStatistics stats = layout.getLayoutStatistics();
 		Vector2 orig = config.getTreeOrigin();
-		float treeMidX = orig.x + stats.getWidthMap().get(layout.getBoard())
+		float treeMidX = orig.x + stats.getMetrics().getWidth(layout.getBoard())
 				/ 2;
 		float treeTop = orig.y;
 
@@ -421,8 +421,8 @@ public class BoardActor extends Group implements SettingChangeListener {
 	 *         constellation at once
 	 */
 	public float getPreferredWidth() {
-		return layout.getLayoutStatistics().getWidthMap()
-				.get(layout.getBoard())
+		return layout.getLayoutStatistics().getMetrics()
+				.getWidth(layout.getBoard())
 				* getZoom();
 	}
 
@@ -436,8 +436,8 @@ public class BoardActor extends Group implements SettingChangeListener {
 	 *         constellation at once
 	 */
 	public float getPreferredHeight() {
-		return layout.getLayoutStatistics().getHeightMap()
-				.get(layout.getBoard())
+		return layout.getLayoutStatistics().getMetrics()
+				.getHeight(layout.getBoard())
 				* getZoom();
 	}
 
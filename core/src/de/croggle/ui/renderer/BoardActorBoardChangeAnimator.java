@@ -25,7 +25,8 @@ import de.croggle.game.board.ColoredBoardObject;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.operations.FlattenTree;
-import de.croggle.game.event.BoardEventListener;
+import de.croggle.game.event.StepEventListener;
+import de.croggle.game.event.StepEvents;
 import de.croggle.ui.renderer.layout.ActorDelta;
 import de.croggle.ui.renderer.layout.ActorLayout;
 import de.croggle.ui.renderer.objectactors.AgedAlligatorActor;
@@ -35,7 +36,7 @@ import de.croggle.ui.renderer.objectactors.ColoredAlligatorActor;
 import de.croggle.ui.renderer.objectactors.ColoredBoardObjectActor;
 import de.croggle.ui.renderer.objectactors.EggActor;
 
-class BoardActorBoardChangeAnimator implements BoardEventListener {
+class BoardActorBoardChangeAnimator implements StepEventListener {
 	private final BoardActor b;
 
 	private AnimationsFinishedListener finishedListener;
@@ -46,6 +47,10 @@ class BoardActorBoardChangeAnimator implements BoardEventListener {
 	private final PopAnimationAction popAction;
 
 	private final Pool<RecolorAction> recolorPool;
+	/**
+	 * The eggs whose hatching is animated together.
+	 */
+	private final List<Egg> hatchedEggs;
 
 	private final float ageAnimationDuration = 0.3f;
 	private final float createAnimatonDuration = 0.3f;
@@ -71,6 +76,7 @@ class BoardActorBoardChangeAnimator implements BoardEventListener {
 		recolorPool = new ReflectionPool<RecolorAction>(RecolorAction.class);
 		popAction = new PopAnimationAction();
 		animationQueue = new LinkedList<Animation>();
+		hatchedEggs = new ArrayList<Egg>();
 	}
 
 	/**
@@ -250,11 +256,52 @@ class BoardActorBoardChangeAnimator implements BoardEventListener {
 	 */
 	@Override
 	public void onHatched(Egg replacedEgg, InternalBoardObject bornFamily) {
+		hatchedEggs.add(replacedEgg);
+		animateHatching();
+	}
+
+	/**
+	 * Visualizes all events of an evaluation step. All eggs hatching in a row
+	 * hatch at the same time, so that the layout only has to be fixed once for
+	 * all of them, instead of once per egg. Recolorings in between belong to
+	 * the hatching families and do not interrupt the hatching.
+	 * 
+	 * @param events
+	 *            the events of the step
+	 */
+	@Override
+	public void onStep(StepEvents events) {
+		final int size = events.size();
+		for (int i = 0; i < size; i++) {
+			final StepEvents.Type type = events.getType(i);
+			if (type == StepEvents.Type.HATCHED) {
+				hatchedEggs.add((Egg) events.getObject(i));
+			} else {
+				if (type != StepEvents.Type.OBJECT_RECOLORED) {
+					animateHatching();
+				}
+				events.deliverTo(this, i);
+			}
+		}
+		animateHatching();
+	}
+
+	/**
+	 * Animates the hatching of all eggs collected in {@link #hatchedEggs} at
+	 * once, and creates the actors of the families born from them.
+	 */
+	private void animateHatching() {
+		if (hatchedEggs.isEmpty()) {
+			return;
+		}
 		final float hatchDuration = hatchAnimationDuration * speedFactor;
 		final float fadeDuration = fadeOutDuration * speedFactor;
 
-		EggActor eggActor = (EggActor) b.getLayout().getActor(replacedEgg);
-		Action hatch = eggActor.enterHatchingStateAction(hatchDuration);
+		final List<EggActor> eggActors = new ArrayList<EggActor>(
+				hatchedEggs.size());
+		for (Egg replacedEgg : hatchedEggs) {
+			eggActors.add((EggActor) b.getLayout().getActor(replacedEgg));
+		}
 		List<ActorDelta> deltas = b.getLayout().getDeltasToFix();
 		List<ActorDelta> creation = filterCreated(deltas, true);
 		List<Action> creations = applyCreationDeltas(creation);
@@ -268,11 +315,16 @@ class BoardActorBoardChangeAnimator implements BoardEventListener {
 			deltaPool.free(delta);
 		}
 
-		Action remove = removeObjectAction(replacedEgg, fadeDuration);
-		Action hatchThenRemove = Actions.sequence(hatch, remove);
-		hatchThenRemove.setActor(eggActor);
-
-		creations.add(hatchThenRemove);
+		for (int i = 0; i < eggActors.size(); i++) {
+			final EggActor eggActor = eggActors.get(i);
+			Action hatch = eggActor.enterHatchingStateAction(hatchDuration);
+			Action remove = removeObjectAction(hatchedEggs.get(i),
+					fadeDuration);
+			Action hatchThenRemove = Actions.sequence(hatch, remove);
+			hatchThenRemove.setActor(eggActor);
+			creations.add(hatchThenRemove);
+		}
+		hatchedEggs.clear();
 
 		registerAnimationActions(
 				Math.max(hatchDuration + fadeDuration, creationTime),
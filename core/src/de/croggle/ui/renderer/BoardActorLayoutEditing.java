@@ -22,6 +22,8 @@ import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.ColoredBoardObject;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
+import de.croggle.game.board.operations.BoardSnapshot;
+import de.croggle.game.board.operations.FlattenTree;
 import de.croggle.game.event.BoardEventMessenger;
 import de.croggle.ui.renderer.layout.ActorLayout;
 import de.croggle.ui.renderer.objectactors.BoardObjectActor;
@@ -121,10 +123,27 @@ class BoardActorLayoutEditing {
 		CancelTarget cancel = new CancelTarget(dragged);
 		temporaryTargets.add(cancel);
 		dnd.addTarget(cancel);
+		/*
+		 * objects must not be dropped into their own family. The snapshot of
+		 * the last layout is reused if the board has not changed since.
+		 */
+		BoardSnapshot snapshot = b.getLayout().getLayoutStatistics()
+				.getMetrics().getSnapshot();
+		if (!snapshot.isUpToDate()) {
+			snapshot = FlattenTree.toSnapshot(b.getLayout().getBoard());
+		}
+		InternalBoardObject draggedObject = dragged.getBoardObject();
+		int draggedId = snapshot.contains(draggedObject) ? snapshot
+				.getNodeId(draggedObject) : -1;
 		for (BoardObjectActor actor : b.getLayout()) {
 			if (actor == dragged) {
 				continue;
 			}
+			InternalBoardObject object = actor.getBoardObject();
+			if (draggedId >= 0 && snapshot.contains(object)
+					&& snapshot.isAncestor(draggedId, snapshot.getNodeId(object))) {
+				continue;
+			}
 			Target target = new ObjectTarget(actor);
 			temporaryTargets.add(target);
 			dnd.addTarget(target);
@@ -588,8 +607,8 @@ class BoardActorLayoutEditing {
 			Vector2 point = new Vector2(x, y);
 			if (b.boardActorToWorldCoordinates(point).x < b
 					.getLayoutConfiguration().getTreeOrigin().x
-					+ b.getLayout().getLayoutStatistics().getWidthMap()
-							.get(b.getLayout().getBoard()) / 2) {
+					+ b.getLayout().getLayoutStatistics().getMetrics()
+							.getWidth(b.getLayout().getBoard()) / 2) {
 				p.insertChild(payloadObject, 0);
 			} else {
 				p.addChild(payloadObject);
@@ -162,7 +162,7 @@ public class ActorLayout implements Iterable<BoardObjectActor> {
 			throw new IllegalStateException(
 					"Cannot calculate height without statistics");
 		}
-		return statistics.getHeightMap().get(getBoard());
+		return statistics.getMetrics().getHeight(getBoard());
 	}
 
 	/**
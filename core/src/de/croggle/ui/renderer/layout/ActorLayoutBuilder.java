@@ -7,11 +7,9 @@ import de.croggle.game.Color;
 import de.croggle.game.ColorController;
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
-import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
-import de.croggle.game.board.operations.CreateHeightMap;
 import de.croggle.ui.renderer.BoardActor;
 import de.croggle.ui.renderer.objectactors.AgedAlligatorActor;
 import de.croggle.ui.renderer.objectactors.BoardObjectActor;
@@ -66,13 +64,7 @@ class ActorLayoutBuilder extends ActorLayouter {
 		ActorLayoutBuilder builder = new ActorLayoutBuilder(b, config);
 		builder.doLayout();
 		ActorLayout result = new ActorLayout(builder.actors, b, config);
-		result.getLayoutStatistics().setWidthMap(builder.widthMap);
-		// TODO as this is not really necessary for the build process, maybe
-		// implement it more efficiently as a byproduct?
-		Map<BoardObject, Float> heightMap = CreateHeightMap.create(b,
-				config.getUniformObjectHeight(),
-				config.getVerticalScaleFactor(), config.getVerticalPadding());
-		result.getLayoutStatistics().setHeightMap(heightMap);
+		result.getLayoutStatistics().setMetrics(builder.metrics);
 		return result;
 	}
 
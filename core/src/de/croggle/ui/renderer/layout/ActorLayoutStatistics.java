@@ -1,47 +1,40 @@
 package de.croggle.ui.renderer.layout;
 
-import java.util.Map;
-
-import de.croggle.game.board.BoardObject;
-import de.croggle.game.board.operations.CreateHeightMap;
-import de.croggle.game.board.operations.CreateWidthMap;
+import de.croggle.game.board.operations.CreateLayoutMetrics;
+import de.croggle.game.board.operations.LayoutMetrics;
 
 /**
  * A class to cache useful statistics associated with an {@link ActorLayout}.
  * 
  */
 public class ActorLayoutStatistics {
-	private Map<BoardObject, Float> widthMap;
-	private Map<BoardObject, Float> heightMap;
+	private LayoutMetrics metrics;
 	private final ActorLayout layout;
 
 	ActorLayoutStatistics(ActorLayout l) {
 		layout = l;
 	}
 
-	public Map<BoardObject, Float> getWidthMap() {
-		return widthMap;
-	}
-
-	public Map<BoardObject, Float> getHeightMap() {
-		return heightMap;
-	}
-
-	void setWidthMap(Map<BoardObject, Float> widthMap) {
-		this.widthMap = widthMap;
+	/**
+	 * Returns the width, height and depth of all objects of the layouted
+	 * board, as measured when the layout was built or fixed last.
+	 * 
+	 * @return the metrics of the layouted board
+	 */
+	public LayoutMetrics getMetrics() {
+		return metrics;
 	}
 
-	void setHeightMap(Map<BoardObject, Float> heightMap) {
-		this.heightMap = heightMap;
+	void setMetrics(LayoutMetrics metrics) {
+		this.metrics = metrics;
 	}
 
 	public void rebuild() {
 		ActorLayoutConfiguration config = layout.getLayoutConfiguration();
-		widthMap = CreateWidthMap.create(layout.getBoard(),
+		metrics = CreateLayoutMetrics.create(layout.getBoard(),
 				config.getUniformObjectWidth(),
-				config.getVerticalScaleFactor(), config.getHorizontalPadding());
-		heightMap = CreateHeightMap.create(layout.getBoard(),
 				config.getUniformObjectHeight(),
-				config.getVerticalScaleFactor(), config.getVerticalPadding());
+				config.getVerticalScaleFactor(), config.getHorizontalPadding(),
+				config.getVerticalPadding());
 	}
 }
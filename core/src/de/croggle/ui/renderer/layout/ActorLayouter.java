@@ -1,20 +1,19 @@
 package de.croggle.ui.renderer.layout;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Stack;
 
 import com.badlogic.gdx.math.Vector2;
 
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
-import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.BoardObjectVisitor;
-import de.croggle.game.board.operations.CreateWidthMap;
+import de.croggle.game.board.operations.CreateLayoutMetrics;
+import de.croggle.game.board.operations.LayoutMetrics;
 import de.croggle.ui.renderer.objectactors.AgedAlligatorActor;
 import de.croggle.ui.renderer.objectactors.BoardObjectActor;
 import de.croggle.ui.renderer.objectactors.ColoredAlligatorActor;
@@ -104,10 +103,10 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 	private final Board b;
 
 	/**
-	 * Map to access the width of any BoardObject occurring in the Board to
-	 * build in O(1)
+	 * The metrics to access the width of any BoardObject occurring in the
+	 * Board to build in O(1)
 	 */
-	protected final Map<BoardObject, Float> widthMap;
+	protected final LayoutMetrics metrics;
 
 	private final Stack<ParentState> parents;
 	private final Stack<ParentState> parentReverser;
@@ -129,8 +128,10 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 		parents = new Stack<ParentState>();
 		parentReverser = new Stack<ParentState>();
 
-		widthMap = CreateWidthMap.create(b, config.getUniformObjectWidth(),
-				config.getVerticalScaleFactor(), config.getHorizontalPadding());
+		metrics = CreateLayoutMetrics.create(b, config.getUniformObjectWidth(),
+				config.getUniformObjectHeight(),
+				config.getVerticalScaleFactor(), config.getHorizontalPadding(),
+				config.getVerticalPadding());
 	}
 
 	@Override
@@ -186,11 +187,11 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 			while (it.hasNext()) {
 				InternalBoardObject child = it.next();
 				if (config.getRenderDirectionX() == TreeGrowth.POS_NEG) {
-					currentPosition.x += widthMap.get(child);
+					currentPosition.x += metrics.getWidth(child);
 				}
 				child.accept(this);
 				if (config.getRenderDirectionX() == TreeGrowth.NEG_POS) {
-					currentPosition.x += widthMap.get(child);
+					currentPosition.x += metrics.getWidth(child);
 				}
 				if (it.hasNext()) {
 					currentPosition.x += config.getHorizontalPadding();
@@ -200,11 +201,11 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 			while (it.hasNext()) {
 				InternalBoardObject child = it.next();
 				if (config.getRenderDirectionX() == TreeGrowth.NEG_POS) {
-					currentPosition.x -= widthMap.get(child);
+					currentPosition.x -= metrics.getWidth(child);
 				}
 				child.accept(this);
 				if (config.getRenderDirectionX() == TreeGrowth.POS_NEG) {
-					currentPosition.x -= widthMap.get(child);
+					currentPosition.x -= metrics.getWidth(child);
 				}
 				if (it.hasNext()) {
 					currentPosition.x -= config.getHorizontalPadding();
@@ -220,7 +221,7 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 	 * @param p
 	 */
 	private void setParentActorBounds(BoardObjectActor p, Parent parent) {
-		double totalWidth = widthMap.get(parent);
+		double totalWidth = metrics.getWidth(parent);
 		float w = config.getUniformObjectWidth() * getScaling();
 		float h = config.getUniformObjectHeight() * getScaling();
 		if (p.getClass() == AgedAlligatorActor.class) {
@@ -264,7 +265,7 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 		float childrenWidth = 0;
 		Iterator<InternalBoardObject> it = p.iterator();
 		while (it.hasNext()) {
-			childrenWidth += widthMap.get(it.next());
+			childrenWidth += metrics.getWidth(it.next());
 			if (it.hasNext()) {
 				childrenWidth += getScaling() * config.getHorizontalPadding();
 			}
@@ -272,15 +273,15 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 
 		it = p.iterator();
 		if (config.getHorizontalGrowth() == TreeGrowth.NEG_POS) {
-			currentPosition.x += (widthMap.get(p) - childrenWidth) / 2;
+			currentPosition.x += (metrics.getWidth(p) - childrenWidth) / 2;
 			while (it.hasNext()) {
 				InternalBoardObject child = it.next();
 				if (config.getRenderDirectionX() == TreeGrowth.POS_NEG) {
-					currentPosition.x += widthMap.get(child);
+					currentPosition.x += metrics.getWidth(child);
 				}
 				child.accept(this);
 				if (config.getRenderDirectionX() == TreeGrowth.NEG_POS) {
-					currentPosition.x += widthMap.get(child);
+					currentPosition.x += metrics.getWidth(child);
 				}
 				if (it.hasNext()) {
 					currentPosition.x += getScaling()
@@ -288,15 +289,15 @@ abstract class ActorLayouter implements BoardObjectVisitor {
 				}
 			}
 		} else {
-			currentPosition.x -= (widthMap.get(p) - childrenWidth) / 2;
+			currentPosition.x -= (metrics.getWidth(p) - childrenWidth) / 2;
 			while (it.hasNext()) {
 				InternalBoardObject child = it.next();
 				if (config.getRenderDirectionX() == TreeGrowth.NEG_POS) {
-					currentPosition.x -= widthMap.get(child);
+					currentPosition.x -= metrics.getWidth(child);
 				}
 				child.accept(this);
 				if (config.getRenderDirectionX() == TreeGrowth.POS_NEG) {
-					currentPosition.x -= widthMap.get(child);
+					currentPosition.x -= metrics.getWidth(child);
 				}
 				if (it.hasNext()) {
 					currentPosition.x -= getScaling()
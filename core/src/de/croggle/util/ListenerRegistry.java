@@ -0,0 +1,262 @@
+package de.croggle.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * A list of listeners which can be changed and iterated from any thread at any
+ * time. Every change replaces the array holding the listeners with a modified
+ * copy, so that an iteration always runs over the listeners registered when it
+ * started. Listeners may therefore register or unregister themselves and
+ * others while they are notified.
+ *
+ * Notifications sent with {@link #publish(Notification)} are delivered by the
+ * executor of the registry, which can deliver them immediately (
+ * {@link #SYNCHRONOUS}), on the render thread ({@link #RENDER_THREAD}) or on
+ * any other thread, e.g. using a background executor.
+ *
+ * @param <L>
+ *            the type of the listeners
+ */
+public class ListenerRegistry<L> implements Iterable<L> {
+
+	/**
+	 * An event to be delivered to every listener of a registry.
+	 *
+	 * @param <L>
+	 *            the type of the listeners
+	 */
+	public interface Notification<L> {
+		/**
+		 * Delivers the event to a single listener.
+		 *
+		 * @param listener
+		 *            the listener to notify
+		 */
+		public void notify(L listener);
+	}
+
+	/**
+	 * Delivers notifications immediately, on the thread publishing them.
+	 */
+	public static final Executor SYNCHRONOUS = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	/**
+	 * Delivers notifications on the render thread, before the next frame is
+	 * rendered. Notifications published on the render thread itself are
+	 * delayed until then, too.
+	 */
+	public static final Executor RENDER_THREAD = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			Gdx.app.postRunnable(command);
+		}
+	};
+
+	private static final Object[] EMPTY = new Object[0];
+
+	private final AtomicReference<Object[]> listeners;
+	private volatile Executor executor;
+
+	/**
+	 * Creates a new empty registry, which delivers notifications
+	 * synchronously.
+	 */
+	public ListenerRegistry() {
+		this(SYNCHRONOUS);
+	}
+
+	/**
+	 * Creates a new empty registry, which delivers notifications using the
+	 * given executor.
+	 *
+	 * @param executor
+	 *            the executor to deliver notifications with
+	 */
+	public ListenerRegistry(Executor executor) {
+		listeners = new AtomicReference<Object[]>(EMPTY);
+		setExecutor(executor);
+	}
+
+	/**
+	 * Sets the executor used to deliver future notifications.
+	 *
+	 * @param executor
+	 *            the executor to deliver notifications with
+	 */
+	public void setExecutor(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor must not be null");
+		}
+		this.executor = executor;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Registers a listener, which is notified of all events published after
+	 * this method has returned. A listener registered twice is notified twice.
+	 *
+	 * @param listener
+	 *            the listener to register
+	 */
+	public void add(L listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener must not be null");
+		}
+		while (true) {
+			final Object[] current = listeners.get();
+			final Object[] changed = new Object[current.length + 1];
+			System.arraycopy(current, 0, changed, 0, current.length);
+			changed[current.length] = listener;
+			if (listeners.compareAndSet(current, changed)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters a listener. If the listener has been registered several
+	 * times, only the first registration is removed. Notifications which are
+	 * being delivered already may still reach the listener.
+	 *
+	 * @param listener
+	 *            the listener to unregister
+	 * @return true if the listener has been registered, false otherwise
+	 */
+	public boolean remove(L listener) {
+		while (true) {
+			final Object[] current = listeners.get();
+			int index = -1;
+			for (int i = 0; i < current.length; i++) {
+				if (current[i].equals(listener)) {
+					index = i;
+					break;
+				}
+			}
+			if (index < 0) {
+				return false;
+			}
+			final Object[] changed = current.length == 1 ? EMPTY
+					: new Object[current.length - 1];
+			System.arraycopy(current, 0, changed, 0, index);
+			System.arraycopy(current, index + 1, changed, index,
+					current.length - index - 1);
+			if (listeners.compareAndSet(current, changed)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters all listeners.
+	 */
+	public void clear() {
+		listeners.set(EMPTY);
+	}
+
+	public int size() {
+		return listeners.get().length;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns an iterator over the listeners registered at the time of this
+	 * call. Later changes to the registry do not affect the iterator.
+	 *
+	 * @return an iterator over a snapshot of the registered listeners
+	 */
+	@Override
+	public Iterator<L> iterator() {
+		return new SnapshotIterator<L>(listeners.get());
+	}
+
+	/**
+	 * Returns the listeners registered at the time of this call, so that they
+	 * can be notified directly if the executor is {@link #SYNCHRONOUS},
+	 * without creating a notification. The array is shared with the registry
+	 * and must not be modified.
+	 *
+	 * @return a snapshot of the registered listeners
+	 */
+	public Object[] snapshot() {
+		return listeners.get();
+	}
+
+	/**
+	 * Delivers a notification to all listeners registered at the time of this
+	 * call, using the executor of this registry.
+	 *
+	 * @param notification
+	 *            the notification to deliver
+	 */
+	public void publish(final Notification<? super L> notification) {
+		final Object[] snapshot = listeners.get();
+		if (snapshot.length == 0) {
+			return;
+		}
+		final Executor current = executor;
+		if (current == SYNCHRONOUS) {
+			deliver(snapshot, notification);
+		} else {
+			current.execute(new Runnable() {
+				@Override
+				public void run() {
+					deliver(snapshot, notification);
+				}
+			});
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void deliver(Object[] snapshot,
+			Notification<? super L> notification) {
+		for (Object listener : snapshot) {
+			notification.notify((L) listener);
+		}
+	}
+
+	private static class SnapshotIterator<L> implements Iterator<L> {
+		private final Object[] snapshot;
+		private int next;
+
+		public SnapshotIterator(Object[] snapshot) {
+			this.snapshot = snapshot;
+			next = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < snapshot.length;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public L next() {
+			if (next >= snapshot.length) {
+				throw new NoSuchElementException();
+			}
+			return (L) snapshot[next++];
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException(
+					"Listeners are removed from the registry");
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package de.croggle.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash table mapping pairs of longs to non-negative ints, which stores its
+ * keys and values in primitive arrays. Apart from growing the arrays, no
+ * objects are allocated when entries are added, looked up or removed, so that
+ * the table can be used once per evaluation step without producing garbage.
+ *
+ * Collisions are resolved by linear probing. Removed entries do not leave
+ * gaps in the probe sequences, as the following entries are moved back.
+ */
+public class LongPairTable {
+	private static final int EMPTY = -1;
+
+	private long[] firsts;
+	private long[] seconds;
+	private int[] values;
+	private int size;
+
+	/**
+	 * Creates an empty table.
+	 */
+	public LongPairTable() {
+		allocate(16);
+	}
+
+	/**
+	 * Returns the value mapped to the given key.
+	 *
+	 * @param first
+	 *            the first half of the key
+	 * @param second
+	 *            the second half of the key
+	 * @return the value, or -1 if the table does not contain the key
+	 */
+	public int get(long first, long second) {
+		final int slot = find(first, second);
+		return slot < 0 ? EMPTY : values[slot];
+	}
+
+	/**
+	 * Maps the given key to the given value, replacing the value it has been
+	 * mapped to before.
+	 *
+	 * @param first
+	 *            the first half of the key
+	 * @param second
+	 *            the second half of the key
+	 * @param value
+	 *            the value, which must not be negative
+	 * @throws IllegalArgumentException
+	 *             if the value is negative
+	 */
+	public void put(long first, long second, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Negative value " + value);
+		}
+		final int slot = find(first, second);
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+		if ((size + 1) * 4 > values.length * 3) {
+			grow();
+		}
+		insert(first, second, value);
+		size++;
+	}
+
+	/**
+	 * Removes the given key from the table.
+	 *
+	 * @param first
+	 *            the first half of the key
+	 * @param second
+	 *            the second half of the key
+	 * @return the value the key has been mapped to, or -1 if the table did not
+	 *         contain the key
+	 */
+	public int remove(long first, long second) {
+		int slot = find(first, second);
+		if (slot < 0) {
+			return EMPTY;
+		}
+		final int value = values[slot];
+		final int mask = values.length - 1;
+		// move back the entries of the probe sequence behind the removed one
+		int next = (slot + 1) & mask;
+		while (values[next] != EMPTY) {
+			final int home = slot(firsts[next], seconds[next]);
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				firsts[slot] = firsts[next];
+				seconds[slot] = seconds[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[slot] = EMPTY;
+		size--;
+		return value;
+	}
+
+	/**
+	 * Removes all entries from the table.
+	 */
+	public void clear() {
+		Arrays.fill(values, EMPTY);
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int find(long first, long second) {
+		final int mask = values.length - 1;
+		for (int i = slot(first, second);; i = (i + 1) & mask) {
+			if (values[i] == EMPTY) {
+				return -1;
+			}
+			if (firsts[i] == first && seconds[i] == second) {
+				return i;
+			}
+		}
+	}
+
+	private void insert(long first, long second, int value) {
+		final int mask = values.length - 1;
+		int i = slot(first, second);
+		while (values[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		firsts[i] = first;
+		seconds[i] = second;
+		values[i] = value;
+	}
+
+	private int slot(long first, long second) {
+		long h = (first ^ second * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+		return (int) (h ^ h >>> 32) & (values.length - 1);
+	}
+
+	private void grow() {
+		final long[] oldFirsts = firsts;
+		final long[] oldSeconds = seconds;
+		final int[] oldValues = values;
+		allocate(oldValues.length * 2);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != EMPTY) {
+				insert(oldFirsts[i], oldSeconds[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		firsts = new long[capacity];
+		seconds = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, EMPTY);
+	}
+}
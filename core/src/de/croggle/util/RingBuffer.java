@@ -56,4 +56,25 @@ public class RingBuffer<T> {
 	public int size() {
 		return items;
 	}
+
+	/**
+	 * Removes all objects from the ringbuffer.
+	 */
+	public void clear() {
+		for (int i = 0; i < buffer.length; i++) {
+			buffer[i] = null;
+		}
+		head = 0;
+		items = 0;
+	}
+
+	/**
+	 * Returns whether the ringbuffer is filled up to its size, so that pushing
+	 * another object will drop the oldest one.
+	 * 
+	 * @return true if the ringbuffer is full, false otherwise
+	 */
+	public boolean isFull() {
+		return items == buffer.length;
+	}
 }
@@ -0,0 +1,216 @@
+package de.croggle.util.convert;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
+import de.croggle.game.board.operations.BoardObjectVisitor;
+
+/**
+ * Helper class to encode a given tree of BoardObjects in a compact binary
+ * format, which holds the same information as the json written by
+ * {@link AlligatorToJson} and can be read using {@link BinaryToAlligator}.
+ *
+ * The encoding starts with a version byte, followed by the objects of the
+ * tree in preorder. Every object is written as a header byte, holding its
+ * kind in the lowest two bits, its movable, removable and recolorable flags in
+ * the next three bits and, for parents, the number of its children in the
+ * highest three bits. The header is followed by the color of eggs and colored
+ * alligators, and by the number of children of parents that have more than
+ * six of them. Both numbers are written as variable length integers of seven
+ * bits per byte, with the color ids being incremented by one, so that
+ * uncolored objects are written as zero. Like {@link AlligatorToJson}, the
+ * tree is walked without recursion.
+ */
+public class AlligatorToBinary implements BoardObjectVisitor {
+
+	static final int VERSION = 1;
+
+	static final int BOARD = 0;
+	static final int EGG = 1;
+	static final int COLORED_ALLIGATOR = 2;
+	static final int AGED_ALLIGATOR = 3;
+	static final int KIND_MASK = 3;
+
+	static final int MOVABLE = 1 << 2;
+	static final int REMOVABLE = 1 << 3;
+	static final int RECOLORABLE = 1 << 4;
+
+	static final int CHILD_COUNT_SHIFT = 5;
+	static final int MAX_PACKED_CHILD_COUNT = 6;
+	static final int EXTERNAL_CHILD_COUNT = 7;
+
+	private final ByteBuffer out;
+	private int size;
+	/*
+	 * Every entry holds a parent and the position of its next child.
+	 */
+	private final List<Parent> parents;
+	private int[] positions;
+
+	/**
+	 * Creates a new converter writing to the given buffer, or only counting
+	 * the bytes needed if the buffer is null.
+	 */
+	private AlligatorToBinary(ByteBuffer out) {
+		this.out = out;
+		size = 0;
+		parents = new ArrayList<Parent>();
+		positions = new int[16];
+	}
+
+	/**
+	 * Encodes the given tree of BoardObjects into a newly allocated array.
+	 *
+	 * @param b
+	 *            the BoardObject to be encoded
+	 * @return the encoded tree
+	 */
+	public static byte[] convert(BoardObject b) {
+		final ByteBuffer buffer = ByteBuffer.allocate(size(b));
+		convert(b, buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Encodes the given tree of BoardObjects into the given buffer, starting
+	 * at its current position. Afterwards, the position of the buffer is
+	 * right behind the encoded tree.
+	 *
+	 * @param b
+	 *            the BoardObject to be encoded
+	 * @param buffer
+	 *            the buffer to write the encoded tree to
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer does not have {@link #size(BoardObject)}
+	 *             bytes remaining
+	 */
+	public static void convert(BoardObject b, ByteBuffer buffer) {
+		if (buffer == null) {
+			throw new IllegalArgumentException("Buffer is null");
+		}
+		new AlligatorToBinary(buffer).encode(b);
+	}
+
+	/**
+	 * Returns the number of bytes needed to encode the given tree of
+	 * BoardObjects.
+	 *
+	 * @param b
+	 *            the BoardObject to be encoded
+	 * @return the size of the encoded tree in bytes
+	 */
+	public static int size(BoardObject b) {
+		final AlligatorToBinary converter = new AlligatorToBinary(null);
+		converter.encode(b);
+		return converter.size;
+	}
+
+	private void encode(BoardObject b) {
+		write(VERSION);
+		b.accept(this);
+		while (!parents.isEmpty()) {
+			final int top = parents.size() - 1;
+			final Parent p = parents.get(top);
+			final int position = positions[top];
+			if (position < p.getChildCount()) {
+				positions[top] = position + 1;
+				p.getChildAtPosition(position).accept(this);
+			} else {
+				parents.remove(top);
+			}
+		}
+	}
+
+	@Override
+	public void visitEgg(Egg egg) {
+		int header = EGG;
+		header |= egg.isMovable() ? MOVABLE : 0;
+		header |= egg.isRemovable() ? REMOVABLE : 0;
+		header |= egg.isRecolorable() ? RECOLORABLE : 0;
+		write(header);
+		writeColor(egg.getColor());
+	}
+
+	@Override
+	public void visitColoredAlligator(ColoredAlligator alligator) {
+		int header = COLORED_ALLIGATOR;
+		header |= alligator.isMovable() ? MOVABLE : 0;
+		header |= alligator.isRemovable() ? REMOVABLE : 0;
+		header |= alligator.isRecolorable() ? RECOLORABLE : 0;
+		writeParent(header, alligator);
+		writeColor(alligator.getColor());
+		writeChildCount(alligator);
+	}
+
+	@Override
+	public void visitAgedAlligator(AgedAlligator alligator) {
+		int header = AGED_ALLIGATOR;
+		header |= alligator.isMovable() ? MOVABLE : 0;
+		header |= alligator.isRemovable() ? REMOVABLE : 0;
+		writeParent(header, alligator);
+		writeChildCount(alligator);
+	}
+
+	@Override
+	public void visitBoard(Board board) {
+		writeParent(BOARD, board);
+		writeChildCount(board);
+	}
+
+	/**
+	 * Writes the header of a parent, and pushes the parent onto the stack, so
+	 * that its children are written later on.
+	 */
+	private void writeParent(int header, Parent p) {
+		final int count = p.getChildCount();
+		if (count > MAX_PACKED_CHILD_COUNT) {
+			header |= EXTERNAL_CHILD_COUNT << CHILD_COUNT_SHIFT;
+		} else {
+			header |= count << CHILD_COUNT_SHIFT;
+		}
+		write(header);
+		if (count > 0) {
+			final int top = parents.size();
+			if (top == positions.length) {
+				positions = Arrays.copyOf(positions, top * 2);
+			}
+			parents.add(p);
+			positions[top] = 0;
+		}
+	}
+
+	private void writeChildCount(Parent p) {
+		final int count = p.getChildCount();
+		if (count > MAX_PACKED_CHILD_COUNT) {
+			writeVarint(count - EXTERNAL_CHILD_COUNT);
+		}
+	}
+
+	private void writeColor(Color c) {
+		writeVarint(c.getId() + 1);
+	}
+
+	private void writeVarint(int value) {
+		while ((value & ~0x7f) != 0) {
+			write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		write(value);
+	}
+
+	private void write(int b) {
+		if (out != null) {
+			out.put((byte) b);
+		}
+		size++;
+	}
+}
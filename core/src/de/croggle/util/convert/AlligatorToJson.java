@@ -1,6 +1,8 @@
 package de.croggle.util.convert;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import de.croggle.backends.BackendHelper;
 import de.croggle.game.board.AgedAlligator;
@@ -13,17 +15,26 @@ import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 
 /**
- * Helper class to format a given tree of BoardObjects as json.
+ * Helper class to format a given tree of BoardObjects as json. The tree is
+ * walked without recursion, using a stack of the parents whose children are
+ * being printed, so that even very deep trees can be converted.
  * 
  */
 public class AlligatorToJson implements BoardObjectVisitor {
 
 	private StringBuilder result;
 	private int depth;
+	/*
+	 * Every entry holds a parent and the position of its next child.
+	 */
+	private final List<Parent> parents;
+	private int[] positions;
 
 	private AlligatorToJson() {
 		result = new StringBuilder();
 		depth = 0;
+		parents = new ArrayList<Parent>();
+		positions = new int[16];
 	}
 
 	/**
@@ -43,6 +54,24 @@ public class AlligatorToJson implements BoardObjectVisitor {
 		result = new StringBuilder();
 		depth = 0;
 		b.accept(this);
+		while (!parents.isEmpty()) {
+			final int top = parents.size() - 1;
+			final Parent p = parents.get(top);
+			final int position = positions[top];
+			if (position < p.getChildCount()) {
+				positions[top] = position + 1;
+				if (position > 0) {
+					print(',');
+					newLine();
+				}
+				p.getChildAtPosition(position).accept(this);
+			} else {
+				parents.remove(top);
+				depth--;
+				println(']');
+				printEnd(p);
+			}
+		}
 		return result.toString();
 	}
 
@@ -76,13 +105,6 @@ public class AlligatorToJson implements BoardObjectVisitor {
 		indent();
 		print("\"children\" : ");
 		printChildren(alligator);
-		depth--;
-		if (alligator.getParent().isLastChild(alligator)) {
-			println('}');
-		} else {
-			indent();
-			print('}');
-		}
 	}
 
 	@Override
@@ -95,13 +117,6 @@ public class AlligatorToJson implements BoardObjectVisitor {
 		indent();
 		print("\"children\" : ");
 		printChildren(alligator);
-		depth--;
-		if (alligator.getParent().isLastChild(alligator)) {
-			println('}');
-		} else {
-			indent();
-			print('}');
-		}
 	}
 
 	@Override
@@ -111,50 +126,46 @@ public class AlligatorToJson implements BoardObjectVisitor {
 		indent();
 		print("\"families\" : ");
 		printChildren(board);
-		depth--;
-		println('}');
 	}
 
+	/**
+	 * Prints the list of children of a parent. If the parent has children,
+	 * only the opening bracket is printed, and the parent is pushed onto the
+	 * stack, so that its children and its end are printed later on.
+	 */
 	private void printChildren(Parent p) {
-		printChildren(p, false, true);
-	}
-
-	private void printChildren(Parent p, boolean indentBefore,
-			boolean breakAfter) {
 		if (p.getChildCount() < 1) {
-			if (indentBefore) {
-				indent();
-				print("[]");
-			} else {
-				print("[]");
-			}
-			if (breakAfter) {
-				newLine();
-			}
+			print("[]");
+			newLine();
+			printEnd(p);
 		} else {
-			if (indentBefore) {
-				println('[');
-			} else {
-				print('[');
-				newLine();
-			}
+			print('[');
+			newLine();
 			depth++;
-			Iterator<InternalBoardObject> i = p.iterator();
-			while (i.hasNext()) {
-				i.next().accept(this);
-				if (i.hasNext()) {
-					print(',');
-					newLine();
-				}
+			final int top = parents.size();
+			if (top == positions.length) {
+				positions = Arrays.copyOf(positions, top * 2);
 			}
-			depth--;
-			if (breakAfter) {
-				println(']');
-			} else {
+			parents.add(p);
+			positions[top] = 0;
+		}
+	}
+
+	/**
+	 * Prints the closing brace of a parent after its children.
+	 */
+	private void printEnd(Parent p) {
+		depth--;
+		if (p instanceof InternalBoardObject) {
+			final InternalBoardObject object = (InternalBoardObject) p;
+			if (object.getParent() != null
+					&& !object.getParent().isLastChild(object)) {
 				indent();
-				print(']');
+				print('}');
+				return;
 			}
 		}
+		println('}');
 	}
 
 	private void println(String line) {
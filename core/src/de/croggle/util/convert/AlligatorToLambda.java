@@ -1,8 +1,11 @@
 package de.croggle.util.convert;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.utils.SerializationException;
 
 import de.croggle.game.Color;
 import de.croggle.game.board.AgedAlligator;
@@ -10,103 +13,258 @@ import de.croggle.game.board.Board;
 import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
-import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 import de.croggle.game.board.operations.BoardObjectVisitor;
 
+/**
+ * Helper class to print a given tree of BoardObjects as a lambda term. The
+ * tree is walked without recursion, using a stack of the parents whose
+ * children are being printed, so that even very deep trees can be printed.
+ * The term is written character by character to an {@link Appendable}, and
+ * can be cut off after a maximum length, so that only the beginning of a
+ * large board needs to be printed.
+ */
 public class AlligatorToLambda implements BoardObjectVisitor {
 
-	private final Map<Color, String> names;
-	private String result;
+	private static final char ELLIPSIS = '\u2026';
 
-	private AlligatorToLambda() {
-		names = new HashMap<Color, String>();
+	/*
+	 * The names of the variables, in the order in which they are given to the
+	 * colors found. There is one for every color, and one for uncolored
+	 * objects.
+	 */
+	private static final char[] NAMES = new char[Color.MAX_COLORS + 1];
+	static {
+		for (int n = 0; n < NAMES.length; n++) {
+			if (n < 3) {
+				NAMES[n] = (char) ('x' + n);
+			} else if (n < 11) {
+				NAMES[n] = (char) ('p' + n - 3);
+			} else if (n < 26) {
+				NAMES[n] = (char) ('a' + n - 11);
+			} else {
+				NAMES[n] = (char) ('\u03b1' + n - 26); // starting with α
+			}
+		}
 	}
 
+	/*
+	 * The name given to every color, indexed by the color's id incremented by
+	 * one, or 0 if the color has not been named yet.
+	 */
+	private final char[] names;
+	private int namesUsed;
+	private final Appendable out;
+	private final int maxLength;
+	private int length;
+	private char withheld;
+	private boolean truncated;
+	/*
+	 * Every entry holds a parent, the position of its next child and whether
+	 * a closing parenthesis has to be printed after its last child.
+	 */
+	private final List<Parent> parents;
+	private int[] positions;
+	private boolean[] closings;
+
+	private AlligatorToLambda(Appendable out, int maxLength) {
+		if (out == null) {
+			throw new IllegalArgumentException("Appendable is null");
+		}
+		if (maxLength < 1) {
+			throw new IllegalArgumentException(
+					"Maximum length has to be positive");
+		}
+		names = new char[Color.MAX_COLORS + 1];
+		namesUsed = 0;
+		this.out = out;
+		this.maxLength = maxLength;
+		length = 0;
+		truncated = false;
+		parents = new ArrayList<Parent>();
+		positions = new int[16];
+		closings = new boolean[16];
+	}
+
+	/**
+	 * Prints the given tree of BoardObjects as a lambda term.
+	 *
+	 * @param b
+	 *            the BoardObject to be printed
+	 * @return the lambda term
+	 */
 	public static String convert(BoardObject b) {
-		AlligatorToLambda converter = new AlligatorToLambda();
-		return converter.toString(b);
+		return convert(b, Integer.MAX_VALUE);
 	}
 
-	private String toString(BoardObject b) {
-		result = "";
-		b.accept(this);
-		return result;
+	/**
+	 * Prints the given tree of BoardObjects as a lambda term of at most the
+	 * given length. If the term is longer, its beginning is printed, followed
+	 * by an ellipsis.
+	 *
+	 * @param b
+	 *            the BoardObject to be printed
+	 * @param maxLength
+	 *            the maximum number of characters to print, including the
+	 *            ellipsis
+	 * @return the lambda term, or its beginning
+	 */
+	public static String convert(BoardObject b, int maxLength) {
+		final StringBuilder result = new StringBuilder();
+		convert(b, result, maxLength);
+		return result.toString();
 	}
 
-	private String colorToName(Color c) {
-		if (names.containsKey(c)) {
-			return names.get(c);
-		} else {
-			String name;
-			int n = names.size();
-			if (n < 3) {
-				name = "" + (char) ('x' + n);
-			} else if (n < 11) {
-				name = "" + (char) ('p' + n - 3);
-			} else if (n < 26) {
-				name = "" + (char) ('a' + n - 11);
+	/**
+	 * Appends the lambda term of the given tree of BoardObjects to the given
+	 * Appendable, e.g. a {@link StringBuilder}.
+	 *
+	 * @param b
+	 *            the BoardObject to be printed
+	 * @param out
+	 *            the Appendable to append the term to
+	 * @throws SerializationException
+	 *             if appending to out fails
+	 */
+	public static void convert(BoardObject b, Appendable out) {
+		convert(b, out, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Appends the lambda term of the given tree of BoardObjects to the given
+	 * Appendable, appending at most the given number of characters. If the
+	 * term is longer, its beginning is appended, followed by an ellipsis, and
+	 * the rest of the tree is not visited at all.
+	 *
+	 * @param b
+	 *            the BoardObject to be printed
+	 * @param out
+	 *            the Appendable to append the term to
+	 * @param maxLength
+	 *            the maximum number of characters to append, including the
+	 *            ellipsis
+	 * @throws SerializationException
+	 *             if appending to out fails
+	 */
+	public static void convert(BoardObject b, Appendable out, int maxLength) {
+		new AlligatorToLambda(out, maxLength).print(b);
+	}
+
+	private void print(BoardObject b) {
+		b.accept(this);
+		while (!parents.isEmpty() && !truncated) {
+			final int top = parents.size() - 1;
+			final Parent p = parents.get(top);
+			final int position = positions[top];
+			if (position < p.getChildCount()) {
+				positions[top] = position + 1;
+				if (position > 0) {
+					append(' ');
+				}
+				p.getChildAtPosition(position).accept(this);
 			} else {
-				// TODO this will result in crap
-				name = "" + (char) ('\u03b1' + n - 26); // starting with α
+				parents.remove(top);
+				if (closings[top]) {
+					append(')');
+				}
 			}
-			names.put(c, name);
-			return name;
+		}
+		if (!truncated && length == maxLength) {
+			write(withheld);
+		}
+	}
+
+	private char colorToName(Color c) {
+		final int index = c.getId() + 1;
+		char name = names[index];
+		if (name == 0) {
+			name = NAMES[namesUsed++];
+			names[index] = name;
+		}
+		return name;
+	}
+
+	/**
+	 * Appends a character of the term, unless the maximum length has been
+	 * reached. The last character allowed is withheld until it is known
+	 * whether the term ends with it, or has to be cut off with an ellipsis
+	 * instead.
+	 */
+	private void append(char c) {
+		if (length < maxLength - 1) {
+			write(c);
+		} else if (length == maxLength - 1) {
+			withheld = c;
+		} else if (!truncated) {
+			truncated = true;
+			write(ELLIPSIS);
+			return;
+		} else {
+			return;
+		}
+		length++;
+	}
+
+	private void write(char c) {
+		try {
+			out.append(c);
+		} catch (IOException e) {
+			throw new SerializationException("Error writing lambda term", e);
 		}
 	}
 
 	@Override
 	public void visitEgg(Egg egg) {
-		result += colorToName(egg.getColor());
+		append(colorToName(egg.getColor()));
 	}
 
-	private void visitParent(Parent p, boolean parenthesis) {
-		switch (p.getChildCount()) {
-		case 0:
-			break;
-		case 1: {
-			p.getFirstChild().accept(this);
-			break;
-		}
-		default: {
-			if (parenthesis) {
-				result += "(";
-			}
-			Iterator<InternalBoardObject> i = p.iterator();
-			while (i.hasNext()) {
-				i.next().accept(this);
-				if (i.hasNext()) {
-					result += " ";
-				}
-			}
-			if (parenthesis) {
-				result += ")";
-			}
+	/**
+	 * Prints the opening parenthesis of a parent, if any, and lets its
+	 * children be printed next.
+	 * 
+	 * @param p
+	 *            the parent to print
+	 * @param parenthesis
+	 *            whether an application of several children has to be
+	 *            enclosed in parentheses
+	 * @param enclosed
+	 *            whether the parent has been enclosed in parentheses already
+	 */
+	private void visitParent(Parent p, boolean parenthesis, boolean enclosed) {
+		final boolean open = parenthesis && p.getChildCount() > 1;
+		if (open) {
+			append('(');
 		}
+		final int top = parents.size();
+		if (top == positions.length) {
+			positions = Arrays.copyOf(positions, top * 2);
+			closings = Arrays.copyOf(closings, top * 2);
 		}
+		parents.add(p);
+		positions[top] = 0;
+		closings[top] = open || enclosed;
 	}
 
 	@Override
 	public void visitAgedAlligator(AgedAlligator alligator) {
-		visitParent(alligator, true);
+		visitParent(alligator, true, false);
 	}
 
 	@Override
 	public void visitBoard(Board board) {
-		visitParent(board, false);
+		visitParent(board, false, false);
 	}
 
 	@Override
 	public void visitColoredAlligator(ColoredAlligator alligator) {
 		boolean par = !alligator.getParent().isLastChild(alligator);
 		if (par) {
-			result += "(";
-		}
-		result += "λ" + colorToName(alligator.getColor()) + ".";
-		visitParent(alligator, false);
-		if (par) {
-			result += ")";
+			append('(');
 		}
+		append('λ');
+		append(colorToName(alligator.getColor()));
+		append('.');
+		visitParent(alligator, false, par);
 	}
 
 }
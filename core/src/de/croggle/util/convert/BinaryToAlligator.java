@@ -0,0 +1,228 @@
+package de.croggle.util.convert;
+
+import static de.croggle.util.convert.AlligatorToBinary.AGED_ALLIGATOR;
+import static de.croggle.util.convert.AlligatorToBinary.BOARD;
+import static de.croggle.util.convert.AlligatorToBinary.CHILD_COUNT_SHIFT;
+import static de.croggle.util.convert.AlligatorToBinary.COLORED_ALLIGATOR;
+import static de.croggle.util.convert.AlligatorToBinary.EGG;
+import static de.croggle.util.convert.AlligatorToBinary.EXTERNAL_CHILD_COUNT;
+import static de.croggle.util.convert.AlligatorToBinary.KIND_MASK;
+import static de.croggle.util.convert.AlligatorToBinary.MOVABLE;
+import static de.croggle.util.convert.AlligatorToBinary.RECOLORABLE;
+import static de.croggle.util.convert.AlligatorToBinary.REMOVABLE;
+import static de.croggle.util.convert.AlligatorToBinary.VERSION;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+
+/**
+ * A helper class building alligator constellations from their compact binary
+ * representation, as written by {@link AlligatorToBinary}. Malformed or
+ * truncated data causes an {@link IllegalArgumentException}.
+ */
+public class BinaryToAlligator {
+
+	/**
+	 * Cannot instantiate this helper class.
+	 */
+	private BinaryToAlligator() {
+
+	}
+
+	/**
+	 * Converts the given bytes into an alligator constellation.
+	 *
+	 * @param data
+	 *            the encoded constellation
+	 * @return the alligator constellation described by the given bytes
+	 */
+	public static BoardObject convert(byte[] data) {
+		return convert(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Converts the bytes of the given buffer, starting at its current
+	 * position, into an alligator constellation. Afterwards, the position of
+	 * the buffer is right behind the encoded constellation, so that several
+	 * constellations can be read from the same buffer one after another.
+	 *
+	 * @param buffer
+	 *            the buffer to read the encoded constellation from
+	 * @return the alligator constellation read from the buffer
+	 */
+	public static BoardObject convert(ByteBuffer buffer) {
+		if (buffer == null) {
+			throw new IllegalArgumentException("Buffer is null");
+		}
+		try {
+			return read(buffer);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException(
+					"Unexpected end of encoded board object");
+		}
+	}
+
+	/**
+	 * Reads an encoded constellation of {@link InternalBoardObject}s from the
+	 * given buffer.
+	 *
+	 * @param buffer
+	 *            the buffer to read the encoded family from
+	 * @return the family read from the buffer
+	 */
+	public static InternalBoardObject convertInternalBoardObject(
+			ByteBuffer buffer) {
+		final BoardObject result = convert(buffer);
+		if (!(result instanceof InternalBoardObject)) {
+			throw new IllegalArgumentException(
+					"Illegal family: Found a board instead.");
+		}
+		return (InternalBoardObject) result;
+	}
+
+	/**
+	 * Reads an encoded {@link Board} from the given buffer.
+	 *
+	 * @param buffer
+	 *            the buffer to read the encoded board from
+	 * @return the board read from the buffer
+	 */
+	public static Board convertBoard(ByteBuffer buffer) {
+		final BoardObject result = convert(buffer);
+		if (!(result instanceof Board)) {
+			throw new IllegalArgumentException(
+					"Illegal board: Found a family instead.");
+		}
+		return (Board) result;
+	}
+
+	/**
+	 * Reads an encoded board or family without recursion. Like in
+	 * {@link JsonToAlligator}, every parent is only built once all of its
+	 * children have been read.
+	 */
+	private static BoardObject read(ByteBuffer buffer) {
+		final int version = buffer.get() & 0xff;
+		if (version != VERSION) {
+			throw new IllegalArgumentException(
+					"Unsupported board encoding version " + version);
+		}
+		final List<PendingParent> pending = new ArrayList<PendingParent>();
+		while (true) {
+			final int header = buffer.get() & 0xff;
+			final int kind = header & KIND_MASK;
+			if (kind == BOARD && !pending.isEmpty()) {
+				throw new IllegalArgumentException(
+						"Illegal family: Found a board as a child.");
+			}
+			BoardObject built;
+			if (kind == EGG) {
+				built = new Egg((header & MOVABLE) != 0,
+						(header & REMOVABLE) != 0, readColor(buffer),
+						(header & RECOLORABLE) != 0);
+			} else {
+				final PendingParent parent = new PendingParent(header);
+				if (kind == COLORED_ALLIGATOR) {
+					parent.color = readColor(buffer);
+				}
+				int count = header >>> CHILD_COUNT_SHIFT;
+				if (count == EXTERNAL_CHILD_COUNT) {
+					count += readVarint(buffer);
+				}
+				parent.remaining = count;
+				if (count > 0) {
+					parent.children = new ArrayList<InternalBoardObject>(
+							count);
+					pending.add(parent);
+					continue;
+				}
+				built = parent.build();
+			}
+			while (true) {
+				if (pending.isEmpty()) {
+					return built;
+				}
+				final PendingParent top = pending.get(pending.size() - 1);
+				top.children.add((InternalBoardObject) built);
+				if (--top.remaining > 0) {
+					break;
+				}
+				pending.remove(pending.size() - 1);
+				built = top.build();
+			}
+		}
+	}
+
+	private static Color readColor(ByteBuffer buffer) {
+		final int id = readVarint(buffer) - 1;
+		if (id < 0) {
+			return Color.uncolored();
+		} else {
+			return Color.of(id);
+		}
+	}
+
+	private static int readVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final int b = buffer.get();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				if (value < 0) {
+					break;
+				}
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable length integer");
+	}
+
+	/**
+	 * A parent read so far, which is built once all of its children have been
+	 * read.
+	 */
+	private static class PendingParent {
+		private final int header;
+		private Color color;
+		private int remaining;
+		private List<InternalBoardObject> children;
+
+		PendingParent(int header) {
+			this.header = header;
+		}
+
+		BoardObject build() {
+			final boolean movable = (header & MOVABLE) != 0;
+			final boolean removable = (header & REMOVABLE) != 0;
+			final Parent parent;
+			switch (header & KIND_MASK) {
+			case COLORED_ALLIGATOR:
+				parent = new ColoredAlligator(movable, removable, color,
+						(header & RECOLORABLE) != 0);
+				break;
+			case AGED_ALLIGATOR:
+				parent = new AgedAlligator(movable, removable);
+				break;
+			default:
+				parent = new Board();
+			}
+			if (children != null) {
+				for (InternalBoardObject child : children) {
+					parent.addChild(child);
+				}
+			}
+			return (BoardObject) parent;
+		}
+	}
+}
@@ -0,0 +1,510 @@
+package de.croggle.util.convert;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.badlogic.gdx.utils.SerializationException;
+
+/**
+ * Reads a json document token by token from a {@link Reader}, without building
+ * a tree of the whole document first. The caller pulls the values it expects
+ * one after another, and skips the ones it is not interested in. Like the
+ * libGDX reader used for the game's json files before, a comma after the last
+ * element of an array or an object is tolerated.
+ *
+ * Malformed documents and calls not matching the next token cause an
+ * {@link IllegalArgumentException}, stating the position of the offending
+ * character. Errors of the underlying reader are rethrown as
+ * {@link SerializationException}.
+ */
+public class JsonPullReader {
+	/**
+	 * The kinds of tokens a json document consists of.
+	 */
+	public enum Token {
+		BEGIN_OBJECT,
+		END_OBJECT,
+		BEGIN_ARRAY,
+		END_ARRAY,
+		NAME,
+		STRING,
+		NUMBER,
+		BOOLEAN,
+		NULL,
+		END_DOCUMENT
+	}
+
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_ARRAY = 2;
+	private static final int NONEMPTY_ARRAY = 3;
+	private static final int EMPTY_OBJECT = 4;
+	private static final int DANGLING_NAME = 5;
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private final Reader in;
+	private final char[] buffer;
+	private int pos;
+	private int limit;
+	private int bufferStart;
+
+	private int[] scopes;
+	private int depth;
+	private Token peeked;
+	private final StringBuilder text;
+
+	/**
+	 * Creates a new reader pulling the tokens of a json document from the
+	 * given reader. The given reader is not closed by this class.
+	 *
+	 * @param in
+	 *            the reader to read the document from
+	 */
+	public JsonPullReader(Reader in) {
+		if (in == null) {
+			throw new IllegalArgumentException("Reader is null");
+		}
+		this.in = in;
+		buffer = new char[1024];
+		pos = 0;
+		limit = 0;
+		bufferStart = 0;
+		scopes = new int[32];
+		scopes[0] = EMPTY_DOCUMENT;
+		depth = 1;
+		peeked = null;
+		text = new StringBuilder();
+	}
+
+	/**
+	 * Returns the kind of the next token, without consuming it.
+	 *
+	 * @return the next token
+	 */
+	public Token peek() {
+		if (peeked != null) {
+			return peeked;
+		}
+		final int scope = scopes[depth - 1];
+		char c;
+		switch (scope) {
+		case EMPTY_ARRAY:
+		case NONEMPTY_ARRAY:
+			scopes[depth - 1] = NONEMPTY_ARRAY;
+			c = nextNonWhitespace("Unterminated array");
+			if (c == ']') {
+				return peeked = Token.END_ARRAY;
+			}
+			if (scope == NONEMPTY_ARRAY) {
+				expect(',', "Expected ',' or ']'");
+				// like libGDX, tolerate a comma after the last element
+				if (nextNonWhitespace("Unterminated array") == ']') {
+					return peeked = Token.END_ARRAY;
+				}
+			}
+			break;
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			scopes[depth - 1] = DANGLING_NAME;
+			c = nextNonWhitespace("Unterminated object");
+			if (c == '}') {
+				return peeked = Token.END_OBJECT;
+			}
+			if (scope == NONEMPTY_OBJECT) {
+				expect(',', "Expected ',' or '}'");
+				c = nextNonWhitespace("Unterminated object");
+				if (c == '}') {
+					return peeked = Token.END_OBJECT;
+				}
+			}
+			if (c != '"') {
+				throw syntaxError("Expected a name");
+			}
+			return peeked = Token.NAME;
+		case DANGLING_NAME:
+			scopes[depth - 1] = NONEMPTY_OBJECT;
+			nextNonWhitespace("Unterminated object");
+			expect(':', "Expected ':'");
+			break;
+		case EMPTY_DOCUMENT:
+			scopes[depth - 1] = NONEMPTY_DOCUMENT;
+			break;
+		default:
+			if (skipWhitespace()) {
+				throw syntaxError("Content after the end of the document");
+			}
+			return peeked = Token.END_DOCUMENT;
+		}
+		return peeked = peekValue();
+	}
+
+	private Token peekValue() {
+		final char c = nextNonWhitespace("Unexpected end of document");
+		switch (c) {
+		case '{':
+			return Token.BEGIN_OBJECT;
+		case '[':
+			return Token.BEGIN_ARRAY;
+		case '"':
+			return Token.STRING;
+		case 't':
+		case 'f':
+			return Token.BOOLEAN;
+		case 'n':
+			return Token.NULL;
+		default:
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				return Token.NUMBER;
+			}
+			throw syntaxError("Unexpected character '" + c + "'");
+		}
+	}
+
+	/**
+	 * Returns whether the current array or object has another element.
+	 *
+	 * @return true if the next token is neither the end of an array or an
+	 *         object nor the end of the document, false otherwise
+	 */
+	public boolean hasNext() {
+		final Token token = peek();
+		return token != Token.END_OBJECT && token != Token.END_ARRAY
+				&& token != Token.END_DOCUMENT;
+	}
+
+	/**
+	 * Consumes the beginning of an object.
+	 */
+	public void beginObject() {
+		consume(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	/**
+	 * Consumes the end of the current object.
+	 */
+	public void endObject() {
+		consume(Token.END_OBJECT);
+		depth--;
+	}
+
+	/**
+	 * Consumes the beginning of an array.
+	 */
+	public void beginArray() {
+		consume(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	/**
+	 * Consumes the end of the current array.
+	 */
+	public void endArray() {
+		consume(Token.END_ARRAY);
+		depth--;
+	}
+
+	/**
+	 * Consumes the name of the next member of the current object.
+	 *
+	 * @return the name of the member
+	 */
+	public String nextName() {
+		consume(Token.NAME);
+		return readString();
+	}
+
+	/**
+	 * Consumes a string value. Numbers are returned as they are written.
+	 *
+	 * @return the string value
+	 */
+	public String nextString() {
+		if (peek() == Token.NUMBER) {
+			peeked = null;
+			return readNumber();
+		}
+		consume(Token.STRING);
+		return readString();
+	}
+
+	/**
+	 * Consumes a number value which has to be an integer.
+	 *
+	 * @return the integer value
+	 */
+	public int nextInt() {
+		if (peek() != Token.NUMBER) {
+			throw syntaxError("Expected a number but was " + peek());
+		}
+		final int start = position();
+		peeked = null;
+		final String number = readNumber();
+		try {
+			return Integer.parseInt(number);
+		} catch (NumberFormatException e) {
+			final double value;
+			try {
+				value = Double.parseDouble(number);
+			} catch (NumberFormatException ex) {
+				throw syntaxError("Malformed number", start);
+			}
+			if (value != (int) value) {
+				throw syntaxError("Expected an integer", start);
+			}
+			return (int) value;
+		}
+	}
+
+	/**
+	 * Consumes a boolean value.
+	 *
+	 * @return the boolean value
+	 */
+	public boolean nextBoolean() {
+		consume(Token.BOOLEAN);
+		if (buffer[pos] == 't') {
+			readLiteral("true");
+			return true;
+		}
+		readLiteral("false");
+		return false;
+	}
+
+	/**
+	 * Consumes a null value.
+	 */
+	public void nextNull() {
+		consume(Token.NULL);
+		readLiteral("null");
+	}
+
+	/**
+	 * Consumes the next value, including all values it contains if it is an
+	 * array or an object.
+	 */
+	public void skipValue() {
+		int open = 0;
+		do {
+			switch (peek()) {
+			case BEGIN_OBJECT:
+				beginObject();
+				open++;
+				break;
+			case BEGIN_ARRAY:
+				beginArray();
+				open++;
+				break;
+			case END_OBJECT:
+				endObject();
+				open--;
+				break;
+			case END_ARRAY:
+				endArray();
+				open--;
+				break;
+			case NAME:
+				nextName();
+				break;
+			case STRING:
+			case NUMBER:
+				nextString();
+				break;
+			case BOOLEAN:
+				nextBoolean();
+				break;
+			case NULL:
+				nextNull();
+				break;
+			default:
+				throw syntaxError("Expected a value");
+			}
+		} while (open > 0);
+	}
+
+	/**
+	 * Returns the position of the next character to be read, counted from the
+	 * beginning of the document.
+	 *
+	 * @return the position in the document
+	 */
+	public int position() {
+		return bufferStart + pos;
+	}
+
+	private void consume(Token expected) {
+		final Token token = peek();
+		if (token != expected) {
+			throw syntaxError("Expected " + expected + " but was " + token);
+		}
+		peeked = null;
+		if (token != Token.BOOLEAN && token != Token.NULL
+				&& token != Token.NUMBER) {
+			pos++;
+		}
+	}
+
+	private void push(int scope) {
+		if (depth == scopes.length) {
+			final int[] newScopes = new int[depth * 2];
+			System.arraycopy(scopes, 0, newScopes, 0, depth);
+			scopes = newScopes;
+		}
+		scopes[depth++] = scope;
+	}
+
+	private void expect(char c, String message) {
+		if (buffer[pos] != c) {
+			throw syntaxError(message);
+		}
+		pos++;
+	}
+
+	/**
+	 * Reads the rest of a string whose opening quote has been consumed.
+	 */
+	private String readString() {
+		text.setLength(0);
+		while (true) {
+			int start = pos;
+			while (pos < limit) {
+				final char c = buffer[pos];
+				if (c == '"') {
+					text.append(buffer, start, pos - start);
+					pos++;
+					return text.toString();
+				} else if (c == '\\') {
+					text.append(buffer, start, pos - start);
+					pos++;
+					text.append(readEscape());
+					start = pos;
+				} else {
+					pos++;
+				}
+			}
+			text.append(buffer, start, pos - start);
+			if (!fill()) {
+				throw syntaxError("Unterminated string");
+			}
+		}
+	}
+
+	private char readEscape() {
+		if (!fill()) {
+			throw syntaxError("Unterminated escape sequence");
+		}
+		final char c = buffer[pos++];
+		switch (c) {
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				if (!fill()) {
+					throw syntaxError("Unterminated escape sequence");
+				}
+				final int digit = Character.digit(buffer[pos++], 16);
+				if (digit < 0) {
+					throw syntaxError("Malformed escape sequence");
+				}
+				value = (value << 4) + digit;
+			}
+			return (char) value;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		default:
+			return c;
+		}
+	}
+
+	private String readNumber() {
+		text.setLength(0);
+		while (fill()) {
+			final char c = buffer[pos];
+			if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.'
+					|| c == 'e' || c == 'E') {
+				text.append(c);
+				pos++;
+			} else {
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	private void readLiteral(String literal) {
+		final int start = position();
+		for (int i = 0; i < literal.length(); i++) {
+			if (!fill() || buffer[pos] != literal.charAt(i)) {
+				throw syntaxError("Expected " + literal, start);
+			}
+			pos++;
+		}
+		if (fill() && Character.isLetterOrDigit(buffer[pos])) {
+			throw syntaxError("Expected " + literal, start);
+		}
+	}
+
+	/**
+	 * Skips whitespace and returns the next character without consuming it.
+	 */
+	private char nextNonWhitespace(String endMessage) {
+		if (!skipWhitespace()) {
+			throw syntaxError(endMessage);
+		}
+		return buffer[pos];
+	}
+
+	private boolean skipWhitespace() {
+		while (fill()) {
+			final char c = buffer[pos];
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return true;
+			}
+			pos++;
+		}
+		return false;
+	}
+
+	/**
+	 * Makes sure that the buffer contains at least one unread character.
+	 *
+	 * @return false if the end of the document has been reached
+	 */
+	private boolean fill() {
+		if (pos < limit) {
+			return true;
+		}
+		bufferStart += limit;
+		pos = 0;
+		limit = 0;
+		try {
+			int read;
+			do {
+				read = in.read(buffer, 0, buffer.length);
+			} while (read == 0);
+			if (read < 0) {
+				return false;
+			}
+			limit = read;
+			return true;
+		} catch (IOException e) {
+			throw new SerializationException("Error reading json document", e);
+		}
+	}
+
+	private IllegalArgumentException syntaxError(String message) {
+		return syntaxError(message, position());
+	}
+
+	private IllegalArgumentException syntaxError(String message, int position) {
+		return new IllegalArgumentException(message + " at position "
+				+ position);
+	}
+}
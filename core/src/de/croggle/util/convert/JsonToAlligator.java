@@ -1,9 +1,12 @@
 package de.croggle.util.convert;
 
-import java.util.Iterator;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 
-import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
 
 import de.croggle.game.Color;
 import de.croggle.game.board.AgedAlligator;
@@ -14,8 +17,19 @@ import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
 
+/**
+ * A helper class building alligator constellations from their json
+ * representation, as written by {@link AlligatorToJson}. The json is read
+ * token by token using a {@link JsonPullReader}, so that no tree of the whole
+ * document needs to be built before the constellation.
+ */
 public class JsonToAlligator {
 
+	private static final int MOVABLE = 1;
+	private static final int REMOVABLE = 2;
+	private static final int RECOLORABLE = 4;
+	private static final int COLOR = 8;
+
 	/**
 	 * Cannot instantiate this helper class.
 	 */
@@ -25,39 +39,44 @@ public class JsonToAlligator {
 
 	/**
 	 * Converts a json-formatted string into an alligator constellation.
-	 * 
+	 *
 	 * @param json
 	 *            the json-formatted string to be parsed into an alligator
 	 *            constellation
 	 * @return an alligator constellation based on the given json string
 	 */
 	public static BoardObject convert(String json) {
-		JsonReader reader = new JsonReader();
-		JsonValue val = reader.parse(json);
+		return convert(new StringReader(json));
+	}
 
-		return convert(val);
+	/**
+	 * Converts a json document read from the given reader into an alligator
+	 * constellation.
+	 *
+	 * @param json
+	 *            the reader to read the json document from
+	 * @return an alligator constellation based on the given json document
+	 */
+	public static BoardObject convert(Reader json) {
+		return read(new JsonPullReader(json));
 	}
 
 	/**
 	 * Converts a JsonValue into an alligator constellation.
-	 * 
+	 *
 	 * @param json
 	 *            the JsonValue to be parsed into an alligator constellation
 	 * @return an alligator constellation based on the given JsonValue
 	 */
 	public static BoardObject convert(JsonValue json) {
-		if (json.get("families") != null) {
-			return toBoard(json);
-		} else {
-			return dispatchInternalBoardObject(json);
-		}
+		return convert(toJson(json));
 	}
 
 	/**
 	 * Converts a json-formatted string into a constellation of
 	 * {@link InternalBoardObject}s, if it is well-formed according to the
 	 * game's json specification.
-	 * 
+	 *
 	 * @param jsonString
 	 *            a String to be read as and converted to a constellation of
 	 *            {@link InternalBoardObject}s
@@ -66,17 +85,15 @@ public class JsonToAlligator {
 	 */
 	public static InternalBoardObject convertInternalBoardObject(
 			String jsonString) {
-		JsonReader reader = new JsonReader();
-		JsonValue val = reader.parse(jsonString);
-
-		return convertInternalBoardObject(val);
+		return convertInternalBoardObject(new JsonPullReader(new StringReader(
+				jsonString)));
 	}
 
 	/**
 	 * Converts a given {@link JsonValue} object into a constellation of
 	 * {@link InternalBoardObject}s, if it is well-formed according to the
 	 * game's json specification.
-	 * 
+	 *
 	 * @param json
 	 *            an existing {@link JsonValue} representing a valid
 	 *            {@link BoardObject} constellation
@@ -84,31 +101,61 @@ public class JsonToAlligator {
 	 *         the content of the given {@link JsonValue}
 	 */
 	public static InternalBoardObject convertInternalBoardObject(JsonValue json) {
-		return dispatchInternalBoardObject(json);
+		return convertInternalBoardObject(toJson(json));
+	}
+
+	/**
+	 * Reads the next value of the given reader as the json representation of
+	 * a constellation of {@link InternalBoardObject}s.
+	 *
+	 * @param reader
+	 *            the reader whose next value is a family
+	 * @return a constellation of {@link InternalBoardObject}s corresponding to
+	 *         the value read
+	 */
+	public static InternalBoardObject convertInternalBoardObject(
+			JsonPullReader reader) {
+		final BoardObject result = read(reader);
+		if (!(result instanceof InternalBoardObject)) {
+			throw new IllegalArgumentException(
+					"Illegal family: Found a board instead.");
+		}
+		return (InternalBoardObject) result;
 	}
 
 	/**
 	 * Treat a given json-formatted string as a representation of a
 	 * {@link Board} complying with the game's json specification. Then use it
 	 * to create a java instance of the {@link Board} and return it.
-	 * 
+	 *
 	 * @param boardJson
 	 *            the json string to be converted to a {@link Board}
 	 * @return an instance of {@link Board} corresponding to the constellation
 	 *         described in the given json string
 	 */
 	public static Board convertBoard(String boardJson) {
-		JsonReader reader = new JsonReader();
-		JsonValue val = reader.parse(boardJson);
+		return convertBoard(new StringReader(boardJson));
+	}
 
-		return convertBoard(val);
+	/**
+	 * Treat the json document read from the given reader as a representation
+	 * of a {@link Board} complying with the game's json specification, and
+	 * create the {@link Board} it describes.
+	 *
+	 * @param boardJson
+	 *            the reader to read the json document from
+	 * @return an instance of {@link Board} corresponding to the constellation
+	 *         described in the json document
+	 */
+	public static Board convertBoard(Reader boardJson) {
+		return convertBoard(new JsonPullReader(boardJson));
 	}
 
 	/**
 	 * Treat a given {@link JsonValue} object as a representation of a
 	 * {@link Board} complying with the game's json specification. Then use it
 	 * to create a java instance of the {@link Board} and return it.
-	 * 
+	 *
 	 * @param board
 	 *            the {@link JsonValue} to be converted to a {@link Board}
 	 * @return an instance of {@link Board} corresponding to the constellation
@@ -119,147 +166,191 @@ public class JsonToAlligator {
 			throw new IllegalArgumentException(
 					"Illegal argument: The json value is null.");
 		}
-		if (!board.hasChild("families")) {
-			throw new IllegalArgumentException(
-					"Illegal board: Did not find list \"families\" in given JsonValue.");
-		}
-		return toBoard(board);
+		return convertBoard(toJson(board));
 	}
 
 	/**
-	 * Dispatches a JsonValue by examining its "type" attribute to the
-	 * respective build*er function.
-	 * 
-	 * @param json
-	 *            a JsonValue representing a valid InternalBoardObject
-	 * @return the alligator constellation belonging to the given JsonValue
+	 * Reads the next value of the given reader as the json representation of
+	 * a {@link Board}, e.g. a board embedded in a level file.
+	 *
+	 * @param reader
+	 *            the reader whose next value is a board
+	 * @return an instance of {@link Board} corresponding to the constellation
+	 *         described by the value read
 	 */
-	private static InternalBoardObject dispatchInternalBoardObject(
-			JsonValue json) {
-		String type = json.getString("type");
-		if (type.equals("egg")) {
-			return buildEgg(json);
-		} else if (type.equals("colored alligator")) {
-			return buildColoredAlligator(json);
-		} else if (type.equals("aged alligator")) {
-			return buildAgedAlligator(json);
-		} else {
+	public static Board convertBoard(JsonPullReader reader) {
+		final BoardObject result = read(reader);
+		if (!(result instanceof Board)) {
 			throw new IllegalArgumentException(
-					"JsonValue json does not contain a valid type: " + type);
+					"Illegal board: Did not find list \"families\" in given json.");
 		}
+		return (Board) result;
 	}
 
 	/**
-	 * Builds an Egg object from the given JsonValue.
-	 * 
-	 * @param egg
-	 *            a JsonValue to be parsed
-	 * @return an Egg object matching the description given in "egg"
+	 * Serializes a JsonValue, so that it can be read like any other json
+	 * document.
 	 */
-	private static Egg buildEgg(JsonValue egg) {
-		boolean movable = egg.getBoolean("movable");
-		boolean removable = egg.getBoolean("removable");
-		boolean recolorable = egg.getBoolean("recolorable");
-
-		int colorId = egg.getInt("color");
-		Color c;
-		if (colorId < 0) {
-			c = Color.uncolored();
-		} else {
-			c = new Color(colorId);
+	private static String toJson(JsonValue json) {
+		if (json == null) {
+			throw new IllegalArgumentException(
+					"Illegal argument: The json value is null.");
 		}
-
-		Egg e = new Egg(movable, removable, c, recolorable);
-
-		return e;
+		return json.prettyPrint(OutputType.json, 0);
 	}
 
 	/**
-	 * Builds an AgedAlligator object from the given JsonValue.
-	 * 
-	 * @param agedAlligator
-	 *            a JsonValue to be parsed
-	 * @return an AgedAlligator object matching the description given in
-	 *         "agedAlligator"
+	 * Reads the next value of the given reader, which is either a board or a
+	 * family. The families are built without recursion, using a stack of the
+	 * objects whose members are being read. Every object is only built once
+	 * all of its members have been read, so that its children are complete
+	 * when it is created, and adding a child does not need to update the
+	 * information cached by a long chain of ancestors.
+	 *
+	 * @param reader
+	 *            the reader whose next value is a board or a family
+	 * @return the board or family described by the value read
 	 */
-	private static AgedAlligator buildAgedAlligator(JsonValue agedAlligator) {
-		boolean movable = agedAlligator.getBoolean("movable");
-		boolean removable = agedAlligator.getBoolean("removable");
-
-		AgedAlligator aa = new AgedAlligator(movable, removable);
-		fillParent(aa, agedAlligator, "children");
-
-		return aa;
+	private static BoardObject read(JsonPullReader reader) {
+		final List<PendingObject> pending = new ArrayList<PendingObject>();
+		reader.beginObject();
+		pending.add(new PendingObject());
+		while (true) {
+			final PendingObject top = pending.get(pending.size() - 1);
+			if (top.openList != null) {
+				if (reader.hasNext()) {
+					reader.beginObject();
+					pending.add(new PendingObject());
+				} else {
+					reader.endArray();
+					top.openList = null;
+				}
+				continue;
+			}
+			if (reader.hasNext()) {
+				readMember(reader, top);
+				continue;
+			}
+			reader.endObject();
+			pending.remove(pending.size() - 1);
+			final BoardObject built = top.build();
+			if (pending.isEmpty()) {
+				return built;
+			}
+			if (!(built instanceof InternalBoardObject)) {
+				throw new IllegalArgumentException(
+						"Illegal family: Found a board as a child.");
+			}
+			pending.get(pending.size() - 1).openList
+					.add((InternalBoardObject) built);
+		}
 	}
 
 	/**
-	 * Builds an ColoredAlligator object from the given JsonValue.
-	 * 
-	 * @param coloredAlligator
-	 *            a JsonValue to be parsed
-	 * @return an ColoredAlligator object matching the description given in
-	 *         "coloredAlligator"
+	 * Reads the next member of the object currently read into the given
+	 * pending object. Unknown members are skipped.
 	 */
-	private static ColoredAlligator buildColoredAlligator(
-			JsonValue coloredAlligator) {
-		boolean movable = coloredAlligator.getBoolean("movable");
-		boolean removable = coloredAlligator.getBoolean("removable");
-		boolean recolorable = coloredAlligator.getBoolean("recolorable");
-
-		int colorId = coloredAlligator.getInt("color");
-		Color c;
-		if (colorId < 0) {
-			c = Color.uncolored();
+	private static void readMember(JsonPullReader reader, PendingObject object) {
+		final String name = reader.nextName();
+		if (name.equals("type")) {
+			object.type = reader.nextString();
+		} else if (name.equals("movable")) {
+			object.movable = reader.nextBoolean();
+			object.found |= MOVABLE;
+		} else if (name.equals("removable")) {
+			object.removable = reader.nextBoolean();
+			object.found |= REMOVABLE;
+		} else if (name.equals("recolorable")) {
+			object.recolorable = reader.nextBoolean();
+			object.found |= RECOLORABLE;
+		} else if (name.equals("color")) {
+			object.color = reader.nextInt();
+			object.found |= COLOR;
+		} else if (name.equals("children")) {
+			reader.beginArray();
+			object.children = new ArrayList<InternalBoardObject>();
+			object.openList = object.children;
+		} else if (name.equals("families")) {
+			reader.beginArray();
+			object.families = new ArrayList<InternalBoardObject>();
+			object.openList = object.families;
 		} else {
-			c = new Color(colorId);
+			reader.skipValue();
 		}
-
-		ColoredAlligator ca = new ColoredAlligator(movable, removable, c,
-				recolorable);
-		fillParent(ca, coloredAlligator, "children");
-
-		return ca;
 	}
 
 	/**
-	 * Traverses the list of (json-formatted) children, given by its name, of a
-	 * given JsonValue, and adds InternalBoardObjects built from them to the
-	 * list of children of the given (alligator) Parent object.
-	 * 
-	 * @param p
-	 *            the Parent, whose children are to be added
-	 * @param pJson
-	 *            the JsonValue belonging to the given parent, to retrieve the
-	 *            children from
-	 * @param childListName
-	 *            the name of the list containing all children of the given
-	 *            JsonValue parent.
+	 * The members of a json object read so far, from which a board or a
+	 * family is built once the object ends.
 	 */
-	private static void fillParent(Parent p, JsonValue pJson,
-			String childListName) {
-		JsonValue children = pJson.get(childListName);
-		if (!children.isArray()) {
-			throw new IllegalArgumentException(
-					"Given parent does not contain a List of children in child \""
-							+ childListName + "\"");
+	private static class PendingObject {
+		private String type;
+		private boolean movable;
+		private boolean removable;
+		private boolean recolorable;
+		private int color;
+		private int found;
+		private List<InternalBoardObject> children;
+		private List<InternalBoardObject> families;
+		private List<InternalBoardObject> openList;
+
+		/**
+		 * Dispatches the object by examining its "type" attribute, or builds a
+		 * board if it has a list of families.
+		 */
+		BoardObject build() {
+			if (families != null) {
+				final Board board = new Board();
+				addAll(board, families);
+				return board;
+			}
+			if (type == null) {
+				throw new IllegalArgumentException(
+						"Json object does not contain a type");
+			} else if (type.equals("egg")) {
+				require(MOVABLE | REMOVABLE | RECOLORABLE | COLOR);
+				return new Egg(movable, removable, color(), recolorable);
+			} else if (type.equals("colored alligator")) {
+				require(MOVABLE | REMOVABLE | RECOLORABLE | COLOR);
+				final ColoredAlligator alligator = new ColoredAlligator(
+						movable, removable, color(), recolorable);
+				addAll(alligator, children);
+				return alligator;
+			} else if (type.equals("aged alligator")) {
+				require(MOVABLE | REMOVABLE);
+				final AgedAlligator alligator = new AgedAlligator(movable,
+						removable);
+				addAll(alligator, children);
+				return alligator;
+			} else {
+				throw new IllegalArgumentException(
+						"Json object does not contain a valid type: " + type);
+			}
 		}
-		Iterator<JsonValue> it = children.iterator();
-		while (it.hasNext()) {
-			InternalBoardObject child = dispatchInternalBoardObject(it.next());
-			p.addChild(child);
+
+		private void require(int members) {
+			if ((found & members) != members) {
+				throw new IllegalArgumentException("Json object of type \""
+						+ type + "\" misses a required value");
+			}
 		}
-	}
 
-	/**
-	 * Builds a board object from the given JsonValue.
-	 * 
-	 * @param board
-	 *            the board's JsonValue representation to be parsed
-	 * @return a board matching the constellation description in "board"
-	 */
-	private static Board toBoard(JsonValue board) {
-		Board b = new Board();
-		fillParent(b, board, "families");
-		return b;
+		private Color color() {
+			if (color < 0) {
+				return Color.uncolored();
+			} else {
+				return Color.of(color);
+			}
+		}
+
+		private static void addAll(Parent p, List<InternalBoardObject> children) {
+			if (children == null) {
+				throw new IllegalArgumentException(
+						"Given parent does not contain a List of children in child \"children\"");
+			}
+			for (InternalBoardObject child : children) {
+				p.addChild(child);
+			}
+		}
 	}
 }
@@ -0,0 +1,35 @@
+package de.croggle.util.convert;
+
+/**
+ * The exception is thrown whenever a lambda term cannot be turned into an
+ * alligator constellation, e.g. because a parenthesis is not closed or the
+ * term contains too many different variable names.
+ */
+@SuppressWarnings("serial")
+public class LambdaSyntaxException extends IllegalArgumentException {
+	private final int position;
+
+	/**
+	 * Creates a new instance of the exception with the given error message.
+	 *
+	 * @param message
+	 *            a message describing the error in the term
+	 * @param position
+	 *            the index of the character in the term at which the error
+	 *            has been found
+	 */
+	public LambdaSyntaxException(String message, int position) {
+		super(message + " at position " + position);
+		this.position = position;
+	}
+
+	/**
+	 * Returns the index of the character in the term at which the error has
+	 * been found.
+	 *
+	 * @return the position of the error in the term
+	 */
+	public int getPosition() {
+		return position;
+	}
+}
@@ -1,687 +1,348 @@
 package de.croggle.util.convert;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import de.croggle.game.Color;
-import de.croggle.game.ColorController;
-import de.croggle.game.ColorOverflowException;
 import de.croggle.game.board.AgedAlligator;
-import de.croggle.game.board.Alligator;
 import de.croggle.game.board.Board;
-import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.InternalBoardObject;
 import de.croggle.game.board.Parent;
-import de.croggle.game.board.operations.BoardObjectVisitor;
-import de.croggle.game.board.operations.RemoveLonelyAgedAlligators;
 
 /**
  * A helper class to allow for parsing lambda terms and build their alligator
  * constellations.
- * 
+ *
+ * The term is split into tokens in a first pass, which also assigns a color to
+ * every variable name. Names bound by an abstraction receive their colors
+ * first, in the order of the abstractions, followed by the free names in the
+ * order of their first occurrence. A second pass builds the board directly
+ * from the tokens, using an explicit stack instead of recursion, so that the
+ * time needed is linear in the length of the term, however deeply it is
+ * nested.
+ *
  * @author suluke
  */
 public class LambdaToAlligator {
 
-	private static char lambda = '\u03bb'; // λ
-	private static String abstractionPrefix = "" + lambda;
-	private static String abstractionSeparator = ".";
+	private static final char LAMBDA = '\u03bb'; // λ
+	private static final char SEPARATOR = '.';
 
-	private final String bindPrfx;
-	private final String bindPstfx;
-	private final List<UnparsedObject> unparsedDeque;
-	private final List<UnparsedObject> unparsedList;
-	private final Map<String, Color> colors;
-	private final ColorController ccntrl;
+	private static final int NAME = 0;
+	private static final int ABSTRACTION = 1;
+	private static final int DOT = 2;
+	private static final int OPENING = 3;
+	private static final int CLOSING = 4;
+
+	private final CharSequence expr;
+
+	// the tokens of the term, each one stored as its type, its position in the
+	// term and, for names, the index of the name in the name table
+	private int[] types;
+	private int[] starts;
+	private int[] names;
+	private int tokens;
+
+	// the distinct variable names, stored as ranges of the term
+	private final int[] nameStarts;
+	private final int[] nameEnds;
+	private int nameCount;
+	private final int[] bindingOrder;
+	private int boundNames;
+	private final Color[] colors;
 
 	/**
-	 * Creates a new LambdaToAlligator instance, initializing internal values
-	 * for
-	 * <ul>
-	 * <li>abstraction prefix</li>
-	 * <li>abstraction separator</li>
-	 * <li>the linked list of not yet compiled (unparsed) BoardObjects</li>
-	 * <li>the map of already assigned colors to variable names</li>
-	 * <li>the color controller for retrieving new colors</li>
-	 * </ul>
+	 * Creates a new LambdaToAlligator instance for parsing the given term.
+	 *
+	 * @param expr
+	 *            the lambda term to parse
 	 */
-	private LambdaToAlligator() {
-		bindPrfx = abstractionPrefix;
-		bindPstfx = abstractionSeparator;
-		unparsedDeque = new LinkedList<UnparsedObject>();
-		unparsedList = unparsedDeque;
-		ccntrl = new ColorController();
-		colors = new HashMap<String, Color>(30);
+	private LambdaToAlligator(CharSequence expr) {
+		this.expr = expr;
+		final int capacity = Math.max(16, expr.length() / 2);
+		types = new int[capacity];
+		starts = new int[capacity];
+		names = new int[capacity];
+		tokens = 0;
+		nameStarts = new int[Color.MAX_COLORS];
+		nameEnds = new int[Color.MAX_COLORS];
+		nameCount = 0;
+		bindingOrder = new int[Color.MAX_COLORS];
+		boundNames = 0;
+		colors = new Color[Color.MAX_COLORS];
 	}
 
 	/**
 	 * Turns a given String of a (valid) lambda calculus term into a
 	 * constellation of BoardObjects, places on the board that is returned.
-	 * 
+	 *
 	 * @param expr
 	 *            a lambda calculus term to be converted
 	 * @return a board with the given term's alligator representation
+	 * @throws LambdaSyntaxException
+	 *             if the given term is not a valid lambda term or contains
+	 *             more variable names than there are colors
 	 */
-	public static Board convert(String expr) {
-		final LambdaToAlligator converter = new LambdaToAlligator();
-		final Board result = new Board();
-		converter.boardFromString(result, expr);
-		return result;
+	public static Board convert(CharSequence expr) {
+		final LambdaToAlligator converter = new LambdaToAlligator(expr);
+		converter.tokenize();
+		converter.assignColors();
+		return converter.parse();
 	}
 
 	/**
-	 * Turns a given string into a board object.
-	 * 
-	 * @param b
-	 *            the board to fill with the outcome of the parsed term
-	 * @param expr
-	 *            the lambda term to parse
+	 * Splits the term into tokens and registers all variable names it
+	 * contains.
 	 */
-	private void boardFromString(Board b, String expr) {
-		expr = expr.replaceAll("\\s+", " ").trim();
-
-		UnparsedObject unp = new UnparsedObject(expr);
-		unparsedDeque.add(unp);
-		b.addChild(unp);
-
-		// stage one parsing
-		while (unparsedDeque.get(0).getClass() == UnparsedObject.class) {
-			parseStageOne();
-		}
-
-		java.util.Collections.sort(unparsedList);
-
-		// stage two parsing
-		while (!unparsedDeque.isEmpty()) {
-			parseStageTwo();
-		}
-
-		RemoveLonelyAgedAlligators.remove(b);
-	}
-
-	/**
-	 * Parses single parts of a term until there are no untyped UnparsedObjects
-	 * left at the beginning of the List "unparsed"
-	 */
-	private void parseStageOne() {
-		if (unparsedDeque.isEmpty()
-				|| unparsedDeque.get(0).getClass() != UnparsedObject.class)
-			return;
-
-		UnparsedObject o = unparsedDeque.get(0);
-		String e = o.getExpr();
-		if (e.startsWith(bindPstfx)) {
-			throw new IllegalArgumentException(
-					"Binding separator \".\" too much");
-		} else if (e.startsWith(bindPrfx)) {
-			splitAbstraction(o);
-		} else if (e.startsWith("(")) {
-			splitBraces(o);
-		} else {
-			splitVariable(o);
+	private void tokenize() {
+		final int length = expr.length();
+		int i = 0;
+		while (i < length) {
+			final char c = expr.charAt(i);
+			if (isWhitespace(c)) {
+				i++;
+				continue;
+			}
+			switch (c) {
+			case LAMBDA:
+				addToken(ABSTRACTION, i, -1);
+				i++;
+				break;
+			case SEPARATOR:
+				addToken(DOT, i, -1);
+				i++;
+				break;
+			case '(':
+				addToken(OPENING, i, -1);
+				i++;
+				break;
+			case ')':
+				addToken(CLOSING, i, -1);
+				i++;
+				break;
+			default:
+				final int start = i;
+				while (i < length && isNameCharacter(expr.charAt(i))) {
+					i++;
+				}
+				final int name = lookupName(start, i);
+				if (tokens > 0 && types[tokens - 1] == ABSTRACTION) {
+					bind(name);
+				}
+				addToken(NAME, start, name);
+				break;
+			}
 		}
 	}
 
-	/**
-	 * Expects the list of unparsed objects to be sorted, with first braces
-	 * coming first, followed by abstractions and variables at the end. Will
-	 * turn all mentioned UnparsedExpression types step-by-step into their
-	 * alligator counterparts.
-	 */
-	private void parseStageTwo() {
-		if (unparsedDeque.isEmpty())
-			return;
-		assert (unparsedDeque.get(0).getClass() != UnparsedObject.class);
-
-		UnparsedObject o = unparsedDeque.get(0);
-		if (o.getClass() == AbstractionBegin.class) {
-			buildAbstraction((AbstractionBegin) o);
-		} else if (o.getClass() == OpeningBrace.class) {
-			buildBraces((OpeningBrace) o);
-		} else if (o.getClass() == Variable.class) {
-			buildVariable((Variable) o);
-		} else {
-			throw new IllegalArgumentException("Token too much: " + o.getExpr());
-		}
+	private void addToken(int type, int start, int name) {
+		if (tokens == types.length) {
+			final int capacity = types.length * 2;
+			final int[] newTypes = new int[capacity];
+			final int[] newStarts = new int[capacity];
+			final int[] newNames = new int[capacity];
+			System.arraycopy(types, 0, newTypes, 0, tokens);
+			System.arraycopy(starts, 0, newStarts, 0, tokens);
+			System.arraycopy(names, 0, newNames, 0, tokens);
+			types = newTypes;
+			starts = newStarts;
+			names = newNames;
+		}
+		types[tokens] = type;
+		starts[tokens] = start;
+		names[tokens] = name;
+		tokens++;
 	}
 
 	/**
-	 * Expects the abstraction prefix (λ) as argument and combines the following
-	 * Variable, AbstractionSeparator and (Egg|Alligator) to a colored alligator
-	 * 
-	 * @param o
-	 *            the begin of the abstraction
+	 * Returns the index of the variable name in the given range of the term,
+	 * registering it if it has not occurred before.
 	 */
-	private void buildAbstraction(AbstractionBegin o) {
-		Parent p = o.getParent();
-
-		InternalBoardObject nextChild;
-
-		// get the bound variable
-		Variable var;
-		nextChild = p.getChildAfter(o);
-		if (nextChild.getClass() != Variable.class) {
-			throw new IllegalArgumentException(
-					"Not a variable name bound by lambda abstraction");
-		} else {
-			var = (Variable) p.getChildAfter(o);
-		}
-
-		// get the abstraction separator
-		AbstractionSeparator sep;
-		nextChild = p.getChildAfter(var);
-		if (nextChild.getClass() != AbstractionSeparator.class) {
-			throw new IllegalArgumentException(
-					"No binding seperator ('.') found for abstraction");
-		} else {
-			sep = (AbstractionSeparator) p.getChildAfter(var);
-		}
-
-		// instantiate the alligator
-		Color c = strToColor(var.getExpr());
-		ColoredAlligator abstraction = new ColoredAlligator(true, true, c, true);
-
-		// get the bound terms
-		int pos = p.getChildPosition(sep) + 1;
-		InternalBoardObject nextBound;
-		Iterator<InternalBoardObject> it = p.iterator(pos);
-		if (!it.hasNext()) {
-			throw new IllegalArgumentException(
-					"No bound term found for abstraction");
-		}
-		while (it.hasNext()) {
-			nextBound = it.next();
-			// neither Egg (still as variable) nor parenthesis (already parsed
-			// as AgedAlligators) need to be considered here
-			if (!(nextBound instanceof Variable)
-					&& !(nextBound instanceof Alligator)
-					&& (nextBound.getClass() != AbstractionBegin.class)
-					&& (nextBound.getClass() != AbstractionSeparator.class)) {
-				throw new IllegalArgumentException("Illegal term bound: "
-						+ nextBound.getClass().getSimpleName());
-			} /*
-			 * Not needed, I guess. else if (nextBound.getClass() ==
-			 * AbstractionBegin.class) { buildAbstraction((AbstractionBegin)
-			 * nextBound); boundTerm = (ColoredAlligator) p.getNextChild(sep);
-			 * // re-get the child, which was transformed in the mean time }
-			 */else {
-				abstraction.addChild(nextBound);
+	private int lookupName(int start, int end) {
+		for (int name = 0; name < nameCount; name++) {
+			if (regionEquals(nameStarts[name], nameEnds[name], start, end)) {
+				return name;
 			}
 		}
-
-		p.replaceChild(o, abstraction);
-		unparsedDeque.remove(o); // the abstraction
-
-		p.removeChild(var);
-		unparsedDeque.remove(var); // has turned into a color
-
-		p.removeChild(sep);
-		unparsedDeque.remove(sep); // part of the abstraction
-
-		for (InternalBoardObject child : abstraction) {
-			p.removeChild(child);
+		if (nameCount == Color.MAX_COLORS) {
+			throw new LambdaSyntaxException(
+					"Too many variable names in given term", start);
 		}
-		// boundTerm is probably an alligator, or will turn into an egg later
+		nameStarts[nameCount] = start;
+		nameEnds[nameCount] = end;
+		return nameCount++;
 	}
 
-	/**
-	 * Turns the given OpeningBrace and all following BoardObjects of the same
-	 * parent up to the matching ClosingBrace into an aged alligator.
-	 * 
-	 * @param o
-	 *            the opening brace of the part to be turned into an aged
-	 *            alligator
-	 */
-	private void buildBraces(OpeningBrace o) {
-		Parent p = o.getParent();
-		Iterator<InternalBoardObject> i = p.iterator(p.getChildPosition(o) + 1);
-		InternalBoardObject current = null;
-		int open = 0;
-		while (!((current = i.next()).getClass() == ClosingBrace.class && open == 0)) {
-			if (current.getClass() == OpeningBrace.class) {
-				open++;
-			} else if (current.getClass() == ClosingBrace.class) {
-				open--;
-			}
-
-			if (!i.hasNext()) {
-				throw new IllegalArgumentException("Brace not closed");
-			}
-		}
-
-		ClosingBrace close = (ClosingBrace) current;
-
-		AgedAlligator braces = new AgedAlligator(true, true);
-		i = p.iterator(p.getChildPosition(o) + 1);
-		while (i.hasNext() && !(current = i.next()).equals(close)) {
-			braces.addChild(current);
+	private boolean regionEquals(int start, int end, int otherStart,
+			int otherEnd) {
+		if (end - start != otherEnd - otherStart) {
+			return false;
 		}
-		// dedicated loop to not confuse the iterator
-		for (InternalBoardObject bo : braces) {
-			p.removeChild(bo);
-		}
-		p.removeChild(close);
-		p.replaceChild(o, braces);
-
-		unparsedDeque.remove(o);
-		unparsedDeque.remove(close);
-	}
-
-	/**
-	 * Expects UNBOUND variables, to turn them into eggs.
-	 * 
-	 * @param o
-	 *            the (unbound!) variable to be turned into an egg
-	 */
-	private void buildVariable(Variable o) {
-		Parent p = o.getParent();
-		Color c = strToColor(o.getExpr());
-		Egg e = new Egg(true, true, c, true);
-		p.replaceChild(o, e);
-		unparsedDeque.remove(o);
-	}
-
-	/**
-	 * Translate a string into a color using a color controller.
-	 * 
-	 * @param s
-	 *            the string to be translated into a color
-	 * @return a color that will from now on be associated with the given string
-	 */
-	private Color strToColor(String s) {
-		Color c;
-		if (colors.containsKey(s)) {
-			c = colors.get(s);
-		} else {
-			try {
-				c = ccntrl.requestColor(colors.values().toArray(
-						new Color[colors.size()]));
-				colors.put(s, c);
-			} catch (ColorOverflowException ex) {
-				throw new IllegalArgumentException(
-						"Too many variable names in given term");
+		for (int i = start, j = otherStart; i < end; i++, j++) {
+			if (expr.charAt(i) != expr.charAt(j)) {
+				return false;
 			}
 		}
-		return c;
+		return true;
 	}
 
 	/**
-	 * Extracts the first occurrence of a lambda abstraction (starting at the
-	 * beginning of the unparsed term) and replaces it with the abstraction
-	 * begin, the bound variable string, the abstraction separator and the rest.
-	 * 
-	 * @param o
-	 *            the UnparsedExpression with a lambda abstraction at the
-	 *            beginning
+	 * Remembers that the given name is bound by an abstraction, unless it has
+	 * been bound before.
 	 */
-	private void splitAbstraction(UnparsedObject o) {
-		String var;
-		String rest;
-		String e = o.getExpr();
-		assert (e.startsWith(bindPrfx));
-
-		int separatorIndex = e.indexOf(bindPstfx, bindPrfx.length());
-		if (separatorIndex < 0) {
-			throw new IllegalArgumentException("Missing binding separator");
-		} else if (separatorIndex == 1) {
-			throw new IllegalArgumentException(
-					"No variable bound by abstraction");
-		}
-
-		AbstractionBegin ab = new AbstractionBegin();
-		AbstractionSeparator as = new AbstractionSeparator();
-		var = e.substring(bindPrfx.length(), separatorIndex);
-		rest = e.substring(separatorIndex + bindPstfx.length());
-
-		UnparsedObject varObj = new UnparsedObject(var);
-
-		Parent p = o.getParent();
-		int pos = p.getChildPosition(o);
-		if (!rest.trim().equals("")) {
-			UnparsedObject restObj = new UnparsedObject(rest);
-			p.insertChild(restObj, pos + 1);
-			unparsedDeque.add(0, restObj);
+	private void bind(int name) {
+		for (int i = 0; i < boundNames; i++) {
+			if (bindingOrder[i] == name) {
+				return;
+			}
 		}
-
-		p.replaceChild(o, as);
-		unparsedDeque.add(as);
-		unparsedDeque.remove(o);
-
-		p.insertChild(varObj, pos);
-		unparsedDeque.add(0, varObj);
-
-		p.insertChild(ab, pos);
-		unparsedDeque.add(ab);
-
+		bindingOrder[boundNames++] = name;
 	}
 
 	/**
-	 * Extracts the first occurrence of a set of braces (starting at the
-	 * beginning of the uparsed term) from the given UnparsedObject and replaces
-	 * it with starting braces, the brace body, a closing brace and the
-	 * remaining unparsed term.
-	 * 
-	 * @param o
-	 *            the UnparsedObject to be replaced
+	 * Assigns a color to every registered name, starting with the bound ones.
 	 */
-	private void splitBraces(UnparsedObject o) {
-		String body;
-		String rest;
-		String e = o.getExpr();
-		assert (e.charAt(0) == '(');
-		int open = 0;
-		int i;
-		for (i = 1; !(e.charAt(i) == ')' && open == 0); i++) {
-			if (e.charAt(i) == '(') {
-				open++;
-			} else if (e.charAt(i) == ')') {
-				open--;
+	private void assignColors() {
+		int next = 0;
+		for (int i = 0; i < boundNames; i++) {
+			colors[bindingOrder[i]] = Color.of(next++);
+		}
+		for (int name = 0; name < nameCount; name++) {
+			if (colors[name] == null) {
+				colors[name] = Color.of(next++);
 			}
-			if (i == e.length() - 1) {
-				throw new IllegalArgumentException("Brace not closed");
-			}
-		}
-
-		body = e.substring(1, i);
-		rest = e.substring(i + 1);
-		Parent p = o.getParent();
-		int pos = p.getChildPosition(o);
-
-		OpeningBrace ob = new OpeningBrace();
-		ClosingBrace cb = new ClosingBrace();
-
-		if (!rest.trim().equals("")) {
-			UnparsedObject restObj = new UnparsedObject(rest);
-			p.insertChild(restObj, pos + 1);
-			unparsedDeque.add(0, restObj);
 		}
-
-		p.replaceChild(o, cb);
-		unparsedDeque.add(cb);
-		unparsedDeque.remove(o);
-
-		if (!body.trim().equals("")) {
-			UnparsedObject bodyObj = new UnparsedObject(body);
-			p.insertChild(bodyObj, pos);
-			unparsedDeque.add(0, bodyObj);
-		}
-
-		p.insertChild(ob, pos);
-		unparsedDeque.add(ob);
-
 	}
 
 	/**
-	 * Extracts the first occurring variable (starting at the beginning of the
-	 * unparsed term) from the given UnparsedObject and replaces it with it and
-	 * the remaining unparsed term.
-	 * 
-	 * @param o
-	 *            the UnparsedObject to be replaced with a variable and the
-	 *            remaining unparsed term
+	 * Builds the board from the tokens. Every family is only added to its
+	 * parent once all of its children have been added, and parentheses
+	 * enclosing less than two terms do not turn into aged alligators.
+	 *
+	 * @return the board representing the term
 	 */
-	private void splitVariable(UnparsedObject o) {
-		Parent p = o.getParent();
-		String e = o.getExpr();
-		final int elen = e.length();
-		int i = 0;
-		final char prfxId = bindPrfx.charAt(0);
-		final char pstfxId = bindPstfx.charAt(0);
-		loop: for (; i < elen; i++) {
-			switch (e.charAt(i)) {
-			case '(':
-			case ')':
-			case ' ': {
-				break loop;
-			}
-			default: {
-				if (e.charAt(i) == prfxId) {
-					if (e.substring(i, i + bindPrfx.length()).equals(bindPrfx)) {
-						break loop;
-					}
-				} else if (e.charAt(i) == pstfxId) {
-					if (e.substring(i, i + bindPstfx.length())
-							.equals(bindPstfx)) {
-						break loop;
-					}
+	private Board parse() {
+		final Board board = new Board();
+		final List<Group> open = new ArrayList<Group>();
+		Group current = new Group(board, false, -1);
+		open.add(current);
+		int t = 0;
+		while (t < tokens) {
+			final int position = starts[t];
+			switch (types[t]) {
+			case NAME:
+				current.parent.addChild(new Egg(true, true, colors[names[t]],
+						true));
+				current.terms++;
+				t++;
+				break;
+			case ABSTRACTION:
+				if (t + 1 >= tokens || types[t + 1] != NAME) {
+					throw new LambdaSyntaxException(
+							"No variable bound by abstraction", position);
 				}
-			}
+				if (t + 2 >= tokens || types[t + 2] != DOT) {
+					throw new LambdaSyntaxException(
+							"No binding separator ('.') found for abstraction",
+							position);
+				}
+				current.terms++;
+				current = new Group(new ColoredAlligator(true, true,
+						colors[names[t + 1]], true), false, position);
+				open.add(current);
+				t += 3;
+				break;
+			case OPENING:
+				current.terms++;
+				current = new Group(new AgedAlligator(true, true), true,
+						position);
+				open.add(current);
+				t++;
 				break;
+			case CLOSING:
+				closeAbstractions(open, position);
+				if (open.size() == 1) {
+					throw new LambdaSyntaxException(
+							"Closing parenthesis without opening one",
+							position);
+				}
+				close(open);
+				current = open.get(open.size() - 1);
+				t++;
+				break;
+			default:
+				throw new LambdaSyntaxException("Binding separator \".\" too much",
+						position);
 			}
 		}
-		final int end = i;
-
-		String var = e.substring(0, end);
-		Variable varObj = new Variable(var);
-
-		String rest = e.substring(end);
-		if (!rest.trim().equals("")) {
-			UnparsedObject restObj = new UnparsedObject(rest);
-			unparsedDeque.add(0, restObj);
-			p.insertChild(restObj, p.getChildPosition(o) + 1);
+		closeAbstractions(open, expr.length());
+		if (open.size() > 1) {
+			throw new LambdaSyntaxException("Parenthesis not closed",
+					open.get(open.size() - 1).start);
 		}
-
-		p.replaceChild(o, varObj);
-		unparsedDeque.remove(o);
-		unparsedDeque.add(varObj);
+		return board;
 	}
 
 	/**
-	 * Base class of all unparsed BoardObjects. Represents a typeless unparsed
-	 * part of a lambda term.
-	 * 
+	 * Closes all abstractions up to the innermost parentheses, which end at
+	 * the given position of the term.
 	 */
-	private class UnparsedObject implements InternalBoardObject,
-			Comparable<UnparsedObject> {
-		private Parent parent;
-		private String expr;
-
-		public UnparsedObject() {
-		}
-
-		public UnparsedObject(String expr) {
-			this.expr = expr.trim();
-			assert (!this.expr.equals(""));
-		}
-
-		public UnparsedObject(UnparsedObject o) {
-			parent = o.parent;
-			expr = o.expr;
-		}
-
-		/**
-		 * Get the unparsed part of the term as string this object represents.
-		 * 
-		 * @return the unparsed expression string
-		 */
-		public String getExpr() {
-			return expr;
-		}
-
-		public void setExpr(String expr) {
-			this.expr = expr.trim();
-			assert (!this.expr.equals(""));
-		}
-
-		@Override
-		public Parent getParent() {
-			return parent;
-		}
-
-		@Override
-		public void setParent(Parent parent) {
-			this.parent = parent;
-		}
-
-		@Override
-		public boolean isMovable() {
-			return true;
-		}
-
-		@Override
-		public boolean isRemovable() {
-			return true;
-		}
-
-		@Override
-		public InternalBoardObject copy() {
-			return new UnparsedObject(this);
-		}
-
-		@Override
-		public void accept(BoardObjectVisitor visitor) {
-			throw new UnsupportedOperationException("Not supported yet.");
-		}
-
-		@Override
-		public boolean match(BoardObject b) {
-			throw new UnsupportedOperationException("Not supported yet.");
-		}
-
-		@Override
-		public boolean matchWithRecoloring(BoardObject other,
-				Map<Color, Color> recoloring) {
-			throw new UnsupportedOperationException("Not supported yet.");
-		}
-
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == UnparsedObject.class) {
-				return 0;
-			} else {
-				return -1;
-			}
-		}
-	}
-
-	/**
-	 * A class representing the begin of a lambda abstraction.
-	 * 
-	 */
-	private class AbstractionBegin extends UnparsedObject {
-		public AbstractionBegin() {
-			super(bindPrfx);
-		}
-
-		@Override
-		public void setExpr(String expr) {
-			assert (false);
-		}
-
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == UnparsedObject.class
-					|| arg0.getClass() == OpeningBrace.class
-					|| arg0.getClass() == ClosingBrace.class) {
-				return 1;
-			} else if (arg0.getClass() == AbstractionBegin.class) {
-				return 0;
-			} else {
-				return -1;
+	private void closeAbstractions(List<Group> open, int position) {
+		Group group = open.get(open.size() - 1);
+		while (group.start >= 0 && !group.parentheses) {
+			if (group.terms == 0) {
+				throw new LambdaSyntaxException(
+						"No bound term found for abstraction", position);
 			}
+			close(open);
+			group = open.get(open.size() - 1);
 		}
 	}
 
 	/**
-	 * Class representing the separation of the bound variable from the bound
-	 * term in a lambda abstraction
-	 * 
+	 * Removes the innermost group from the stack of open groups and adds its
+	 * family to the enclosing one.
 	 */
-	private class AbstractionSeparator extends UnparsedObject {
-		public AbstractionSeparator() {
-			super(bindPstfx);
-		}
-
-		@Override
-		public void setExpr(String expr) {
-			assert (false);
-		}
-
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == AbstractionSeparator.class) {
-				return 0;
-			} else {
-				return 1;
-			}
+	private static void close(List<Group> open) {
+		final Group group = open.remove(open.size() - 1);
+		final Parent enclosing = open.get(open.size() - 1).parent;
+		final Parent p = group.parent;
+		if (!group.parentheses || p.getChildCount() > 1) {
+			enclosing.addChild((InternalBoardObject) p);
+		} else if (p.getChildCount() == 1) {
+			final InternalBoardObject child = p.getFirstChild();
+			p.removeChild(child);
+			enclosing.addChild(child);
 		}
 	}
 
-	/**
-	 * A class representing an opening brace in a lambda term.
-	 * 
-	 */
-	private class OpeningBrace extends UnparsedObject {
-		public OpeningBrace() {
-			super("(");
-		}
-
-		@Override
-		public void setExpr(String expr) {
-			assert (false);
-		}
-
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == UnparsedObject.class) {
-				return 1;
-			} else if (arg0.getClass() == OpeningBrace.class) {
-				return 0;
-			} else {
-				return -1;
-			}
-		}
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B'
+				|| c == '\f' || c == '\r';
 	}
 
-	/**
-	 * Class representing a closing brace in a lambda term.
-	 * 
-	 */
-	private class ClosingBrace extends UnparsedObject {
-		public ClosingBrace() {
-			super(")");
-		}
-
-		@Override
-		public void setExpr(String expr) {
-			assert (false);
-		}
-
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == UnparsedObject.class
-					|| arg0.getClass() == OpeningBrace.class) {
-				return 1;
-			} else if (arg0.getClass() == ClosingBrace.class) {
-				return 0;
-			} else {
-				return -1;
-			}
-		}
+	private static boolean isNameCharacter(char c) {
+		return !isWhitespace(c) && c != LAMBDA && c != SEPARATOR && c != '('
+				&& c != ')';
 	}
 
 	/**
-	 * Class representing all variable(-names) that can occur in a lambda term,
-	 * i.e. bound and unbound variables.
-	 * 
+	 * A family which is still being built, because the abstraction or the
+	 * parentheses it originates from have not ended yet.
 	 */
-	private class Variable extends UnparsedObject {
-		public Variable(String name) {
-			this.setExpr(name);
-		}
+	private static class Group {
+		private final Parent parent;
+		private final boolean parentheses;
+		private final int start;
+		private int terms;
 
-		@Override
-		public int compareTo(UnparsedObject arg0) {
-			if (arg0.getClass() == Variable.class) {
-				return 0;
-			} else {
-				return 1;
-			}
+		public Group(Parent parent, boolean parentheses, int start) {
+			this.parent = parent;
+			this.parentheses = parentheses;
+			this.start = start;
+			this.terms = 0;
 		}
 	}
 }
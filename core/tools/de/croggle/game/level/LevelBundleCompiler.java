@@ -0,0 +1,510 @@
+package de.croggle.game.level;
+
+import static de.croggle.game.level.LevelBundle.ABORT_SIMULATION_AFTER;
+import static de.croggle.game.level.LevelBundle.ANIMATION;
+import static de.croggle.game.level.LevelBundle.ANSWERS;
+import static de.croggle.game.level.LevelBundle.BLOCKED_COLORS;
+import static de.croggle.game.level.LevelBundle.CORRECT_ANSWER;
+import static de.croggle.game.level.LevelBundle.DESCRIPTION;
+import static de.croggle.game.level.LevelBundle.HINT;
+import static de.croggle.game.level.LevelBundle.INITIAL;
+import static de.croggle.game.level.LevelBundle.INITIAL_CONSTELLATION;
+import static de.croggle.game.level.LevelBundle.OBJECTIVE;
+import static de.croggle.game.level.LevelBundle.TYPE;
+import static de.croggle.game.level.LevelBundle.USER_COLORS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.utils.StreamUtils;
+
+import de.croggle.game.Color;
+import de.croggle.game.board.Board;
+import de.croggle.util.convert.AlligatorToBinary;
+import de.croggle.util.convert.JsonPullReader;
+import de.croggle.util.convert.JsonToAlligator;
+
+/**
+ * Compiles the level packages given as json files into a single bundle, which
+ * is read by {@link LevelBundle}. Every directory named by a two digit package
+ * id and containing a package.json file is a level package, and every file
+ * named by a two digit level id and the extension .json within it is a level.
+ * The compiler is run as part of the build, so that the game neither needs to
+ * list the asset directories nor to parse any json file to load its levels. It
+ * belongs to the build tools of the core project and is not shipped with the
+ * game.
+ */
+public class LevelBundleCompiler {
+
+	private LevelBundleCompiler() {
+	}
+
+	/**
+	 * Compiles the level packages found in the directory given as first
+	 * argument into the bundle file given as second argument.
+	 *
+	 * @param args
+	 *            the levels directory and the bundle file
+	 * @throws IOException
+	 *             if reading the levels or writing the bundle fails
+	 * @throws InvalidJsonException
+	 *             if a package or a level has the wrong format
+	 */
+	public static void main(String[] args) throws IOException,
+			InvalidJsonException {
+		if (args.length != 2) {
+			System.err
+					.println("Usage: LevelBundleCompiler <levels directory> <bundle file>");
+			System.exit(1);
+		}
+		final byte[] bundle = compile(new File(args[0]));
+		final File bundleFile = new File(args[1]);
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(bundleFile);
+			out.write(bundle);
+		} finally {
+			StreamUtils.closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Compiles the level packages found in the given directory.
+	 *
+	 * @param levelsDir
+	 *            the directory containing the level packages
+	 * @return the content of the bundle
+	 * @throws IOException
+	 *             if reading the levels fails
+	 * @throws InvalidJsonException
+	 *             if a package or a level has the wrong format
+	 */
+	static byte[] compile(File levelsDir) throws IOException,
+			InvalidJsonException {
+		final File[] packageDirs = list(levelsDir, true);
+		final List<LevelBundle.PackageEntry> packages = new ArrayList<LevelBundle.PackageEntry>();
+		final List<File[]> levelFiles = new ArrayList<File[]>();
+		for (File dir : packageDirs) {
+			final File packageFile = new File(dir, "package.json");
+			if (!packageFile.isFile()) {
+				continue;
+			}
+			final LevelBundle.PackageEntry entry = readPackage(packageFile);
+			entry.id = Integer.parseInt(dir.getName());
+			final File[] levels = list(dir, false);
+			entry.levelCount = levels.length;
+			packages.add(entry);
+			levelFiles.add(levels);
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		/*
+		 * The offsets of the level tables and levels are not known until they
+		 * are written, so they are written as 0 first and patched afterwards.
+		 */
+		final List<int[]> patches = new ArrayList<int[]>();
+		out.writeInt(LevelBundle.MAGIC);
+		out.writeInt(LevelBundle.VERSION);
+		out.writeInt(packages.size());
+		final int[] tableOffsetPositions = new int[packages.size()];
+		for (int i = 0; i < packages.size(); i++) {
+			final LevelBundle.PackageEntry entry = packages.get(i);
+			out.writeInt(entry.id);
+			out.writeInt(entry.levelCount);
+			tableOffsetPositions[i] = out.size();
+			out.writeInt(0);
+			writeString(out, entry.name);
+			writeString(out, entry.description);
+			writeString(out, entry.banner);
+			writeString(out, entry.design);
+			writeString(out, entry.animation);
+		}
+		final List<int[]> levelOffsetPositions = new ArrayList<int[]>();
+		for (int i = 0; i < packages.size(); i++) {
+			patches.add(new int[] { tableOffsetPositions[i], out.size() });
+			final File[] levels = levelFiles.get(i);
+			final int[] positions = new int[levels.length];
+			for (int j = 0; j < levels.length; j++) {
+				out.writeInt(Integer.parseInt(levels[j].getName().substring(0,
+						2)));
+				positions[j] = out.size();
+				out.writeInt(0);
+			}
+			levelOffsetPositions.add(positions);
+		}
+		for (int i = 0; i < packages.size(); i++) {
+			final File[] levels = levelFiles.get(i);
+			for (int j = 0; j < levels.length; j++) {
+				patches.add(new int[] { levelOffsetPositions.get(i)[j],
+						out.size() });
+				writeLevel(out, readLevel(levels[j]));
+			}
+		}
+		out.flush();
+
+		final ByteBuffer bundle = ByteBuffer.wrap(bytes.toByteArray());
+		for (int[] patch : patches) {
+			bundle.putInt(patch[0], patch[1]);
+		}
+		return bundle.array();
+	}
+
+	/**
+	 * Lists the package directories or level files in the given directory,
+	 * ordered by their ids.
+	 */
+	private static File[] list(File dir, boolean directories)
+			throws IOException {
+		final File[] files = dir.listFiles();
+		if (files == null) {
+			throw new IOException("Cannot list " + dir);
+		}
+		final List<File> matching = new ArrayList<File>();
+		for (File file : files) {
+			final String name = file.getName();
+			if (directories && file.isDirectory()
+					&& name.matches("[0-9][0-9]")) {
+				matching.add(file);
+			} else if (!directories && file.isFile()
+					&& name.matches("[0-9][0-9]\\.json")) {
+				matching.add(file);
+			}
+		}
+		final File[] result = matching.toArray(new File[matching.size()]);
+		// the names start with two digits, so they sort like the ids
+		Arrays.sort(result);
+		return result;
+	}
+
+	private static Reader open(File file) throws IOException {
+		return new InputStreamReader(new FileInputStream(file), "UTF-8");
+	}
+
+	/**
+	 * Reads the metadata of a level package from its package.json file.
+	 */
+	private static LevelBundle.PackageEntry readPackage(File file)
+			throws IOException, InvalidJsonException {
+		final LevelBundle.PackageEntry entry = new LevelBundle.PackageEntry();
+		final Reader reader = open(file);
+		try {
+			JsonPullReader json = new JsonPullReader(reader);
+			// de.croggle -> packages -> first package
+			json.beginObject();
+			json.nextName();
+			json.beginObject();
+			while (!json.nextName().equals("packages")) {
+				json.skipValue();
+			}
+			json.beginArray();
+			json.beginObject();
+			while (json.hasNext()) {
+				String key = json.nextName();
+				if (key.equals("name")) {
+					entry.name = json.nextString();
+				} else if (key.equals("description")) {
+					entry.description = json.nextString();
+				} else if (key.equals("banner")) {
+					entry.banner = json.nextString();
+				} else if (key.equals("design")) {
+					entry.design = json.nextString();
+				} else if (key.equals("animation")) {
+					entry.animation = json.nextString();
+				} else {
+					json.skipValue();
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			throw new InvalidJsonException(file + ": " + e.getMessage());
+		} finally {
+			StreamUtils.closeQuietly(reader);
+		}
+		require(entry.name, "name", file);
+		require(entry.description, "description", file);
+		require(entry.banner, "banner", file);
+		require(entry.design, "design", file);
+		require(entry.animation, "animation", file);
+		return entry;
+	}
+
+	/**
+	 * Reads the properties of the first level in a level json file. As the
+	 * level's properties may appear in any order, they are collected first and
+	 * only turned into a level when it is loaded from the bundle.
+	 */
+	private static LevelData readLevel(File file) throws IOException,
+			InvalidJsonException {
+		final Reader reader = open(file);
+		try {
+			return readLevel(new JsonPullReader(reader));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidJsonException(file + ": " + e.getMessage());
+		} catch (InvalidJsonException e) {
+			throw new InvalidJsonException(file + ": " + e.getMessage());
+		} finally {
+			StreamUtils.closeQuietly(reader);
+		}
+	}
+
+	private static LevelData readLevel(JsonPullReader json)
+			throws InvalidJsonException {
+		// de.croggle -> levels -> first level
+		json.beginObject();
+		json.nextName();
+		json.beginObject();
+		json.nextName();
+		json.beginArray();
+
+		LevelData level = new LevelData();
+		json.beginObject();
+		while (json.hasNext()) {
+			String name = json.nextName();
+			if (name.equals("type")) {
+				level.type = json.nextString();
+			} else if (name.equals("description")) {
+				level.description = json.nextString();
+			} else if (name.equals("animation")) {
+				level.animation = getStrings(json);
+			} else if (name.equals("abort simulation after")) {
+				level.abortSimulationAfter = Integer.valueOf(json.nextInt());
+			} else if (name.equals("hints")) {
+				level.hint = getFirstString(json);
+			} else if (name.equals("data")) {
+				readData(json, level);
+			} else {
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		return level;
+	}
+
+	/**
+	 * Reads the level type specific data of a level.
+	 *
+	 * @param json
+	 *            the reader, whose next value is the level's data
+	 * @param level
+	 *            the properties of the level to fill
+	 * @throws InvalidJsonException
+	 *             if json has the wrong format
+	 */
+	private static void readData(JsonPullReader json, LevelData level)
+			throws InvalidJsonException {
+		json.beginObject();
+		while (json.hasNext()) {
+			String name = json.nextName();
+			if (name.equals("initial constellation")) {
+				level.initialConstellation = JsonToAlligator.convertBoard(json);
+			} else if (name.equals("initial")) {
+				level.initial = JsonToAlligator.convertBoard(json);
+			} else if (name.equals("objective")) {
+				level.goalBoard = JsonToAlligator.convertBoard(json);
+			} else if (name.equals("user colors")) {
+				level.userColors = getColorfromJson(json);
+			} else if (name.equals("blocked colors")) {
+				level.blockedColors = getColorfromJson(json);
+			} else if (name.equals("answers")) {
+				level.answers = getAnswersfromJson(json);
+			} else if (name.equals("correct answer")) {
+				level.correctAnswer = Integer.valueOf(json.nextInt());
+			} else {
+				json.skipValue();
+			}
+		}
+		json.endObject();
+	}
+
+	/**
+	 * Method to generate a Board Array from the given json.
+	 *
+	 * @param json
+	 *            the reader, whose next value is the Array of Boards
+	 * @return the generated Board Array
+	 * @throws InvalidJsonException
+	 *             if json has the wrong format
+	 */
+	private static Board[] getAnswersfromJson(JsonPullReader json)
+			throws InvalidJsonException {
+		if (json.peek() != JsonPullReader.Token.BEGIN_ARRAY) {
+			throw new InvalidJsonException(
+					"There seems to be no answer array in this json file.");
+		}
+		List<Board> answers = new ArrayList<Board>(3);
+		json.beginArray();
+		while (json.hasNext()) {
+			answers.add(JsonToAlligator.convertBoard(json));
+		}
+		json.endArray();
+		if (answers.size() != 3) {
+			throw new InvalidJsonException(
+					"The number of answers should be three!");
+		}
+		return answers.toArray(new Board[answers.size()]);
+	}
+
+	/**
+	 * Method to generate a Array of Colors from Json
+	 *
+	 * @param json
+	 *            the reader, whose next value is the Array of Colors
+	 * @return the generated Array
+	 * @throws InvalidJsonException
+	 *             if the Json has a wrong format
+	 */
+	private static Color[] getColorfromJson(JsonPullReader json)
+			throws InvalidJsonException {
+		if (json.peek() != JsonPullReader.Token.BEGIN_ARRAY) {
+			throw new InvalidJsonException(
+					"There seems to be no Color array in this json file.");
+		}
+		List<Color> colors = new ArrayList<Color>();
+		json.beginArray();
+		while (json.hasNext()) {
+			colors.add(Color.of(json.nextInt()));
+		}
+		json.endArray();
+		Color[] color = colors.toArray(new Color[colors.size()]);
+
+		int id;
+		for (int i = 0; i < color.length; i++) {
+			id = color[i].getId();
+			for (int k = 0; k < i; k++) {
+				if (id == color[k].getId()) {
+					throw new InvalidJsonException(
+							"There is two times the same color.");
+				}
+			}
+		}
+		return color;
+
+	}
+
+	/**
+	 * Reads an Array of Strings and returns its first item.
+	 *
+	 * @param json
+	 *            the reader, whose next value is the Array of Strings
+	 * @return the first String of the Array, or null if it is empty
+	 */
+	private static String getFirstString(JsonPullReader json) {
+		String first = null;
+		json.beginArray();
+		if (json.hasNext()) {
+			first = json.nextString();
+		}
+		while (json.hasNext()) {
+			json.skipValue();
+		}
+		json.endArray();
+		return first;
+	}
+
+	private static List<String> getStrings(JsonPullReader json) {
+		List<String> strings = new ArrayList<String>();
+		json.beginArray();
+		while (json.hasNext()) {
+			strings.add(json.nextString());
+		}
+		json.endArray();
+		return strings;
+	}
+
+	private static void require(String value, String name, File file)
+			throws InvalidJsonException {
+		if (value == null) {
+			throw new InvalidJsonException(file + ": Named value not found: "
+					+ name);
+		}
+	}
+
+	private static void writeLevel(DataOutputStream out, LevelData level)
+			throws IOException {
+		int fields = 0;
+		fields |= level.type != null ? TYPE : 0;
+		fields |= level.description != null ? DESCRIPTION : 0;
+		fields |= level.animation != null ? ANIMATION : 0;
+		fields |= level.abortSimulationAfter != null ? ABORT_SIMULATION_AFTER
+				: 0;
+		fields |= level.hint != null ? HINT : 0;
+		fields |= level.initialConstellation != null ? INITIAL_CONSTELLATION
+				: 0;
+		fields |= level.initial != null ? INITIAL : 0;
+		fields |= level.goalBoard != null ? OBJECTIVE : 0;
+		fields |= level.userColors != null ? USER_COLORS : 0;
+		fields |= level.blockedColors != null ? BLOCKED_COLORS : 0;
+		fields |= level.answers != null ? ANSWERS : 0;
+		fields |= level.correctAnswer != null ? CORRECT_ANSWER : 0;
+		out.writeInt(fields);
+
+		if (level.type != null) {
+			writeString(out, level.type);
+		}
+		if (level.description != null) {
+			writeString(out, level.description);
+		}
+		if (level.animation != null) {
+			out.writeInt(level.animation.size());
+			for (String animation : level.animation) {
+				writeString(out, animation);
+			}
+		}
+		if (level.abortSimulationAfter != null) {
+			out.writeInt(level.abortSimulationAfter.intValue());
+		}
+		if (level.hint != null) {
+			writeString(out, level.hint);
+		}
+		if (level.initialConstellation != null) {
+			out.write(AlligatorToBinary.convert(level.initialConstellation));
+		}
+		if (level.initial != null) {
+			out.write(AlligatorToBinary.convert(level.initial));
+		}
+		if (level.goalBoard != null) {
+			out.write(AlligatorToBinary.convert(level.goalBoard));
+		}
+		if (level.userColors != null) {
+			writeColors(out, level.userColors);
+		}
+		if (level.blockedColors != null) {
+			writeColors(out, level.blockedColors);
+		}
+		if (level.answers != null) {
+			out.writeInt(level.answers.length);
+			for (Board answer : level.answers) {
+				out.write(AlligatorToBinary.convert(answer));
+			}
+		}
+		if (level.correctAnswer != null) {
+			out.writeInt(level.correctAnswer.intValue());
+		}
+	}
+
+	private static void writeColors(DataOutputStream out, Color[] colors)
+			throws IOException {
+		out.writeInt(colors.length);
+		for (Color color : colors) {
+			out.writeByte(color.getId());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s)
+			throws IOException {
+		final byte[] bytes = s.getBytes(LevelBundle.UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,101 @@
+package de.croggle.game;
+
+import junit.framework.TestCase;
+
+public class ColorSetTest extends TestCase {
+
+	public void testAddRemoveContains() {
+		ColorSet set = new ColorSet();
+		assertTrue(set.isEmpty());
+		assertTrue(set.add(Color.of(3)));
+		assertFalse(set.add(Color.of(3)));
+		assertTrue(set.add(Color.of(29)));
+		assertTrue(set.add(Color.uncolored()));
+		assertEquals(3, set.size());
+		assertTrue(set.contains(Color.of(3)));
+		assertTrue(set.contains(Color.uncolored()));
+		assertFalse(set.contains(Color.of(0)));
+
+		assertTrue(set.remove(Color.of(3)));
+		assertFalse(set.remove(Color.of(3)));
+		assertFalse(set.contains(Color.of(3)));
+		assertEquals(2, set.size());
+
+		set.clear();
+		assertTrue(set.isEmpty());
+	}
+
+	public void testInvalidColor() {
+		try {
+			new ColorSet().add(Color.of(Color.MAX_COLORS));
+			fail("expected illegal argument exception");
+		} catch (IllegalArgumentException e) {
+			assertTrue(true);
+		}
+	}
+
+	public void testSetOperations() {
+		ColorSet a = new ColorSet(new Color[] { Color.of(0), Color.of(1),
+				Color.of(2) });
+		ColorSet b = new ColorSet(new Color[] { Color.of(1), Color.of(2),
+				Color.of(5) });
+
+		ColorSet union = new ColorSet(a);
+		union.addAll(b);
+		assertEquals(new ColorSet(new Color[] { Color.of(0), Color.of(1),
+				Color.of(2), Color.of(5) }), union);
+
+		ColorSet intersection = new ColorSet(a);
+		intersection.retainAll(b);
+		assertEquals(new ColorSet(new Color[] { Color.of(1), Color.of(2) }),
+				intersection);
+
+		ColorSet difference = new ColorSet(a);
+		difference.removeAll(b);
+		assertEquals(new ColorSet(new Color[] { Color.of(0) }), difference);
+
+		// the copies must not have changed the original
+		assertEquals(3, a.size());
+	}
+
+	public void testIteration() {
+		ColorSet set = new ColorSet(new Color[] { Color.of(7), Color.of(2),
+				Color.uncolored(), Color.of(29) });
+		assertEquals(2, set.nextId(0));
+		assertEquals(7, set.nextId(3));
+		assertEquals(29, set.nextId(8));
+		assertEquals(-1, set.nextId(30));
+
+		Color[] colors = set.toArray();
+		assertEquals(4, colors.length);
+		assertEquals(Color.of(2), colors[0]);
+		assertEquals(Color.of(7), colors[1]);
+		assertEquals(Color.of(29), colors[2]);
+		assertSame(Color.uncolored(), colors[3]);
+	}
+
+	public void testFirstFree() throws ColorOverflowException {
+		ColorSet set = new ColorSet();
+		assertEquals(0, set.firstFreeId());
+		set.add(Color.of(0));
+		set.add(Color.of(1));
+		set.add(Color.of(3));
+		set.add(Color.uncolored());
+		assertEquals(2, set.firstFreeId());
+
+		ColorController controller = new ColorController();
+		assertEquals(Color.of(2), controller.requestColor(set));
+		assertEquals(Color.of(2), controller.requestColor(set.toArray()));
+
+		for (int i = 0; i < Color.MAX_COLORS; i++) {
+			set.add(Color.of(i));
+		}
+		assertEquals(-1, set.firstFreeId());
+		try {
+			controller.requestColor(set);
+			fail("expected color overflow exception");
+		} catch (ColorOverflowException e) {
+			assertTrue(true);
+		}
+	}
+}
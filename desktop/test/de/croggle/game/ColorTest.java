@@ -10,7 +10,7 @@ public class ColorTest extends TestCase {
 	
 	public void testInvalidColor() throws IllegalArgumentException {
 		try {
-			Color color = new Color(-1);
+			Color color = Color.of(-1);
 			fail("expected illegal argument exception");
 		}
 		catch (IllegalArgumentException e) {
@@ -19,16 +19,43 @@ public class ColorTest extends TestCase {
 	}
 	
 	public void testGetter() {
-		Color color = new Color(1);
+		Color color = Color.of(1);
 		assertNotNull(color.getRepresentation(color));
 	}
 	
 	public void testequals() {
-		Color color1 = new Color(1);
-		Color color2 = new Color(2);
+		Color color1 = Color.of(1);
+		Color color2 = Color.of(2);
 		Color color3 = null;
 		assertTrue(color1.equals(color1));
 		assertFalse(color1.equals(color2));
 		assertFalse(color1.equals(color3));
 	}
+
+	public void testSingleInstances() {
+		for (int i = 0; i < Color.MAX_COLORS; i++) {
+			assertSame(Color.of(i), Color.of(i));
+			assertEquals(i, Color.of(i).getId());
+		}
+		assertNotSame(Color.of(0), Color.uncolored());
+		assertFalse(Color.of(0).equals(Color.uncolored()));
+		try {
+			Color.of(Color.MAX_COLORS);
+			fail("expected illegal argument exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testForRepresentation() {
+		for (int i = 0; i < Color.MAX_COLORS; i++) {
+			final Color color = Color.of(i);
+			final com.badlogic.gdx.graphics.Color representation = new com.badlogic.gdx.graphics.Color(
+					Color.getRepresentation(color));
+			assertSame(color, Color.forRepresentation(representation));
+			assertSame(color,
+					new ColorController().getAssociatedColor(representation));
+		}
+		assertNull(Color.forRepresentation(new com.badlogic.gdx.graphics.Color(
+				1, 1, 1, 0)));
+	}
 }
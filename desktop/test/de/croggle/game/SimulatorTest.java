@@ -9,6 +9,7 @@ import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
 import de.croggle.game.board.IllegalBoardException;
 import de.croggle.game.board.Parent;
+import de.croggle.game.board.operations.CountBoardObjects;
 import de.croggle.game.board.operations.RemoveNeedlessAgedAlligators;
 import de.croggle.game.event.BoardEventMessenger;
 import de.croggle.util.convert.AlligatorToLambda;
@@ -109,7 +110,7 @@ public class SimulatorTest extends TestCase {
 
 		final Board missingChildrenBoard = new Board();
 		missingChildrenBoard.addChild(new ColoredAlligator(false, false,
-				new Color(0), false));
+				Color.of(0), false));
 		try {
 			new Simulator(missingChildrenBoard, new ColorController(),
 					new BoardEventMessenger());
@@ -132,16 +133,16 @@ public class SimulatorTest extends TestCase {
 		Parent currentParent = board;
 		for (int i = 0; i < Color.MAX_COLORS; i++) {
 			final ColoredAlligator colored = new ColoredAlligator(false, false,
-					new Color(i), false);
+					Color.of(i), false);
 			currentParent.addChild(colored);
 			currentParent = colored;
 		}
-		currentParent.addChild(new Egg(false, false, new Color(0), false));
+		currentParent.addChild(new Egg(false, false, Color.of(0), false));
 		final ColoredAlligator colored = new ColoredAlligator(false, false,
-				new Color(0), false);
+				Color.of(0), false);
 		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
-				new Color(1), false);
-		colored2.addChild(new Egg(false, false, new Color(0), false));
+				Color.of(1), false);
+		colored2.addChild(new Egg(false, false, Color.of(0), false));
 		colored.addChild(colored2);
 		board.addChild(colored);
 
@@ -160,20 +161,20 @@ public class SimulatorTest extends TestCase {
 	public void testAlligatorOverflow() throws IllegalBoardException {
 		final Board board = new Board();
 		final ColoredAlligator colored = new ColoredAlligator(false, false,
-				new Color(0), false);
+				Color.of(0), false);
 		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
-				new Color(1), false);
+				Color.of(1), false);
 
-		colored.addChild(new Egg(false, false, new Color(0), false));
-		colored.addChild(new Egg(false, false, new Color(0), false));
+		colored.addChild(new Egg(false, false, Color.of(0), false));
+		colored.addChild(new Egg(false, false, Color.of(0), false));
 		final int max_objects = 300;
 		// already 2 ColoredAlligators and 2 * 2 Eggs
 		for (int i = 0; i < 300 - 2 - 2 - 2; i++) {
-			colored.addChild(new Egg(false, false, new Color(1), false));
+			colored.addChild(new Egg(false, false, Color.of(1), false));
 		}
 
-		colored2.addChild(new Egg(false, false, new Color(1), false));
-		colored2.addChild(new Egg(false, false, new Color(1), false));
+		colored2.addChild(new Egg(false, false, Color.of(1), false));
+		colored2.addChild(new Egg(false, false, Color.of(1), false));
 
 		board.addChild(colored);
 		board.addChild(colored2);
@@ -190,6 +191,213 @@ public class SimulatorTest extends TestCase {
 		}
 	}
 
+	public void testPredictedAlligatorOverflow() throws IllegalBoardException {
+		final Board board = new Board();
+		final ColoredAlligator colored = new ColoredAlligator(false, false,
+				Color.of(0), false);
+		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
+				Color.of(1), false);
+
+		// 100 eggs hatching into a family of four objects each
+		for (int i = 0; i < 100; i++) {
+			colored.addChild(new Egg(false, false, Color.of(0), false));
+		}
+		for (int i = 0; i < 3; i++) {
+			colored2.addChild(new Egg(false, false, Color.of(1), false));
+		}
+		board.addChild(colored);
+		board.addChild(colored2);
+
+		final Simulator simulator = new Simulator(board, new ColorController(),
+				new BoardEventMessenger());
+		final Board current = simulator.getCurrentBoard();
+		final int objects = CountBoardObjects.count(current);
+
+		try {
+			simulator.evaluate();
+			fail();
+		} catch (ColorOverflowException e) {
+			fail();
+		} catch (AlligatorOverflowException e) {
+		}
+		// the step has been rejected before changing the board
+		assertTrue(board.match(current));
+		assertEquals(objects, CountBoardObjects.count(current));
+		assertFalse(simulator.canUndo());
+		assertEquals(0, simulator.getSteps());
+	}
+
+	public void testUndo() throws IllegalBoardException,
+			ColorOverflowException, AlligatorOverflowException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), new BoardEventMessenger());
+		final Board evaluated = simulator.getCurrentBoard();
+		final Board[] states = new Board[6];
+		for (int i = 0; i < states.length; i++) {
+			states[i] = evaluated.copy();
+			assertTrue(simulator.evaluate());
+		}
+		for (int i = states.length - 1; i >= 0; i--) {
+			assertTrue(simulator.canUndo());
+			assertSame(evaluated, simulator.undo());
+			assertEquals(i, simulator.getSteps());
+			assertTrue(states[i].match(evaluated));
+		}
+		assertFalse(simulator.canUndo());
+		assertTrue(inputBoard.match(evaluated));
+	}
+
+	public void testReset() throws IllegalBoardException,
+			ColorOverflowException, AlligatorOverflowException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λx.λy.x x) (λy.y) (λz.z)");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), new BoardEventMessenger());
+		simulator.evaluate();
+		simulator.evaluate();
+		final Board reset = simulator.reset();
+		assertTrue(inputBoard.match(reset));
+		assertEquals(0, simulator.getSteps());
+		assertFalse(simulator.canUndo());
+
+		simulator.evaluate();
+		simulator.undo();
+		assertTrue(inputBoard.match(simulator.getCurrentBoard()));
+	}
+
+	public void testNormalize() throws IllegalBoardException,
+			ColorOverflowException, AlligatorOverflowException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final Board outputBoard = LambdaToAlligator
+				.convert("(λs.λz.s (s z))");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), new BoardEventMessenger());
+		simulator.evaluate();
+		assertTrue(simulator.canUndo());
+
+		final NormalizationResult result = simulator.normalize(100);
+		assertEquals(NormalizationResult.Termination.NORMAL_FORM,
+				result.getTermination());
+		assertTrue(result.isNormalForm());
+		assertSame(simulator.getCurrentBoard(), result.getBoard());
+		RemoveNeedlessAgedAlligators.remove(result.getBoard(), null);
+		assertTrue(MatchWithRenaming.match(outputBoard, result.getBoard()));
+		assertEquals(result.getSteps() + 1, simulator.getSteps());
+		assertFalse(simulator.canUndo());
+
+		assertTrue(inputBoard.match(simulator.reset()));
+	}
+
+	public void testNormalizeStepLimit() throws IllegalBoardException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λx.x x x) λx.x x x");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), null);
+		final NormalizationResult result = simulator.normalize(10);
+		assertEquals(NormalizationResult.Termination.STEP_LIMIT,
+				result.getTermination());
+		assertEquals(10, result.getSteps());
+		assertEquals(10, simulator.getSteps());
+		assertEquals(0, simulator.getCyclePeriod());
+	}
+
+	public void testNormalizeCycle() throws IllegalBoardException {
+		final Board inputBoard = LambdaToAlligator.convert("(λx.x x) λx.x x");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), null);
+		final NormalizationResult result = simulator.normalize(10);
+		assertEquals(NormalizationResult.Termination.CYCLE,
+				result.getTermination());
+		assertEquals(1, result.getSteps());
+		assertEquals(1, result.getCyclePeriod());
+	}
+
+	public void testCycleDetection() throws IllegalBoardException,
+			ColorOverflowException, AlligatorOverflowException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λy.(λx.x x) λx.x x) z");
+		final Simulator simulator = new Simulator(inputBoard,
+				new ColorController(), null);
+		simulator.evaluate();
+		assertEquals(0, simulator.getCyclePeriod());
+		simulator.evaluate();
+		assertEquals(1, simulator.getCyclePeriod());
+		simulator.evaluate();
+		assertEquals(1, simulator.getCyclePeriod());
+
+		simulator.undo();
+		assertEquals(1, simulator.getCyclePeriod());
+		simulator.undo();
+		assertEquals(0, simulator.getCyclePeriod());
+		simulator.evaluate();
+		assertEquals(1, simulator.getCyclePeriod());
+
+		simulator.reset();
+		assertEquals(0, simulator.getCyclePeriod());
+		simulator.evaluate();
+		assertEquals(0, simulator.getCyclePeriod());
+	}
+
+	/**
+	 * Different states with the same fingerprint must not be mistaken for a
+	 * cycle. Here, all states have the same fingerprint, so that they are only
+	 * told apart by their wide alpha hashes.
+	 */
+	public void testFingerprintCollision() throws IllegalBoardException {
+		final Board inputBoard = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final Simulator simulator = new CollidingSimulator(inputBoard);
+		final NormalizationResult result = simulator.normalize(100);
+		assertEquals(NormalizationResult.Termination.NORMAL_FORM,
+				result.getTermination());
+		assertTrue(result.getSteps() > 1);
+		assertEquals(0, simulator.getCyclePeriod());
+
+		final Simulator omega = new CollidingSimulator(
+				LambdaToAlligator.convert("(λx.x x) λx.x x"));
+		assertEquals(NormalizationResult.Termination.CYCLE,
+				omega.normalize(10).getTermination());
+		assertEquals(1, omega.getCyclePeriod());
+	}
+
+	private static class CollidingSimulator extends Simulator {
+		CollidingSimulator(Board board) throws IllegalBoardException {
+			super(board, new ColorController(), null);
+		}
+
+		@Override
+		long fingerprint(Board board) {
+			return 0;
+		}
+	}
+
+	public void testNormalizeOverflow() throws IllegalBoardException {
+		final Board board = new Board();
+		final ColoredAlligator colored = new ColoredAlligator(false, false,
+				Color.of(0), false);
+		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
+				Color.of(1), false);
+		for (int i = 0; i < 100; i++) {
+			colored.addChild(new Egg(false, false, Color.of(0), false));
+		}
+		for (int i = 0; i < 3; i++) {
+			colored2.addChild(new Egg(false, false, Color.of(1), false));
+		}
+		board.addChild(colored);
+		board.addChild(colored2);
+
+		final Simulator simulator = new Simulator(board, new ColorController(),
+				null);
+		final NormalizationResult result = simulator.normalize(10);
+		assertEquals(NormalizationResult.Termination.ALLIGATOR_OVERFLOW,
+				result.getTermination());
+		assertEquals(0, result.getSteps());
+		assertFalse(result.isNormalForm());
+	}
+
 	private void inputOutputTest(String input, String output, int maxSteps)
 			throws IllegalBoardException, ColorOverflowException,
 			AlligatorOverflowException {
@@ -7,8 +7,8 @@ import de.croggle.game.Color;
 public class ColoredBoardObjectTest extends TestCase {
 
 	public void testGetSetColor() {
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
 		final Egg egg = new Egg(false, false, color1, false);
 		final ColoredAlligator coloredAlligator = new ColoredAlligator(false,
 				false, color1, false);
@@ -22,7 +22,7 @@ public class ColoredBoardObjectTest extends TestCase {
 	}
 
 	public void testIsRecolorable() {
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final Egg nonRecolorableEgg = new Egg(false, false, color, false);
 		final ColoredAlligator nonRecolorableColoredAlligator = new ColoredAlligator(
 				false, false, color, false);
@@ -7,8 +7,8 @@ import de.croggle.game.Color;
 
 public class EggTest extends TestCase {
 	private Egg egg;
-	private final Color color1 = new Color(0);
-	private final Color color2 = new Color(1);
+	private final Color color1 = Color.of(0);
+	private final Color color2 = Color.of(1);
 
 	protected void setUp() {
 		egg = new Egg(false, false, color1, false);
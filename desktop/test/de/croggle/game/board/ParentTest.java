@@ -5,7 +5,11 @@ import java.util.HashMap;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.ColorSet;
+import de.croggle.game.Simulator;
 import de.croggle.game.board.operations.BoardObjectVisitor;
+import de.croggle.util.convert.LambdaToAlligator;
 
 public class ParentTest extends TestCase {
 	private Parent parent;
@@ -152,6 +156,56 @@ public class ParentTest extends TestCase {
 		assertNull(parent.getChildAfter(parentlessChild));
 	}
 
+	public void testChildPositionsAfterMoving() {
+		final AgedAlligator other = new AgedAlligator(false, false);
+		final InternalBoardObject child1 = getNewChild();
+		final InternalBoardObject child2 = getNewChild();
+		parent.addChild(child1);
+		parent.addChild(child2);
+		parent.addChild(other);
+
+		other.addChild(child1);
+		assertEquals(0, other.getChildPosition(child1));
+		assertEquals(-1, parent.getChildPosition(child1));
+		assertFalse(parent.removeChild(child1));
+
+		final BoardDelta delta = new BoardDelta();
+		final Board board = new Board();
+		board.addChild(other);
+		board.startRecording(delta);
+		other.removeChild(child1);
+		board.insertChild(child1, 0);
+		board.replaceChild(other, child2);
+		board.stopRecording();
+		assertEquals(0, board.getChildPosition(child1));
+		assertEquals(1, board.getChildPosition(child2));
+		assertEquals(-1, board.getChildPosition(other));
+
+		delta.revert();
+		assertEquals(0, board.getChildPosition(other));
+		assertEquals(0, other.getChildPosition(child1));
+		assertSame(child1, other.getFirstChild());
+	}
+
+	public void testWideFamily() {
+		final int width = 10000;
+		for (int i = 0; i < width; i++) {
+			parent.addChild(getNewChild());
+		}
+		final Board copy = new Board();
+		for (InternalBoardObject child : parent) {
+			copy.addChild(child.copy());
+		}
+		final Board copied = copy.copy();
+		assertEquals(width, copied.getChildCount());
+		InternalBoardObject child = copied.getFirstChild();
+		for (int i = 0; i < width; i++) {
+			assertEquals(i, copied.getChildPosition(child));
+			child = copied.getChildAfter(child);
+		}
+		assertNull(child);
+	}
+
 	public void testMatch() {
 		assertFalse(parent.match(null));
 
@@ -174,8 +228,8 @@ public class ParentTest extends TestCase {
 		assertFalse(parent.matchWithRecoloring(otherParent,
 				new HashMap<Color, Color>()));
 
-		final Color color1 = new Color(0);
-		final Color color2 = new Color(1);
+		final Color color1 = Color.of(0);
+		final Color color2 = Color.of(1);
 		final Parent parentWithChild = getNewParent();
 		parentWithChild.addChild(new Egg(false, false, color1, false));
 		assertFalse(parent.matchWithRecoloring(parentWithChild,
@@ -194,8 +248,162 @@ public class ParentTest extends TestCase {
 		assertTrue(parent.matchWithRecoloring(parentWithChild, recoloring));
 	}
 
+	public void testAlphaHash() throws Exception {
+		assertEquals(alphaHash("λx.λy.x y"), alphaHash("λa.λb.a b"));
+		assertEquals(alphaHash("λx.λx.x"), alphaHash("λa.λb.b"));
+		assertEquals(alphaHash("(λx.x) y"), alphaHash("(λz.z) y"));
+		assertFalse(alphaHash("λx.λy.x y") == alphaHash("λx.λy.y x"));
+		assertFalse(alphaHash("λx.λx.x") == alphaHash("λa.λb.a"));
+		assertFalse(alphaHash("(λx.x) y z") == alphaHash("(λx.x) y y"));
+		assertFalse(alphaHash("λx.y") == alphaHash("λy.y"));
+		assertFalse(alphaHash("x y") == alphaHash("x x"));
+	}
+
+	public void testAlphaHashUpdates() throws Exception {
+		final Board board = LambdaToAlligator.convert("λx.λy.x y");
+		final int hash = board.getAlphaHash();
+		final ColoredAlligator outer = (ColoredAlligator) board
+				.getFirstChild();
+		final ColoredAlligator inner = (ColoredAlligator) outer
+				.getFirstChild();
+		final Egg egg = (Egg) inner.getFirstChild();
+
+		egg.setColor(inner.getColor());
+		assertEquals(alphaHash("λx.λy.y y"), board.getAlphaHash());
+		egg.setColor(outer.getColor());
+		assertEquals(hash, board.getAlphaHash());
+
+		inner.addChild(new Egg(false, false, Color.of(7), false));
+		assertEquals(board.copy().getAlphaHash(), board.getAlphaHash());
+		assertFalse(hash == board.getAlphaHash());
+
+		final BoardDelta delta = new BoardDelta();
+		board.startRecording(delta);
+		inner.removeChild(egg);
+		outer.setColor(Color.of(9));
+		board.stopRecording();
+		assertEquals(board.copy().getAlphaHash(), board.getAlphaHash());
+		delta.revert();
+		assertEquals(board.copy().getAlphaHash(), board.getAlphaHash());
+	}
+
+	public void testAlphaHashDuringSimulation() throws Exception {
+		final Board board = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final Simulator simulator = new Simulator(board,
+				new ColorController(), null);
+		board.getAlphaHash();
+		while (simulator.evaluate()) {
+			final Board current = simulator.getCurrentBoard();
+			assertEquals(current.copy().getAlphaHash(), current.getAlphaHash());
+		}
+		assertEquals(alphaHash("λs.λz.s (s z)"), simulator.getCurrentBoard()
+				.getAlphaHash());
+	}
+
+	public void testVersion() {
+		final Board board = LambdaToAlligator.convert("λx.λy.x y");
+		final ColoredAlligator outer = (ColoredAlligator) board
+				.getFirstChild();
+		final ColoredAlligator inner = (ColoredAlligator) outer
+				.getFirstChild();
+		final Egg egg = (Egg) inner.getFirstChild();
+
+		long version = board.getVersion();
+		final long outerVersion = outer.getVersion();
+		egg.setColor(Color.of(5));
+		assertTrue(board.getVersion() != version);
+		assertTrue(outer.getVersion() != outerVersion);
+
+		version = board.getVersion();
+		final BoardDelta delta = new BoardDelta();
+		board.startRecording(delta);
+		inner.removeChild(egg);
+		board.stopRecording();
+		assertTrue(board.getVersion() != version);
+		version = board.getVersion();
+		delta.revert();
+		assertTrue(board.getVersion() != version);
+	}
+
+	public void testColorSummary() throws Exception {
+		final Board board = LambdaToAlligator.convert("λx.λy.x y z");
+		final ColoredAlligator outer = (ColoredAlligator) board
+				.getFirstChild();
+		final ColoredAlligator inner = (ColoredAlligator) outer
+				.getFirstChild();
+		final Color x = outer.getColor();
+		final Color y = inner.getColor();
+		final Egg z = (Egg) inner.getChildAtPosition(2);
+
+		assertEquals(new ColorSet(new Color[] { x, y }),
+				board.getBoundColors());
+		assertEquals(new ColorSet(new Color[] { z.getColor() }),
+				board.getFreeColors());
+		assertEquals(new ColorSet(new Color[] { x, z.getColor() }),
+				inner.getFreeColors());
+
+		// the returned sets are copies
+		board.getFreeColors().add(x);
+		assertFalse(board.getFreeColors().contains(x));
+
+		outer.setColor(Color.of(9));
+		assertEquals(new ColorSet(new Color[] { x, z.getColor() }),
+				board.getFreeColors());
+		z.setColor(y);
+		assertEquals(new ColorSet(new Color[] { x }), board.getFreeColors());
+		inner.removeChild(z);
+		inner.addChild(new Egg(false, false, Color.of(11), false));
+		assertEquals(new ColorSet(new Color[] { x, Color.of(11) }),
+				board.getFreeColors());
+
+		final Simulator simulator = new Simulator(
+				LambdaToAlligator
+						.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z)) f"),
+				new ColorController(), null);
+		do {
+			final Board current = simulator.getCurrentBoard();
+			final Board copy = current.copy();
+			assertEquals(copy.getFreeColors(), current.getFreeColors());
+			assertEquals(copy.getBoundColors(), current.getBoundColors());
+		} while (simulator.evaluate());
+	}
+
+	/**
+	 * Removes a parent and moves its children to the parent it has been
+	 * removed from, like the object bar does when an alligator is dropped on
+	 * it. Clearing the removed parent afterwards must not change the counts of
+	 * the board it still references.
+	 */
+	public void testCountsAfterDissolvingParent() {
+		final Board board = LambdaToAlligator.convert("y (λx.x x) z");
+		final ColoredAlligator alligator = (ColoredAlligator) board
+				.getChildAtPosition(1);
+		final int position = board.getChildPosition(alligator);
+		board.removeChild(alligator);
+		for (int i = 0; i < alligator.getChildCount(); i++) {
+			board.insertChild(alligator.getChildAtPosition(i), position + i);
+		}
+		alligator.clearChildren();
+
+		final Board expected = LambdaToAlligator.convert("y x x z");
+		assertEquals(4, board.getChildCount());
+		assertEquals(expected.getEggCount(), board.getEggCount());
+		assertEquals(expected.getEaterCount(), board.getEaterCount());
+		assertEquals(expected.getColoredAlligatorCount(),
+				board.getColoredAlligatorCount());
+		assertEquals(expected.getAgedAlligatorCount(),
+				board.getAgedAlligatorCount());
+		assertEquals(0, alligator.getEggCount());
+		assertEquals(1, alligator.getColoredAlligatorCount());
+	}
+
+	private int alphaHash(String term) {
+		return LambdaToAlligator.convert(term).getAlphaHash();
+	}
+
 	private InternalBoardObject getNewChild() {
-		return new Egg(false, false, new Color(1), false);
+		return new Egg(false, false, Color.of(1), false);
 	}
 
 	private Parent getNewParent() {
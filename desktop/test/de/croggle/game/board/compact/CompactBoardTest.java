@@ -0,0 +1,78 @@
+package de.croggle.game.board.compact;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.operations.CountBoardObjects;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class CompactBoardTest extends TestCase {
+
+	public void testEmptyBoard() {
+		final CompactBoard compact = CompactBoard.fromBoard(new Board());
+		assertEquals(1, compact.getNodeCount());
+		assertEquals(CompactBoard.BOARD, compact.getKind(CompactBoard.ROOT));
+		assertEquals(CompactBoard.NONE,
+				compact.getFirstChild(CompactBoard.ROOT));
+		assertTrue(new Board().match(compact.toBoard()));
+	}
+
+	public void testStructure() {
+		final Board board = new Board();
+		final ColoredAlligator colored = new ColoredAlligator(true, false,
+				Color.of(3), true);
+		final AgedAlligator aged = new AgedAlligator(false, true);
+		board.addChild(colored);
+		board.addChild(aged);
+		colored.addChild(new Egg(false, false, Color.of(3), false));
+		aged.addChild(new Egg(true, true, Color.uncolored(), true));
+
+		final CompactBoard compact = CompactBoard.fromBoard(board);
+		assertEquals(5, compact.getNodeCount());
+		assertEquals(2, compact.getNodeCount(CompactBoard.EGG));
+
+		final int first = compact.getFirstChild(CompactBoard.ROOT);
+		assertEquals(CompactBoard.COLORED_ALLIGATOR, compact.getKind(first));
+		assertEquals(3, compact.getColor(first));
+		assertEquals(CompactBoard.ROOT, compact.getParent(first));
+		final int second = compact.getNextSibling(first);
+		assertEquals(CompactBoard.AGED_ALLIGATOR, compact.getKind(second));
+		assertEquals(CompactBoard.NONE, compact.getNextSibling(second));
+		assertEquals(CompactBoard.UNCOLORED,
+				compact.getColor(compact.getFirstChild(second)));
+
+		final Board decoded = compact.toBoard();
+		assertTrue(board.match(decoded));
+		final ColoredAlligator decodedColored = (ColoredAlligator) decoded
+				.getFirstChild();
+		assertTrue(decodedColored.isMovable());
+		assertFalse(decodedColored.isRemovable());
+		assertTrue(decodedColored.isRecolorable());
+		final Egg decodedEgg = (Egg) ((AgedAlligator) decoded
+				.getChildAtPosition(1)).getFirstChild();
+		assertSame(Color.uncolored(), decodedEgg.getColor());
+		assertTrue(decodedEgg.isRecolorable());
+	}
+
+	public void testRoundTrip() throws Exception {
+		final Board board = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final CompactBoard compact = CompactBoard.fromBoard(board);
+		assertEquals(CountBoardObjects.count(board), compact.getNodeCount());
+		assertTrue(board.match(compact.toBoard()));
+	}
+
+	public void testNodeReuse() {
+		final CompactBoard compact = new CompactBoard();
+		final int egg = compact.allocate(CompactBoard.EGG, 0, 0);
+		compact.appendChild(CompactBoard.ROOT, egg);
+		final int copy = compact.copySubtree(egg);
+		assertEquals(3, compact.getNodeCount());
+		compact.free(copy);
+		assertEquals(2, compact.getNodeCount());
+		assertEquals(copy, compact.allocate(CompactBoard.EGG, 1, 0));
+	}
+}
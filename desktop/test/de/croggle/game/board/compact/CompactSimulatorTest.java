@@ -0,0 +1,165 @@
+package de.croggle.game.board.compact;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.ColorOverflowException;
+import de.croggle.game.MatchWithRenaming;
+import de.croggle.game.NormalizationResult;
+import de.croggle.game.Simulator;
+import de.croggle.game.board.AlligatorOverflowException;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.operations.CountBoardObjects;
+import de.croggle.util.convert.AlligatorToLambda;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class CompactSimulatorTest extends TestCase {
+
+	public void testSameStepsAsSimulator() throws Exception {
+		compareWithSimulator("(λx.x x) λx.x x", 5);
+		compareWithSimulator("(λx.λy.x) z", 5);
+		compareWithSimulator("(λx.λy.x x) u v", 5);
+		compareWithSimulator("(λx.x)((λy.y)(λz.z))", 5);
+		compareWithSimulator("(λx.λy. x) a b", 5);
+		compareWithSimulator("(λx.λy.x) (λy.y)", 5);
+		compareWithSimulator("λg.(λx.g (x x)) (λx.g (x x))", 5);
+		compareWithSimulator("(λa.λs.λz.s (a s z)) (λs.λz.z)", 10);
+		compareWithSimulator(
+				"(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))", 20);
+		compareWithSimulator(
+				"(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s (s (s z)))) (λs.λz.(s (s (s (s z)))))",
+				40);
+		compareWithSimulator("(λx.x x x) (λa.λb.a b b)", 10);
+		compareWithSimulator("(λf.λx.f (f x)) (λf.λx.f (f x)) (λy.y y) z", 20);
+	}
+
+	public void testNormalize() throws Exception {
+		final CompactSimulator simulator = new CompactSimulator(
+				CompactBoard.fromBoard(LambdaToAlligator
+						.convert("(λx.x)((λy.y)(λz.z))")));
+		assertEquals(NormalizationResult.Termination.NORMAL_FORM,
+				simulator.normalize(10));
+		assertEquals(2, simulator.getSteps());
+		assertTrue(MatchWithRenaming.match(LambdaToAlligator.convert("λz.z"),
+				simulator.getBoard().toBoard()));
+
+		final CompactSimulator omega = new CompactSimulator(
+				CompactBoard.fromBoard(LambdaToAlligator
+						.convert("(λx.x x) λx.x x")));
+		assertEquals(NormalizationResult.Termination.STEP_LIMIT,
+				omega.normalize(10));
+		assertEquals(10, omega.getSteps());
+	}
+
+	public void testAlligatorOverflow() {
+		final Board board = new Board();
+		final ColoredAlligator colored = new ColoredAlligator(false, false,
+				Color.of(0), false);
+		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
+				Color.of(1), false);
+		for (int i = 0; i < 100; i++) {
+			colored.addChild(new Egg(false, false, Color.of(0), false));
+		}
+		for (int i = 0; i < 3; i++) {
+			colored2.addChild(new Egg(false, false, Color.of(1), false));
+		}
+		board.addChild(colored);
+		board.addChild(colored2);
+
+		final CompactSimulator simulator = new CompactSimulator(
+				CompactBoard.fromBoard(board));
+		try {
+			simulator.evaluate();
+			fail();
+		} catch (ColorOverflowException e) {
+			fail();
+		} catch (AlligatorOverflowException e) {
+		}
+		assertTrue(board.match(simulator.getBoard().toBoard()));
+	}
+
+	public void testSharingDefersOverflow() throws Exception {
+		final Board board = new Board();
+		final ColoredAlligator eater = new ColoredAlligator(false, false,
+				Color.of(0), false);
+		for (int i = 0; i < 8; i++) {
+			eater.addChild(new Egg(false, false, Color.of(0), false));
+		}
+		board.addChild(eater);
+		board.addChild(createFamily());
+
+		try {
+			new CompactSimulator(CompactBoard.fromBoard(board)).evaluate();
+			fail();
+		} catch (AlligatorOverflowException e) {
+		}
+
+		final CompactSimulator simulator = new CompactSimulator(
+				CompactBoard.fromBoard(board), true);
+		assertTrue(simulator.isSharing());
+		assertTrue(simulator.evaluate());
+		final Board expected = new Board();
+		for (int i = 0; i < 8; i++) {
+			expected.addChild(createFamily());
+		}
+		assertTrue(expected.match(simulator.getBoard().toBoard()));
+		assertTrue(Simulator.MAX_ALLIGATORS < CountBoardObjects.count(expected));
+		assertTrue(simulator.getBoard().getNodeCount() < 60);
+
+		// the first shared family eats the second one
+		assertTrue(simulator.evaluate());
+		assertEquals(2, simulator.getSteps());
+	}
+
+	public void testSharingChurchNumerals() throws Exception {
+		final String term = "(λf.λx.f (f (f x))) (λf.λx.f (f (f x))) (λy.y y y y) z";
+		final CompactSimulator copying = new CompactSimulator(
+				CompactBoard.fromBoard(LambdaToAlligator.convert(term)));
+		final CompactSimulator sharing = new CompactSimulator(
+				CompactBoard.fromBoard(LambdaToAlligator.convert(term)), true);
+		assertEquals(NormalizationResult.Termination.ALLIGATOR_OVERFLOW,
+				copying.normalize(1000));
+		assertEquals(NormalizationResult.Termination.ALLIGATOR_OVERFLOW,
+				sharing.normalize(1000));
+		assertTrue(copying.getSteps() * 4 < sharing.getSteps());
+	}
+
+	private ColoredAlligator createFamily() {
+		final ColoredAlligator family = new ColoredAlligator(false, false,
+				Color.of(1), false);
+		for (int i = 0; i < 40; i++) {
+			family.addChild(new Egg(false, false, Color.of(1), false));
+		}
+		return family;
+	}
+
+	private void compareWithSimulator(String term, int maxSteps)
+			throws Exception {
+		compareWithSimulator(term, maxSteps, false);
+		compareWithSimulator(term, maxSteps, true);
+	}
+
+	private void compareWithSimulator(String term, int maxSteps,
+			boolean sharing) throws Exception {
+		final Board board = LambdaToAlligator.convert(term);
+		final Simulator simulator = new Simulator(board,
+				new ColorController(), null);
+		final CompactSimulator compact = new CompactSimulator(
+				CompactBoard.fromBoard(board), sharing);
+		for (int i = 0; i < maxSteps; i++) {
+			final boolean evaluated = simulator.evaluate();
+			assertEquals(evaluated, compact.evaluate());
+			final Board expected = simulator.getCurrentBoard();
+			final Board actual = compact.getBoard().toBoard();
+			assertTrue("Evaluated " + term + " to "
+					+ AlligatorToLambda.convert(actual) + ", expected "
+					+ AlligatorToLambda.convert(expected),
+					expected.match(actual));
+			if (!evaluated) {
+				return;
+			}
+		}
+	}
+}
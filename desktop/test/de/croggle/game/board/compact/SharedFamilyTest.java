@@ -0,0 +1,180 @@
+package de.croggle.game.board.compact;
+
+import java.util.HashMap;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class SharedFamilyTest extends TestCase {
+
+	public void testIdenticalSubtreesAreShared() {
+		final SharedFamilyPool pool = new SharedFamilyPool();
+		final SharedFamily shared = pool.share(LambdaToAlligator
+				.convert("(λx.x) (λx.x)"));
+		assertEquals(CompactBoard.BOARD, shared.getKind());
+		assertEquals(2, shared.getChildCount());
+		assertSame(shared.getChild(0), shared.getChild(1));
+		// the egg, the alligator and the board
+		assertEquals(3, pool.size());
+		assertEquals(5, shared.getObjectCount());
+
+		final SharedFamily again = pool.share(LambdaToAlligator
+				.convert("(λx.x) (λx.x)"));
+		assertSame(shared, again);
+		assertEquals(3, pool.size());
+	}
+
+	public void testFlagsAreDistinguished() {
+		final SharedFamilyPool pool = new SharedFamilyPool();
+		final SharedFamily movable = pool.share(new Egg(true, false,
+				Color.of(1), false));
+		final SharedFamily fixed = pool.share(new Egg(false, false, Color.of(
+				1), false));
+		assertNotSame(movable, fixed);
+		assertFalse(movable.equals(fixed));
+		assertTrue(movable.match(fixed));
+		assertTrue(movable.isMovable());
+		assertFalse(fixed.isMovable());
+	}
+
+	public void testRoundTrip() {
+		final Board board = new Board();
+		final ColoredAlligator colored = new ColoredAlligator(true, false,
+				Color.of(3), true);
+		final AgedAlligator aged = new AgedAlligator(false, true);
+		board.addChild(colored);
+		board.addChild(aged);
+		colored.addChild(new Egg(false, false, Color.of(3), false));
+		aged.addChild(new Egg(true, true, Color.uncolored(), true));
+
+		final SharedFamily shared = new SharedFamilyPool().share(board);
+		final Board decoded = shared.toBoard();
+		assertTrue(board.match(decoded));
+		final ColoredAlligator decodedColored = (ColoredAlligator) decoded
+				.getFirstChild();
+		assertTrue(decodedColored.isMovable());
+		assertFalse(decodedColored.isRemovable());
+		assertTrue(decodedColored.isRecolorable());
+		final Egg decodedEgg = (Egg) ((AgedAlligator) decoded
+				.getChildAtPosition(1)).getFirstChild();
+		assertSame(Color.uncolored(), decodedEgg.getColor());
+		assertTrue(decodedEgg.isRemovable());
+
+		assertTrue(colored.match(shared.getChild(0).toBoardObject()));
+		try {
+			shared.toBoardObject();
+			fail("Exception should have been thrown.");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	public void testMatchWithRecoloring() {
+		final String[][] pairs = { { "λx.x", "λy.y" }, { "λx.x", "λx.y" },
+				{ "λx.λy.x y", "λy.λx.y x" }, { "λx.λy.x y", "λy.λx.x y" },
+				{ "(λx.x z) (λx.x z)", "(λy.y z) (λx.x z)" },
+				{ "(λx.x z) (λx.x z)", "(λz.z z) (λx.x z)" } };
+		final SharedFamilyPool pool = new SharedFamilyPool();
+		for (String[] pair : pairs) {
+			final Board first = LambdaToAlligator.convert(pair[0]);
+			final Board second = LambdaToAlligator.convert(pair[1]);
+			final SharedFamily sharedFirst = pool.share(first);
+			final SharedFamily sharedSecond = pool.share(second);
+			assertEquals(first.match(second), sharedFirst.match(sharedSecond));
+			assertEquals(
+					first.matchWithRecoloring(second,
+							new HashMap<Color, Color>()),
+					sharedFirst.matchWithRecoloring(sharedSecond));
+		}
+	}
+
+	public void testChurchNumerals() {
+		final SharedFamilyPool pool = new SharedFamilyPool();
+		String body = "x";
+		int objects = 0;
+		for (int n = 0; n < 20; n++) {
+			final SharedFamily numeral = pool.share(LambdaToAlligator
+					.convert("λf.λx." + body));
+			objects += numeral.getObjectCount();
+			assertTrue(numeral.toBoard().match(
+					LambdaToAlligator.convert("λf.λx." + body)));
+			body = "f (" + body + ")";
+		}
+		// every numeral only adds its outermost application to the pool
+		assertTrue(pool.size() < objects / 5);
+	}
+
+	public void testDeepFamily() {
+		final Board board = new Board();
+		Parent current = board;
+		for (int i = 0; i < 5000; i++) {
+			final ColoredAlligator alligator = new ColoredAlligator(true, true,
+					Color.of(i % 30), true);
+			current.addChild(alligator);
+			current.addChild(new Egg(true, true, Color.of(i % 30), true));
+			current = alligator;
+		}
+
+		final SharedFamily shared = new SharedFamilyPool().share(board);
+		assertEquals(10001, shared.getObjectCount());
+		final Board decoded = shared.toBoard();
+		Parent p = decoded;
+		int depth = 0;
+		while (p.getChildCount() != 0) {
+			p = (Parent) p.getFirstChild();
+			depth++;
+		}
+		assertEquals(5000, depth);
+	}
+
+	/**
+	 * Families of different pools are compared all the way down, which must
+	 * not recurse once per nesting level.
+	 */
+	public void testDeepComparison() {
+		final SharedFamily family = deepFamily(0);
+		final SharedFamily same = deepFamily(0);
+		final SharedFamily recolored = deepFamily(1);
+		assertNotSame(family, same);
+		assertTrue(family.equals(same));
+		assertTrue(family.match(same));
+		assertTrue(family.matchWithRecoloring(same));
+		assertFalse(family.equals(recolored));
+		assertFalse(family.match(recolored));
+		assertTrue(family.matchWithRecoloring(recolored));
+	}
+
+	/**
+	 * Creates a board holding a colored alligator with a matching egg below
+	 * many aged alligators, without any pool.
+	 */
+	private static SharedFamily deepFamily(int color) {
+		final SharedFamily egg = new SharedFamily(CompactBoard.EGG, color, 0,
+				new SharedFamily[0]);
+		SharedFamily family = new SharedFamily(CompactBoard.COLORED_ALLIGATOR,
+				color, 0, new SharedFamily[] { egg });
+		for (int i = 0; i < 100000; i++) {
+			family = new SharedFamily(CompactBoard.AGED_ALLIGATOR,
+					CompactBoard.UNCOLORED, 0, new SharedFamily[] { family });
+		}
+		return new SharedFamily(CompactBoard.BOARD, CompactBoard.UNCOLORED, 0,
+				new SharedFamily[] { family });
+	}
+
+	public void testObjectCountSaturates() {
+		SharedFamily family = new SharedFamily(CompactBoard.EGG, 0, 0,
+				new SharedFamily[0]);
+		for (int i = 0; i < 70; i++) {
+			// doubles the number of objects with every level
+			family = new SharedFamily(CompactBoard.AGED_ALLIGATOR,
+					CompactBoard.UNCOLORED, 0, new SharedFamily[] { family,
+							family });
+		}
+		assertEquals(Long.MAX_VALUE, family.getObjectCount());
+	}
+}
@@ -0,0 +1,184 @@
+package de.croggle.game.board.operations;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.game.board.Parent;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class BoardSnapshotTest extends TestCase {
+
+	public void testIntervals() {
+		final Board b = new Board();
+		final ColoredAlligator a1 = new ColoredAlligator(true, true,
+				Color.of(1), true);
+		final Egg e11 = new Egg(true, true, Color.of(1), true);
+		final Egg e12 = new Egg(true, true, Color.of(2), true);
+		final Egg e2 = new Egg(true, true, Color.of(2), true);
+		b.addChild(a1);
+		a1.addChild(e11);
+		a1.addChild(e12);
+		b.addChild(e2);
+
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		assertEquals(5, snapshot.size());
+		assertSame(b, snapshot.getObject(0));
+		assertSame(a1, snapshot.getObject(1));
+		assertSame(e11, snapshot.getObject(2));
+		assertSame(e12, snapshot.getObject(3));
+		assertSame(e2, snapshot.getObject(4));
+		assertEquals(-1, snapshot.getParentId(0));
+		assertEquals(1, snapshot.getParentId(3));
+		assertEquals(5, snapshot.getSubtreeEnd(0));
+		assertEquals(4, snapshot.getSubtreeEnd(1));
+		assertEquals(2, snapshot.getDepth(e12));
+
+		assertTrue(snapshot.isAncestor(b, e12));
+		assertTrue(snapshot.isAncestor(a1, e11));
+		assertFalse(snapshot.isAncestor(a1, a1));
+		assertFalse(snapshot.isAncestor(a1, e2));
+		assertFalse(snapshot.isAncestor(e11, a1));
+		assertSame(a1, snapshot.getLowestCommonAncestor(e11, e12));
+		assertSame(b, snapshot.getLowestCommonAncestor(e11, e2));
+		assertSame(a1, snapshot.getLowestCommonAncestor(a1, e12));
+
+		assertTrue(snapshot.isBound(e11));
+		assertFalse(snapshot.isBound(e12));
+		assertEquals(1, snapshot.getBinder(2));
+		assertFalse(snapshot.contains(new Egg(true, true, Color.of(1), true)));
+	}
+
+	public void testAgainstParentHierarchy() {
+		checkAgainstParentHierarchy(LambdaToAlligator
+				.convert("(λx.λy.x (λx.y x) z) (λw.w w)"));
+		checkAgainstParentHierarchy(LambdaToAlligator
+				.convert("(λz.z z) (λy.λx.x y) v"));
+		checkAgainstParentHierarchy(LambdaToAlligator
+				.convert("λw.w (λq.w q) ((λw.q) w)"));
+	}
+
+	private static void checkAgainstParentHierarchy(Board b) {
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		final BoardObject[] objects = FlattenTree.toArray(b);
+		assertEquals(objects.length, snapshot.size());
+
+		for (BoardObject o1 : objects) {
+			final List<Parent> hierarchy = GetParentHierarchy.get(o1);
+			for (BoardObject o2 : objects) {
+				assertEquals(GetParentHierarchy.get(o2).contains(o1),
+						snapshot.isAncestor(o1, o2));
+				assertSame(naiveLowestCommonAncestor(hierarchy, o1, o2),
+						snapshot.getLowestCommonAncestor(o1, o2));
+			}
+			if (o1 instanceof Egg) {
+				assertEquals(Boundedness.isBound((Egg) o1),
+						snapshot.isBound((Egg) o1));
+				final int binder = snapshot.getBinder(snapshot.getNodeId(o1));
+				if (binder >= 0) {
+					assertEquals(((Egg) o1).getColor(),
+							((ColoredAlligator) snapshot.getObject(binder))
+									.getColor());
+				}
+			}
+		}
+	}
+
+	private static BoardObject naiveLowestCommonAncestor(
+			List<Parent> hierarchy, BoardObject o1, BoardObject o2) {
+		if (o1 == o2 || GetParentHierarchy.get(o2).contains(o1)) {
+			return o1;
+		}
+		for (Parent p : hierarchy) {
+			if (p == o2 || GetParentHierarchy.get(o2).contains(p)) {
+				return p;
+			}
+		}
+		return null;
+	}
+
+	public void testShadowedColors() {
+		final Board b = LambdaToAlligator.convert("λx.(λx.x) x");
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		final ColoredAlligator outer = (ColoredAlligator) b.getFirstChild();
+		final ColoredAlligator inner = (ColoredAlligator) outer
+				.getFirstChild();
+		final InternalBoardObject innerEgg = inner.getFirstChild();
+		final InternalBoardObject outerEgg = outer.getChildAtPosition(1);
+
+		assertSame(inner, snapshot.getObject(snapshot.getBinder(snapshot
+				.getNodeId(innerEgg))));
+		assertSame(outer, snapshot.getObject(snapshot.getBinder(snapshot
+				.getNodeId(outerEgg))));
+	}
+
+	public void testUpToDate() {
+		final Board b = LambdaToAlligator.convert("(λx.x) y");
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		assertTrue(snapshot.isUpToDate());
+		((Egg) b.getChildAtPosition(1)).setColor(Color.of(5));
+		assertFalse(snapshot.isUpToDate());
+		// the snapshot itself does not change
+		assertEquals(4, snapshot.size());
+		assertTrue(FlattenTree.toSnapshot(b).isUpToDate());
+	}
+
+	public void testDeepFamily() {
+		final Board b = new Board();
+		Parent current = b;
+		for (int i = 0; i < 2000; i++) {
+			final ColoredAlligator a = new ColoredAlligator(true, true,
+					Color.of(i % 30), true);
+			current.addChild(a);
+			current.addChild(new Egg(true, true, Color.of(i % 30), true));
+			current = a;
+		}
+		final Egg last = new Egg(true, true, Color.of(0), true);
+		current.addChild(last);
+
+		final BoardSnapshot snapshot = FlattenTree.toSnapshot(b);
+		assertEquals(4002, snapshot.size());
+		assertEquals(2001, snapshot.getDepth(last));
+		assertSame(b, snapshot.getLowestCommonAncestor(b.getChildAtPosition(1),
+				last));
+		assertTrue(snapshot.isAncestor(b.getFirstChild(), last));
+		assertTrue(snapshot.isBound(last));
+		assertFalse(snapshot.isBound((Egg) b.getChildAtPosition(1)));
+		assertEquals(0, TraversalStack.get().size());
+	}
+
+	/**
+	 * The snapshot must not rely on the counts cached by the parents. The
+	 * root used here is not counted by {@link CountBoardObjects} at all.
+	 */
+	public void testWrongCachedCounts() {
+		final Parent root = new Parent() {
+			@Override
+			public BoardObject copy() {
+				return null;
+			}
+
+			@Override
+			public void accept(BoardObjectVisitor visitor) {
+			}
+		};
+		final ColoredAlligator a = new ColoredAlligator(true, true,
+				Color.of(1), true);
+		a.addChild(new Egg(true, true, Color.of(1), true));
+		a.addChild(new Egg(true, true, Color.of(2), true));
+		root.addChild(a);
+		root.addChild(new Egg(true, true, Color.of(3), true));
+		assertEquals(0, CountBoardObjects.count(root));
+
+		final BoardSnapshot snapshot = new BoardSnapshot(root);
+		assertEquals(5, snapshot.size());
+		assertEquals(4, snapshot.getSubtreeEnd(1));
+		assertEquals(1, snapshot.getBinder(2));
+		assertEquals(0, TraversalStack.get().size());
+	}
+}
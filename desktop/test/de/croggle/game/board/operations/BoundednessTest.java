@@ -12,8 +12,8 @@ public class BoundednessTest extends TestCase {
 
 	public void testBound() {
 		final ColoredAlligator coloredAlligator = new ColoredAlligator(false,
-				false, new Color(0), false);
-		final Egg egg = new Egg(false, false, new Color(0), false);
+				false, Color.of(0), false);
+		final Egg egg = new Egg(false, false, Color.of(0), false);
 		coloredAlligator.addChild(egg);
 		assertTrue(Boundedness.isBound(egg));
 		assertFalse(Boundedness.isFree(egg));
@@ -21,8 +21,8 @@ public class BoundednessTest extends TestCase {
 
 	public void testFree() {
 		final ColoredAlligator coloredAlligator = new ColoredAlligator(false,
-				false, new Color(0), false);
-		final Egg egg = new Egg(false, false, new Color(1), false);
+				false, Color.of(0), false);
+		final Egg egg = new Egg(false, false, Color.of(1), false);
 		coloredAlligator.addChild(egg);
 		assertTrue(Boundedness.isFree(egg));
 		assertFalse(Boundedness.isBound(egg));
@@ -11,7 +11,7 @@ public class CollectBoundColorsTest extends CollectColorsTest {
 
 	public void testSimpleBoundColor() {
 		final Board board = new Board();
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final ColoredAlligator coloredAlligator = new ColoredAlligator(false,
 				false, color, false);
 		final Egg egg = new Egg(false, false, color, false);
@@ -23,7 +23,7 @@ public class CollectBoundColorsTest extends CollectColorsTest {
 	}
 
 	public void testRootBoundColor() {
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final ColoredAlligator coloredAlligator = new ColoredAlligator(false,
 				false, color, false);
 		final Egg egg = new Egg(false, false, color, false);
@@ -35,10 +35,10 @@ public class CollectBoundColorsTest extends CollectColorsTest {
 	}
 
 	public void testMultipleBoundColors() {
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
-		final Color color3 = new Color(3);
-		final Color color4 = new Color(4);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
+		final Color color3 = Color.of(3);
+		final Color color4 = Color.of(4);
 		final AgedAlligator aged = new AgedAlligator(false, false);
 		final ColoredAlligator colored1 = new ColoredAlligator(false, false,
 				color1, false);
@@ -64,9 +64,9 @@ public class CollectBoundColorsTest extends CollectColorsTest {
 	}
 
 	public void testBoundColorsMultipleOccurences() {
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
-		final Color color3 = new Color(3);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
+		final Color color3 = Color.of(3);
 
 		final AgedAlligator aged = new AgedAlligator(false, false);
 		final ColoredAlligator colored1 = new ColoredAlligator(false, false,
@@ -9,7 +9,7 @@ import de.croggle.game.board.Egg;
 public class CollectFreeColorsTest extends CollectColorsTest {
 	public void testSimpleFreeColor() {
 		final Board board = new Board();
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final Egg egg = new Egg(false, false, color, false);
 		board.addChild(egg);
 		final Color[] freeColors = CollectFreeColors.collect(board);
@@ -19,7 +19,7 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 
 	public void testSimpleNonFreeColor() {
 		final Board board = new Board();
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final ColoredAlligator colored = new ColoredAlligator(false, false,
 				color, false);
 		final Egg egg = new Egg(false, false, color, false);
@@ -31,7 +31,7 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 
 	public void testRootFreeColor() {
 		final Board board = new Board();
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final Egg egg = new Egg(false, false, color, false);
 		board.addChild(egg);
 		final Color[] freeColors = CollectFreeColors.collect(egg);
@@ -41,8 +41,8 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 
 	public void testFreeColorWithParent() {
 		final Board board = new Board();
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
 		final Egg egg = new Egg(false, false, color1, false);
 		final ColoredAlligator colored1 = new ColoredAlligator(false, false,
 				color1, false);
@@ -59,9 +59,9 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 
 	public void testMultipleFreeColors() {
 		final Board board = new Board();
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
-		final Color color3 = new Color(3);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
+		final Color color3 = Color.of(3);
 		final Egg egg1 = new Egg(false, false, color1, false);
 		final Egg egg2 = new Egg(false, false, color2, false);
 		final Egg egg3 = new Egg(false, false, color3, false);
@@ -88,8 +88,8 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 
 	public void testFreeColorMultipleOccurences() {
 		final Board board = new Board();
-		final Color color1 = new Color(1);
-		final Color color2 = new Color(2);
+		final Color color1 = Color.of(1);
+		final Color color2 = Color.of(2);
 		final Egg egg1 = new Egg(false, false, color1, false);
 		final Egg egg2 = new Egg(false, false, color1, false);
 		final Egg egg3 = new Egg(false, false, color1, false);
@@ -114,4 +114,24 @@ public class CollectFreeColorsTest extends CollectColorsTest {
 		Assert.assertTrue(arrayContainsColor(freeColors, color1));
 		Assert.assertTrue(arrayContainsColor(freeColors, color2));
 	}
+
+	public void testShadowedColor() {
+		// (λa.(λa.a) a) b has only b as free variable
+		final Board board = new Board();
+		final Color colorA = Color.of(0);
+		final Color colorB = Color.of(1);
+		final ColoredAlligator outer = new ColoredAlligator(false, false,
+				colorA, false);
+		final ColoredAlligator inner = new ColoredAlligator(false, false,
+				colorA, false);
+		board.addChild(outer);
+		board.addChild(new Egg(false, false, colorB, false));
+		outer.addChild(inner);
+		outer.addChild(new Egg(false, false, colorA, false));
+		inner.addChild(new Egg(false, false, colorA, false));
+
+		final Color[] freeColors = CollectFreeColors.collect(board);
+		Assert.assertEquals(1, freeColors.length);
+		Assert.assertTrue(arrayContainsColor(freeColors, colorB));
+	}
 }
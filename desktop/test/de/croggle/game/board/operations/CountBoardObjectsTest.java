@@ -2,21 +2,73 @@ package de.croggle.game.board.operations;
 
 import junit.framework.TestCase;
 import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.Simulator;
+import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
+import de.croggle.util.convert.LambdaToAlligator;
 
 public class CountBoardObjectsTest extends TestCase {
 	public void testSimple() {
 		Board b = new Board();
-		ColoredAlligator a1 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a1 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a1);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a1.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
 		assertEquals(4, CountBoardObjects.count(b));
 	}
+
+	public void testSelective() {
+		Board b = new Board();
+		AgedAlligator aged = new AgedAlligator(true, true);
+		ColoredAlligator a1 = new ColoredAlligator(true, true, Color.of(0),
+				true);
+		b.addChild(aged);
+		aged.addChild(a1);
+		a1.addChild(new Egg(true, true, Color.of(0), true));
+		a1.addChild(new Egg(true, true, Color.of(0), true));
+
+		assertEquals(1, CountBoardObjects.count(b, true, false, false, false));
+		assertEquals(2, CountBoardObjects.count(b, false, true, false, false));
+		assertEquals(1, CountBoardObjects.count(b, false, false, true, false));
+		assertEquals(1, CountBoardObjects.count(b, false, false, false, true));
+		assertEquals(4, CountBoardObjects.count(aged));
+		assertEquals(1, CountBoardObjects.count(a1.getFirstChild()));
+
+		aged.removeChild(a1);
+		assertEquals(2, CountBoardObjects.count(b));
+		aged.addChild(a1.copy());
+		aged.clearChildren();
+		assertEquals(2, CountBoardObjects.count(b));
+	}
+
+	public void testCountsDuringSimulation() throws Exception {
+		final Board board = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		final Simulator simulator = new Simulator(board,
+				new ColorController(), null);
+		final Board current = simulator.getCurrentBoard();
+		assertEquals(FlattenTree.toList(current).size(),
+				CountBoardObjects.count(current));
+		while (simulator.evaluate()) {
+			assertEquals(FlattenTree.toList(current).size(),
+					CountBoardObjects.count(current));
+		}
+		while (simulator.canUndo()) {
+			simulator.undo();
+			assertEquals(FlattenTree.toList(current).size(),
+					CountBoardObjects.count(current));
+		}
+		for (BoardObject o : FlattenTree.toList(current)) {
+			assertEquals(FlattenTree.toList(o).size(),
+					CountBoardObjects.count(o));
+		}
+	}
 }
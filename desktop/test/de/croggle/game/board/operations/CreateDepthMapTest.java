@@ -14,18 +14,18 @@ public class CreateDepthMapTest extends TestCase {
 	public void testSimple() {
 		Board b = new Board();
 		AgedAlligator a1 = new AgedAlligator(false, false);
-		ColoredAlligator a2 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a2 = new ColoredAlligator(true, true, Color.of(0),
 				true);
-		ColoredAlligator a3 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a3 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a1);
 		a1.addChild(a2);
 		a1.addChild(a3);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a2.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
-		Egg e3 = new Egg(true, true, new Color(2), true);
+		Egg e3 = new Egg(true, true, Color.of(2), true);
 		a3.addChild(e3);
 
 		Map<BoardObject, Integer> map = CreateDepthMap.create(b);
@@ -13,12 +13,12 @@ import junit.framework.TestCase;
 public class CreateHeightMapTest extends TestCase {
 	public void testSimple() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
 		Map<BoardObject, Float> map = CreateHeightMap.create(b);
@@ -0,0 +1,73 @@
+package de.croggle.game.board.operations;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class CreateLayoutMetricsTest extends TestCase {
+	public void testSimple() {
+		Board b = new Board();
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
+				true);
+		b.addChild(a);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
+		a.addChild(e1);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
+		b.addChild(e2);
+
+		LayoutMetrics metrics = CreateLayoutMetrics.create(b);
+		assertEquals(4, metrics.size());
+		assertSame(b, metrics.getObject(0));
+		assertEquals(2.f, metrics.getWidth(b));
+		assertEquals(2.f, metrics.getHeight(b));
+		assertEquals(0, metrics.getDepth(b));
+		assertEquals(1.f, metrics.getWidth(a));
+		assertEquals(2.f, metrics.getHeight(a));
+		assertEquals(1, metrics.getDepth(a));
+		assertEquals(1.f, metrics.getHeight(e1));
+		assertEquals(2, metrics.getDepth(e1));
+		assertEquals(1, metrics.getDepth(e2));
+	}
+
+	public void testScaledSiblings() {
+		Board b = LambdaToAlligator.convert("(λx.x) ((λy.y) (λz.z))");
+		LayoutMetrics metrics = CreateLayoutMetrics.create(b, 100, 100, .5f,
+				2, 2);
+		AgedAlligator aa = (AgedAlligator) b.getChildAtPosition(1);
+		ColoredAlligator y = (ColoredAlligator) aa.getChildAtPosition(0);
+		ColoredAlligator z = (ColoredAlligator) aa.getChildAtPosition(1);
+		// both abstractions are on the same level, so they are equally high
+		assertEquals(76.f, metrics.getHeight(y));
+		assertEquals(76.f, metrics.getHeight(z));
+		assertEquals(178.f, metrics.getHeight(b));
+		// 50 for each abstraction and 1 padding in between
+		assertEquals(101.f, metrics.getWidth(aa));
+		assertEquals(100.f, metrics.getWidth(b.getFirstChild()));
+		assertEquals(203.f, metrics.getWidth(b));
+	}
+
+	public void testNodeIds() {
+		Board b = LambdaToAlligator.convert("(λx.x) ((λy.y) (λz.z))");
+		LayoutMetrics first = CreateLayoutMetrics.create(b);
+		Egg e = new Egg(true, true, Color.of(3), true);
+		b.insertChild(e, 0);
+		LayoutMetrics second = CreateLayoutMetrics.create(b);
+
+		assertEquals(0, second.getNodeId(b));
+		assertEquals(1, second.getNodeId(e));
+		for (int id = 0; id < first.size(); id++) {
+			assertEquals(id, first.getNodeId(first.getObject(id)));
+			assertEquals(first.getDepth(id),
+					second.getDepth(first.getObject(id)));
+		}
+		try {
+			first.getWidth(e);
+			fail("Exception should have been thrown.");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package de.croggle.game.board.operations;
+
+import java.util.HashMap;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.operations.validation.FindBoardErrors;
+import de.croggle.game.board.operations.validation.ValidateConstellation;
+import de.croggle.util.convert.AlligatorToBinary;
+import de.croggle.util.convert.AlligatorToJson;
+import de.croggle.util.convert.AlligatorToLambda;
+import de.croggle.util.convert.BinaryToAlligator;
+import de.croggle.util.convert.JsonToAlligator;
+import de.croggle.util.convert.LambdaToAlligator;
+
+/**
+ * Runs the operations walking whole families on families nested thousands of
+ * levels deep, on a thread with a stack far smaller than a recursive
+ * implementation would need.
+ */
+public class DeepFamilyTest extends TestCase {
+	private static final int DEPTH = 5000;
+	private static final long STACK_SIZE = 256 * 1024;
+
+	public void testCopyAndMatch() throws Throwable {
+		runWithSmallStack(new Runnable() {
+			@Override
+			public void run() {
+				final Board board = createDeepBoard(DEPTH);
+				final Board copy = board.copy();
+				assertTrue(board.match(copy));
+				final HashMap<Color, Color> recoloring = new HashMap<Color, Color>();
+				assertTrue(board.matchWithRecoloring(copy, recoloring));
+				assertTrue(recoloring.isEmpty());
+				assertEquals(board.getAlphaHash(), copy.getAlphaHash());
+
+				ExchangeColor.recolor(copy, Color.of(3), Color.of(25));
+				assertFalse(board.match(copy));
+				assertEquals(board.getAlphaHash(), copy.getAlphaHash());
+				assertTrue(copy.getBoundColors().contains(Color.of(25)));
+				assertTrue(copy.getFreeColors().isEmpty());
+			}
+		});
+	}
+
+	public void testValidation() throws Throwable {
+		runWithSmallStack(new Runnable() {
+			@Override
+			public void run() {
+				final Board board = createDeepBoard(DEPTH);
+				assertTrue(ValidateConstellation.isValid(board));
+				assertTrue(FindBoardErrors.find(board).isEmpty());
+				assertEquals(0, CollectFreeColors.collect(board).length);
+			}
+		});
+	}
+
+	public void testReplaceEggs() throws Throwable {
+		runWithSmallStack(new Runnable() {
+			@Override
+			public void run() {
+				final Board board = createDeepBoard(DEPTH);
+				final int eggs = CountMatchingEggs.count(board, Color.of(3));
+				try {
+					ReplaceEggs.replace(board, Color.of(3), new Egg(true,
+							true, Color.of(25), true), new ColorController());
+				} catch (Exception e) {
+					fail("Unexpected exception: " + e);
+				}
+				assertEquals(0, CountMatchingEggs.count(board, Color.of(3)));
+				assertEquals(eggs,
+						CountMatchingEggs.count(board, Color.of(25)));
+			}
+		});
+	}
+
+	public void testConversions() throws Throwable {
+		runWithSmallStack(new Runnable() {
+			@Override
+			public void run() {
+				final String lambda = AlligatorToLambda
+						.convert(createDeepBoard(DEPTH));
+				int parentheses = 0;
+				for (int i = 0; i < lambda.length(); i++) {
+					if (lambda.charAt(i) == '(') {
+						parentheses++;
+					}
+				}
+				assertEquals(DEPTH - 1, parentheses);
+				assertTrue(lambda.startsWith("λx.(λy.(λz.(λp."));
+				assertTrue(lambda.endsWith(") y) x"));
+				assertTrue(createDeepBoard(DEPTH).match(
+						LambdaToAlligator.convert(lambda)));
+				assertTrue(createDeepBoard(DEPTH).match(
+						BinaryToAlligator.convert(AlligatorToBinary
+								.convert(createDeepBoard(DEPTH)))));
+
+				// json indents every line, so its size grows quadratically
+				final Board board = createDeepBoard(DEPTH / 5);
+				final Board converted = JsonToAlligator
+						.convertBoard(AlligatorToJson.convert(board));
+				assertTrue(board.match(converted));
+			}
+		});
+	}
+
+	/**
+	 * Creates a board with a chain of colored alligators, each of which has
+	 * the next one and an egg of its own color as children.
+	 */
+	private static Board createDeepBoard(int depth) {
+		ColoredAlligator inner = null;
+		for (int i = depth - 1; i >= 0; i--) {
+			final ColoredAlligator alligator = new ColoredAlligator(true, true,
+					Color.of(i % 20), true);
+			if (inner != null) {
+				alligator.addChild(inner);
+			}
+			alligator.addChild(new Egg(true, true, Color.of(i % 20), true));
+			inner = alligator;
+		}
+		final Board board = new Board();
+		board.addChild(inner);
+		return board;
+	}
+
+	private static void runWithSmallStack(final Runnable test)
+			throws Throwable {
+		final Throwable[] failure = new Throwable[1];
+		final Thread thread = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					test.run();
+				} catch (Throwable t) {
+					failure[0] = t;
+				}
+			}
+		}, "deep family test", STACK_SIZE);
+		thread.start();
+		thread.join();
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+	}
+}
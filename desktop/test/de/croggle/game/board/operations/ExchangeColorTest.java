@@ -9,16 +9,16 @@ import junit.framework.TestCase;
 public class ExchangeColorTest extends TestCase {
 	public void testSimple() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
-		ExchangeColor.recolor(b, new Color(0), new Color(2));
-		assertEquals(new Color(2), a.getColor());
-		assertEquals(new Color(2), e1.getColor());
+		ExchangeColor.recolor(b, Color.of(0), Color.of(2));
+		assertEquals(Color.of(2), a.getColor());
+		assertEquals(Color.of(2), e1.getColor());
 	}
 }
@@ -2,22 +2,26 @@ package de.croggle.game.board.operations;
 
 import junit.framework.TestCase;
 import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.Simulator;
 import de.croggle.game.board.AgedAlligator;
 import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
 import de.croggle.game.board.ColoredAlligator;
 import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
 import de.croggle.util.convert.LambdaToAlligator;
 
 public class FindEatingTest extends TestCase {
 
 	public void testSimple() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
 		assertEquals(a, FindEating.findEater(b));
@@ -31,25 +35,25 @@ public class FindEatingTest extends TestCase {
 		Board b = new Board();
 		AgedAlligator aa = new AgedAlligator(true, true);
 		b.addChild(aa);
-		ColoredAlligator a1 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a1 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		aa.addChild(a1);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a1.addChild(e1);
 
-		ColoredAlligator a2 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a2 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		aa.addChild(a2);
-		Egg e2 = new Egg(true, true, new Color(0), true);
+		Egg e2 = new Egg(true, true, Color.of(0), true);
 		a2.addChild(e2);
 
-		ColoredAlligator a3 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a3 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a3);
-		Egg e3 = new Egg(true, true, new Color(0), true);
+		Egg e3 = new Egg(true, true, Color.of(0), true);
 		a3.addChild(e3);
 
-		Egg e4 = new Egg(true, true, new Color(1), true);
+		Egg e4 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e4);
 
 		assertEquals(a1, FindEating.findEater(b));
@@ -64,4 +68,76 @@ public class FindEatingTest extends TestCase {
 		ColoredAlligator eater = FindEating.findEater(b);
 		assertNull(eater);
 	}
+
+	/**
+	 * Test if the eater counts used for finding eaters stay correct while
+	 * families are inserted, removed and moved.
+	 */
+	public void testEaterCounts() {
+		Board b = new Board();
+		AgedAlligator aa = new AgedAlligator(true, true);
+		ColoredAlligator a1 = new ColoredAlligator(true, true, Color.of(0),
+				true);
+		a1.addChild(new Egg(true, true, Color.of(0), true));
+		Egg e1 = new Egg(true, true, Color.of(1), true);
+		aa.addChild(e1);
+		b.addChild(aa);
+		assertEquals(0, b.getEaterCount());
+		assertNull(FindEating.findEater(b));
+
+		aa.insertChild(a1, 0);
+		assertEquals(1, aa.getEaterCount());
+		assertEquals(1, b.getEaterCount());
+		assertSame(a1, FindEating.findEater(b));
+
+		ColoredAlligator a2 = a1.copy();
+		b.insertChild(a2, 0);
+		assertEquals(2, b.getEaterCount());
+		assertSame(a2, FindEating.findEater(b));
+
+		aa.removeChild(e1);
+		assertEquals(1, b.getEaterCount());
+		assertSame(a2, FindEating.findEater(b));
+
+		b.replaceChild(aa, e1);
+		assertEquals(0, aa.getEaterCount());
+		assertEquals(1, b.getEaterCount());
+		assertSame(a2, FindEating.findEater(b));
+
+		b.clearChildren();
+		assertEquals(0, b.getEaterCount());
+	}
+
+	public void testEaterCountsDuringSimulation() throws Exception {
+		final Board board = LambdaToAlligator
+				.convert("(λa.λb.λs.λz.(a s (b s z))) (λs.λz.(s z)) (λs.λz.(s z))");
+		assertEaterCountsCorrect(board);
+		final Simulator simulator = new Simulator(board,
+				new ColorController(), null);
+		final Board current = simulator.getCurrentBoard();
+		while (simulator.evaluate()) {
+			assertEaterCountsCorrect(current);
+		}
+		while (simulator.canUndo()) {
+			simulator.undo();
+			assertEaterCountsCorrect(current);
+		}
+		assertTrue(board.match(current));
+	}
+
+	private void assertEaterCountsCorrect(Board b) {
+		for (BoardObject o : FlattenTree.toList(b)) {
+			if (o instanceof Parent) {
+				final Parent p = (Parent) o;
+				int expected = p.hasEater() ? 1 : 0;
+				for (BoardObject child : FlattenTree.toList(p)) {
+					if (child instanceof Parent && child != p
+							&& ((Parent) child).hasEater()) {
+						expected++;
+					}
+				}
+				assertEquals(expected, p.getEaterCount());
+			}
+		}
+	}
 }
@@ -17,17 +17,17 @@ public class FlattenTreeTest extends TestCase {
 		AgedAlligator aged = new AgedAlligator(false, false);
 		b.addChild(aged);
 
-		ColoredAlligator colored1 = new ColoredAlligator(true, true, new Color(
+		ColoredAlligator colored1 = new ColoredAlligator(true, true, Color.of(
 				0), true);
 		ColoredAlligator colored2 = new ColoredAlligator(false, false,
-				new Color(1), false);
+				Color.of(1), false);
 		aged.addChild(colored1);
 		aged.addChild(colored2);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		colored1.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		colored1.addChild(e2);
-		Egg e3 = new Egg(false, false, new Color(1), false);
+		Egg e3 = new Egg(false, false, Color.of(1), false);
 		colored2.addChild(e3);
 
 		List<BoardObject> list = FlattenTree.toList(b);
@@ -13,12 +13,12 @@ public class GetParentHierarchyTest extends TestCase {
 
 	public void testSimpleTree() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
 		List<Parent> l1 = GetParentHierarchy.get(e1);
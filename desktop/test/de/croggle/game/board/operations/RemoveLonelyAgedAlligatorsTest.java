@@ -22,10 +22,10 @@ public class RemoveLonelyAgedAlligatorsTest extends TestCase {
 		board.addChild(aged1);
 		board.addChild(aged2);
 		board.addChild(aged3);
-		final Egg egg = new Egg(false, false, new Color(0), false);
+		final Egg egg = new Egg(false, false, Color.of(0), false);
 		aged1.addChild(egg);
-		aged3.addChild(new Egg(false, false, new Color(0), false));
-		aged3.addChild(new Egg(false, false, new Color(0), false));
+		aged3.addChild(new Egg(false, false, Color.of(0), false));
+		aged3.addChild(new Egg(false, false, Color.of(0), false));
 
 		RemoveLonelyAgedAlligators.remove(board, messenger);
 
@@ -14,17 +14,17 @@ import de.croggle.game.event.BoardEventMessenger;
 public class ReplaceEggsTest extends TestCase {
 	public void testSimple() {
 		Board b = new Board();
-		ColoredAlligator a1 = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a1 = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a1);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a1.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
-		ColoredAlligator a2 = new ColoredAlligator(true, true, new Color(2),
+		ColoredAlligator a2 = new ColoredAlligator(true, true, Color.of(2),
 				true);
-		Egg e3 = new Egg(true, true, new Color(2), true);
+		Egg e3 = new Egg(true, true, Color.of(2), true);
 		a2.addChild(e3);
 
 		try {
@@ -38,8 +38,8 @@ public class ReplaceEggsTest extends TestCase {
 
 	public void testSimpleRecolorFree() {
 		// (\x . (\y . x)) y -> \z . y
-		final Color colorX = new Color(0);
-		final Color colorY = new Color(1);
+		final Color colorX = Color.of(0);
+		final Color colorY = Color.of(1);
 		final Board board = new Board();
 		final ColoredAlligator lambdaY = new ColoredAlligator(false, false,
 				colorY, false);
@@ -63,8 +63,8 @@ public class ReplaceEggsTest extends TestCase {
 	public void testSimpleRecolorBound() {
 		// this is not necessary in lambda calculus, but required by the game
 		// (\x . (\y . x)) (\y . y) -> \y . (\z . z)
-		final Color colorX = new Color(0);
-		final Color colorY = new Color(1);
+		final Color colorX = Color.of(0);
+		final Color colorY = Color.of(1);
 		final Board board = new Board();
 		final ColoredAlligator lambdaY1 = new ColoredAlligator(false, false,
 				colorY, false);
@@ -96,38 +96,70 @@ public class ReplaceEggsTest extends TestCase {
 		assertFalse(z.getColor().equals(lambdaY1.getColor()));
 	}
 
+	public void testRecolorFreeOnPath() {
+		// (λx . (λy . (λy . x) x)) y -> λz . (λz . y) y
+		final Color colorX = Color.of(0);
+		final Color colorY = Color.of(1);
+		final Board board = new Board();
+		final ColoredAlligator lambdaY1 = new ColoredAlligator(false, false,
+				colorY, false);
+		final ColoredAlligator lambdaY2 = new ColoredAlligator(false, false,
+				colorY, false);
+		final Egg x1 = new Egg(false, false, colorX, false);
+		final Egg x2 = new Egg(false, false, colorX, false);
+		final Egg y = new Egg(false, false, colorY, false);
+
+		board.addChild(lambdaY1);
+		lambdaY1.addChild(lambdaY2);
+		lambdaY1.addChild(x2);
+		lambdaY2.addChild(x1);
+
+		try {
+			ReplaceEggs.replace(lambdaY1, colorX, y, new ColorController());
+		} catch (ColorOverflowException e) {
+			fail();
+		}
+
+		final Color renamed = lambdaY1.getColor();
+		assertFalse(renamed.equals(colorY));
+		assertFalse(renamed.equals(colorX));
+		assertEquals(renamed, lambdaY2.getColor());
+		assertTrue(y.match(lambdaY2.getFirstChild()));
+		assertTrue(y.match(lambdaY1.getChildAtPosition(1)));
+	}
+
 	public void testColorOverflowException() {
 		final Board board = new Board();
 		Parent currentParent = board;
 		for (int i = 1; i < Color.MAX_COLORS; i++) {
 			final ColoredAlligator alligator = new ColoredAlligator(false,
-					false, new Color(i), false);
+					false, Color.of(i), false);
 			currentParent.addChild(alligator);
 			currentParent = alligator;
 		}
-		currentParent.addChild(new Egg(false, false, new Color(0), false));
+		currentParent.addChild(new Egg(false, false, Color.of(0), false));
 		final AgedAlligator bornFamily = new AgedAlligator(false, false);
 		currentParent = bornFamily;
 		for (int i = 0; i < Color.MAX_COLORS; i++) {
 			final ColoredAlligator alligator = new ColoredAlligator(false,
-					false, new Color(i), false);
+					false, Color.of(i), false);
 			currentParent.addChild(alligator);
 			currentParent = alligator;
 		}
 		for (int i = 0; i < Color.MAX_COLORS; i++) {
-			currentParent.addChild(new Egg(false, false, new Color(0), false));
+			currentParent.addChild(new Egg(false, false, Color.of(0), false));
 		}
 		final Board boardCopy = board.copy();
 		final AgedAlligator bornFamilyCopy = bornFamily.copy();
 		try {
-			ReplaceEggs.replace(board, new Color(0), bornFamily,
+			ReplaceEggs.replace(board, Color.of(0), bornFamily,
 					new ColorController());
 			fail();
 		} catch (ColorOverflowException e) {
 		}
 
 		try {
-			ReplaceEggs.replace(boardCopy, new Color(0), bornFamilyCopy,
+			ReplaceEggs.replace(boardCopy, Color.of(0), bornFamilyCopy,
 					new BoardEventMessenger(), new ColorController());
 			fail();
 		} catch (ColorOverflowException e) {
@@ -141,17 +173,17 @@ public class ReplaceEggsTest extends TestCase {
 		Parent currentParent = board;
 		for (int i = 1; i < Color.MAX_COLORS; i++) {
 			final ColoredAlligator alligator = new ColoredAlligator(false,
-					false, new Color(i), false);
+					false, Color.of(i), false);
 			currentParent.addChild(alligator);
 			currentParent = alligator;
 		}
-		currentParent.addChild(new Egg(false, false, new Color(0), false));
+		currentParent.addChild(new Egg(false, false, Color.of(0), false));
 		final AgedAlligator bornFamily = new AgedAlligator(false, false);
 		for (int i = 0; i < Color.MAX_COLORS; i++) {
-			bornFamily.addChild(new Egg(false, false, new Color(i), false));
+			bornFamily.addChild(new Egg(false, false, Color.of(i), false));
 		}
 		try {
-			ReplaceEggs.replace(board, new Color(0), bornFamily,
+			ReplaceEggs.replace(board, Color.of(0), bornFamily,
 					new ColorController());
 			fail();
 		} catch (ColorOverflowException e) {
@@ -0,0 +1,79 @@
+package de.croggle.game.board.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.BoardObject;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.Parent;
+
+public class TraversalStackTest extends TestCase {
+
+	public void testNestedTraversals() {
+		final Board b = new Board();
+		final ColoredAlligator a1 = new ColoredAlligator(true, true,
+				Color.of(1), true);
+		final Egg e11 = new Egg(true, true, Color.of(1), true);
+		final Egg e12 = new Egg(true, true, Color.of(2), true);
+		final ColoredAlligator a2 = new ColoredAlligator(true, true,
+				Color.of(2), true);
+		final Egg e21 = new Egg(true, true, Color.of(1), true);
+		b.addChild(a1);
+		b.addChild(a2);
+		a1.addChild(e11);
+		a1.addChild(e12);
+		a2.addChild(e21);
+
+		final ArrayList<BoardObject> result = new ArrayList<BoardObject>();
+		final ArrayList<Integer> counts = new ArrayList<Integer>();
+		final DFBUVisitor visitor = new DFBUVisitor() {
+			@Override
+			protected void dispatchColoredAlligator(ColoredAlligator alligator) {
+				result.add(alligator);
+				// starts further traversals while this one is running
+				counts.add(CountMatchingEggs.count(alligator, Color.of(1)));
+				CopyConstellation.copy(alligator);
+			}
+
+			@Override
+			protected void dispatchEgg(Egg egg) {
+				result.add(egg);
+			}
+
+			@Override
+			protected void dispatchBoard(Board board) {
+				result.add(board);
+			}
+		};
+		final int size = TraversalStack.get().size();
+		visitor.beginTraversal(b);
+
+		assertEquals(Arrays.asList(e11, e12, a1, e21, a2, b), result);
+		assertEquals(Arrays.asList(1, 1), counts);
+		assertEquals(size, TraversalStack.get().size());
+	}
+
+	public void testDeepAndWideFamilies() {
+		final Board b = new Board();
+		Parent current = b;
+		for (int i = 0; i < 1000; i++) {
+			final AgedAlligator aged = new AgedAlligator(true, true);
+			current.addChild(aged);
+			current.addChild(new Egg(true, true, Color.of(i % 30), true));
+			current = aged;
+		}
+		for (int i = 0; i < 1000; i++) {
+			current.addChild(new Egg(true, true, Color.of(0), true));
+		}
+
+		assertEquals(3001, FlattenTree.toArray(b).length);
+		assertEquals(1034, CountMatchingEggs.count(b, Color.of(0)));
+		assertTrue(b.match(CopyConstellation.copy(b)));
+		assertEquals(0, TraversalStack.get().size());
+	}
+}
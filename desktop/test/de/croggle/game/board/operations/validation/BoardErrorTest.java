@@ -11,7 +11,7 @@ import de.croggle.game.board.InternalBoardObject;
 
 public class BoardErrorTest extends TestCase {
 	public void testAbstractBoardError() {
-		final BoardObject boardObject = new Egg(false, false, new Color(0),
+		final BoardObject boardObject = new Egg(false, false, Color.of(0),
 				false);
 		final AbstractBoardError boardError = new AbstractBoardError(
 				boardObject) {
@@ -88,7 +88,7 @@ public class BoardErrorTest extends TestCase {
 
 	public void testColoredAlligatorChildlessErrorDispatch() {
 		final ColoredAlligator colored = new ColoredAlligator(false, false,
-				new Color(0), false);
+				Color.of(0), false);
 		final ColoredAlligatorChildlessError error = new ColoredAlligatorChildlessError(
 				colored);
 		error.haveDispatched(new BoardErrorDispatcher() {
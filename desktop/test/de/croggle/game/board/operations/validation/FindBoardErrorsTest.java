@@ -21,7 +21,7 @@ public class FindBoardErrorsTest extends TestCase {
 	}
 
 	public void testUncoloredEgg() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				false);
 		b.addChild(a);
 		a.addChild(new Egg(true, true, Color.uncolored(), true));
@@ -57,7 +57,7 @@ public class FindBoardErrorsTest extends TestCase {
 	}
 
 	public void testEmptyColoredAlligator() {
-		b.addChild(new ColoredAlligator(true, true, new Color(0), false));
+		b.addChild(new ColoredAlligator(true, true, Color.of(0), false));
 		List<BoardError> result = FindBoardErrors
 				.find(b,
 						new BoardErrorType[] { BoardErrorType.COLOREDALLIGATOR_CHILDLESS });
@@ -67,10 +67,10 @@ public class FindBoardErrorsTest extends TestCase {
 	}
 
 	public void testNoUncolored() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				false);
 		b.addChild(a);
-		a.addChild(new Egg(true, true, new Color(1), true));
+		a.addChild(new Egg(true, true, Color.of(1), true));
 		List<BoardError> result = FindBoardErrors.find(b,
 				new BoardErrorType[] { BoardErrorType.OBJECT_UNCOLORED });
 		assertEquals(0, result.size());
@@ -78,7 +78,7 @@ public class FindBoardErrorsTest extends TestCase {
 
 	public void testNoEmptyAgedAlligator() {
 		AgedAlligator a = new AgedAlligator(true, true);
-		a.addChild(new Egg(true, true, new Color(0), true));
+		a.addChild(new Egg(true, true, Color.of(0), true));
 		b.addChild(a);
 		List<BoardError> result = FindBoardErrors
 				.find(b,
@@ -87,16 +87,16 @@ public class FindBoardErrorsTest extends TestCase {
 	}
 
 	public void testNoEmptyBoard() {
-		b.addChild(new Egg(true, true, new Color(1), true));
+		b.addChild(new Egg(true, true, Color.of(1), true));
 		List<BoardError> result = FindBoardErrors.find(b,
 				new BoardErrorType[] { BoardErrorType.EMPTY_BOARD });
 		assertEquals(0, result.size());
 	}
 
 	public void testNoEmptyColoredAlligator() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
-		a.addChild(new Egg(true, true, new Color(0), true));
+		a.addChild(new Egg(true, true, Color.of(0), true));
 		b.addChild(a);
 		List<BoardError> result = FindBoardErrors
 				.find(b,
@@ -106,7 +106,7 @@ public class FindBoardErrorsTest extends TestCase {
 
 	public void testMultipleErrors() {
 		b.addChild(new AgedAlligator(true, true)); // AgedAlligatorChildless
-		b.addChild(new ColoredAlligator(true, true, new Color(0), true)); // ColoredAlligatorChildless
+		b.addChild(new ColoredAlligator(true, true, Color.of(0), true)); // ColoredAlligatorChildless
 		b.addChild(new Egg(true, true, Color.uncolored(), true)); // ObjectUncolored
 
 		List<BoardError> result = FindBoardErrors.find(b, BoardErrorType.all());
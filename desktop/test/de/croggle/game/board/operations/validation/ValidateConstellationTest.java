@@ -16,7 +16,7 @@ public class ValidateConstellationTest extends TestCase {
 	}
 
 	public void testUncoloredEgg() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				false);
 		b.addChild(a);
 		a.addChild(new Egg(true, true, Color.uncolored(), true));
@@ -44,7 +44,7 @@ public class ValidateConstellationTest extends TestCase {
 	}
 
 	public void testEmptyColoredAlligator() {
-		b.addChild(new ColoredAlligator(true, true, new Color(0), false));
+		b.addChild(new ColoredAlligator(true, true, Color.of(0), false));
 		assertFalse(ValidateConstellation
 				.isValid(
 						b,
@@ -52,17 +52,17 @@ public class ValidateConstellationTest extends TestCase {
 	}
 
 	public void testNoUncolored() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				false);
 		b.addChild(a);
-		a.addChild(new Egg(true, true, new Color(1), true));
+		a.addChild(new Egg(true, true, Color.of(1), true));
 		assertTrue(ValidateConstellation.isValid(b,
 				new BoardErrorType[] { BoardErrorType.OBJECT_UNCOLORED }));
 	}
 
 	public void testNoEmptyAgedAlligator() {
 		AgedAlligator a = new AgedAlligator(true, true);
-		a.addChild(new Egg(true, true, new Color(0), true));
+		a.addChild(new Egg(true, true, Color.of(0), true));
 		b.addChild(a);
 		assertTrue(ValidateConstellation
 				.isValid(
@@ -71,15 +71,15 @@ public class ValidateConstellationTest extends TestCase {
 	}
 
 	public void testNoEmptyBoard() {
-		b.addChild(new Egg(true, true, new Color(1), true));
+		b.addChild(new Egg(true, true, Color.of(1), true));
 		assertTrue(ValidateConstellation.isValid(b,
 				new BoardErrorType[] { BoardErrorType.EMPTY_BOARD }));
 	}
 
 	public void testNoEmptyColoredAlligator() {
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
-		a.addChild(new Egg(true, true, new Color(0), true));
+		a.addChild(new Egg(true, true, Color.of(0), true));
 		b.addChild(a);
 		assertTrue(ValidateConstellation
 				.isValid(
@@ -91,11 +91,11 @@ public class ValidateConstellationTest extends TestCase {
 		final Board board = new Board();
 		final AgedAlligator agedAlligator = new AgedAlligator(false, false);
 		final ColoredAlligator colored1 = new ColoredAlligator(false, false,
-				new Color(0), false);
+				Color.of(0), false);
 		final ColoredAlligator colored2 = new ColoredAlligator(false, false,
-				new Color(1), false);
-		final Egg egg1 = new Egg(false, false, new Color(0), false);
-		final Egg egg2 = new Egg(false, false, new Color(0), false);
+				Color.of(1), false);
+		final Egg egg1 = new Egg(false, false, Color.of(0), false);
+		final Egg egg2 = new Egg(false, false, Color.of(0), false);
 		board.addChild(agedAlligator);
 		colored1.addChild(egg1);
 		colored2.addChild(egg2);
@@ -104,7 +104,7 @@ public class ValidateConstellationTest extends TestCase {
 
 	public void testSimpleChildless() {
 		assertFalse(ValidateConstellation.isValid(new ColoredAlligator(false,
-				false, new Color(0), false)));
+				false, Color.of(0), false)));
 	}
 
 	public void testSimpleUncolored() {
@@ -0,0 +1,180 @@
+package de.croggle.game.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.ColorController;
+import de.croggle.game.Simulator;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.ColoredBoardObject;
+import de.croggle.game.board.Egg;
+import de.croggle.game.board.InternalBoardObject;
+import de.croggle.util.convert.LambdaToAlligator;
+
+public class BoardEventMessengerTest extends TestCase {
+
+	public void testEventsOutsideOfSteps() {
+		final BoardEventMessenger messenger = new BoardEventMessenger();
+		final RecordingListener single = new RecordingListener();
+		final RecordingStepListener batched = new RecordingStepListener();
+		messenger.register(single);
+		messenger.register(batched);
+
+		final Egg egg = new Egg(true, true, Color.of(0), true);
+		messenger.notifyObjectPlaced(egg);
+		messenger.notifyObjectRecolored(egg);
+		assertEquals(2, single.events.size());
+		assertEquals(single.events, batched.events);
+		assertEquals(0, batched.steps);
+	}
+
+	public void testEventsOfASimulationStep() throws Exception {
+		final BoardEventMessenger messenger = new BoardEventMessenger();
+		final RecordingListener single = new RecordingListener();
+		final RecordingStepListener batched = new RecordingStepListener();
+		messenger.register(single);
+		messenger.register(batched);
+
+		final Board board = LambdaToAlligator.convert("(λx.x x) (λy.y)");
+		final Simulator simulator = new Simulator(board,
+				new ColorController(), messenger);
+		assertTrue(simulator.evaluate());
+
+		assertEquals(1, batched.steps);
+		assertEquals(2, batched.hatched);
+		assertEquals(single.events, batched.events);
+		assertEquals("eat", single.events.get(0));
+		assertEquals("age", single.events.get(1));
+		assertEquals("hatched", single.events.get(2));
+		assertEquals("hatched", single.events.get(3));
+		assertFalse(messenger.isInStep());
+	}
+
+	public void testNestedSteps() {
+		final BoardEventMessenger messenger = new BoardEventMessenger();
+		final RecordingListener single = new RecordingListener();
+		final RecordingStepListener batched = new RecordingStepListener();
+		messenger.register(single);
+		messenger.register(batched);
+
+		final Egg egg = new Egg(true, true, Color.of(0), true);
+		messenger.beginStep();
+		messenger.notifyObjectMoved(egg);
+		messenger.beginStep();
+		messenger.notifyObjectRemoved(egg);
+		messenger.endStep();
+		assertTrue(messenger.isInStep());
+		assertTrue(single.events.isEmpty());
+		messenger.endStep();
+
+		assertEquals(1, batched.steps);
+		assertEquals(2, single.events.size());
+		assertEquals(single.events, batched.events);
+
+		// steps without events are not delivered
+		messenger.beginStep();
+		messenger.endStep();
+		assertEquals(1, batched.steps);
+		try {
+			messenger.endStep();
+			fail("Exception should have been thrown.");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/**
+	 * Events are delivered to the listeners registered when they were sent,
+	 * even if listeners change while the event is delivered.
+	 */
+	public void testListenersChangingDuringEvent() {
+		final BoardEventMessenger messenger = new BoardEventMessenger();
+		final RecordingListener late = new RecordingListener();
+		final RecordingListener once = new RecordingListener() {
+			@Override
+			public void onObjectPlaced(InternalBoardObject placed) {
+				super.onObjectPlaced(placed);
+				messenger.unregister(this);
+				messenger.register(late);
+			}
+		};
+		final RecordingListener other = new RecordingListener();
+		messenger.register(once);
+		messenger.register(other);
+
+		final Egg egg = new Egg(true, true, Color.of(0), true);
+		messenger.notifyObjectPlaced(egg);
+		messenger.notifyObjectMoved(egg);
+		assertEquals(1, once.events.size());
+		assertEquals(2, other.events.size());
+		assertEquals(1, late.events.size());
+		assertEquals("moved", late.events.get(0));
+	}
+
+	private static class RecordingStepListener extends RecordingListener
+			implements StepEventListener {
+		private int steps;
+		private int hatched;
+
+		@Override
+		public void onStep(StepEvents events) {
+			steps++;
+			hatched += events.count(StepEvents.Type.HATCHED);
+			events.deliverTo(this);
+		}
+	}
+
+	private static class RecordingListener implements BoardEventListener {
+		final List<String> events = new ArrayList<String>();
+
+		@Override
+		public void onHatched(Egg replacedEgg, InternalBoardObject bornFamily) {
+			events.add("hatched");
+		}
+
+		@Override
+		public void onObjectRecolored(ColoredBoardObject recoloredObject) {
+			events.add("recolored");
+		}
+
+		@Override
+		public void onEat(ColoredAlligator eater,
+				InternalBoardObject eatenFamily, int eatenPositionInParent) {
+			events.add("eat");
+		}
+
+		@Override
+		public void onBoardRebuilt(Board board) {
+			events.add("rebuilt");
+		}
+
+		@Override
+		public void onAgedAlligatorVanishes(AgedAlligator alligator,
+				int positionInParent) {
+			events.add("vanishes");
+		}
+
+		@Override
+		public void onAge(ColoredAlligator colored, AgedAlligator aged) {
+			events.add("age");
+		}
+
+		@Override
+		public void onObjectPlaced(InternalBoardObject placed) {
+			events.add("placed");
+		}
+
+		@Override
+		public void onObjectRemoved(InternalBoardObject removed) {
+			events.add("removed");
+		}
+
+		@Override
+		public void onObjectMoved(InternalBoardObject moved) {
+			events.add("moved");
+		}
+	}
+}
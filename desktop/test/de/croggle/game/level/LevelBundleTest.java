@@ -0,0 +1,139 @@
+package de.croggle.game.level;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import de.croggle.util.convert.JsonToAlligator;
+
+public class LevelBundleTest extends TestCase {
+
+	private static final File LEVELS = new File("assets/json/levels");
+	// compiled from the levels directory by the core project's build
+	private static final File BUNDLE = new File("assets/json/levels.bundle");
+
+	private byte[] data;
+	private LevelBundle bundle;
+
+	@Override
+	protected void setUp() throws Exception {
+		data = new FileHandle(BUNDLE).readBytes();
+		bundle = new LevelBundle(ByteBuffer.wrap(data));
+	}
+
+	public void testPackages() {
+		List<LevelBundle.PackageEntry> packages = bundle.getPackages();
+		assertEquals(2, packages.size());
+		assertEquals(0, packages.get(0).id);
+		assertEquals("Erstes Paket", packages.get(0).name);
+		assertEquals("design/egypt.png", packages.get(0).design);
+		assertEquals("", packages.get(0).animation);
+		assertEquals(1, packages.get(1).id);
+
+		assertEquals(12, bundle.getLevelCount(0));
+		assertEquals(7, bundle.getLevelCount(1));
+		assertEquals(0, bundle.getLevelCount(2));
+		assertTrue(Arrays.equals(new int[] { 0, 1, 2, 3, 4, 5, 6 },
+				bundle.getLevelIds(1)));
+		assertEquals(0, bundle.getLevelIds(5).length);
+	}
+
+	public void testLevels() {
+		LevelData level = bundle.readLevel(0, 0);
+		assertEquals("color edit", level.type);
+		assertEquals(Integer.valueOf(-10), level.abortSimulationAfter);
+		assertEquals("hints/0000", level.hint);
+		assertEquals("tutorial/introduction.png", level.animation.get(0));
+		assertEquals(6, level.userColors.length);
+		assertNull(level.answers);
+
+		level = bundle.readLevel(0, 6);
+		assertEquals("multiple choice", level.type);
+		assertEquals(3, level.answers.length);
+		assertNotNull(level.correctAnswer);
+		assertNotNull(level.initial);
+		assertNull(level.initialConstellation);
+
+		try {
+			bundle.readLevel(1, 7);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			bundle.readLevel(2, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * The boards of the bundle have to match the ones of the json files.
+	 */
+	public void testBoards() throws IOException {
+		for (LevelBundle.PackageEntry entry : bundle.getPackages()) {
+			for (int levelId : bundle.getLevelIds(entry.id)) {
+				LevelData level = bundle.readLevel(entry.id, levelId);
+				FileHandle json = new FileHandle(new File(LEVELS, String.format(
+						"%02d/%02d.json", entry.id, levelId)));
+				String content = json.readString("UTF-8");
+				if (level.goalBoard != null) {
+					assertTrue(level.goalBoard.match(JsonToAlligator
+							.convertBoard(objective(content))));
+				}
+			}
+		}
+	}
+
+	public void testMappedFile() throws IOException {
+		File file = File.createTempFile("levels", ".bundle");
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			try {
+				out.write(data);
+			} finally {
+				out.close();
+			}
+			LevelBundle mapped = LevelBundle.open(new FileHandle(file));
+			assertEquals(bundle.getPackages().size(), mapped.getPackages()
+					.size());
+			assertTrue(bundle.readLevel(0, 1).goalBoard.match(mapped
+					.readLevel(0, 1).goalBoard));
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testInvalidBundle() {
+		byte[] invalid = data.clone();
+		invalid[0] = 0;
+		try {
+			new LevelBundle(ByteBuffer.wrap(invalid));
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Cuts the objective board out of the content of a level json file.
+	 */
+	private static String objective(String content) {
+		int start = content.indexOf('{', content.indexOf("\"objective\""));
+		int depth = 0;
+		for (int i = start; i < content.length(); i++) {
+			char c = content.charAt(i);
+			if (c == '{') {
+				depth++;
+			} else if (c == '}' && --depth == 0) {
+				return content.substring(start, i + 1);
+			}
+		}
+		throw new IllegalArgumentException("No objective found");
+	}
+}
@@ -32,12 +32,12 @@ public class LoadColorEditLevelFromJsonTest extends PlatformTestCase {
 	public void testSolved() {
 		Level l = LevelLoadHelper.instantiate(0, 0, app);
 		final Board board = new Board();
-		final Color color = new Color(8);
+		final Color color = Color.of(8);
 		final Egg egg = new Egg(false, false, color, false);
 		board.addChild(egg);
 		assertFalse(l.isLevelSolved(board, 1));
 		final Board board1 = new Board();
-		final Color color1 = new Color(14);
+		final Color color1 = Color.of(14);
 		final Egg egg1 = new Egg(false, false, color1, false);
 		board1.addChild(egg1);
 		assertTrue(l.isLevelSolved(board1, 1));
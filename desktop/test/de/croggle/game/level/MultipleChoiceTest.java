@@ -31,12 +31,12 @@ public class MultipleChoiceTest extends PlatformTestCase {
 	public void testSolved() {
 		Level l = LevelLoadHelper.instantiate(0, 6, app);
 		final Board board = new Board();
-		final Color color = new Color(1);
+		final Color color = Color.of(1);
 		final Egg egg = new Egg(false, false, color, false);
 		board.addChild(egg);
 		assertFalse(l.isLevelSolved(board, 1));
 		final Board board1 = new Board();
-		final Color color1 = new Color(5);
+		final Color color1 = Color.of(5);
 		final Egg egg1 = new Egg(false, false, color1, false);
 		board1.addChild(egg1);
 		assertTrue(l.isLevelSolved(board1, 1));
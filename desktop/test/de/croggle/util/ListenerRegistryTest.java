@@ -0,0 +1,150 @@
+package de.croggle.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import junit.framework.TestCase;
+
+public class ListenerRegistryTest extends TestCase {
+	private ListenerRegistry<Counter> registry;
+
+	protected void setUp() {
+		registry = new ListenerRegistry<Counter>();
+	}
+
+	public void testAddAndRemove() {
+		final Counter first = new Counter();
+		final Counter second = new Counter();
+		registry.add(first);
+		registry.add(second);
+		registry.add(first);
+		assertEquals(3, registry.size());
+
+		registry.publish(INCREMENT);
+		assertEquals(2, first.count);
+		assertEquals(1, second.count);
+
+		assertTrue(registry.remove(first));
+		assertTrue(registry.remove(second));
+		assertFalse(registry.remove(second));
+		assertEquals(1, registry.size());
+		registry.clear();
+		assertTrue(registry.isEmpty());
+
+		try {
+			registry.add(null);
+			fail("Exception should have been thrown.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testChangesWhileNotifying() {
+		final Counter late = new Counter();
+		final Counter first = new Counter() {
+			@Override
+			void increment() {
+				super.increment();
+				registry.remove(this);
+				registry.add(late);
+			}
+		};
+		final Counter second = new Counter();
+		registry.add(first);
+		registry.add(second);
+
+		// every notification reaches the listeners registered when it was sent
+		registry.publish(INCREMENT);
+		assertEquals(1, first.count);
+		assertEquals(1, second.count);
+		assertEquals(0, late.count);
+
+		registry.publish(INCREMENT);
+		assertEquals(1, first.count);
+		assertEquals(2, second.count);
+		assertEquals(1, late.count);
+	}
+
+	public void testSnapshotIteration() {
+		final Counter first = new Counter();
+		registry.add(first);
+		final Iterator<Counter> it = registry.iterator();
+		registry.add(new Counter());
+		registry.remove(first);
+		assertSame(first, it.next());
+		assertFalse(it.hasNext());
+		try {
+			it.remove();
+			fail("Exception should have been thrown.");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	public void testQueuedExecutor() {
+		final List<Runnable> queue = new ArrayList<Runnable>();
+		registry.setExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				queue.add(command);
+			}
+		});
+		final Counter counter = new Counter();
+		registry.add(counter);
+		registry.publish(INCREMENT);
+		registry.publish(INCREMENT);
+		assertEquals(0, counter.count);
+		assertEquals(2, queue.size());
+
+		for (Runnable command : queue) {
+			command.run();
+		}
+		assertEquals(2, counter.count);
+
+		try {
+			registry.setExecutor(null);
+			fail("Exception should have been thrown.");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testConcurrentChanges() throws Exception {
+		final int perThread = 500;
+		final Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < perThread; j++) {
+						final Counter counter = new Counter();
+						registry.add(counter);
+						registry.add(new Counter());
+						registry.remove(counter);
+					}
+				}
+			};
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(threads.length * perThread, registry.size());
+	}
+
+	private static final ListenerRegistry.Notification<Counter> INCREMENT = new ListenerRegistry.Notification<Counter>() {
+		@Override
+		public void notify(Counter listener) {
+			listener.increment();
+		}
+	};
+
+	private static class Counter {
+		int count;
+
+		void increment() {
+			count++;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package de.croggle.util;
+
+import junit.framework.TestCase;
+
+public class LongPairTableTest extends TestCase {
+	private LongPairTable table;
+
+	protected void setUp() {
+		table = new LongPairTable();
+	}
+
+	public void testPutAndGet() {
+		assertEquals(-1, table.get(1, 2));
+		table.put(1, 2, 3);
+		assertEquals(3, table.get(1, 2));
+		assertEquals(-1, table.get(2, 1));
+		assertEquals(-1, table.get(1, 3));
+		table.put(1, 2, 4);
+		assertEquals(4, table.get(1, 2));
+		assertEquals(1, table.size());
+	}
+
+	public void testZeroKey() {
+		assertEquals(-1, table.get(0, 0));
+		table.put(0, 0, 0);
+		assertEquals(0, table.get(0, 0));
+	}
+
+	public void testNegativeValue() {
+		try {
+			table.put(1, 2, -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testGrowAndRemove() {
+		final int count = 1000;
+		for (int i = 0; i < count; i++) {
+			table.put(i * 31L, -i, i);
+		}
+		assertEquals(count, table.size());
+		for (int i = 0; i < count; i += 2) {
+			assertEquals(i, table.remove(i * 31L, -i));
+		}
+		assertEquals(-1, table.remove(0, 0));
+		assertEquals(count / 2, table.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(i % 2 == 0 ? -1 : i, table.get(i * 31L, -i));
+		}
+
+		table.clear();
+		assertEquals(0, table.size());
+		assertEquals(-1, table.get(31, -1));
+	}
+
+	/**
+	 * Removing an entry must not hide the entries probed after it, even if
+	 * all keys share the same slot.
+	 */
+	public void testRemoveCollidingKeys() {
+		for (int i = 0; i < 10; i++) {
+			table.put(i * 0x9E3779B97F4A7C15L, i, i);
+		}
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, table.remove(i * 0x9E3779B97F4A7C15L, i));
+			for (int j = i + 1; j < 10; j++) {
+				assertEquals(j, table.get(j * 0x9E3779B97F4A7C15L, j));
+			}
+		}
+	}
+}
@@ -60,6 +60,17 @@ public class RingBufferTest extends TestCase {
 		assertTrue(ringBuffer.size() == 2);
 	}
 
+	public void testClear() {
+		for (int i = 0; i < TEST_SIZE; i++) {
+			ringBuffer.push(new Object());
+		}
+		assertTrue(ringBuffer.isFull());
+		ringBuffer.clear();
+		assertEquals(0, ringBuffer.size());
+		assertFalse(ringBuffer.isFull());
+		testEmptyPop();
+	}
+
 	public void testIllegalSize() throws IllegalArgumentException {
 		try {
 			ringBuffer = new RingBuffer<Object>(-1);
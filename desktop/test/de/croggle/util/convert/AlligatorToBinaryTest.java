@@ -0,0 +1,124 @@
+package de.croggle.util.convert;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import de.croggle.game.Color;
+import de.croggle.game.board.AgedAlligator;
+import de.croggle.game.board.Board;
+import de.croggle.game.board.ColoredAlligator;
+import de.croggle.game.board.Egg;
+
+public class AlligatorToBinaryTest extends TestCase {
+
+	/**
+	 * A simple test with a manually created alligator tree.
+	 */
+	public void testSimpleManual() {
+		Board b = new Board();
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
+				true);
+		b.addChild(a);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
+		a.addChild(e1);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
+		b.addChild(e2);
+		Egg e3 = new Egg(true, true, Color.of(1), true);
+		b.addChild(e3);
+
+		byte[] expected = { 1, 0x60, 0x3e, 1, 0x1d, 1, 0x1d, 2, 0x1d, 2 };
+		byte[] actual = AlligatorToBinary.convert(b);
+		assertTrue(Arrays.toString(actual), Arrays.equals(expected, actual));
+		assertEquals(expected.length, AlligatorToBinary.size(b));
+		assertTrue(b.match(BinaryToAlligator.convert(actual)));
+	}
+
+	/**
+	 * Flags, uncolored objects and parents with too many children to pack
+	 * their number into the header have to survive the round trip, and the
+	 * result has to have the same json representation as the original.
+	 */
+	public void testRoundTrip() {
+		Board b = new Board();
+		AgedAlligator aged = new AgedAlligator(false, true);
+		ColoredAlligator many = new ColoredAlligator(true, false,
+				Color.of(29), false);
+		for (int i = 0; i < 200; i++) {
+			many.addChild(new Egg(i % 2 == 0, i % 3 == 0, Color.of(i
+					% Color.MAX_COLORS), i % 5 == 0));
+		}
+		aged.addChild(many);
+		aged.addChild(new Egg(false, false, Color.uncolored(), false));
+		b.addChild(aged);
+		b.addChild(new AgedAlligator(true, false));
+		for (int i = 0; i < 7; i++) {
+			b.addChild(new ColoredAlligator(false, false, Color.of(i), true));
+		}
+
+		byte[] binary = AlligatorToBinary.convert(b);
+		Board converted = BinaryToAlligator.convertBoard(ByteBuffer
+				.wrap(binary));
+		assertTrue(b.match(converted));
+		assertEquals(AlligatorToJson.convert(b),
+				AlligatorToJson.convert(converted));
+		assertTrue(binary.length * 20 < AlligatorToJson.convert(b).length());
+	}
+
+	public void testJsonRoundTrip() {
+		String json = AlligatorToJson.convert(LambdaToAlligator
+				.convert("(λx.λy.x y (λz.z)) (λf.f) a b"));
+		byte[] binary = AlligatorToBinary.convert(JsonToAlligator
+				.convertBoard(json));
+		assertEquals(json,
+				AlligatorToJson.convert(BinaryToAlligator.convert(binary)));
+	}
+
+	/**
+	 * Several objects can be written into a single buffer and read back one
+	 * after another.
+	 */
+	public void testSharedBuffer() {
+		Board board = LambdaToAlligator.convert("λx.x x");
+		Egg egg = new Egg(true, false, Color.of(3), true);
+		ByteBuffer buffer = ByteBuffer.allocate(AlligatorToBinary.size(board)
+				+ AlligatorToBinary.size(egg));
+		AlligatorToBinary.convert(board, buffer);
+		AlligatorToBinary.convert(egg, buffer);
+		assertFalse(buffer.hasRemaining());
+
+		buffer.flip();
+		assertTrue(board.match(BinaryToAlligator.convertBoard(buffer)));
+		assertTrue(egg.match(BinaryToAlligator
+				.convertInternalBoardObject(buffer)));
+		assertFalse(buffer.hasRemaining());
+	}
+
+	public void testErrors() {
+		byte[] binary = AlligatorToBinary.convert(LambdaToAlligator
+				.convert("λx.x"));
+		assertInvalid(Arrays.copyOf(binary, binary.length - 1));
+		byte[] version = binary.clone();
+		version[0] = 2;
+		assertInvalid(version);
+		// a board as the child of a board
+		assertInvalid(new byte[] { 1, 0x20, 0 });
+		// color id too large
+		assertInvalid(new byte[] { 1, 1, 31 });
+
+		try {
+			BinaryToAlligator.convertBoard(ByteBuffer.wrap(AlligatorToBinary
+					.convert(new Egg(true, true, Color.of(0), true))));
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	private static void assertInvalid(byte[] binary) {
+		try {
+			BinaryToAlligator.convert(binary);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
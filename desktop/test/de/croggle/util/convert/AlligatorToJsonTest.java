@@ -14,14 +14,14 @@ public class AlligatorToJsonTest extends TestCase {
 	 */
 	public void testSimpleManual() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
-		Egg e3 = new Egg(true, true, new Color(1), true);
+		Egg e3 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e3);
 
 		String expected = "{\n\t\"" + "families\" : [\n" + "\t\t{\n"
@@ -53,11 +53,11 @@ public class AlligatorToJsonTest extends TestCase {
 		Board b = new Board();
 		AgedAlligator a = new AgedAlligator(true, true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
-		Egg e3 = new Egg(true, true, new Color(1), true);
+		Egg e3 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e3);
 
 		String expected = "{\n\t\"" + "families\" : [\n" + "\t\t{\n"
@@ -10,14 +10,53 @@ public class AlligatorToLambdaTest extends TestCase {
 
 	public void testSimpleTerm() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
 
 		assertEquals("(λx.x) y", AlligatorToLambda.convert(b));
 	}
+
+	public void testAppendable() {
+		Board b = LambdaToAlligator.convert("(λx.x x) λy.y");
+		StringBuilder out = new StringBuilder("term: ");
+		AlligatorToLambda.convert(b, out);
+		assertEquals("term: (λx.x x) λy.y", out.toString());
+	}
+
+	public void testMaxLength() {
+		Board b = LambdaToAlligator.convert("(λx.x x) λy.y");
+		assertEquals("(λx.x x) λy.y", AlligatorToLambda.convert(b, 13));
+		assertEquals("(λx.x x) λy.y", AlligatorToLambda.convert(b, 14));
+		assertEquals("(λx.x x) λy…", AlligatorToLambda.convert(b, 12));
+		assertEquals("…", AlligatorToLambda.convert(b, 1));
+		try {
+			AlligatorToLambda.convert(b, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		// only the beginning of a huge board is visited
+		Board huge = new Board();
+		for (int i = 0; i < 100000; i++) {
+			huge.addChild(new Egg(true, true, Color.of(i % Color.MAX_COLORS),
+					true));
+		}
+		assertEquals("x y z p…", AlligatorToLambda.convert(huge, 8));
+	}
+
+	public void testNames() {
+		Board b = new Board();
+		for (int i = Color.MAX_COLORS - 1; i >= 0; i--) {
+			b.addChild(new Egg(true, true, Color.of(i), true));
+		}
+		b.addChild(new Egg(true, true, Color.uncolored(), true));
+		b.addChild(new Egg(true, true, Color.of(0), true));
+		assertEquals("x y z p q r s t u v w a b c d e f g h i j k l m n o "
+				+ "α β γ δ ε δ", AlligatorToLambda.convert(b));
+	}
 }
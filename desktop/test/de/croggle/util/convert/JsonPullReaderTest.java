@@ -0,0 +1,109 @@
+package de.croggle.util.convert;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+public class JsonPullReaderTest extends TestCase {
+
+	public void testDocument() {
+		final JsonPullReader json = reader("{ \"name\" : \"a \\\"b\\\"\\n\\u00e4\", "
+				+ "\"numbers\" : [1, -20, 3e2], \"flag\" : false, "
+				+ "\"nothing\" : null, \"skipped\" : {\"a\" : [[], {}]} }");
+		json.beginObject();
+		assertEquals("name", json.nextName());
+		assertEquals("a \"b\"\nä", json.nextString());
+		assertEquals("numbers", json.nextName());
+		json.beginArray();
+		assertEquals(1, json.nextInt());
+		assertEquals(-20, json.nextInt());
+		assertEquals(JsonPullReader.Token.NUMBER, json.peek());
+		assertEquals(300, json.nextInt());
+		assertFalse(json.hasNext());
+		json.endArray();
+		assertEquals("flag", json.nextName());
+		assertFalse(json.nextBoolean());
+		assertEquals("nothing", json.nextName());
+		json.nextNull();
+		assertEquals("skipped", json.nextName());
+		json.skipValue();
+		assertFalse(json.hasNext());
+		json.endObject();
+		assertEquals(JsonPullReader.Token.END_DOCUMENT, json.peek());
+	}
+
+	public void testTrailingCommas() {
+		final JsonPullReader json = reader("[ {\"a\" : true,}, ]");
+		json.beginArray();
+		json.beginObject();
+		assertEquals("a", json.nextName());
+		assertTrue(json.nextBoolean());
+		json.endObject();
+		json.endArray();
+		assertFalse(json.hasNext());
+	}
+
+	public void testSingleCharacterReads() {
+		final String document = "{\"families\" : [ {\"type\" : \"egg\", "
+				+ "\"color\" : 12} ]}";
+		final JsonPullReader json = new JsonPullReader(new Reader() {
+			private final Reader in = new StringReader(document);
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				return in.read(cbuf, off, Math.min(len, 1));
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+		json.beginObject();
+		assertEquals("families", json.nextName());
+		json.beginArray();
+		json.beginObject();
+		assertEquals("type", json.nextName());
+		assertEquals("egg", json.nextString());
+		assertEquals("color", json.nextName());
+		assertEquals(12, json.nextInt());
+		json.endObject();
+		json.endArray();
+		json.endObject();
+		assertEquals(document.length(), json.position());
+	}
+
+	public void testErrors() {
+		assertErrorAt("{\"a\" 1}", 5);
+		assertErrorAt("[1 2]", 3);
+		assertErrorAt("[1, 2", 5);
+		assertErrorAt("{\"a\" : \"b", 9);
+		assertErrorAt("{} {}", 3);
+		assertErrorAt("[tru]", 1);
+
+		final JsonPullReader json = reader("{\"a\" : 1}");
+		json.beginObject();
+		try {
+			json.beginArray();
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	private static void assertErrorAt(String document, int position) {
+		final JsonPullReader json = reader(document);
+		try {
+			json.skipValue();
+			json.peek();
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(),
+					e.getMessage().endsWith(" at position " + position));
+		}
+	}
+
+	private static JsonPullReader reader(String document) {
+		return new JsonPullReader(new StringReader(document));
+	}
+}
@@ -1,5 +1,7 @@
 package de.croggle.util.convert;
 
+import java.io.StringReader;
+
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
@@ -58,14 +60,14 @@ public class JsonToAlligatorTest extends TestCase {
 		Board board = JsonToAlligator.convertBoard(start);
 		
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e2);
-		Egg e3 = new Egg(true, true, new Color(1), true);
+		Egg e3 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e3);
 		
 		
@@ -74,8 +76,8 @@ public class JsonToAlligatorTest extends TestCase {
 	}
 	
 	public void testInternalConvert() {
-		Egg e1 = new Egg(true, true, new Color(0), true);
-		ColoredAlligator c2 = new ColoredAlligator(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
+		ColoredAlligator c2 = new ColoredAlligator(true, true, Color.of(0), true);
 		c2.addChild(e1);
 		String testString = AlligatorToJson.convert(e1);
 		JsonValue testJson = new JsonValue(testString);
@@ -84,30 +86,30 @@ public class JsonToAlligatorTest extends TestCase {
 	
 	public void testMoreComplexManual() {
 		Board b = new Board();
-		ColoredAlligator a = new ColoredAlligator(true, true, new Color(0),
+		ColoredAlligator a = new ColoredAlligator(true, true, Color.of(0),
 				true);
 		b.addChild(a);
-		Egg e1 = new Egg(true, true, new Color(0), true);
+		Egg e1 = new Egg(true, true, Color.of(0), true);
 		a.addChild(e1);
-		Egg e2 = new Egg(true, true, new Color(1), true);
+		Egg e2 = new Egg(true, true, Color.of(1), true);
 		a.addChild(e2);
-		Egg e3 = new Egg(true, true, new Color(1), true);
+		Egg e3 = new Egg(true, true, Color.of(1), true);
 		b.addChild(e3);
 		AgedAlligator a2 = new AgedAlligator(true, true);
 		b.addChild(a2);
-		ColoredAlligator a3 = new ColoredAlligator(true, true, new Color(2),
+		ColoredAlligator a3 = new ColoredAlligator(true, true, Color.of(2),
 				true);
-		ColoredAlligator a4 = new ColoredAlligator(true, true, new Color(4),
+		ColoredAlligator a4 = new ColoredAlligator(true, true, Color.of(4),
 				true);
 		a2.addChild(a3);
 		a2.addChild(a4);
-		Egg e4 = new Egg(true, true, new Color(2), true);
-		Egg e5 = new Egg(true, true, new Color(6), true);
-		Egg e6 = new Egg(true, true, new Color(4), true);
+		Egg e4 = new Egg(true, true, Color.of(2), true);
+		Egg e5 = new Egg(true, true, Color.of(6), true);
+		Egg e6 = new Egg(true, true, Color.of(4), true);
 		a3.addChild(e4);
 		a3.addChild(e5);
 		a4.addChild(e6);
-		ColoredAlligator a5 = new ColoredAlligator(true, true, new Color(4),
+		ColoredAlligator a5 = new ColoredAlligator(true, true, Color.of(4),
 				true);
 		a4.addChild(a5);
 		AgedAlligator a6 = new AgedAlligator(true, true);
@@ -127,6 +129,30 @@ public class JsonToAlligatorTest extends TestCase {
 		assertTrue(b.match(bTest));
 	}
 	
+	public void testReader() {
+		Board b = LambdaToAlligator.convert("(λx.λy.x y) (λz.z) w");
+		Board converted = JsonToAlligator.convertBoard(new StringReader(
+				AlligatorToJson.convert(b)));
+		assertTrue(b.match(converted));
+	}
+
+	public void testMemberOrder() {
+		String json = "{ \"families\" : [ { \"children\" : [ { \"color\" : 3,"
+				+ " \"recolorable\" : false, \"type\" : \"egg\","
+				+ " \"removable\" : true, \"movable\" : false } ],"
+				+ " \"comment\" : { \"skipped\" : [ 1, 2 ] },"
+				+ " \"removable\" : false, \"movable\" : true,"
+				+ " \"type\" : \"aged alligator\" } ] }";
+		Board b = JsonToAlligator.convertBoard(json);
+		AgedAlligator aged = (AgedAlligator) b.getFirstChild();
+		assertTrue(aged.isMovable());
+		assertFalse(aged.isRemovable());
+		Egg e = (Egg) aged.getFirstChild();
+		assertEquals(Color.of(3), e.getColor());
+		assertFalse(e.isMovable());
+		assertFalse(e.isRecolorable());
+	}
+
 	public void testExceptions() {
 		String start = "{\n\t\"" + "families_fake\" : [\n" + "\t\t{\n"  // The name "family" was changed to provoke the exception.
 				+ "\t\t\t\"type\" : \"colored alligator\",\n"
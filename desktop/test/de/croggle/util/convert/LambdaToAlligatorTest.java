@@ -85,6 +85,57 @@ public class LambdaToAlligatorTest extends TestCase {
 		
 	}
 
+	public void testLongTerm() {
+		final StringBuilder term = new StringBuilder("λf.λx.");
+		final StringBuilder expected = new StringBuilder("λx.λy.");
+		for (int i = 0; i < 100; i++) {
+			term.append("f (");
+			expected.append("x (");
+		}
+		term.append("f x");
+		expected.append("x y");
+		for (int i = 0; i < 100; i++) {
+			term.append(')');
+			expected.append(')');
+		}
+		Board b = LambdaToAlligator.convert(term);
+		assertEquals(expected.toString(), AlligatorToLambda.convert(b));
+	}
+
+	public void testWhitespace() {
+		Board b = LambdaToAlligator.convert(" λ one .\tone\n( two )\r\n");
+		assertEquals("λx.x y", AlligatorToLambda.convert(b));
+		assertEquals(0, LambdaToAlligator.convert(" \t").getChildCount());
+	}
+
+	public void testColorAssignment() {
+		// bound names are colored before the free ones
+		Board b = LambdaToAlligator.convert("a λb.b a λc.c");
+		assertEquals(Color.of(2), ((Egg) b.getFirstChild()).getColor());
+		assertEquals("x λy.y x λz.z", AlligatorToLambda.convert(b));
+	}
+
+	public void testErrorPositions() {
+		assertErrorAt("(λx.x y", 0);
+		assertErrorAt("λx.(x.y)", 5);
+		assertErrorAt("λx.x) y", 4);
+		assertErrorAt("(λx x) y", 1);
+		assertErrorAt("λ.x", 0);
+		assertErrorAt("λx.", 3);
+		assertErrorAt("(λx. ) y", 5);
+		assertErrorAt("a b c d e f g h i j k l m n o p q r s t u v w x y z"
+				+ " aa ab ac ad ae af", 64);
+	}
+
+	private void assertErrorAt(String term, int position) {
+		try {
+			LambdaToAlligator.convert(term);
+			fail();
+		} catch (LambdaSyntaxException e) {
+			assertEquals(position, e.getPosition());
+		}
+	}
+
 	@Override
 	public void tearDown() {
 	}